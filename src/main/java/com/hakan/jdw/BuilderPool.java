@@ -0,0 +1,85 @@
+package com.hakan.jdw;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Keeps one builder per thread, so objects built
+ * from builder functions, such as the embeds and
+ * fields of a webhook, do not create a new builder
+ * and new lists each time.
+ * <p>
+ * A builder function may build another object of
+ * the same type while it runs, which then gets a
+ * builder of its own.
+ *
+ * @param <R> The type of object to build.
+ * @param <B> The type of the builder.
+ */
+final class BuilderPool<R, B extends Builder<R>> {
+
+    private final Supplier<B> factory;
+    private final Consumer<B> reset;
+    private final ThreadLocal<Slot<B>> slots;
+
+    /**
+     * Creates a new builder pool.
+     *
+     * @param factory Creates a new builder.
+     * @param reset   Clears a builder after it is used.
+     */
+    BuilderPool(@NotNull Supplier<B> factory,
+                @NotNull Consumer<B> reset) {
+        this.factory = factory;
+        this.reset = reset;
+        this.slots = ThreadLocal.withInitial(() -> new Slot<>(factory.get()));
+    }
+
+    /**
+     * Applies the builder function to the builder
+     * of the current thread and builds the object.
+     * The builder is cleared afterwards, so it does
+     * not keep the object alive.
+     *
+     * @param builderFunction The builder function.
+     * @return The built object.
+     */
+    @NotNull R build(@NotNull UnaryOperator<B> builderFunction) {
+        Slot<B> slot = this.slots.get();
+        if (slot.inUse)
+            return builderFunction.apply(this.factory.get()).build();
+
+        slot.inUse = true;
+        try {
+            return builderFunction.apply(slot.builder).build();
+        } finally {
+            this.reset.accept(slot.builder);
+            slot.inUse = false;
+        }
+    }
+
+
+
+    /**
+     * The builder of a thread.
+     *
+     * @param <B> The type of the builder.
+     */
+    private static final class Slot<B> {
+
+        private final B builder;
+        private boolean inUse;
+
+        /**
+         * Creates a new slot.
+         *
+         * @param builder The builder of the thread.
+         */
+        private Slot(@NotNull B builder) {
+            this.builder = builder;
+        }
+    }
+}
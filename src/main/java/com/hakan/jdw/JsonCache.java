@@ -0,0 +1,447 @@
+package com.hakan.jdw;
+
+import com.hakan.jdw.json.JsonWriter;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.ref.WeakReference;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Caches the serialized JSON of a webhook object,
+ * and a value derived from it, such as its counts.
+ * Setters of the object call {@link #invalidate()},
+ * which also invalidates the caches of every object
+ * it is attached to, up to the webhook. A child only
+ * holds weak references to the objects it is attached
+ * to, so a child shared by many webhooks does not keep
+ * them, or their cached bytes, reachable.
+ * <p>
+ * Only the root of a serialization fills its cache,
+ * which is the webhook when it is sent, or a component
+ * whose JSON bytes are asked for directly. Components
+ * are never cached as a side effect of serializing the
+ * object containing them: their members are written
+ * into its writer directly, unless they were cached
+ * before. Changing one embed of a webhook therefore
+ * serializes all of its embeds again on the next send.
+ * <p>
+ * Each cached value is stamped with the version it
+ * was serialized at, so a value computed while the
+ * object was being changed is never served.
+ * <p>
+ * A frozen cache belongs to an object that can not
+ * be changed anymore. It is never invalidated, so
+ * it is not attached to the objects containing it,
+ * and any number of them can share it.
+ */
+final class JsonCache {
+
+    private final List<WeakReference<JsonCache>> parents;
+    private volatile Entry entry;
+    private volatile Derived derived;
+    private volatile int version;
+    private boolean frozen;
+
+    /**
+     * Creates a new empty json cache.
+     */
+    JsonCache() {
+        this.parents = new ArrayList<>(1);
+    }
+
+    /**
+     * Gets the cached bytes, serializing
+     * them first if the cache is empty.
+     *
+     * @param serializer Writes the object without the cache.
+     * @return The JSON bytes, not to be modified.
+     */
+    @NotNull byte[] get(@NotNull JsonObject serializer) {
+        int version = this.version;
+        Entry entry = this.entry;
+        if (entry != null && entry.version == version)
+            return entry.bytes;
+
+        byte[] bytes = JsonWriter.toBytes(serializer);
+        this.entry = new Entry(bytes, version);
+        return bytes;
+    }
+
+    /**
+     * Writes the object into the writer of the object
+     * containing it. Cached bytes are copied as they
+     * are; otherwise the object is written straight
+     * into the writer, without filling the cache, so
+     * serializing a changed webhook allocates no
+     * buffers or byte arrays for its components.
+     *
+     * @param writer     The writer to write to.
+     * @param serializer Writes the object without the cache.
+     */
+    void write(@NotNull JsonWriter writer,
+               @NotNull JsonObject serializer) {
+        Entry entry = this.entry;
+        if (entry != null && entry.version == this.version)
+            writer.rawValue(entry.bytes);
+        else
+            serializer.writeJson(writer);
+    }
+
+    /**
+     * Gets a value derived from the object, such as
+     * its character counts, computing it first if the
+     * object changed since. An object derives only one
+     * kind of value, with the same supplier each time.
+     *
+     * @param supplier Computes the value from the object.
+     * @param <T>      The type of the value.
+     * @return The value.
+     */
+    @SuppressWarnings("unchecked")
+    <T> T derive(@NotNull Supplier<T> supplier) {
+        int version = this.version;
+        Derived derived = this.derived;
+        if (derived != null && derived.version == version)
+            return (T) derived.value;
+
+        T value = supplier.get();
+        this.derived = new Derived(value, version);
+        return value;
+    }
+
+    /**
+     * Drops the cached bytes of this object
+     * and of all objects it is attached to.
+     */
+    void invalidate() {
+        this.version++;
+        this.entry = null;
+
+        JsonCache[] parents;
+        int count = 0;
+        synchronized (this.parents) {
+            if (this.parents.isEmpty())
+                return;
+
+            parents = new JsonCache[this.parents.size()];
+            for (Iterator<WeakReference<JsonCache>> iterator = this.parents.iterator(); iterator.hasNext(); ) {
+                JsonCache parent = iterator.next().get();
+                if (parent == null)
+                    iterator.remove();
+                else
+                    parents[count++] = parent;
+            }
+        }
+        for (int i = 0; i < count; i++)
+            parents[i].invalidate();
+    }
+
+    /**
+     * Freezes the cache of an object that was
+     * just created and not shared yet.
+     */
+    void freeze() {
+        this.frozen = true;
+    }
+
+    /**
+     * Freezes the cache of a frozen copy that was
+     * just created, keeping the bytes the original
+     * object cached if they are still valid, so the
+     * copy is not serialized again.
+     *
+     * @param original The cache of the original object.
+     */
+    void freeze(@NotNull JsonCache original) {
+        Entry entry = original.entry;
+        if (entry != null && entry.version == original.version)
+            this.entry = new Entry(entry.bytes, this.version);
+        this.frozen = true;
+    }
+
+    /**
+     * Checks if the cache is frozen.
+     *
+     * @return True if the object can not be changed.
+     */
+    boolean isFrozen() {
+        return this.frozen;
+    }
+
+    /**
+     * Checks that the object can be changed.
+     * Called by setters before they change anything.
+     *
+     * @throws UnsupportedOperationException If the cache is frozen.
+     */
+    void checkMutable() {
+        if (this.frozen)
+            throw new UnsupportedOperationException("Frozen objects can not be changed");
+    }
+
+    /**
+     * Attaches the cache of a child object to this
+     * one, so changes to the child invalidate it.
+     * Frozen children are not attached. Parents that
+     * were garbage collected are dropped on the way.
+     *
+     * @param child The cache of the child, or null.
+     */
+    void attach(@Nullable JsonCache child) {
+        if (child == null || child.frozen)
+            return;
+
+        synchronized (child.parents) {
+            child.parents.removeIf(parent -> parent.get() == null);
+            child.parents.add(new WeakReference<>(this));
+        }
+    }
+
+    /**
+     * Detaches the cache of a child object
+     * that was attached before.
+     *
+     * @param child The cache of the child, or null.
+     */
+    void detach(@Nullable JsonCache child) {
+        if (child == null || child.frozen)
+            return;
+
+        synchronized (child.parents) {
+            child.parents.removeIf(parent -> {
+                JsonCache cache = parent.get();
+                return cache == null || cache == this;
+            });
+        }
+    }
+
+    /**
+     * Attaches the caches of every child
+     * object of a list.
+     *
+     * @param children The children, or null.
+     * @param cache    Gets the cache of a child.
+     * @param <T>      The type of the children.
+     */
+    <T> void attachAll(@Nullable List<T> children,
+                       @NotNull Function<T, JsonCache> cache) {
+        if (children == null)
+            return;
+
+        for (T child : children) {
+            if (child != null)
+                this.attach(cache.apply(child));
+        }
+    }
+
+    /**
+     * Detaches the caches of every child
+     * object of a list.
+     *
+     * @param children The children, or null.
+     * @param cache    Gets the cache of a child.
+     * @param <T>      The type of the children.
+     */
+    <T> void detachAll(@Nullable List<T> children,
+                       @NotNull Function<T, JsonCache> cache) {
+        if (children == null)
+            return;
+
+        for (T child : children) {
+            if (child != null)
+                this.detach(cache.apply(child));
+        }
+    }
+
+    /**
+     * Freezes every element of a list into an
+     * unmodifiable list. Null elements stay null.
+     * An unmodifiable list whose elements are all
+     * frozen already is shared instead of copied.
+     *
+     * @param list   The list, or null.
+     * @param freeze Freezes an element.
+     * @param <T>    The type of the elements.
+     * @return The frozen list, or null if the list is null.
+     */
+    static <T> @Nullable List<T> freezeAll(@Nullable List<T> list,
+                                           @NotNull UnaryOperator<T> freeze) {
+        if (list == null)
+            return null;
+
+        boolean shared = list instanceof FixedList;
+        Object[] frozen = null;
+        for (int i = 0, size = list.size(); i < size; i++) {
+            T element = list.get(i);
+            T copy = element != null ? freeze.apply(element) : null;
+            if (frozen == null && (copy != element || !shared)) {
+                frozen = new Object[size];
+                for (int j = 0; j < i; j++)
+                    frozen[j] = list.get(j);
+            }
+            if (frozen != null)
+                frozen[i] = copy;
+        }
+
+        if (frozen == null)
+            return shared ? list : new FixedList<>(new Object[0]);
+        return new FixedList<>(frozen);
+    }
+
+    /**
+     * Copies a collection into an unmodifiable list
+     * backed by an array of exactly its size.
+     *
+     * @param collection The collection to copy.
+     * @param <T>        The type of the elements.
+     * @return The copy.
+     */
+    static <T> @NotNull List<T> copyOf(@NotNull Collection<T> collection) {
+        return new FixedList<>(collection.toArray());
+    }
+
+    /**
+     * Copies a list an object is created or set with
+     * into an unmodifiable one, so later changes of the
+     * caller's list can not bypass the cache. Lists that
+     * are unmodifiable already are shared instead.
+     *
+     * @param list The list, or null.
+     * @param <T>  The type of the elements.
+     * @return The unmodifiable list, or null if the list is null.
+     */
+    static <T> @Nullable List<T> unmodifiable(@Nullable List<T> list) {
+        if (list == null || list instanceof FixedList)
+            return list;
+        return copyOf(list);
+    }
+
+    /**
+     * Gets a read only view of a list an object owns,
+     * so the list can only be changed through the
+     * methods of the object, which drop its cache.
+     *
+     * @param list The list, or null.
+     * @param <T>  The type of the elements.
+     * @return The read only list, or null if the list is null.
+     */
+    static <T> @Nullable List<T> readOnly(@Nullable List<T> list) {
+        if (list == null || list instanceof FixedList)
+            return list;
+        return Collections.unmodifiableList(list);
+    }
+
+    /**
+     * Gets a list that can be changed in place of the
+     * given one, copying it if it is unmodifiable, so
+     * objects can change the lists they were built with.
+     *
+     * @param list The list, or null.
+     * @param <T>  The type of the elements.
+     * @return The list itself, or a modifiable copy.
+     */
+    static <T> @NotNull List<T> modifiable(@Nullable List<T> list) {
+        if (list == null)
+            return new ArrayList<>();
+        if (list instanceof FixedList)
+            return new ArrayList<>(list);
+        return list;
+    }
+
+
+
+    /**
+     * Cached bytes with the version
+     * they were serialized at.
+     */
+    private static final class Entry {
+
+        private final byte[] bytes;
+        private final int version;
+
+        /**
+         * Creates a new entry.
+         *
+         * @param bytes   The JSON bytes.
+         * @param version The version of the object.
+         */
+        private Entry(@NotNull byte[] bytes,
+                      int version) {
+            this.bytes = bytes;
+            this.version = version;
+        }
+    }
+
+
+
+    /**
+     * A derived value with the version
+     * it was computed at.
+     */
+    private static final class Derived {
+
+        private final Object value;
+        private final int version;
+
+        /**
+         * Creates a new derived value.
+         *
+         * @param value   The value.
+         * @param version The version of the object.
+         */
+        private Derived(@Nullable Object value,
+                        int version) {
+            this.value = value;
+            this.version = version;
+        }
+    }
+
+
+
+    /**
+     * An unmodifiable list backed by an
+     * array of exactly its size.
+     *
+     * @param <T> The type of the elements.
+     */
+    private static final class FixedList<T> extends AbstractList<T> implements RandomAccess {
+
+        private final Object[] elements;
+
+        /**
+         * Creates a new fixed list.
+         *
+         * @param elements The elements, owned by the list.
+         */
+        private FixedList(@NotNull Object[] elements) {
+            this.elements = elements;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        @SuppressWarnings("unchecked")
+        public T get(int index) {
+            return (T) this.elements[index];
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int size() {
+            return this.elements.length;
+        }
+    }
+}
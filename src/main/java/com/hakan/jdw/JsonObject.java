@@ -1,8 +1,11 @@
 package com.hakan.jdw;
 
+import com.hakan.jdw.json.JsonWriter;
 import org.jetbrains.annotations.NotNull;
 import org.json.JSONObject;
 
+import java.nio.charset.StandardCharsets;
+
 /**
  * Base interface for all webhook objects
  * that can be converted to JSON.
@@ -15,14 +18,36 @@ public interface JsonObject {
      * @return The JSON string.
      */
     default @NotNull String toJsonString() {
-        return this.toJson().toString();
+        return new String(this.toJsonBytes(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Converts the object to UTF-8 encoded JSON
+     * with {@link #writeJson(JsonWriter)}.
+     *
+     * @return The JSON bytes.
+     */
+    default @NotNull byte[] toJsonBytes() {
+        return JsonWriter.toBytes(this);
     }
 
     /**
-     * Converts the object to a JSON object.
+     * Converts the object to an org.json object.
+     * This is an adapter for code that works with
+     * org.json; the library itself does not need it,
+     * so org.json must be on the classpath to call it.
      *
      * @return The JSON object.
      */
-    @NotNull
-    JSONObject toJson();
+    default @NotNull JSONObject toJson() {
+        return new JSONObject(this.toJsonString());
+    }
+
+    /**
+     * Writes the object to the given writer,
+     * token by token.
+     *
+     * @param writer The writer to write to.
+     */
+    void writeJson(@NotNull JsonWriter writer);
 }
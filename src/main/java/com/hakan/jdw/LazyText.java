@@ -0,0 +1,60 @@
+package com.hakan.jdw;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.function.Supplier;
+
+/**
+ * A text given by a supplier, resolved on first
+ * use and kept afterwards. Texts that are costly
+ * to build, such as stack traces, cost nothing
+ * for messages that are never sent.
+ */
+final class LazyText {
+
+    private Supplier<String> supplier;
+    private String value;
+
+    /**
+     * Creates a new lazy text.
+     *
+     * @param supplier Builds the text.
+     */
+    LazyText(@NotNull Supplier<String> supplier) {
+        this.supplier = supplier;
+    }
+
+    /**
+     * Checks if the given text is resolved.
+     *
+     * @param text The text, or null.
+     * @return True if the text is null or resolved.
+     */
+    static boolean isResolved(@Nullable LazyText text) {
+        return text == null || text.isResolved();
+    }
+
+    /**
+     * Gets the text, building it first
+     * if it is not resolved yet.
+     *
+     * @return The text.
+     */
+    synchronized @Nullable String get() {
+        if (this.supplier != null) {
+            this.value = this.supplier.get();
+            this.supplier = null;
+        }
+        return this.value;
+    }
+
+    /**
+     * Checks if the text is resolved.
+     *
+     * @return True if the supplier was called.
+     */
+    synchronized boolean isResolved() {
+        return this.supplier == null;
+    }
+}
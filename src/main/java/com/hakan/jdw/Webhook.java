@@ -1,14 +1,30 @@
 package com.hakan.jdw;
 
+import com.hakan.jdw.dispatch.WebhookDispatcher;
+import com.hakan.jdw.http.WebhookBody;
+import com.hakan.jdw.http.WebhookResponse;
+import com.hakan.jdw.http.WebhookTransport;
+import com.hakan.jdw.json.JsonException;
+import com.hakan.jdw.json.JsonReader;
+import com.hakan.jdw.json.JsonWriter;
+import com.hakan.jdw.utils.LimitUtils;
+import com.hakan.jdw.utils.SplitUtils;
 import com.hakan.jdw.utils.WebhookUtils;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
-import org.json.JSONObject;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 import java.util.function.UnaryOperator;
 
+import static com.hakan.jdw.utils.LimitUtils.MAX_ATTACHMENTS;
+import static com.hakan.jdw.utils.LimitUtils.MAX_CONTENT;
+import static com.hakan.jdw.utils.LimitUtils.MAX_EMBEDS;
+import static com.hakan.jdw.utils.LimitUtils.MAX_EMBED_TOTAL;
+import static com.hakan.jdw.utils.LimitUtils.length;
+
 /**
  * Represents a discord webhook.
  * You can send a webhook to a specific
@@ -17,10 +33,13 @@
 public class Webhook implements JsonObject {
 
     private String content;
+    private LazyText lazyContent;
     private String username;
     private String avatarUrl;
     private String threadName;
     private List<WebhookEmbed> embeds;
+    private List<WebhookAttachment> attachments;
+    final JsonCache cache = new JsonCache();
 
     /**
      * Creates a new webhook.
@@ -36,11 +55,34 @@ public Webhook(@Nullable String content,
                    @Nullable String avatarUrl,
                    @Nullable String threadName,
                    @Nullable List<WebhookEmbed> embeds) {
-        this.embeds = embeds;
+        this(content, username, avatarUrl, threadName, embeds, null);
+    }
+
+    /**
+     * Creates a new webhook with attachments.
+     *
+     * @param content     The content of the webhook.
+     * @param username    The username of the webhook.
+     * @param avatarUrl   The avatar url of the webhook.
+     * @param threadName  The thread of the webhook.
+     * @param embeds      The embeds of the webhook.
+     * @param attachments The attachments of the webhook.
+     */
+    public Webhook(@Nullable String content,
+                   @Nullable String username,
+                   @Nullable String avatarUrl,
+                   @Nullable String threadName,
+                   @Nullable List<WebhookEmbed> embeds,
+                   @Nullable List<WebhookAttachment> attachments) {
+        this.embeds = JsonCache.unmodifiable(embeds);
         this.content = content;
         this.username = username;
         this.avatarUrl = avatarUrl;
         this.threadName = threadName;
+        this.attachments = JsonCache.unmodifiable(attachments);
+
+        this.cache.attachAll(this.embeds, embed -> embed.cache);
+        this.cache.attachAll(this.attachments, attachment -> attachment.cache);
     }
 
     /**
@@ -49,7 +91,7 @@ public Webhook(@Nullable String content,
      * @return The content of the webhook.
      */
     public @Nullable String getContent() {
-        return this.content;
+        return this.lazyContent != null ? this.lazyContent.get() : this.content;
     }
 
     /**
@@ -81,11 +123,35 @@ public Webhook(@Nullable String content,
 
     /**
      * Gets the embeds of the webhook.
+     * The list can not be changed; use the
+     * methods of the webhook instead, so that
+     * its cached JSON is dropped.
      *
      * @return The embeds of the webhook.
      */
     public @Nullable List<WebhookEmbed> getEmbeds() {
-        return this.embeds;
+        return JsonCache.readOnly(this.embeds);
+    }
+
+    /**
+     * Gets the attachments of the webhook.
+     * The list can not be changed; use the
+     * methods of the webhook instead, so that
+     * its cached JSON is dropped.
+     *
+     * @return The attachments of the webhook.
+     */
+    public @Nullable List<WebhookAttachment> getAttachments() {
+        return JsonCache.readOnly(this.attachments);
+    }
+
+    /**
+     * Checks if the webhook has attachments.
+     *
+     * @return True if the webhook has attachments.
+     */
+    public boolean hasAttachments() {
+        return this.attachments != null && !this.attachments.isEmpty();
     }
 
     /**
@@ -95,7 +161,10 @@ public Webhook(@Nullable String content,
      * @return The current instance in order to chain call methods.
      */
     public @NotNull Webhook setContent(@Nullable String... content) {
+        this.cache.checkMutable();
         this.content = String.join("\n", content);
+        this.lazyContent = null;
+        this.cache.invalidate();
         return this;
     }
 
@@ -106,7 +175,10 @@ public Webhook(@Nullable String content,
      * @return The current instance in order to chain call methods.
      */
     public @NotNull Webhook setContent(@NotNull List<String> content) {
+        this.cache.checkMutable();
         this.content = String.join("\n", content);
+        this.lazyContent = null;
+        this.cache.invalidate();
         return this;
     }
 
@@ -117,7 +189,9 @@ public Webhook(@Nullable String content,
      * @return The current instance in order to chain call methods.
      */
     public @NotNull Webhook setUsername(@Nullable String username) {
+        this.cache.checkMutable();
         this.username = username;
+        this.cache.invalidate();
         return this;
     }
 
@@ -128,7 +202,9 @@ public Webhook(@Nullable String content,
      * @return The current instance in order to chain call methods.
      */
     public @NotNull Webhook setAvatarUrl(@Nullable String avatarUrl) {
+        this.cache.checkMutable();
         this.avatarUrl = avatarUrl;
+        this.cache.invalidate();
         return this;
     }
 
@@ -139,7 +215,9 @@ public Webhook(@Nullable String content,
      * @return The current instance in order to chain call methods.
      */
     public @NotNull Webhook setThreadName(@Nullable String threadName) {
+        this.cache.checkMutable();
         this.threadName = threadName;
+        this.cache.invalidate();
         return this;
     }
 
@@ -150,7 +228,12 @@ public Webhook(@Nullable String content,
      * @return The current instance in order to chain call methods.
      */
     public @NotNull Webhook setEmbeds(@Nullable List<WebhookEmbed> embeds) {
-        this.embeds = embeds;
+        this.cache.checkMutable();
+        this.cache.detachAll(this.embeds, embed -> embed.cache);
+        this.embeds = JsonCache.unmodifiable(embeds);
+        this.cache.attachAll(this.embeds, embed -> embed.cache);
+
+        this.cache.invalidate();
         return this;
     }
 
@@ -161,7 +244,13 @@ public Webhook(@Nullable String content,
      * @return The current instance in order to chain call methods.
      */
     public @NotNull Webhook addEmbed(@Nullable WebhookEmbed embed) {
+        this.cache.checkMutable();
+        if (embed != null)
+            this.cache.attach(embed.cache);
+
+        this.embeds = JsonCache.modifiable(this.embeds);
         this.embeds.add(embed);
+        this.cache.invalidate();
         return this;
     }
 
@@ -172,7 +261,11 @@ public Webhook(@Nullable String content,
      * @return The current instance in order to chain call methods.
      */
     public @NotNull Webhook removeEmbed(@Nullable WebhookEmbed embed) {
-        this.embeds.remove(embed);
+        this.cache.checkMutable();
+        this.embeds = JsonCache.modifiable(this.embeds);
+        if (this.embeds.remove(embed) && embed != null)
+            this.cache.detach(embed.cache);
+        this.cache.invalidate();
         return this;
     }
 
@@ -183,7 +276,12 @@ public Webhook(@Nullable String content,
      * @return The current instance in order to chain call methods.
      */
     public @NotNull Webhook removeEmbed(int index) {
-        this.embeds.remove(index);
+        this.cache.checkMutable();
+        this.embeds = JsonCache.modifiable(this.embeds);
+        WebhookEmbed embed = this.embeds.remove(index);
+        if (embed != null)
+            this.cache.detach(embed.cache);
+        this.cache.invalidate();
         return this;
     }
 
@@ -193,29 +291,340 @@ public Webhook(@Nullable String content,
      * @return The current instance in order to chain call methods.
      */
     public @NotNull Webhook clearEmbeds() {
+        this.cache.checkMutable();
+        this.cache.detachAll(this.embeds, embed -> embed.cache);
+        this.embeds = JsonCache.modifiable(this.embeds);
         this.embeds.clear();
+        this.cache.invalidate();
         return this;
     }
 
+    /**
+     * Sets the attachments of the webhook.
+     *
+     * @param attachments The attachments of the webhook.
+     * @return The current instance in order to chain call methods.
+     */
+    public @NotNull Webhook setAttachments(@Nullable List<WebhookAttachment> attachments) {
+        this.cache.checkMutable();
+        this.cache.detachAll(this.attachments, attachment -> attachment.cache);
+        this.attachments = JsonCache.unmodifiable(attachments);
+        this.cache.attachAll(this.attachments, attachment -> attachment.cache);
+
+        this.cache.invalidate();
+        return this;
+    }
+
+    /**
+     * Adds an attachment to the webhook.
+     *
+     * @param attachment The attachment to add.
+     * @return The current instance in order to chain call methods.
+     */
+    public @NotNull Webhook addAttachment(@NotNull WebhookAttachment attachment) {
+        this.cache.checkMutable();
+        this.attachments = JsonCache.modifiable(this.attachments);
+        this.attachments.add(attachment);
+        this.cache.attach(attachment.cache);
+        this.cache.invalidate();
+        return this;
+    }
+
+    /**
+     * Checks the webhook and its embeds against the
+     * limits of discord. The result is kept until the
+     * webhook or one of its embeds changes, and the
+     * counts of unchanged embeds are reused.
+     *
+     * @return The first limit the webhook exceeds, or null if it fits.
+     */
+    public @Nullable String checkLimits() {
+        return this.cache.derive(this::countLimits);
+    }
+
+    /**
+     * Checks that the webhook fits the limits of discord.
+     *
+     * @return The current instance in order to chain call methods.
+     * @throws IllegalStateException If the webhook exceeds a limit.
+     */
+    public @NotNull Webhook validate() {
+        String violation = this.checkLimits();
+        if (violation != null)
+            throw new IllegalStateException(violation);
+        return this;
+    }
+
+    /**
+     * Cuts the webhook to fit the limits of discord,
+     * see {@link LimitUtils#truncate(Webhook)}.
+     *
+     * @return The webhook itself if it fits, otherwise a frozen copy that fits.
+     */
+    public @NotNull Webhook truncate() {
+        return LimitUtils.truncate(this);
+    }
+
+    /**
+     * Checks if the lazy texts of the webhook and
+     * its embeds were resolved, see
+     * {@link Builder#content(Supplier)}.
+     *
+     * @return True if no text is left to resolve.
+     */
+    public boolean isResolved() {
+        if (!LazyText.isResolved(this.lazyContent))
+            return false;
+        if (this.embeds != null) {
+            for (WebhookEmbed embed : this.embeds) {
+                if (embed != null && !embed.isResolved())
+                    return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks if the webhook is frozen. Frozen
+     * webhooks, their embeds and attachments
+     * can not be changed.
+     *
+     * @return True if the webhook is frozen.
+     */
+    public boolean isFrozen() {
+        return this.cache.isFrozen();
+    }
+
+    /**
+     * Gets a frozen copy of the webhook, or the
+     * webhook itself if it is already frozen.
+     * Embeds and attachments that are frozen
+     * already are shared instead of copied, and
+     * the JSON the webhook cached is kept.
+     * <p>
+     * Frozen webhooks can be sent from any number
+     * of threads, and are serialized only once.
+     *
+     * @return The frozen webhook.
+     */
+    public @NotNull Webhook freeze() {
+        if (this.cache.isFrozen())
+            return this;
+
+        Webhook webhook = new Webhook(
+                this.content,
+                this.username,
+                this.avatarUrl,
+                this.threadName,
+                JsonCache.freezeAll(this.embeds, WebhookEmbed::freeze),
+                JsonCache.freezeAll(this.attachments, WebhookAttachment::freeze)
+        );
+        webhook.lazyContent = this.lazyContent;
+        webhook.cache.freeze(this.cache);
+        return webhook;
+    }
+
+    /**
+     * Gets a frozen copy of the webhook with the given
+     * content, sharing everything else with it.
+     *
+     * @param content The content of the webhook.
+     * @return The frozen copy.
+     */
+    public @NotNull Webhook withContent(@Nullable String content) {
+        Webhook webhook = this.freeze().copy();
+        webhook.content = content;
+        webhook.lazyContent = null;
+        return webhook;
+    }
+
+    /**
+     * Gets a frozen copy of the webhook with the given
+     * username, sharing everything else with it.
+     *
+     * @param username The username of the webhook.
+     * @return The frozen copy.
+     */
+    public @NotNull Webhook withUsername(@Nullable String username) {
+        Webhook webhook = this.freeze().copy();
+        webhook.username = username;
+        return webhook;
+    }
+
+    /**
+     * Gets a frozen copy of the webhook with the given
+     * avatar url, sharing everything else with it.
+     *
+     * @param avatarUrl The avatar url of the webhook.
+     * @return The frozen copy.
+     */
+    public @NotNull Webhook withAvatarUrl(@Nullable String avatarUrl) {
+        Webhook webhook = this.freeze().copy();
+        webhook.avatarUrl = avatarUrl;
+        return webhook;
+    }
+
+    /**
+     * Gets a frozen copy of the webhook with the given
+     * thread, sharing everything else with it.
+     *
+     * @param threadName The thread of the webhook.
+     * @return The frozen copy.
+     */
+    public @NotNull Webhook withThreadName(@Nullable String threadName) {
+        Webhook webhook = this.freeze().copy();
+        webhook.threadName = threadName;
+        return webhook;
+    }
+
+    /**
+     * Gets a frozen copy of the webhook with the given
+     * embeds, sharing everything else with it.
+     *
+     * @param embeds The embeds of the webhook.
+     * @return The frozen copy.
+     */
+    public @NotNull Webhook withEmbeds(@Nullable List<WebhookEmbed> embeds) {
+        Webhook webhook = this.freeze().copy();
+        webhook.embeds = JsonCache.freezeAll(embeds, WebhookEmbed::freeze);
+        return webhook;
+    }
+
+    /**
+     * Gets a frozen copy of the webhook with the
+     * given embed added, sharing everything else
+     * with it.
+     *
+     * @param embed The embed to add.
+     * @return The frozen copy.
+     */
+    public @NotNull Webhook withEmbed(@NotNull WebhookEmbed embed) {
+        Webhook webhook = this.freeze().copy();
+        List<WebhookEmbed> embeds = JsonCache.modifiable(webhook.embeds);
+        embeds.add(embed.freeze());
+        webhook.embeds = JsonCache.copyOf(embeds);
+        return webhook;
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
-    public @NotNull JSONObject toJson() {
-        JSONObject json = new JSONObject();
+    public @NotNull byte[] toJsonBytes() {
+        return this.cache.get(this::writeMembers).clone();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void writeJson(@NotNull JsonWriter writer) {
+        this.cache.write(writer, this::writeMembers);
+    }
+
+    /**
+     * Checks the limits of the webhook, bypassing
+     * its cache but not the ones of its embeds.
+     *
+     * @return The first limit the webhook exceeds, or null if it fits.
+     */
+    private @Nullable String countLimits() {
+        if (length(this.getContent()) > MAX_CONTENT)
+            return "Content exceeds " + MAX_CONTENT + " characters";
+        if (this.attachments != null && this.attachments.size() > MAX_ATTACHMENTS)
+            return "Webhook has more than " + MAX_ATTACHMENTS + " attachments";
+        if (this.embeds == null)
+            return null;
+        if (this.embeds.size() > MAX_EMBEDS)
+            return "Webhook has more than " + MAX_EMBEDS + " embeds";
+
+        int length = 0;
+        for (WebhookEmbed embed : this.embeds) {
+            if (embed == null)
+                continue;
+
+            String violation = embed.checkLimits();
+            if (violation != null)
+                return violation;
+            length += embed.getLength();
+        }
+
+        if (length > MAX_EMBED_TOTAL)
+            return "Embeds exceed " + MAX_EMBED_TOTAL + " characters combined";
+        return null;
+    }
 
-        if (this.content != null)
-            json.put("content", this.content);
+    /**
+     * Copies a frozen webhook, sharing its embeds
+     * and attachments. The copy is frozen too, but
+     * not shared yet, so the with methods can still
+     * set its fields.
+     *
+     * @return The copy.
+     */
+    private @NotNull Webhook copy() {
+        Webhook webhook = new Webhook(this.content, this.username, this.avatarUrl,
+                this.threadName, this.embeds, this.attachments);
+        webhook.lazyContent = this.lazyContent;
+        webhook.cache.freeze();
+        return webhook;
+    }
+
+    /**
+     * Serializes the webhook, bypassing the cache.
+     *
+     * @param writer The writer to write to.
+     */
+    private void writeMembers(@NotNull JsonWriter writer) {
+        String content = this.getContent();
+        writer.beginObject();
+        if (content != null)
+            writer.name("content").value(content);
         if (this.username != null)
-            json.put("username", this.username);
+            writer.name("username").value(this.username);
         if (this.avatarUrl != null)
-            json.put("avatar_url", this.avatarUrl);
+            writer.name("avatar_url").value(this.avatarUrl);
         if (this.threadName != null)
-            json.put("thread_name", this.threadName);
-        if (this.embeds != null)
-            this.embeds.forEach(embed -> json.append("embeds", embed.toJson()));
+            writer.name("thread_name").value(this.threadName);
+        if (this.embeds != null && !this.embeds.isEmpty()) {
+            writer.name("embeds").beginArray();
+            this.embeds.forEach(writer::value);
+            writer.endArray();
+        }
+        if (this.attachments != null && !this.attachments.isEmpty()) {
+            writer.name("attachments").beginArray();
+            for (int i = 0; i < this.attachments.size(); i++)
+                this.attachments.get(i).writeJson(writer, i);
+            writer.endArray();
+        }
+        writer.endObject();
+    }
+
+    /**
+     * Creates the request body of the webhook: json,
+     * or multipart/form-data if it has attachments.
+     * The json is written straight to UTF-8 bytes,
+     * so the body has a fixed content length, and
+     * is reused until the webhook changes.
+     *
+     * @return The request body.
+     */
+    public @NotNull WebhookBody toBody() {
+        byte[] json = this.cache.get(this::writeMembers);
+        if (this.hasAttachments())
+            return WebhookBody.multipart(json, this.cache.isFrozen() ? this.attachments : new ArrayList<>(this.attachments));
+        return WebhookBody.json(json);
+    }
 
-        return json;
+    /**
+     * Splits the webhook into messages that fit
+     * the limits of discord, in reading order.
+     * See {@link SplitUtils#split(Webhook)}.
+     *
+     * @return The messages, only this webhook if it already fits.
+     */
+    public @NotNull List<Webhook> split() {
+        return SplitUtils.split(this);
     }
 
     /**
@@ -230,14 +639,133 @@ public void execute(@NotNull String url) {
     }
 
     /**
-     * Executes the webhook.
-     * This method will send the webhook to the
-     * channel that you set.
+     * Executes the webhook through the given transport,
+     * for example a pooled {@link com.hakan.jdw.http.WebhookClient}.
+     *
+     * @param transport The transport to send the webhook with.
+     * @param url       The url of the webhook.
+     * @return The response discord returned.
+     */
+    public @NotNull WebhookResponse execute(@NotNull WebhookTransport transport,
+                                            @NotNull String url) {
+        return WebhookUtils.execute(transport, url, this);
+    }
+
+    /**
+     * Executes the webhook asynchronously on the
+     * default {@link WebhookDispatcher}.
      *
      * @param url The url of the webhook.
+     * @return The future of the response.
+     */
+    public @NotNull CompletableFuture<WebhookResponse> executeAsync(@NotNull String url) {
+        return WebhookDispatcher.getDefault().submit(url, this);
+    }
+
+    /**
+     * Executes the webhook asynchronously through the
+     * given transport on the default {@link WebhookDispatcher}.
+     *
+     * @param transport The transport to send the webhook with.
+     * @param url       The url of the webhook.
+     * @return The future of the response.
+     */
+    public @NotNull CompletableFuture<WebhookResponse> executeAsync(@NotNull WebhookTransport transport,
+                                                                    @NotNull String url) {
+        return WebhookDispatcher.getDefault().submit(transport, url, this);
+    }
+
+    /**
+     * Executes the webhook asynchronously
+     * on the given dispatcher.
+     *
+     * @param dispatcher The dispatcher to send the webhook with.
+     * @param url        The url of the webhook.
+     * @return The future of the response.
+     */
+    public @NotNull CompletableFuture<WebhookResponse> executeAsync(@NotNull WebhookDispatcher dispatcher,
+                                                                    @NotNull String url) {
+        return dispatcher.submit(url, this);
+    }
+
+    /**
+     * Reads a webhook from its JSON text.
+     *
+     * @param json The JSON text.
+     * @return The webhook.
+     * @throws JsonException If the JSON is malformed.
+     * @see #readJson(JsonReader)
+     */
+    public static @NotNull Webhook fromJson(@NotNull String json) {
+        JsonReader reader = new JsonReader(json);
+        Webhook webhook = readJson(reader);
+        reader.endDocument();
+        return webhook;
+    }
+
+    /**
+     * Reads a webhook from its UTF-8 encoded JSON.
+     *
+     * @param json The JSON bytes.
+     * @return The webhook.
+     * @throws JsonException If the JSON is malformed.
+     * @see #readJson(JsonReader)
      */
-    public void executeAsync(@NotNull String url) {
-        new Thread(() -> this.execute(url)).start();
+    public static @NotNull Webhook fromJson(@NotNull byte[] json) {
+        JsonReader reader = new JsonReader(json);
+        Webhook webhook = readJson(reader);
+        reader.endDocument();
+        return webhook;
+    }
+
+    /**
+     * Reads a webhook from the given reader, straight
+     * into the model without an intermediate map.
+     * Unknown members are skipped. Attachments are
+     * not read, since their content is not part of
+     * the JSON.
+     *
+     * @param reader The reader to read from.
+     * @return The webhook.
+     * @throws JsonException If the JSON is malformed.
+     */
+    public static @NotNull Webhook readJson(@NotNull JsonReader reader) {
+        Webhook webhook = new Webhook(null, null, null, null, new ArrayList<>());
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (reader.nextIfNull())
+                continue;
+
+            switch (name) {
+                case "content":
+                    webhook.content = reader.nextString();
+                    break;
+                case "username":
+                    webhook.username = reader.nextString();
+                    break;
+                case "avatar_url":
+                    webhook.avatarUrl = reader.nextString();
+                    break;
+                case "thread_name":
+                    webhook.threadName = reader.nextString();
+                    break;
+                case "embeds":
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        if (!reader.nextIfNull())
+                            webhook.addEmbed(WebhookEmbed.readJson(reader));
+                    }
+                    reader.endArray();
+                    break;
+                default:
+                    reader.skipValue();
+                    break;
+            }
+        }
+        reader.endObject();
+        return webhook;
     }
 
 
@@ -247,11 +775,34 @@ public void executeAsync(@NotNull String url) {
      */
     public static class Builder implements com.hakan.jdw.Builder<Webhook> {
 
+        /**
+         * Builders of {@link #pooled(UnaryOperator)}.
+         */
+        private static final BuilderPool<Webhook, Builder> POOL = new BuilderPool<>(Builder::new, Builder::reset);
+
+        /**
+         * Builds a webhook with a builder that is kept
+         * per thread and cleared after the webhook is
+         * built, so hot loops do not create a builder
+         * for every webhook. The builder must not be
+         * used after the function returns.
+         *
+         * @param builderFunction The builder function.
+         * @return The built webhook.
+         */
+        public static @NotNull Webhook pooled(@NotNull UnaryOperator<Builder> builderFunction) {
+            return POOL.build(builderFunction);
+        }
+
+
+
         private String content;
+        private LazyText lazyContent;
         private String username;
         private String avatarUrl;
         private String threadName;
-        private List<WebhookEmbed> embeds = new ArrayList<>();
+        private final List<WebhookEmbed> embeds = new ArrayList<>();
+        private final List<WebhookAttachment> attachments = new ArrayList<>();
 
         /**
          * Sets the content of the webhook.
@@ -261,6 +812,7 @@ public static class Builder implements com.hakan.jdw.Builder<Webhook> {
          */
         public @NotNull Builder content(@NotNull String... content) {
             this.content = String.join("\n", content);
+            this.lazyContent = null;
             return this;
         }
 
@@ -272,6 +824,21 @@ public static class Builder implements com.hakan.jdw.Builder<Webhook> {
          */
         public @NotNull Builder content(@NotNull List<String> content) {
             this.content = String.join("\n", content);
+            this.lazyContent = null;
+            return this;
+        }
+
+        /**
+         * Sets the content of the webhook to a text
+         * that is built when it is first needed,
+         * usually when the webhook is sent.
+         *
+         * @param content Builds the content of the webhook.
+         * @return The current instance in order to chain call methods.
+         */
+        public @NotNull Builder content(@NotNull Supplier<String> content) {
+            this.content = null;
+            this.lazyContent = new LazyText(content);
             return this;
         }
 
@@ -315,7 +882,8 @@ public static class Builder implements com.hakan.jdw.Builder<Webhook> {
          * @return The current instance in order to chain call methods.
          */
         public @NotNull Builder embeds(@NotNull List<WebhookEmbed> embeds) {
-            this.embeds = embeds;
+            this.embeds.clear();
+            this.embeds.addAll(embeds);
             return this;
         }
 
@@ -331,28 +899,74 @@ public static class Builder implements com.hakan.jdw.Builder<Webhook> {
         }
 
         /**
-         * Creates a new embed builder and
-         * applies the builder function.
+         * Applies the builder function to an
+         * embed builder that is kept per thread.
          *
          * @param builderFunction The builder function.
          * @return The current instance in order to chain call methods.
          */
         public @NotNull Builder embed(@NotNull UnaryOperator<WebhookEmbed.Builder> builderFunction) {
-            return this.embed(builderFunction.apply(new WebhookEmbed.Builder()).build());
+            return this.embed(WebhookEmbed.Builder.POOL.build(builderFunction));
+        }
+
+        /**
+         * Adds an attachment to the webhook.
+         *
+         * @param attachment The attachment to add.
+         * @return The current instance in order to chain call methods.
+         */
+        public @NotNull Builder attachment(@NotNull WebhookAttachment attachment) {
+            this.attachments.add(attachment);
+            return this;
+        }
+
+        /**
+         * Creates a new attachment builder and
+         * applies the builder function.
+         *
+         * @param builderFunction The builder function.
+         * @return The current instance in order to chain call methods.
+         */
+        public @NotNull Builder attachment(@NotNull UnaryOperator<WebhookAttachment.Builder> builderFunction) {
+            return this.attachment(builderFunction.apply(new WebhookAttachment.Builder()).build());
+        }
+
+        /**
+         * Clears the builder, keeping the capacity
+         * of its lists, so it can build another webhook.
+         *
+         * @return The current instance in order to chain call methods.
+         */
+        public @NotNull Builder reset() {
+            this.content = null;
+            this.lazyContent = null;
+            this.username = null;
+            this.avatarUrl = null;
+            this.threadName = null;
+            this.embeds.clear();
+            this.attachments.clear();
+            return this;
         }
 
         /**
          * {@inheritDoc}
+         * The lists are copied into unmodifiable
+         * lists of exactly their size, so the builder
+         * can be reset and used again. Changing them
+         * through the webhook copies them once more.
          */
         @Override
         public @NotNull Webhook build() {
-            return new Webhook(
+            Webhook webhook = new Webhook(
                     this.content,
                     this.username,
                     this.avatarUrl,
                     this.threadName,
-                    this.embeds
+                    JsonCache.copyOf(this.embeds),
+                    JsonCache.copyOf(this.attachments)
             );
+            webhook.lazyContent = this.lazyContent;
+            return webhook;
         }
     }
 }
@@ -0,0 +1,488 @@
+package com.hakan.jdw;
+
+import com.hakan.jdw.json.JsonWriter;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URLConnection;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Represents a file attached to a webhook.
+ * The content is streamed into the request
+ * when the webhook is sent, so large files
+ * are never held in memory.
+ * <p>
+ * Embeds can show an attached image with
+ * the url of {@link #getUrl()}.
+ */
+public class WebhookAttachment implements JsonObject {
+
+    private final String filename;
+    private final String contentType;
+    private final long length;
+    private final boolean repeatable;
+    private final Content content;
+    private String description;
+    final JsonCache cache = new JsonCache();
+
+    /**
+     * Creates a new webhook attachment.
+     *
+     * @param filename    The file name of the attachment.
+     * @param description The description of the attachment.
+     * @param contentType The content type of the attachment.
+     * @param length      The length in bytes, or -1 if unknown.
+     * @param repeatable  True if the content can be written more than once.
+     * @param content     Writes the content of the attachment.
+     */
+    public WebhookAttachment(@NotNull String filename,
+                             @Nullable String description,
+                             @NotNull String contentType,
+                             long length,
+                             boolean repeatable,
+                             @NotNull Content content) {
+        this.filename = filename;
+        this.description = description;
+        this.contentType = contentType;
+        this.length = length;
+        this.repeatable = repeatable;
+        this.content = content;
+    }
+
+    /**
+     * Gets the file name of the attachment.
+     *
+     * @return The file name of the attachment.
+     */
+    public @NotNull String getFilename() {
+        return this.filename;
+    }
+
+    /**
+     * Gets the description of the attachment.
+     *
+     * @return The description of the attachment.
+     */
+    public @Nullable String getDescription() {
+        return this.description;
+    }
+
+    /**
+     * Gets the content type of the attachment.
+     *
+     * @return The content type of the attachment.
+     */
+    public @NotNull String getContentType() {
+        return this.contentType;
+    }
+
+    /**
+     * Gets the length of the attachment in bytes.
+     *
+     * @return The length, or -1 if unknown.
+     */
+    public long getLength() {
+        return this.length;
+    }
+
+    /**
+     * Checks if the content of the attachment can be
+     * written more than once, which is required to
+     * retry a webhook.
+     *
+     * @return True if the attachment is repeatable.
+     */
+    public boolean isRepeatable() {
+        return this.repeatable;
+    }
+
+    /**
+     * Gets the url embeds use to refer
+     * to the attachment.
+     *
+     * @return The url of the attachment.
+     */
+    public @NotNull String getUrl() {
+        return "attachment://" + this.filename;
+    }
+
+    /**
+     * Sets the description of the attachment.
+     *
+     * @param description The description of the attachment.
+     * @return The current instance in order to chain call methods.
+     */
+    public @NotNull WebhookAttachment setDescription(@Nullable String description) {
+        this.cache.checkMutable();
+        this.description = description;
+        this.cache.invalidate();
+        return this;
+    }
+
+    /**
+     * Checks if the attachment is frozen.
+     * Frozen attachments can not be changed.
+     *
+     * @return True if the attachment is frozen.
+     */
+    public boolean isFrozen() {
+        return this.cache.isFrozen();
+    }
+
+    /**
+     * Gets a frozen copy of the attachment, or the
+     * attachment itself if it is already frozen.
+     * The copy shares the content of the attachment.
+     *
+     * @return The frozen attachment.
+     */
+    public @NotNull WebhookAttachment freeze() {
+        if (this.cache.isFrozen())
+            return this;
+
+        WebhookAttachment attachment = new WebhookAttachment(this.filename, this.description,
+                this.contentType, this.length, this.repeatable, this.content);
+        attachment.cache.freeze();
+        return attachment;
+    }
+
+    /**
+     * Writes the content of the attachment.
+     *
+     * @param output The output to write to.
+     * @throws IOException If an I/O error occurs.
+     */
+    public void writeTo(@NotNull OutputStream output) throws IOException {
+        this.content.writeTo(output);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void writeJson(@NotNull JsonWriter writer) {
+        writer.beginObject();
+        this.writeMembers(writer);
+        writer.endObject();
+    }
+
+    /**
+     * Writes the attachment with the index of
+     * its file part, as the webhook refers to it.
+     *
+     * @param writer The writer to write to.
+     * @param id     The index of the attachment.
+     */
+    void writeJson(@NotNull JsonWriter writer,
+                   int id) {
+        writer.beginObject();
+        writer.name("id").value(id);
+        this.writeMembers(writer);
+        writer.endObject();
+    }
+
+    /**
+     * Writes the members of the attachment.
+     *
+     * @param writer The writer to write to.
+     */
+    private void writeMembers(@NotNull JsonWriter writer) {
+        writer.name("filename").value(this.filename);
+        if (this.description != null)
+            writer.name("description").value(this.description);
+    }
+
+    /**
+     * Transfers a region of a file channel to the output
+     * without changing the position of the channel.
+     *
+     * @param channel  The channel to read.
+     * @param position The position to start at.
+     * @param count    The bytes to transfer.
+     * @param output   The output to write to.
+     * @throws IOException If an I/O error occurs.
+     */
+    private static void transfer(@NotNull FileChannel channel,
+                                 long position,
+                                 long count,
+                                 @NotNull OutputStream output) throws IOException {
+        WritableByteChannel target = Channels.newChannel(output);
+        while (count > 0) {
+            long transferred = channel.transferTo(position, count, target);
+            if (transferred <= 0)
+                throw new IOException("File ended before its length");
+
+            position += transferred;
+            count -= transferred;
+        }
+    }
+
+
+
+    /**
+     * Writes the content of an attachment.
+     */
+    @FunctionalInterface
+    public interface Content {
+
+        /**
+         * Writes the content to the given output.
+         *
+         * @param output The output to write to.
+         * @throws IOException If an I/O error occurs.
+         */
+        void writeTo(@NotNull OutputStream output) throws IOException;
+    }
+
+
+
+    /**
+     * Reads a stream that must have exactly the given
+     * number of bytes, failing as soon as it turns out
+     * to be longer or shorter.
+     */
+    private static final class LengthCheckedInputStream extends FilterInputStream {
+
+        private final long length;
+        private long total;
+
+        /**
+         * Creates a new length checked stream.
+         *
+         * @param input  The stream to read.
+         * @param length The number of bytes the stream must have.
+         */
+        private LengthCheckedInputStream(@NotNull InputStream input,
+                                         long length) {
+            super(input);
+            this.length = length;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int read() throws IOException {
+            int b = this.in.read();
+            this.count(b == -1 ? -1 : 1);
+            return b;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int read(@NotNull byte[] bytes, int offset, int length) throws IOException {
+            int read = this.in.read(bytes, offset, length);
+            this.count(read);
+            return read;
+        }
+
+        /**
+         * Counts the bytes of a read and checks
+         * them against the length.
+         *
+         * @param read The bytes read, or -1 at the end of the stream.
+         * @throws IOException If the stream is longer or shorter than its length.
+         */
+        private void count(int read) throws IOException {
+            if (read == -1) {
+                if (this.total < this.length)
+                    throw new IOException("Stream ended after " + this.total + " of " + this.length + " bytes");
+                return;
+            }
+
+            this.total += read;
+            if (this.total > this.length)
+                throw new IOException("Stream is longer than " + this.length + " bytes");
+        }
+    }
+
+
+
+    /**
+     * {@inheritDoc}
+     */
+    public static class Builder implements com.hakan.jdw.Builder<WebhookAttachment> {
+
+        private String filename;
+        private String description;
+        private String contentType;
+        private long length = -1;
+        private boolean repeatable = true;
+        private Content content;
+
+        /**
+         * Sets the file name of the attachment.
+         *
+         * @param filename The file name of the attachment.
+         * @return The current instance in order to chain call methods.
+         */
+        public @NotNull Builder filename(@NotNull String filename) {
+            this.filename = filename;
+            return this;
+        }
+
+        /**
+         * Sets the description of the attachment.
+         *
+         * @param description The description of the attachment.
+         * @return The current instance in order to chain call methods.
+         */
+        public @NotNull Builder description(@NotNull String description) {
+            this.description = description;
+            return this;
+        }
+
+        /**
+         * Sets the content type of the attachment. By
+         * default, it is guessed from the file name.
+         *
+         * @param contentType The content type of the attachment.
+         * @return The current instance in order to chain call methods.
+         */
+        public @NotNull Builder contentType(@NotNull String contentType) {
+            this.contentType = contentType;
+            return this;
+        }
+
+        /**
+         * Sets the content of the attachment to the given
+         * file. The file name defaults to the name of the
+         * file, if none is set.
+         *
+         * @param path The file to attach.
+         * @return The current instance in order to chain call methods.
+         */
+        public @NotNull Builder path(@NotNull Path path) {
+            try {
+                this.length = Files.size(path);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            long length = this.length;
+            if (this.filename == null)
+                this.filename = path.getFileName().toString();
+            this.repeatable = true;
+            this.content = output -> {
+                try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                    transfer(channel, 0, length, output);
+                }
+            };
+            return this;
+        }
+
+        /**
+         * Sets the content of the attachment to the remaining
+         * bytes of the given channel, from its current position.
+         * The channel is not closed and its position is not
+         * changed, so the content can be sent again.
+         *
+         * @param channel The channel to attach.
+         * @return The current instance in order to chain call methods.
+         */
+        public @NotNull Builder channel(@NotNull FileChannel channel) {
+            long position;
+            try {
+                position = channel.position();
+                this.length = channel.size() - position;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            long length = this.length;
+            this.repeatable = true;
+            this.content = output -> transfer(channel, position, length, output);
+            return this;
+        }
+
+        /**
+         * Sets the content of the attachment to the given
+         * stream. The stream is read once, when the webhook
+         * is sent, so webhooks with a stream attachment are
+         * not retried. If a length is given, sending fails
+         * when the stream has more or fewer bytes than it,
+         * since the request was framed with that length.
+         *
+         * @param input  The stream to attach.
+         * @param length The length of the stream, or -1 if unknown.
+         * @return The current instance in order to chain call methods.
+         */
+        public @NotNull Builder stream(@NotNull InputStream input,
+                                       long length) {
+            this.length = length;
+            this.repeatable = false;
+            this.content = output -> {
+                InputStream checked = length >= 0 ? new LengthCheckedInputStream(input, length) : input;
+                byte[] buffer = new byte[8192];
+                int read;
+                while ((read = checked.read(buffer)) != -1)
+                    output.write(buffer, 0, read);
+            };
+            return this;
+        }
+
+        /**
+         * Sets the content of the attachment to the given bytes.
+         *
+         * @param bytes The bytes to attach.
+         * @return The current instance in order to chain call methods.
+         */
+        public @NotNull Builder bytes(@NotNull byte[] bytes) {
+            this.length = bytes.length;
+            this.repeatable = true;
+            this.content = output -> output.write(bytes);
+            return this;
+        }
+
+        /**
+         * Clears the builder, so it
+         * can build another attachment.
+         *
+         * @return The current instance in order to chain call methods.
+         */
+        public @NotNull Builder reset() {
+            this.filename = null;
+            this.description = null;
+            this.contentType = null;
+            this.length = -1;
+            this.repeatable = true;
+            this.content = null;
+            return this;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public @NotNull WebhookAttachment build() {
+            if (this.filename == null || this.content == null)
+                throw new IllegalStateException("Attachment needs a file name and a content");
+
+            String contentType = this.contentType;
+            if (contentType == null)
+                contentType = URLConnection.guessContentTypeFromName(this.filename);
+
+            return new WebhookAttachment(
+                    this.filename,
+                    this.description,
+                    contentType != null ? contentType : "application/octet-stream",
+                    this.length,
+                    this.repeatable,
+                    this.content
+            );
+        }
+    }
+}
@@ -1,8 +1,10 @@
 package com.hakan.jdw;
 
+import com.hakan.jdw.json.JsonException;
+import com.hakan.jdw.json.JsonReader;
+import com.hakan.jdw.json.JsonWriter;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
-import org.json.JSONObject;
 
 import java.util.List;
 
@@ -14,6 +16,7 @@ public class WebhookAuthor implements JsonObject {
     private String url;
     private String name;
     private String iconUrl;
+    final JsonCache cache = new JsonCache();
 
     /**
      * Creates a new webhook author.
@@ -64,7 +67,9 @@ public WebhookAuthor(@Nullable String url,
      * @return The current instance in order to chain call methods.
      */
     public @NotNull WebhookAuthor setUrl(@Nullable String url) {
+        this.cache.checkMutable();
         this.url = url;
+        this.cache.invalidate();
         return this;
     }
 
@@ -75,7 +80,9 @@ public WebhookAuthor(@Nullable String url,
      * @return The current instance in order to chain call methods.
      */
     public @NotNull WebhookAuthor setName(@Nullable String... name) {
+        this.cache.checkMutable();
         this.name = String.join("\n", name);
+        this.cache.invalidate();
         return this;
     }
 
@@ -86,7 +93,9 @@ public WebhookAuthor(@Nullable String url,
      * @return The current instance in order to chain call methods.
      */
     public @NotNull WebhookAuthor setName(@NotNull List<String> name) {
+        this.cache.checkMutable();
         this.name = String.join("\n", name);
+        this.cache.invalidate();
         return this;
     }
 
@@ -97,25 +106,105 @@ public WebhookAuthor(@Nullable String url,
      * @return The current instance in order to chain call methods.
      */
     public @NotNull WebhookAuthor setIconUrl(@Nullable String iconUrl) {
+        this.cache.checkMutable();
         this.iconUrl = iconUrl;
+        this.cache.invalidate();
         return this;
     }
 
+    /**
+     * Checks if the author is frozen.
+     * Frozen authors can not be changed.
+     *
+     * @return True if the author is frozen.
+     */
+    public boolean isFrozen() {
+        return this.cache.isFrozen();
+    }
+
+    /**
+     * Gets a frozen copy of the author, or the
+     * author itself if it is already frozen.
+     *
+     * @return The frozen author.
+     */
+    public @NotNull WebhookAuthor freeze() {
+        if (this.cache.isFrozen())
+            return this;
+
+        WebhookAuthor author = new WebhookAuthor(this.url, this.name, this.iconUrl);
+        author.cache.freeze(this.cache);
+        return author;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public @NotNull byte[] toJsonBytes() {
+        return this.cache.get(this::writeMembers).clone();
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
-    public @NotNull JSONObject toJson() {
-        JSONObject json = new JSONObject();
+    public void writeJson(@NotNull JsonWriter writer) {
+        this.cache.write(writer, this::writeMembers);
+    }
 
+    /**
+     * Serializes the author, bypassing the cache.
+     *
+     * @param writer The writer to write to.
+     */
+    private void writeMembers(@NotNull JsonWriter writer) {
+        writer.beginObject();
         if (this.url != null)
-            json.put("url", this.url);
+            writer.name("url").value(this.url);
         if (this.name != null)
-            json.put("name", this.name);
+            writer.name("name").value(this.name);
         if (this.iconUrl != null)
-            json.put("icon_url", this.iconUrl);
+            writer.name("icon_url").value(this.iconUrl);
+        writer.endObject();
+    }
+
+    /**
+     * Reads an author from the given reader.
+     * Unknown members are skipped.
+     *
+     * @param reader The reader to read from.
+     * @return The author.
+     * @throws JsonException If the JSON is malformed.
+     */
+    public static @NotNull WebhookAuthor readJson(@NotNull JsonReader reader) {
+        String url = null;
+        String authorName = null;
+        String iconUrl = null;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (reader.nextIfNull())
+                continue;
 
-        return json;
+            switch (name) {
+                case "url":
+                    url = reader.nextString();
+                    break;
+                case "name":
+                    authorName = reader.nextString();
+                    break;
+                case "icon_url":
+                    iconUrl = reader.nextString();
+                    break;
+                default:
+                    reader.skipValue();
+                    break;
+            }
+        }
+        reader.endObject();
+        return new WebhookAuthor(url, authorName, iconUrl);
     }
 
 
@@ -125,6 +214,11 @@ public WebhookAuthor(@Nullable String url,
      */
     public static class Builder implements com.hakan.jdw.Builder<WebhookAuthor> {
 
+        /**
+         * Builders of the authors of embed builders.
+         */
+        static final BuilderPool<WebhookAuthor, Builder> POOL = new BuilderPool<>(Builder::new, Builder::reset);
+
         private String url;
         private String name;
         private String iconUrl;
@@ -173,6 +267,19 @@ public static class Builder implements com.hakan.jdw.Builder<WebhookAuthor> {
             return this;
         }
 
+        /**
+         * Clears the builder, so it
+         * can build another author.
+         *
+         * @return The current instance in order to chain call methods.
+         */
+        public @NotNull Builder reset() {
+            this.url = null;
+            this.name = null;
+            this.iconUrl = null;
+            return this;
+        }
+
         /**
          * {@inheritDoc}
          */
@@ -0,0 +1,533 @@
+package com.hakan.jdw;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+
+/**
+ * Encodes webhooks into a compact, versioned binary
+ * form, for queues and spools that hold many messages
+ * and only need them again when they are sent.
+ * <p>
+ * An encoded webhook starts with its version and a
+ * table of its distinct strings. Each object is then
+ * a bitmap of the members it has, followed by those
+ * members only: strings as indexes into the table,
+ * numbers and lengths as varints. All numbers are
+ * little-endian base 128 varints, the timestamp is
+ * zigzag encoded.
+ * <p>
+ * Attachments are not encoded, since their content
+ * is a stream rather than part of the message.
+ */
+public final class WebhookCodec {
+
+    /**
+     * Version of the encoding.
+     */
+    public static final int VERSION = 1;
+
+    private static final int WEBHOOK_CONTENT = 1;
+    private static final int WEBHOOK_USERNAME = 1 << 1;
+    private static final int WEBHOOK_AVATAR_URL = 1 << 2;
+    private static final int WEBHOOK_THREAD_NAME = 1 << 3;
+    private static final int WEBHOOK_EMBEDS = 1 << 4;
+
+    private static final int EMBED_URL = 1;
+    private static final int EMBED_TITLE = 1 << 1;
+    private static final int EMBED_DESCRIPTION = 1 << 2;
+    private static final int EMBED_COLOR = 1 << 3;
+    private static final int EMBED_TIMESTAMP = 1 << 4;
+    private static final int EMBED_TIMEZONE = 1 << 5;
+    private static final int EMBED_IMAGE = 1 << 6;
+    private static final int EMBED_AUTHOR = 1 << 7;
+    private static final int EMBED_FOOTER = 1 << 8;
+    private static final int EMBED_THUMBNAIL = 1 << 9;
+    private static final int EMBED_FIELDS = 1 << 10;
+
+    private static final int FIRST = 1;
+    private static final int SECOND = 1 << 1;
+    private static final int THIRD = 1 << 2;
+    private static final int FOURTH = 1 << 3;
+
+    /**
+     * Private constructor to prevent
+     * instantiation of this class.
+     */
+    private WebhookCodec() {
+
+    }
+
+    /**
+     * Encodes a webhook into a new buffer, which
+     * is ready to be read and exactly as large as
+     * the encoded webhook.
+     *
+     * @param webhook The webhook to encode.
+     * @return The encoded webhook.
+     * @throws IllegalArgumentException If the webhook has attachments.
+     */
+    public static @NotNull ByteBuffer encode(@NotNull Webhook webhook) {
+        Encoder encoder = new Encoder(webhook);
+        ByteBuffer buffer = ByteBuffer.allocate(encoder.size());
+        encoder.writeTo(buffer);
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Encodes a webhook into the given buffer,
+     * starting at its position.
+     *
+     * @param webhook The webhook to encode.
+     * @param buffer  The buffer to write to.
+     * @throws IllegalArgumentException        If the webhook has attachments.
+     * @throws java.nio.BufferOverflowException If the buffer is too small.
+     */
+    public static void encode(@NotNull Webhook webhook,
+                              @NotNull ByteBuffer buffer) {
+        new Encoder(webhook).writeTo(buffer);
+    }
+
+    /**
+     * Decodes a webhook, starting at the position of
+     * the buffer, which is moved past the webhook.
+     *
+     * @param buffer The buffer to read from.
+     * @return The webhook.
+     * @throws IllegalArgumentException If the data is not an encoded webhook.
+     */
+    public static @NotNull Webhook decode(@NotNull ByteBuffer buffer) {
+        try {
+            return new Decoder(buffer).readWebhook();
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Truncated or malformed webhook", e);
+        }
+    }
+
+
+
+    /**
+     * Writes a webhook into a growable body,
+     * collecting its strings into the table.
+     */
+    private static final class Encoder {
+
+        private final Map<String, Integer> indexes = new HashMap<>();
+        private final List<byte[]> strings = new ArrayList<>();
+        private byte[] body = new byte[256];
+        private int count;
+        private int tableSize;
+
+        /**
+         * Encodes the given webhook.
+         *
+         * @param webhook The webhook to encode.
+         */
+        private Encoder(@NotNull Webhook webhook) {
+            if (webhook.hasAttachments())
+                throw new IllegalArgumentException("Attachments can not be encoded");
+            this.writeWebhook(webhook);
+        }
+
+        /**
+         * Gets the size of the encoded webhook.
+         *
+         * @return The size in bytes.
+         */
+        private int size() {
+            return 1 + varintSize(this.strings.size()) + this.tableSize + this.count;
+        }
+
+        /**
+         * Writes the encoded webhook to a buffer.
+         *
+         * @param buffer The buffer to write to.
+         */
+        private void writeTo(@NotNull ByteBuffer buffer) {
+            buffer.put((byte) VERSION);
+            putVarint(buffer, this.strings.size());
+            for (byte[] string : this.strings) {
+                putVarint(buffer, string.length);
+                buffer.put(string);
+            }
+            buffer.put(this.body, 0, this.count);
+        }
+
+        /**
+         * Writes a webhook.
+         *
+         * @param webhook The webhook.
+         */
+        private void writeWebhook(@NotNull Webhook webhook) {
+            List<WebhookEmbed> embeds = webhook.getEmbeds();
+            int bits = bit(webhook.getContent(), WEBHOOK_CONTENT)
+                    | bit(webhook.getUsername(), WEBHOOK_USERNAME)
+                    | bit(webhook.getAvatarUrl(), WEBHOOK_AVATAR_URL)
+                    | bit(webhook.getThreadName(), WEBHOOK_THREAD_NAME)
+                    | (embeds != null && !embeds.isEmpty() ? WEBHOOK_EMBEDS : 0);
+
+            this.varint(bits);
+            this.string(webhook.getContent());
+            this.string(webhook.getUsername());
+            this.string(webhook.getAvatarUrl());
+            this.string(webhook.getThreadName());
+            if ((bits & WEBHOOK_EMBEDS) != 0) {
+                this.varint(countNonNull(embeds));
+                for (WebhookEmbed embed : embeds) {
+                    if (embed != null)
+                        this.writeEmbed(embed);
+                }
+            }
+        }
+
+        /**
+         * Writes an embed.
+         *
+         * @param embed The embed.
+         */
+        private void writeEmbed(@NotNull WebhookEmbed embed) {
+            List<WebhookField> fields = embed.getFields();
+            int bits = bit(embed.getUrl(), EMBED_URL)
+                    | bit(embed.getTitle(), EMBED_TITLE)
+                    | bit(embed.getDescription(), EMBED_DESCRIPTION)
+                    | bit(embed.getColorRgb(), EMBED_COLOR)
+                    | bit(embed.timestamp, EMBED_TIMESTAMP)
+                    | bit(embed.timezone, EMBED_TIMEZONE)
+                    | bit(embed.getImage(), EMBED_IMAGE)
+                    | bit(embed.getAuthor(), EMBED_AUTHOR)
+                    | bit(embed.getFooter(), EMBED_FOOTER)
+                    | bit(embed.getThumbnail(), EMBED_THUMBNAIL)
+                    | (fields != null && !fields.isEmpty() ? EMBED_FIELDS : 0);
+
+            this.varint(bits);
+            this.string(embed.getUrl());
+            this.string(embed.getTitle());
+            this.string(embed.getDescription());
+            if (embed.getColorRgb() != null)
+                this.varint(embed.getColorRgb());
+            if (embed.timestamp != null)
+                this.varlong((embed.timestamp << 1) ^ (embed.timestamp >> 63));
+            if (embed.timezone != null)
+                this.string(embed.timezone.getID());
+            if (embed.getImage() != null)
+                this.writeStrings(embed.getImage().getUrl());
+            if (embed.getAuthor() != null)
+                this.writeStrings(embed.getAuthor().getUrl(), embed.getAuthor().getName(), embed.getAuthor().getIconUrl());
+            if (embed.getFooter() != null)
+                this.writeStrings(embed.getFooter().getText(), embed.getFooter().getIconUrl());
+            if (embed.getThumbnail() != null)
+                this.writeStrings(embed.getThumbnail().getUrl());
+            if ((bits & EMBED_FIELDS) != 0) {
+                this.varint(countNonNull(fields));
+                for (WebhookField field : fields) {
+                    if (field == null)
+                        continue;
+
+                    Boolean inline = field.isInline();
+                    this.varint(bit(field.getName(), FIRST)
+                            | bit(field.getValue(), SECOND)
+                            | bit(inline, THIRD)
+                            | (inline != null && inline ? FOURTH : 0));
+                    this.string(field.getName());
+                    this.string(field.getValue());
+                }
+            }
+        }
+
+        /**
+         * Writes a component of strings: a bitmap of
+         * the strings it has, then the strings.
+         *
+         * @param strings The strings, any of them null.
+         */
+        private void writeStrings(@Nullable String... strings) {
+            int bits = 0;
+            for (int i = 0; i < strings.length; i++)
+                bits |= bit(strings[i], 1 << i);
+
+            this.varint(bits);
+            for (String string : strings)
+                this.string(string);
+        }
+
+        /**
+         * Writes the index of a string in the table,
+         * adding it first if it is not in there yet.
+         * Does nothing if the string is null.
+         *
+         * @param string The string, or null.
+         */
+        private void string(@Nullable String string) {
+            if (string == null)
+                return;
+
+            Integer index = this.indexes.get(string);
+            if (index == null) {
+                byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+                index = this.strings.size();
+                this.indexes.put(string, index);
+                this.strings.add(bytes);
+                this.tableSize += varintSize(bytes.length) + bytes.length;
+            }
+            this.varint(index);
+        }
+
+        /**
+         * Writes an unsigned varint.
+         *
+         * @param value The value.
+         */
+        private void varint(int value) {
+            this.varlong(value & 0xFFFFFFFFL);
+        }
+
+        /**
+         * Writes an unsigned variable length long.
+         *
+         * @param value The value.
+         */
+        private void varlong(long value) {
+            if (this.count + 10 > this.body.length)
+                this.body = Arrays.copyOf(this.body, this.body.length * 2);
+
+            while ((value & ~0x7FL) != 0) {
+                this.body[this.count++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            this.body[this.count++] = (byte) value;
+        }
+    }
+
+
+
+    /**
+     * Reads a webhook from a buffer.
+     */
+    private static final class Decoder {
+
+        private final ByteBuffer buffer;
+        private final String[] strings;
+
+        /**
+         * Reads the header and the string table.
+         *
+         * @param buffer The buffer to read from.
+         */
+        private Decoder(@NotNull ByteBuffer buffer) {
+            this.buffer = buffer;
+
+            int version = buffer.get() & 0xFF;
+            if (version != VERSION)
+                throw new IllegalArgumentException("Unsupported version " + version);
+
+            int count = this.varint();
+            if (count > buffer.remaining())
+                throw new IllegalArgumentException("Malformed string table");
+
+            this.strings = new String[count];
+            for (int i = 0; i < count; i++) {
+                int length = this.varint();
+                if (length > buffer.remaining())
+                    throw new IllegalArgumentException("Malformed string table");
+
+                if (buffer.hasArray()) {
+                    this.strings[i] = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+                    buffer.position(buffer.position() + length);
+                } else {
+                    byte[] bytes = new byte[length];
+                    buffer.get(bytes);
+                    this.strings[i] = new String(bytes, StandardCharsets.UTF_8);
+                }
+            }
+        }
+
+        /**
+         * Reads a webhook.
+         *
+         * @return The webhook.
+         */
+        private @NotNull Webhook readWebhook() {
+            int bits = this.varint();
+            Webhook webhook = new Webhook(
+                    this.string(bits, WEBHOOK_CONTENT),
+                    this.string(bits, WEBHOOK_USERNAME),
+                    this.string(bits, WEBHOOK_AVATAR_URL),
+                    this.string(bits, WEBHOOK_THREAD_NAME),
+                    new ArrayList<>()
+            );
+
+            if ((bits & WEBHOOK_EMBEDS) != 0) {
+                int count = this.varint();
+                for (int i = 0; i < count; i++)
+                    webhook.addEmbed(this.readEmbed());
+            }
+            return webhook;
+        }
+
+        /**
+         * Reads an embed.
+         *
+         * @return The embed.
+         */
+        private @NotNull WebhookEmbed readEmbed() {
+            int bits = this.varint();
+            String url = this.string(bits, EMBED_URL);
+            String title = this.string(bits, EMBED_TITLE);
+            String description = this.string(bits, EMBED_DESCRIPTION);
+            Integer color = (bits & EMBED_COLOR) != 0 ? this.varint() : null;
+            WebhookEmbed embed = WebhookEmbed.ofRgb(url, title, description, color,
+                    null, null, null, null, null, new ArrayList<>());
+
+            if ((bits & EMBED_TIMESTAMP) != 0) {
+                long zigzag = this.varlong();
+                embed.timestamp = (zigzag >>> 1) ^ -(zigzag & 1);
+            }
+            if ((bits & EMBED_TIMEZONE) != 0)
+                embed.timezone = TimeZone.getTimeZone(this.string(bits, EMBED_TIMEZONE));
+            if ((bits & EMBED_IMAGE) != 0) {
+                int image = this.varint();
+                embed.setImage(new WebhookImage(this.string(image, FIRST)));
+            }
+            if ((bits & EMBED_AUTHOR) != 0) {
+                int author = this.varint();
+                embed.setAuthor(new WebhookAuthor(this.string(author, FIRST), this.string(author, SECOND), this.string(author, THIRD)));
+            }
+            if ((bits & EMBED_FOOTER) != 0) {
+                int footer = this.varint();
+                embed.setFooter(new WebhookFooter(this.string(footer, FIRST), this.string(footer, SECOND)));
+            }
+            if ((bits & EMBED_THUMBNAIL) != 0) {
+                int thumbnail = this.varint();
+                embed.setThumbnail(new WebhookThumbnail(this.string(thumbnail, FIRST)));
+            }
+            if ((bits & EMBED_FIELDS) != 0) {
+                int count = this.varint();
+                for (int i = 0; i < count; i++) {
+                    int field = this.varint();
+                    embed.addField(new WebhookField(
+                            this.string(field, FIRST),
+                            this.string(field, SECOND),
+                            (field & THIRD) != 0 ? (Boolean) ((field & FOURTH) != 0) : null
+                    ));
+                }
+            }
+            return embed;
+        }
+
+        /**
+         * Reads a string from the table, if the
+         * given bit is set in the bitmap.
+         *
+         * @param bits The bitmap.
+         * @param bit  The bit of the string.
+         * @return The string, or null if the bit is not set.
+         */
+        private @Nullable String string(int bits,
+                                        int bit) {
+            if ((bits & bit) == 0)
+                return null;
+
+            int index = this.varint();
+            if (index >= this.strings.length)
+                throw new IllegalArgumentException("Malformed string index " + index);
+            return this.strings[index];
+        }
+
+        /**
+         * Reads an unsigned varint.
+         *
+         * @return The value.
+         */
+        private int varint() {
+            long value = this.varlong();
+            if (value > 0xFFFFFFFFL)
+                throw new IllegalArgumentException("Malformed varint");
+            return (int) value;
+        }
+
+        /**
+         * Reads an unsigned variable length long.
+         *
+         * @return The value.
+         */
+        private long varlong() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = this.buffer.get();
+                value |= (long) (b & 0x7F) << shift;
+                if (b >= 0)
+                    return value;
+            }
+            throw new IllegalArgumentException("Malformed varint");
+        }
+    }
+
+
+
+    /**
+     * Gets a bit if the value is present.
+     *
+     * @param value The value, or null.
+     * @param bit   The bit.
+     * @return The bit, or 0 if the value is null.
+     */
+    private static int bit(@Nullable Object value,
+                           int bit) {
+        return value != null ? bit : 0;
+    }
+
+    /**
+     * Counts the elements of a list that are not null.
+     *
+     * @param list The list.
+     * @return The number of elements that are not null.
+     */
+    private static int countNonNull(@NotNull List<?> list) {
+        int count = 0;
+        for (Object element : list) {
+            if (element != null)
+                count++;
+        }
+        return count;
+    }
+
+    /**
+     * Gets the size of an unsigned varint.
+     *
+     * @param value The value.
+     * @return The size in bytes.
+     */
+    private static int varintSize(int value) {
+        int size = 1;
+        while ((value & ~0x7F) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+
+    /**
+     * Puts an unsigned varint into a buffer.
+     *
+     * @param buffer The buffer.
+     * @param value  The value.
+     */
+    private static void putVarint(@NotNull ByteBuffer buffer,
+                                  int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+}
@@ -1,43 +1,64 @@
 package com.hakan.jdw;
 
+import com.hakan.jdw.json.JsonException;
+import com.hakan.jdw.json.JsonReader;
+import com.hakan.jdw.json.JsonWriter;
+import com.hakan.jdw.utils.DateUtils;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
-import org.json.JSONObject;
 
 import java.awt.Color;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.List;
 import java.util.TimeZone;
+import java.util.function.Supplier;
 import java.util.function.UnaryOperator;
 
-import static com.hakan.jdw.utils.WebhookUtils.colorToInt;
-import static com.hakan.jdw.utils.WebhookUtils.dateToText;
+import static com.hakan.jdw.utils.ColorUtils.colorToInt;
+import static com.hakan.jdw.utils.ColorUtils.intToColor;
+import static com.hakan.jdw.utils.LimitUtils.MAX_AUTHOR;
+import static com.hakan.jdw.utils.LimitUtils.MAX_DESCRIPTION;
+import static com.hakan.jdw.utils.LimitUtils.MAX_EMBED_TOTAL;
+import static com.hakan.jdw.utils.LimitUtils.MAX_FIELDS;
+import static com.hakan.jdw.utils.LimitUtils.MAX_FOOTER;
+import static com.hakan.jdw.utils.LimitUtils.MAX_TITLE;
+import static com.hakan.jdw.utils.LimitUtils.length;
+import static com.hakan.jdw.utils.WebhookUtils.checkRgb;
+import static com.hakan.jdw.utils.WebhookUtils.hexToInt;
 
 /**
  * Represents a webhook embed.
  */
 public class WebhookEmbed implements JsonObject {
 
+    private static final TimeZone UTC = TimeZone.getTimeZone("UTC");
+
     private String url;
     private String title;
     private String description;
-    private Color color;
-    private Calendar timestamp;
+    private LazyText lazyTitle;
+    private LazyText lazyDescription;
+    private Integer color;
+    Long timestamp;
+    TimeZone timezone;
     private WebhookImage image;
     private WebhookAuthor author;
     private WebhookFooter footer;
     private WebhookThumbnail thumbnail;
     private List<WebhookField> fields;
+    final JsonCache cache = new JsonCache();
 
     /**
-     * Creates a new webhook embed.
+     * Creates a new webhook embed with an RGB color.
+     * Callers outside this class use {@link #ofRgb}.
      *
      * @param url         The url of the embed.
      * @param title       The title of the embed.
      * @param description The description of the embed.
-     * @param color       The color of the embed.
+     * @param color       The color of the embed, as RGB.
      * @param timestamp   The timestamp of the embed.
      * @param image       The image of the embed.
      * @param author      The author of the embed.
@@ -45,10 +66,10 @@ public class WebhookEmbed implements JsonObject {
      * @param thumbnail   The thumbnail of the embed.
      * @param fields      The fields of the embed.
      */
-    public WebhookEmbed(@Nullable String url,
+    private WebhookEmbed(@Nullable String url,
                         @Nullable String title,
                         @Nullable String description,
-                        @Nullable Color color,
+                        @Nullable Integer color,
                         @Nullable Calendar timestamp,
                         @Nullable WebhookImage image,
                         @Nullable WebhookAuthor author,
@@ -57,14 +78,85 @@ public WebhookEmbed(@Nullable String url,
                         @Nullable List<WebhookField> fields) {
         this.url = url;
         this.title = title;
-        this.color = color;
+        this.color = color != null ? checkRgb(color) : null;
         this.image = image;
         this.author = author;
         this.footer = footer;
-        this.fields = fields;
+        this.fields = JsonCache.unmodifiable(fields);
         this.thumbnail = thumbnail;
-        this.timestamp = timestamp;
         this.description = description;
+        if (timestamp != null) {
+            this.timestamp = timestamp.getTimeInMillis();
+            this.timezone = timestamp.getTimeZone();
+        }
+
+        if (image != null)
+            this.cache.attach(image.cache);
+        if (author != null)
+            this.cache.attach(author.cache);
+        if (footer != null)
+            this.cache.attach(footer.cache);
+        if (thumbnail != null)
+            this.cache.attach(thumbnail.cache);
+        this.cache.attachAll(this.fields, field -> field.cache);
+    }
+
+    /**
+     * Creates a new webhook embed.
+     *
+     * @param url         The url of the embed.
+     * @param title       The title of the embed.
+     * @param description The description of the embed.
+     * @param color       The color of the embed.
+     * @param timestamp   The timestamp of the embed.
+     * @param image       The image of the embed.
+     * @param author      The author of the embed.
+     * @param footer      The footer of the embed.
+     * @param thumbnail   The thumbnail of the embed.
+     * @param fields      The fields of the embed.
+     */
+    public WebhookEmbed(@Nullable String url,
+                        @Nullable String title,
+                        @Nullable String description,
+                        @Nullable Color color,
+                        @Nullable Calendar timestamp,
+                        @Nullable WebhookImage image,
+                        @Nullable WebhookAuthor author,
+                        @Nullable WebhookFooter footer,
+                        @Nullable WebhookThumbnail thumbnail,
+                        @Nullable List<WebhookField> fields) {
+        this(url, title, description, color != null ? colorToInt(color) : null,
+                timestamp, image, author, footer, thumbnail, fields);
+    }
+
+    /**
+     * Creates a new webhook embed with its color
+     * as an RGB integer, without loading java.awt.
+     *
+     * @param url         The url of the embed.
+     * @param title       The title of the embed.
+     * @param description The description of the embed.
+     * @param color       The color of the embed, as RGB.
+     * @param timestamp   The timestamp of the embed.
+     * @param image       The image of the embed.
+     * @param author      The author of the embed.
+     * @param footer      The footer of the embed.
+     * @param thumbnail   The thumbnail of the embed.
+     * @param fields      The fields of the embed.
+     * @return The embed.
+     * @throws IllegalArgumentException If the color is not between 0 and 0xFFFFFF.
+     */
+    public static @NotNull WebhookEmbed ofRgb(@Nullable String url,
+                                              @Nullable String title,
+                                              @Nullable String description,
+                                              @Nullable Integer color,
+                                              @Nullable Calendar timestamp,
+                                              @Nullable WebhookImage image,
+                                              @Nullable WebhookAuthor author,
+                                              @Nullable WebhookFooter footer,
+                                              @Nullable WebhookThumbnail thumbnail,
+                                              @Nullable List<WebhookField> fields) {
+        return new WebhookEmbed(url, title, description, color, timestamp, image, author, footer, thumbnail, fields);
     }
 
     /**
@@ -82,16 +174,32 @@ public WebhookEmbed(@Nullable String url,
      * @return The title of the embed.
      */
     public @Nullable String getTitle() {
-        return this.title;
+        return this.lazyTitle != null ? this.lazyTitle.get() : this.title;
     }
 
     /**
-     * Gets the description of the embed.
+     * Gets the timestamp of the embed, in the time
+     * zone it was set with. The calendar is a copy,
+     * so changes to it are not reflected.
      *
-     * @return The description of the embed.
+     * @return The timestamp of the embed.
      */
     public @Nullable Calendar getTimestamp() {
-        return this.timestamp;
+        if (this.timestamp == null)
+            return null;
+
+        Calendar calendar = Calendar.getInstance(this.timezone != null ? this.timezone : UTC);
+        calendar.setTimeInMillis(this.timestamp);
+        return calendar;
+    }
+
+    /**
+     * Gets the timestamp of the embed as an instant.
+     *
+     * @return The timestamp of the embed.
+     */
+    public @Nullable Instant getInstant() {
+        return this.timestamp != null ? Instant.ofEpochMilli(this.timestamp) : null;
     }
 
     /**
@@ -100,15 +208,25 @@ public WebhookEmbed(@Nullable String url,
      * @return The description of the embed.
      */
     public @Nullable String getDescription() {
-        return this.description;
+        return this.lazyDescription != null ? this.lazyDescription.get() : this.description;
     }
 
     /**
-     * Gets the color of the embed.
+     * Gets the color of the embed as an AWT color.
+     * This loads java.awt, see {@link #getColorRgb()}.
      *
      * @return The color of the embed.
      */
     public @Nullable Color getColor() {
+        return this.color != null ? intToColor(this.color) : null;
+    }
+
+    /**
+     * Gets the color of the embed as RGB.
+     *
+     * @return The color of the embed, like 0xFF0000.
+     */
+    public @Nullable Integer getColorRgb() {
         return this.color;
     }
 
@@ -141,11 +259,14 @@ public WebhookEmbed(@Nullable String url,
 
     /**
      * Gets the fields of the embed.
+     * The list can not be changed; use the
+     * methods of the embed instead, so that
+     * its cached JSON is dropped.
      *
      * @return The fields of the embed.
      */
     public @Nullable List<WebhookField> getFields() {
-        return this.fields;
+        return JsonCache.readOnly(this.fields);
     }
 
     /**
@@ -164,7 +285,9 @@ public WebhookEmbed(@Nullable String url,
      * @return The current instance in order to chain call methods.
      */
     public @NotNull WebhookEmbed setUrl(@Nullable String url) {
+        this.cache.checkMutable();
         this.url = url;
+        this.cache.invalidate();
         return this;
     }
 
@@ -175,7 +298,10 @@ public WebhookEmbed(@Nullable String url,
      * @return The current instance in order to chain call methods.
      */
     public @NotNull WebhookEmbed setTitle(@Nullable String title) {
+        this.cache.checkMutable();
         this.title = title;
+        this.lazyTitle = null;
+        this.cache.invalidate();
         return this;
     }
 
@@ -186,7 +312,10 @@ public WebhookEmbed(@Nullable String url,
      * @return The current instance in order to chain call methods.
      */
     public @NotNull WebhookEmbed setDescription(@Nullable String... description) {
+        this.cache.checkMutable();
         this.description = String.join("\n", description);
+        this.lazyDescription = null;
+        this.cache.invalidate();
         return this;
     }
 
@@ -197,7 +326,10 @@ public WebhookEmbed(@Nullable String url,
      * @return The current instance in order to chain call methods.
      */
     public @NotNull WebhookEmbed setDescription(@NotNull List<String> description) {
+        this.cache.checkMutable();
         this.description = String.join("\n", description);
+        this.lazyDescription = null;
+        this.cache.invalidate();
         return this;
     }
 
@@ -208,10 +340,36 @@ public WebhookEmbed(@Nullable String url,
      * @return The current instance in order to chain call methods.
      */
     public @NotNull WebhookEmbed setColor(@Nullable Color color) {
-        this.color = color;
+        this.cache.checkMutable();
+        return this.setColorRgb(color != null ? colorToInt(color) : null);
+    }
+
+    /**
+     * Sets the color of the embed as RGB.
+     *
+     * @param color The color of the embed, like 0xFF0000.
+     * @return The current instance in order to chain call methods.
+     * @throws IllegalArgumentException If the color is not between 0 and 0xFFFFFF.
+     */
+    public @NotNull WebhookEmbed setColorRgb(@Nullable Integer color) {
+        this.cache.checkMutable();
+        this.color = color != null ? checkRgb(color) : null;
+        this.cache.invalidate();
         return this;
     }
 
+    /**
+     * Sets the color of the embed as a hex string.
+     *
+     * @param color The color of the embed, like "#FF0000".
+     * @return The current instance in order to chain call methods.
+     * @throws IllegalArgumentException If the color is not a hex color.
+     */
+    public @NotNull WebhookEmbed setColorHex(@Nullable String color) {
+        this.cache.checkMutable();
+        return this.setColorRgb(color != null ? hexToInt(color) : null);
+    }
+
     /**
      * Sets the timestamp of the embed.
      *
@@ -219,7 +377,24 @@ public WebhookEmbed(@Nullable String url,
      * @return The current instance in order to chain call methods.
      */
     public @NotNull WebhookEmbed setTimestamp(@Nullable Calendar timestamp) {
+        this.cache.checkMutable();
+        this.timestamp = timestamp != null ? timestamp.getTimeInMillis() : null;
+        this.timezone = timestamp != null ? timestamp.getTimeZone() : null;
+        this.cache.invalidate();
+        return this;
+    }
+
+    /**
+     * Sets the timestamp of the embed, in UTC.
+     *
+     * @param timestamp The timestamp of the embed, in milliseconds since the epoch.
+     * @return The current instance in order to chain call methods.
+     */
+    public @NotNull WebhookEmbed setTimestamp(long timestamp) {
+        this.cache.checkMutable();
         this.timestamp = timestamp;
+        this.timezone = null;
+        this.cache.invalidate();
         return this;
     }
 
@@ -230,7 +405,14 @@ public WebhookEmbed(@Nullable String url,
      * @return The current instance in order to chain call methods.
      */
     public @NotNull WebhookEmbed setImage(@Nullable WebhookImage image) {
+        this.cache.checkMutable();
+        if (this.image != null)
+            this.cache.detach(this.image.cache);
+        if (image != null)
+            this.cache.attach(image.cache);
+
         this.image = image;
+        this.cache.invalidate();
         return this;
     }
 
@@ -241,7 +423,14 @@ public WebhookEmbed(@Nullable String url,
      * @return The current instance in order to chain call methods.
      */
     public @NotNull WebhookEmbed setAuthor(@Nullable WebhookAuthor author) {
+        this.cache.checkMutable();
+        if (this.author != null)
+            this.cache.detach(this.author.cache);
+        if (author != null)
+            this.cache.attach(author.cache);
+
         this.author = author;
+        this.cache.invalidate();
         return this;
     }
 
@@ -252,7 +441,14 @@ public WebhookEmbed(@Nullable String url,
      * @return The current instance in order to chain call methods.
      */
     public @NotNull WebhookEmbed setFooter(@Nullable WebhookFooter footer) {
+        this.cache.checkMutable();
+        if (this.footer != null)
+            this.cache.detach(this.footer.cache);
+        if (footer != null)
+            this.cache.attach(footer.cache);
+
         this.footer = footer;
+        this.cache.invalidate();
         return this;
     }
 
@@ -263,7 +459,14 @@ public WebhookEmbed(@Nullable String url,
      * @return The current instance in order to chain call methods.
      */
     public @NotNull WebhookEmbed setThumbnail(@Nullable WebhookThumbnail thumbnail) {
+        this.cache.checkMutable();
+        if (this.thumbnail != null)
+            this.cache.detach(this.thumbnail.cache);
+        if (thumbnail != null)
+            this.cache.attach(thumbnail.cache);
+
         this.thumbnail = thumbnail;
+        this.cache.invalidate();
         return this;
     }
 
@@ -274,7 +477,12 @@ public WebhookEmbed(@Nullable String url,
      * @return The current instance in order to chain call methods.
      */
     public @NotNull WebhookEmbed setFields(@Nullable List<WebhookField> fields) {
-        this.fields = fields;
+        this.cache.checkMutable();
+        this.cache.detachAll(this.fields, field -> field.cache);
+        this.fields = JsonCache.unmodifiable(fields);
+        this.cache.attachAll(this.fields, field -> field.cache);
+
+        this.cache.invalidate();
         return this;
     }
 
@@ -285,7 +493,13 @@ public WebhookEmbed(@Nullable String url,
      * @return The current instance in order to chain call methods.
      */
     public @NotNull WebhookEmbed addField(@Nullable WebhookField field) {
+        this.cache.checkMutable();
+        if (field != null)
+            this.cache.attach(field.cache);
+
+        this.fields = JsonCache.modifiable(this.fields);
         this.fields.add(field);
+        this.cache.invalidate();
         return this;
     }
 
@@ -296,7 +510,11 @@ public WebhookEmbed(@Nullable String url,
      * @return The current instance in order to chain call methods.
      */
     public @NotNull WebhookEmbed removeField(@Nullable WebhookField field) {
-        this.fields.remove(field);
+        this.cache.checkMutable();
+        this.fields = JsonCache.modifiable(this.fields);
+        if (this.fields.remove(field) && field != null)
+            this.cache.detach(field.cache);
+        this.cache.invalidate();
         return this;
     }
 
@@ -307,7 +525,12 @@ public WebhookEmbed(@Nullable String url,
      * @return The current instance in order to chain call methods.
      */
     public @NotNull WebhookEmbed removeField(int index) {
-        this.fields.remove(index);
+        this.cache.checkMutable();
+        this.fields = JsonCache.modifiable(this.fields);
+        WebhookField field = this.fields.remove(index);
+        if (field != null)
+            this.cache.detach(field.cache);
+        this.cache.invalidate();
         return this;
     }
 
@@ -317,39 +540,491 @@ public WebhookEmbed(@Nullable String url,
      * @return The current instance in order to chain call methods.
      */
     public @NotNull WebhookEmbed clearFields() {
+        this.cache.checkMutable();
+        this.cache.detachAll(this.fields, field -> field.cache);
+        this.fields = JsonCache.modifiable(this.fields);
         this.fields.clear();
+        this.cache.invalidate();
         return this;
     }
 
+    /**
+     * Gets the characters of the embed that count
+     * toward the 6000 character limit: title,
+     * description, field names and values, footer
+     * text and author name. The count is kept
+     * until the embed or one of its parts changes.
+     *
+     * @return The characters of the embed.
+     */
+    public int getLength() {
+        return this.limits().length;
+    }
+
+    /**
+     * Checks the embed and its fields against the
+     * limits of discord. The result is kept until
+     * the embed or one of its parts changes.
+     *
+     * @return The first limit the embed exceeds, or null if it fits.
+     */
+    public @Nullable String checkLimits() {
+        return this.limits().violation;
+    }
+
+    /**
+     * Checks that the embed fits the limits of discord.
+     *
+     * @return The current instance in order to chain call methods.
+     * @throws IllegalStateException If the embed exceeds a limit.
+     */
+    public @NotNull WebhookEmbed validate() {
+        String violation = this.checkLimits();
+        if (violation != null)
+            throw new IllegalStateException(violation);
+        return this;
+    }
+
+    /**
+     * Checks if the lazy texts of the embed
+     * and its fields were resolved, see
+     * {@link Builder#description(Supplier)}.
+     *
+     * @return True if no text is left to resolve.
+     */
+    public boolean isResolved() {
+        if (!LazyText.isResolved(this.lazyTitle) || !LazyText.isResolved(this.lazyDescription))
+            return false;
+        if (this.fields != null) {
+            for (WebhookField field : this.fields) {
+                if (field != null && !field.isResolved())
+                    return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks if the embed is frozen. Frozen
+     * embeds, their fields and other parts
+     * can not be changed.
+     *
+     * @return True if the embed is frozen.
+     */
+    public boolean isFrozen() {
+        return this.cache.isFrozen();
+    }
+
+    /**
+     * Gets a frozen copy of the embed, or the
+     * embed itself if it is already frozen.
+     * Parts of the embed that are frozen already
+     * are shared instead of copied, and the JSON
+     * the embed cached is kept.
+     *
+     * @return The frozen embed.
+     */
+    public @NotNull WebhookEmbed freeze() {
+        if (this.cache.isFrozen())
+            return this;
+
+        WebhookEmbed embed = new WebhookEmbed(
+                this.url,
+                this.title,
+                this.description,
+                this.color,
+                null,
+                this.image != null ? this.image.freeze() : null,
+                this.author != null ? this.author.freeze() : null,
+                this.footer != null ? this.footer.freeze() : null,
+                this.thumbnail != null ? this.thumbnail.freeze() : null,
+                JsonCache.freezeAll(this.fields, WebhookField::freeze)
+        );
+        embed.lazyTitle = this.lazyTitle;
+        embed.lazyDescription = this.lazyDescription;
+        embed.timestamp = this.timestamp;
+        embed.timezone = this.timezone;
+        embed.cache.freeze(this.cache);
+        return embed;
+    }
+
+    /**
+     * Gets a frozen copy of the embed with the given
+     * url, sharing everything else with it.
+     *
+     * @param url The url of the embed.
+     * @return The frozen copy.
+     */
+    public @NotNull WebhookEmbed withUrl(@Nullable String url) {
+        WebhookEmbed embed = this.freeze().copy();
+        embed.url = url;
+        return embed;
+    }
+
+    /**
+     * Gets a frozen copy of the embed with the given
+     * title, sharing everything else with it.
+     *
+     * @param title The title of the embed.
+     * @return The frozen copy.
+     */
+    public @NotNull WebhookEmbed withTitle(@Nullable String title) {
+        WebhookEmbed embed = this.freeze().copy();
+        embed.title = title;
+        embed.lazyTitle = null;
+        return embed;
+    }
+
+    /**
+     * Gets a frozen copy of the embed with the given
+     * description, sharing everything else with it.
+     *
+     * @param description The description of the embed.
+     * @return The frozen copy.
+     */
+    public @NotNull WebhookEmbed withDescription(@Nullable String description) {
+        WebhookEmbed embed = this.freeze().copy();
+        embed.description = description;
+        embed.lazyDescription = null;
+        return embed;
+    }
+
+    /**
+     * Gets a frozen copy of the embed with the given
+     * color, sharing everything else with it.
+     *
+     * @param color The color of the embed, like 0xFF0000.
+     * @return The frozen copy.
+     */
+    public @NotNull WebhookEmbed withColorRgb(@Nullable Integer color) {
+        WebhookEmbed embed = this.freeze().copy();
+        embed.color = color != null ? checkRgb(color) : null;
+        return embed;
+    }
+
+    /**
+     * Gets a frozen copy of the embed with the given
+     * timestamp, sharing everything else with it.
+     *
+     * @param timestamp The timestamp of the embed.
+     * @return The frozen copy.
+     */
+    public @NotNull WebhookEmbed withTimestamp(@Nullable Calendar timestamp) {
+        WebhookEmbed embed = this.freeze().copy();
+        embed.timestamp = timestamp != null ? timestamp.getTimeInMillis() : null;
+        embed.timezone = timestamp != null ? timestamp.getTimeZone() : null;
+        return embed;
+    }
+
+    /**
+     * Gets a frozen copy of the embed with the given
+     * image, sharing everything else with it.
+     *
+     * @param image The image of the embed.
+     * @return The frozen copy.
+     */
+    public @NotNull WebhookEmbed withImage(@Nullable WebhookImage image) {
+        WebhookEmbed embed = this.freeze().copy();
+        embed.image = image != null ? image.freeze() : null;
+        return embed;
+    }
+
+    /**
+     * Gets a frozen copy of the embed with the given
+     * author, sharing everything else with it.
+     *
+     * @param author The author of the embed.
+     * @return The frozen copy.
+     */
+    public @NotNull WebhookEmbed withAuthor(@Nullable WebhookAuthor author) {
+        WebhookEmbed embed = this.freeze().copy();
+        embed.author = author != null ? author.freeze() : null;
+        return embed;
+    }
+
+    /**
+     * Gets a frozen copy of the embed with the given
+     * footer, sharing everything else with it.
+     *
+     * @param footer The footer of the embed.
+     * @return The frozen copy.
+     */
+    public @NotNull WebhookEmbed withFooter(@Nullable WebhookFooter footer) {
+        WebhookEmbed embed = this.freeze().copy();
+        embed.footer = footer != null ? footer.freeze() : null;
+        return embed;
+    }
+
+    /**
+     * Gets a frozen copy of the embed with the given
+     * thumbnail, sharing everything else with it.
+     *
+     * @param thumbnail The thumbnail of the embed.
+     * @return The frozen copy.
+     */
+    public @NotNull WebhookEmbed withThumbnail(@Nullable WebhookThumbnail thumbnail) {
+        WebhookEmbed embed = this.freeze().copy();
+        embed.thumbnail = thumbnail != null ? thumbnail.freeze() : null;
+        return embed;
+    }
+
+    /**
+     * Gets a frozen copy of the embed with the given
+     * fields, sharing everything else with it.
+     *
+     * @param fields The fields of the embed.
+     * @return The frozen copy.
+     */
+    public @NotNull WebhookEmbed withFields(@Nullable List<WebhookField> fields) {
+        WebhookEmbed embed = this.freeze().copy();
+        embed.fields = JsonCache.freezeAll(fields, WebhookField::freeze);
+        return embed;
+    }
+
+    /**
+     * Gets a frozen copy of the embed with the
+     * given field added, sharing everything
+     * else with it.
+     *
+     * @param field The field to add.
+     * @return The frozen copy.
+     */
+    public @NotNull WebhookEmbed withField(@NotNull WebhookField field) {
+        WebhookEmbed embed = this.freeze().copy();
+        List<WebhookField> fields = JsonCache.modifiable(embed.fields);
+        fields.add(field.freeze());
+        embed.fields = JsonCache.copyOf(fields);
+        return embed;
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
-    public @NotNull JSONObject toJson() {
-        JSONObject json = new JSONObject();
+    public @NotNull byte[] toJsonBytes() {
+        return this.cache.get(this::writeMembers).clone();
+    }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void writeJson(@NotNull JsonWriter writer) {
+        this.cache.write(writer, this::writeMembers);
+    }
+
+    /**
+     * Gets the counts of the embed from the cache.
+     *
+     * @return The counts of the embed.
+     */
+    private @NotNull Limits limits() {
+        return this.cache.derive(this::countLimits);
+    }
+
+    /**
+     * Counts the characters of the embed and checks
+     * its limits, bypassing the cache.
+     *
+     * @return The counts of the embed.
+     */
+    private @NotNull Limits countLimits() {
+        String title = this.getTitle();
+        String description = this.getDescription();
+        int length = length(title) + length(description);
+        if (this.author != null)
+            length += length(this.author.getName());
+        if (this.footer != null)
+            length += length(this.footer.getText());
+
+        String violation = null;
+        if (length(title) > MAX_TITLE)
+            violation = "Embed title exceeds " + MAX_TITLE + " characters";
+        else if (length(description) > MAX_DESCRIPTION)
+            violation = "Embed description exceeds " + MAX_DESCRIPTION + " characters";
+        else if (this.author != null && length(this.author.getName()) > MAX_AUTHOR)
+            violation = "Embed author exceeds " + MAX_AUTHOR + " characters";
+        else if (this.footer != null && length(this.footer.getText()) > MAX_FOOTER)
+            violation = "Embed footer exceeds " + MAX_FOOTER + " characters";
+        else if (this.fields != null && this.fields.size() > MAX_FIELDS)
+            violation = "Embed has more than " + MAX_FIELDS + " fields";
+
+        if (this.fields != null) {
+            for (WebhookField field : this.fields) {
+                if (field == null)
+                    continue;
+
+                length += length(field.getName()) + length(field.getValue());
+                if (violation == null)
+                    violation = field.checkLimits();
+            }
+        }
+
+        if (violation == null && length > MAX_EMBED_TOTAL)
+            violation = "Embed exceeds " + MAX_EMBED_TOTAL + " characters";
+        return new Limits(length, violation);
+    }
+
+    /**
+     * Copies a frozen embed, sharing its parts.
+     * The copy is frozen too, but not shared yet,
+     * so the with methods can still set its fields.
+     *
+     * @return The copy.
+     */
+    private @NotNull WebhookEmbed copy() {
+        WebhookEmbed embed = new WebhookEmbed(this.url, this.title, this.description, this.color, null,
+                this.image, this.author, this.footer, this.thumbnail, this.fields);
+        embed.lazyTitle = this.lazyTitle;
+        embed.lazyDescription = this.lazyDescription;
+        embed.timestamp = this.timestamp;
+        embed.timezone = this.timezone;
+        embed.cache.freeze();
+        return embed;
+    }
+
+    /**
+     * Serializes the embed, bypassing the cache.
+     *
+     * @param writer The writer to write to.
+     */
+    private void writeMembers(@NotNull JsonWriter writer) {
+        String title = this.getTitle();
+        String description = this.getDescription();
+        writer.beginObject();
         if (this.url != null)
-            json.put("url", this.url);
-        if (this.title != null)
-            json.put("title", this.title);
-        if (this.description != null)
-            json.put("description", this.description);
+            writer.name("url").value(this.url);
+        if (title != null)
+            writer.name("title").value(title);
+        if (description != null)
+            writer.name("description").value(description);
         if (this.color != null)
-            json.put("color", colorToInt(this.color));
+            writer.name("color").value((int) this.color);
         if (this.timestamp != null)
-            json.put("timestamp", dateToText(this.timestamp));
+            writer.name("timestamp").dateValue(this.timezone != null ?
+                    this.timestamp + this.timezone.getOffset(this.timestamp) : this.timestamp);
         if (this.image != null)
-            json.put("image", this.image.toJson());
+            writer.name("image").value(this.image);
         if (this.author != null)
-            json.put("author", this.author.toJson());
+            writer.name("author").value(this.author);
         if (this.footer != null)
-            json.put("footer", this.footer.toJson());
+            writer.name("footer").value(this.footer);
         if (this.thumbnail != null)
-            json.put("thumbnail", this.thumbnail.toJson());
-        if (this.fields != null)
-            this.fields.forEach(field -> json.append("fields", field.toJson()));
+            writer.name("thumbnail").value(this.thumbnail);
+        if (this.fields != null && !this.fields.isEmpty()) {
+            writer.name("fields").beginArray();
+            this.fields.forEach(writer::value);
+            writer.endArray();
+        }
+        writer.endObject();
+    }
+
+    /**
+     * Reads an embed from its JSON text.
+     *
+     * @param json The JSON text.
+     * @return The embed.
+     * @throws JsonException If the JSON is malformed.
+     * @see #readJson(JsonReader)
+     */
+    public static @NotNull WebhookEmbed fromJson(@NotNull String json) {
+        JsonReader reader = new JsonReader(json);
+        WebhookEmbed embed = readJson(reader);
+        reader.endDocument();
+        return embed;
+    }
+
+    /**
+     * Reads an embed from the given reader, straight
+     * into the model without an intermediate map.
+     * Unknown members are skipped, and the timestamp
+     * is read in UTC.
+     *
+     * @param reader The reader to read from.
+     * @return The embed.
+     * @throws JsonException If the JSON is malformed.
+     */
+    public static @NotNull WebhookEmbed readJson(@NotNull JsonReader reader) {
+        WebhookEmbed embed = new WebhookEmbed(null, null, null, (Integer) null, null, null, null, null, null, new ArrayList<>());
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (reader.nextIfNull())
+                continue;
+
+            switch (name) {
+                case "url":
+                    embed.url = reader.nextString();
+                    break;
+                case "title":
+                    embed.title = reader.nextString();
+                    break;
+                case "description":
+                    embed.description = reader.nextString();
+                    break;
+                case "color":
+                    embed.color = reader.nextInt();
+                    break;
+                case "timestamp":
+                    String timestamp = reader.nextString();
+                    try {
+                        embed.timestamp = DateUtils.parseIso(timestamp);
+                    } catch (IllegalArgumentException e) {
+                        throw new JsonException("Invalid timestamp " + timestamp, e);
+                    }
+                    break;
+                case "image":
+                    embed.setImage(WebhookImage.readJson(reader));
+                    break;
+                case "author":
+                    embed.setAuthor(WebhookAuthor.readJson(reader));
+                    break;
+                case "footer":
+                    embed.setFooter(WebhookFooter.readJson(reader));
+                    break;
+                case "thumbnail":
+                    embed.setThumbnail(WebhookThumbnail.readJson(reader));
+                    break;
+                case "fields":
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        if (!reader.nextIfNull())
+                            embed.addField(WebhookField.readJson(reader));
+                    }
+                    reader.endArray();
+                    break;
+                default:
+                    reader.skipValue();
+                    break;
+            }
+        }
+        reader.endObject();
+        return embed;
+    }
+
+
+
+    /**
+     * The characters of an embed and the first
+     * limit it exceeds.
+     */
+    private static final class Limits {
 
-        return json;
+        private final int length;
+        private final String violation;
+
+        /**
+         * Creates new counts.
+         *
+         * @param length    The characters of the embed.
+         * @param violation The first limit the embed exceeds, or null.
+         */
+        private Limits(int length,
+                       @Nullable String violation) {
+            this.length = length;
+            this.violation = violation;
+        }
     }
 
 
@@ -359,16 +1034,40 @@ public WebhookEmbed(@Nullable String url,
      */
     public static class Builder implements com.hakan.jdw.Builder<WebhookEmbed> {
 
+        /**
+         * Builders of {@link #pooled(UnaryOperator)}
+         * and of the embeds of webhook builders.
+         */
+        static final BuilderPool<WebhookEmbed, Builder> POOL = new BuilderPool<>(Builder::new, Builder::reset);
+
+        /**
+         * Builds an embed with a builder that is kept
+         * per thread and cleared after the embed is
+         * built. The builder must not be used after
+         * the function returns.
+         *
+         * @param builderFunction The builder function.
+         * @return The built embed.
+         */
+        public static @NotNull WebhookEmbed pooled(@NotNull UnaryOperator<Builder> builderFunction) {
+            return POOL.build(builderFunction);
+        }
+
+
+
         private String url;
         private String title;
         private String description;
-        private Color color;
-        private Calendar timestamp;
+        private LazyText lazyTitle;
+        private LazyText lazyDescription;
+        private Integer color;
+        private Long timestamp;
+        private TimeZone timezone;
         private WebhookImage image;
         private WebhookAuthor author;
         private WebhookFooter footer;
         private WebhookThumbnail thumbnail;
-        private List<WebhookField> fields = new ArrayList<>();
+        private final List<WebhookField> fields = new ArrayList<>();
 
         /**
          * Sets the url of the embed.
@@ -389,6 +1088,21 @@ public static class Builder implements com.hakan.jdw.Builder<WebhookEmbed> {
          */
         public @NotNull Builder title(@NotNull String title) {
             this.title = title;
+            this.lazyTitle = null;
+            return this;
+        }
+
+        /**
+         * Sets the title of the embed to a text
+         * that is built when it is first needed,
+         * usually when the embed is sent.
+         *
+         * @param title Builds the title of the embed.
+         * @return The current instance in order to chain call methods.
+         */
+        public @NotNull Builder title(@NotNull Supplier<String> title) {
+            this.title = null;
+            this.lazyTitle = new LazyText(title);
             return this;
         }
 
@@ -400,6 +1114,7 @@ public static class Builder implements com.hakan.jdw.Builder<WebhookEmbed> {
          */
         public @NotNull Builder description(@NotNull String... description) {
             this.description = String.join("\n", description);
+            this.lazyDescription = null;
             return this;
         }
 
@@ -411,6 +1126,21 @@ public static class Builder implements com.hakan.jdw.Builder<WebhookEmbed> {
          */
         public @NotNull Builder description(@NotNull List<String> description) {
             this.description = String.join("\n", description);
+            this.lazyDescription = null;
+            return this;
+        }
+
+        /**
+         * Sets the description of the embed to a text
+         * that is built when it is first needed,
+         * usually when the embed is sent.
+         *
+         * @param description Builds the description of the embed.
+         * @return The current instance in order to chain call methods.
+         */
+        public @NotNull Builder description(@NotNull Supplier<String> description) {
+            this.description = null;
+            this.lazyDescription = new LazyText(description);
             return this;
         }
 
@@ -421,7 +1151,31 @@ public static class Builder implements com.hakan.jdw.Builder<WebhookEmbed> {
          * @return The current instance in order to chain call methods.
          */
         public @NotNull Builder color(@NotNull Color color) {
-            this.color = color;
+            this.color = colorToInt(color);
+            return this;
+        }
+
+        /**
+         * Sets the color of the embed as RGB.
+         *
+         * @param color The color of the embed, like 0xFF0000.
+         * @return The current instance in order to chain call methods.
+         * @throws IllegalArgumentException If the color is not between 0 and 0xFFFFFF.
+         */
+        public @NotNull Builder color(int color) {
+            this.color = checkRgb(color);
+            return this;
+        }
+
+        /**
+         * Sets the color of the embed as a hex string.
+         *
+         * @param color The color of the embed, like "#FF0000".
+         * @return The current instance in order to chain call methods.
+         * @throws IllegalArgumentException If the color is not a hex color.
+         */
+        public @NotNull Builder color(@NotNull String color) {
+            this.color = hexToInt(color);
             return this;
         }
 
@@ -432,7 +1186,28 @@ public static class Builder implements com.hakan.jdw.Builder<WebhookEmbed> {
          * @return The current instance in order to chain call methods.
          */
         public @NotNull Builder timestamp(@NotNull Calendar timestamp) {
+            return this.timestamp(timestamp.getTimeInMillis(), timestamp.getTimeZone());
+        }
+
+        /**
+         * Sets the timestamp of the embed, in UTC.
+         *
+         * @param timestamp The timestamp of the embed.
+         * @return The current instance in order to chain call methods.
+         */
+        public @NotNull Builder timestamp(@NotNull Instant timestamp) {
+            return this.timestamp(timestamp.toEpochMilli());
+        }
+
+        /**
+         * Sets the timestamp of the embed, in UTC.
+         *
+         * @param timestamp The timestamp of the embed, in milliseconds since the epoch.
+         * @return The current instance in order to chain call methods.
+         */
+        public @NotNull Builder timestamp(long timestamp) {
             this.timestamp = timestamp;
+            this.timezone = null;
             return this;
         }
 
@@ -445,10 +1220,7 @@ public static class Builder implements com.hakan.jdw.Builder<WebhookEmbed> {
          */
         public @NotNull Builder timestamp(@NotNull Date timestamp,
                                           @NotNull TimeZone timezone) {
-            this.timestamp = Calendar.getInstance();
-            this.timestamp.setTimeZone(timezone);
-            this.timestamp.setTime(timestamp);
-            return this;
+            return this.timestamp(timestamp.getTime(), timezone);
         }
 
         /**
@@ -460,7 +1232,9 @@ public static class Builder implements com.hakan.jdw.Builder<WebhookEmbed> {
          */
         public @NotNull Builder timestamp(long timestamp,
                                           @NotNull TimeZone timezone) {
-            return this.timestamp(new Date(timestamp), timezone);
+            this.timestamp = timestamp;
+            this.timezone = timezone;
+            return this;
         }
 
         /**
@@ -538,7 +1312,8 @@ public static class Builder implements com.hakan.jdw.Builder<WebhookEmbed> {
          * @return The current instance in order to chain call methods.
          */
         public @NotNull Builder fields(@NotNull List<WebhookField> fields) {
-            this.fields = fields;
+            this.fields.clear();
+            this.fields.addAll(fields);
             return this;
         }
 
@@ -554,77 +1329,109 @@ public static class Builder implements com.hakan.jdw.Builder<WebhookEmbed> {
         }
 
         /**
-         * Creates a new image builder and
-         * applies the builder function.
+         * Applies the builder function to a
+         * image builder that is kept per thread.
          *
          * @param builderFunction The builder function.
          * @return The current instance in order to chain call methods.
          */
         public @NotNull Builder image(@NotNull UnaryOperator<WebhookImage.Builder> builderFunction) {
-            return this.image(builderFunction.apply(new WebhookImage.Builder()).build());
+            return this.image(WebhookImage.Builder.POOL.build(builderFunction));
         }
 
         /**
-         * Creates a new author builder and
-         * applies the builder function.
+         * Applies the builder function to a
+         * author builder that is kept per thread.
          *
          * @param builderFunction The builder function.
          * @return The current instance in order to chain call methods.
          */
         public @NotNull Builder author(@NotNull UnaryOperator<WebhookAuthor.Builder> builderFunction) {
-            return this.author(builderFunction.apply(new WebhookAuthor.Builder()).build());
+            return this.author(WebhookAuthor.Builder.POOL.build(builderFunction));
         }
 
         /**
-         * Creates a new footer builder and
-         * applies the builder function.
+         * Applies the builder function to a
+         * footer builder that is kept per thread.
          *
          * @param builderFunction The builder function.
          * @return The current instance in order to chain call methods.
          */
         public @NotNull Builder footer(@NotNull UnaryOperator<WebhookFooter.Builder> builderFunction) {
-            return this.footer(builderFunction.apply(new WebhookFooter.Builder()).build());
+            return this.footer(WebhookFooter.Builder.POOL.build(builderFunction));
         }
 
         /**
-         * Creates a new thumbnail builder and
-         * applies the builder function.
+         * Applies the builder function to a
+         * thumbnail builder that is kept per thread.
          *
          * @param builderFunction The builder function.
          * @return The current instance in order to chain call methods.
          */
         public @NotNull Builder thumbnail(@NotNull UnaryOperator<WebhookThumbnail.Builder> builderFunction) {
-            return this.thumbnail(builderFunction.apply(new WebhookThumbnail.Builder()).build());
+            return this.thumbnail(WebhookThumbnail.Builder.POOL.build(builderFunction));
         }
 
         /**
-         * Creates a new field builder and
-         * applies the builder function.
+         * Applies the builder function to a
+         * field builder that is kept per thread.
          *
          * @param builderFunction The builder function.
          * @return The current instance in order to chain call methods.
          */
         public @NotNull Builder field(@NotNull UnaryOperator<WebhookField.Builder> builderFunction) {
-            return this.field(builderFunction.apply(new WebhookField.Builder()).build());
+            return this.field(WebhookField.Builder.POOL.build(builderFunction));
+        }
+
+        /**
+         * Clears the builder, keeping the capacity
+         * of its fields, so it can build another embed.
+         *
+         * @return The current instance in order to chain call methods.
+         */
+        public @NotNull Builder reset() {
+            this.url = null;
+            this.title = null;
+            this.description = null;
+            this.lazyTitle = null;
+            this.lazyDescription = null;
+            this.color = null;
+            this.timestamp = null;
+            this.timezone = null;
+            this.image = null;
+            this.author = null;
+            this.footer = null;
+            this.thumbnail = null;
+            this.fields.clear();
+            return this;
         }
 
         /**
          * {@inheritDoc}
+         * The fields are copied into an unmodifiable
+         * list of exactly their size, so the builder
+         * can be reset and used again. Changing them
+         * through the embed copies them once more.
          */
         @Override
         public @NotNull WebhookEmbed build() {
-            return new WebhookEmbed(
+            WebhookEmbed embed = new WebhookEmbed(
                     this.url,
                     this.title,
                     this.description,
                     this.color,
-                    this.timestamp,
+                    null,
                     this.image,
                     this.author,
                     this.footer,
                     this.thumbnail,
-                    this.fields
+                    JsonCache.copyOf(this.fields)
             );
+            embed.lazyTitle = this.lazyTitle;
+            embed.lazyDescription = this.lazyDescription;
+            embed.timestamp = this.timestamp;
+            embed.timezone = this.timezone;
+            return embed;
         }
     }
 }
@@ -1,10 +1,17 @@
 package com.hakan.jdw;
 
+import com.hakan.jdw.json.JsonException;
+import com.hakan.jdw.json.JsonReader;
+import com.hakan.jdw.json.JsonWriter;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
-import org.json.JSONObject;
 
 import java.util.List;
+import java.util.function.Supplier;
+
+import static com.hakan.jdw.utils.LimitUtils.MAX_FIELD_NAME;
+import static com.hakan.jdw.utils.LimitUtils.MAX_FIELD_VALUE;
+import static com.hakan.jdw.utils.LimitUtils.length;
 
 /**
  * Represents a webhook field.
@@ -13,7 +20,9 @@ public class WebhookField implements JsonObject {
 
     private String name;
     private String value;
+    private LazyText lazyValue;
     private Boolean inline;
+    final JsonCache cache = new JsonCache();
 
     /**
      * Creates a new webhook field.
@@ -45,7 +54,7 @@ public WebhookField(@NotNull String name,
      * @return The value of the field.
      */
     public @NotNull String getValue() {
-        return this.value;
+        return this.lazyValue != null ? this.lazyValue.get() : this.value;
     }
 
     /**
@@ -64,7 +73,9 @@ public WebhookField(@NotNull String name,
      * @return The current instance in order to chain call methods.
      */
     public @NotNull WebhookField setName(@NotNull String... name) {
+        this.cache.checkMutable();
         this.name = String.join("\n", name);
+        this.cache.invalidate();
         return this;
     }
 
@@ -75,7 +86,9 @@ public WebhookField(@NotNull String name,
      * @return The current instance in order to chain call methods.
      */
     public @NotNull WebhookField setName(@NotNull List<String> name) {
+        this.cache.checkMutable();
         this.name = String.join("\n", name);
+        this.cache.invalidate();
         return this;
     }
 
@@ -86,7 +99,10 @@ public WebhookField(@NotNull String name,
      * @return The current instance in order to chain call methods.
      */
     public @NotNull WebhookField setValue(@NotNull String... value) {
+        this.cache.checkMutable();
         this.value = String.join("\n", value);
+        this.lazyValue = null;
+        this.cache.invalidate();
         return this;
     }
 
@@ -97,7 +113,10 @@ public WebhookField(@NotNull String name,
      * @return The current instance in order to chain call methods.
      */
     public @NotNull WebhookField setValue(@NotNull List<String> value) {
+        this.cache.checkMutable();
         this.value = String.join("\n", value);
+        this.lazyValue = null;
+        this.cache.invalidate();
         return this;
     }
 
@@ -108,25 +127,143 @@ public WebhookField(@NotNull String name,
      * @return The current instance in order to chain call methods.
      */
     public @NotNull WebhookField setInline(@Nullable Boolean inline) {
+        this.cache.checkMutable();
         this.inline = inline;
+        this.cache.invalidate();
+        return this;
+    }
+
+    /**
+     * Checks the field against the limits of discord.
+     *
+     * @return The first limit the field exceeds, or null if it fits.
+     */
+    public @Nullable String checkLimits() {
+        if (length(this.name) > MAX_FIELD_NAME)
+            return "Field name exceeds " + MAX_FIELD_NAME + " characters";
+        if (length(this.getValue()) > MAX_FIELD_VALUE)
+            return "Field value exceeds " + MAX_FIELD_VALUE + " characters";
+        return null;
+    }
+
+    /**
+     * Checks that the field fits the limits of discord.
+     *
+     * @return The current instance in order to chain call methods.
+     * @throws IllegalStateException If the field exceeds a limit.
+     */
+    public @NotNull WebhookField validate() {
+        String violation = this.checkLimits();
+        if (violation != null)
+            throw new IllegalStateException(violation);
         return this;
     }
 
+    /**
+     * Checks if the lazy value of the field
+     * was resolved, see {@link Builder#value(Supplier)}.
+     *
+     * @return True if no text is left to resolve.
+     */
+    public boolean isResolved() {
+        return LazyText.isResolved(this.lazyValue);
+    }
+
+    /**
+     * Checks if the field is frozen.
+     * Frozen fields can not be changed.
+     *
+     * @return True if the field is frozen.
+     */
+    public boolean isFrozen() {
+        return this.cache.isFrozen();
+    }
+
+    /**
+     * Gets a frozen copy of the field, or the
+     * field itself if it is already frozen.
+     *
+     * @return The frozen field.
+     */
+    public @NotNull WebhookField freeze() {
+        if (this.cache.isFrozen())
+            return this;
+
+        WebhookField field = new WebhookField(this.name, this.value, this.inline);
+        field.lazyValue = this.lazyValue;
+        field.cache.freeze(this.cache);
+        return field;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public @NotNull byte[] toJsonBytes() {
+        return this.cache.get(this::writeMembers).clone();
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
-    public @NotNull JSONObject toJson() {
-        JSONObject json = new JSONObject();
+    public void writeJson(@NotNull JsonWriter writer) {
+        this.cache.write(writer, this::writeMembers);
+    }
 
+    /**
+     * Serializes the field, bypassing the cache.
+     *
+     * @param writer The writer to write to.
+     */
+    private void writeMembers(@NotNull JsonWriter writer) {
+        String value = this.getValue();
+        writer.beginObject();
         if (this.name != null)
-            json.put("name", this.name);
-        if (this.value != null)
-            json.put("value", this.value);
+            writer.name("name").value(this.name);
+        if (value != null)
+            writer.name("value").value(value);
         if (this.inline != null)
-            json.put("inline", this.inline);
+            writer.name("inline").value((boolean) this.inline);
+        writer.endObject();
+    }
+
+    /**
+     * Reads a field from the given reader.
+     * Unknown members are skipped.
+     *
+     * @param reader The reader to read from.
+     * @return The field.
+     * @throws JsonException If the JSON is malformed.
+     */
+    public static @NotNull WebhookField readJson(@NotNull JsonReader reader) {
+        String fieldName = "";
+        String value = "";
+        Boolean inline = null;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (reader.nextIfNull())
+                continue;
 
-        return json;
+            switch (name) {
+                case "name":
+                    fieldName = reader.nextString();
+                    break;
+                case "value":
+                    value = reader.nextString();
+                    break;
+                case "inline":
+                    inline = reader.nextBoolean();
+                    break;
+                default:
+                    reader.skipValue();
+                    break;
+            }
+        }
+        reader.endObject();
+        return new WebhookField(fieldName, value, inline);
     }
 
 
@@ -136,8 +273,14 @@ public WebhookField(@NotNull String name,
      */
     public static class Builder implements com.hakan.jdw.Builder<WebhookField> {
 
+        /**
+         * Builders of the fields of embed builders.
+         */
+        static final BuilderPool<WebhookField, Builder> POOL = new BuilderPool<>(Builder::new, Builder::reset);
+
         private String name = "";
         private String value = "";
+        private LazyText lazyValue;
         private boolean inline;
 
         /**
@@ -170,6 +313,7 @@ public static class Builder implements com.hakan.jdw.Builder<WebhookField> {
          */
         public @NotNull Builder value(@NotNull String... value) {
             this.value = String.join("\n", value);
+            this.lazyValue = null;
             return this;
         }
 
@@ -181,6 +325,21 @@ public static class Builder implements com.hakan.jdw.Builder<WebhookField> {
          */
         public @NotNull Builder value(@NotNull List<String> value) {
             this.value = String.join("\n", value);
+            this.lazyValue = null;
+            return this;
+        }
+
+        /**
+         * Sets the value of the field to a text
+         * that is built when it is first needed,
+         * usually when the field is sent.
+         *
+         * @param value Builds the value of the field.
+         * @return The current instance in order to chain call methods.
+         */
+        public @NotNull Builder value(@NotNull Supplier<String> value) {
+            this.value = "";
+            this.lazyValue = new LazyText(value);
             return this;
         }
 
@@ -195,16 +354,32 @@ public static class Builder implements com.hakan.jdw.Builder<WebhookField> {
             return this;
         }
 
+        /**
+         * Clears the builder, so it
+         * can build another field.
+         *
+         * @return The current instance in order to chain call methods.
+         */
+        public @NotNull Builder reset() {
+            this.name = "";
+            this.value = "";
+            this.lazyValue = null;
+            this.inline = false;
+            return this;
+        }
+
         /**
          * {@inheritDoc}
          */
         @Override
         public @NotNull WebhookField build() {
-            return new WebhookField(
+            WebhookField field = new WebhookField(
                     this.name,
                     this.value,
                     this.inline
             );
+            field.lazyValue = this.lazyValue;
+            return field;
         }
     }
 }
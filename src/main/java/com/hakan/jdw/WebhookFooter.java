@@ -1,8 +1,10 @@
 package com.hakan.jdw;
 
+import com.hakan.jdw.json.JsonException;
+import com.hakan.jdw.json.JsonReader;
+import com.hakan.jdw.json.JsonWriter;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
-import org.json.JSONObject;
 
 import java.util.List;
 
@@ -13,6 +15,7 @@ public class WebhookFooter implements JsonObject {
 
     private String text;
     private String iconUrl;
+    final JsonCache cache = new JsonCache();
 
     /**
      * Creates a new webhook footer.
@@ -51,7 +54,9 @@ public WebhookFooter(@Nullable String text,
      * @return The current instance in order to chain call methods.
      */
     public @NotNull WebhookFooter setText(@Nullable String... text) {
+        this.cache.checkMutable();
         this.text = String.join("\n", text);
+        this.cache.invalidate();
         return this;
     }
 
@@ -62,7 +67,9 @@ public WebhookFooter(@Nullable String text,
      * @return The current instance in order to chain call methods.
      */
     public @NotNull WebhookFooter setText(@NotNull List<String> text) {
+        this.cache.checkMutable();
         this.text = String.join("\n", text);
+        this.cache.invalidate();
         return this;
     }
 
@@ -73,23 +80,99 @@ public WebhookFooter(@Nullable String text,
      * @return The current instance in order to chain call methods.
      */
     public @NotNull WebhookFooter setIconUrl(@Nullable String iconUrl) {
+        this.cache.checkMutable();
         this.iconUrl = iconUrl;
+        this.cache.invalidate();
         return this;
     }
 
+    /**
+     * Checks if the footer is frozen.
+     * Frozen footers can not be changed.
+     *
+     * @return True if the footer is frozen.
+     */
+    public boolean isFrozen() {
+        return this.cache.isFrozen();
+    }
+
+    /**
+     * Gets a frozen copy of the footer, or the
+     * footer itself if it is already frozen.
+     *
+     * @return The frozen footer.
+     */
+    public @NotNull WebhookFooter freeze() {
+        if (this.cache.isFrozen())
+            return this;
+
+        WebhookFooter footer = new WebhookFooter(this.text, this.iconUrl);
+        footer.cache.freeze(this.cache);
+        return footer;
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
-    public @NotNull JSONObject toJson() {
-        JSONObject json = new JSONObject();
+    public @NotNull byte[] toJsonBytes() {
+        return this.cache.get(this::writeMembers).clone();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void writeJson(@NotNull JsonWriter writer) {
+        this.cache.write(writer, this::writeMembers);
+    }
 
+    /**
+     * Serializes the footer, bypassing the cache.
+     *
+     * @param writer The writer to write to.
+     */
+    private void writeMembers(@NotNull JsonWriter writer) {
+        writer.beginObject();
         if (this.text != null)
-            json.put("text", this.text);
+            writer.name("text").value(this.text);
         if (this.iconUrl != null)
-            json.put("icon_url", this.iconUrl);
+            writer.name("icon_url").value(this.iconUrl);
+        writer.endObject();
+    }
 
-        return json;
+    /**
+     * Reads a footer from the given reader.
+     * Unknown members are skipped.
+     *
+     * @param reader The reader to read from.
+     * @return The footer.
+     * @throws JsonException If the JSON is malformed.
+     */
+    public static @NotNull WebhookFooter readJson(@NotNull JsonReader reader) {
+        String text = null;
+        String iconUrl = null;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (reader.nextIfNull())
+                continue;
+
+            switch (name) {
+                case "text":
+                    text = reader.nextString();
+                    break;
+                case "icon_url":
+                    iconUrl = reader.nextString();
+                    break;
+                default:
+                    reader.skipValue();
+                    break;
+            }
+        }
+        reader.endObject();
+        return new WebhookFooter(text, iconUrl);
     }
 
 
@@ -99,6 +182,11 @@ public WebhookFooter(@Nullable String text,
      */
     public static class Builder implements com.hakan.jdw.Builder<WebhookFooter> {
 
+        /**
+         * Builders of the footers of embed builders.
+         */
+        static final BuilderPool<WebhookFooter, Builder> POOL = new BuilderPool<>(Builder::new, Builder::reset);
+
         private String text;
         private String iconUrl;
 
@@ -135,6 +223,18 @@ public static class Builder implements com.hakan.jdw.Builder<WebhookFooter> {
             return this;
         }
 
+        /**
+         * Clears the builder, so it
+         * can build another footer.
+         *
+         * @return The current instance in order to chain call methods.
+         */
+        public @NotNull Builder reset() {
+            this.text = null;
+            this.iconUrl = null;
+            return this;
+        }
+
         /**
          * {@inheritDoc}
          */
@@ -1,8 +1,10 @@
 package com.hakan.jdw;
 
+import com.hakan.jdw.json.JsonException;
+import com.hakan.jdw.json.JsonReader;
+import com.hakan.jdw.json.JsonWriter;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
-import org.json.JSONObject;
 
 /**
  * Represents a webhook image.
@@ -10,6 +12,7 @@
 public class WebhookImage implements JsonObject {
 
     private String url;
+    final JsonCache cache = new JsonCache();
 
     /**
      * Creates a new webhook image.
@@ -36,21 +39,93 @@ public WebhookImage(@Nullable String url) {
      * @return The current instance in order to chain call methods.
      */
     public @NotNull WebhookImage setUrl(@Nullable String url) {
+        this.cache.checkMutable();
         this.url = url;
+        this.cache.invalidate();
         return this;
     }
 
+    /**
+     * Checks if the image is frozen.
+     * Frozen images can not be changed.
+     *
+     * @return True if the image is frozen.
+     */
+    public boolean isFrozen() {
+        return this.cache.isFrozen();
+    }
+
+    /**
+     * Gets a frozen copy of the image, or the
+     * image itself if it is already frozen.
+     *
+     * @return The frozen image.
+     */
+    public @NotNull WebhookImage freeze() {
+        if (this.cache.isFrozen())
+            return this;
+
+        WebhookImage image = new WebhookImage(this.url);
+        image.cache.freeze(this.cache);
+        return image;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public @NotNull byte[] toJsonBytes() {
+        return this.cache.get(this::writeMembers).clone();
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
-    public @NotNull JSONObject toJson() {
-        JSONObject json = new JSONObject();
+    public void writeJson(@NotNull JsonWriter writer) {
+        this.cache.write(writer, this::writeMembers);
+    }
 
+    /**
+     * Serializes the image, bypassing the cache.
+     *
+     * @param writer The writer to write to.
+     */
+    private void writeMembers(@NotNull JsonWriter writer) {
+        writer.beginObject();
         if (this.url != null)
-            json.put("url", this.url);
+            writer.name("url").value(this.url);
+        writer.endObject();
+    }
+
+    /**
+     * Reads an image from the given reader.
+     * Unknown members are skipped.
+     *
+     * @param reader The reader to read from.
+     * @return The image.
+     * @throws JsonException If the JSON is malformed.
+     */
+    public static @NotNull WebhookImage readJson(@NotNull JsonReader reader) {
+        String url = null;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (reader.nextIfNull())
+                continue;
 
-        return json;
+            switch (name) {
+                case "url":
+                    url = reader.nextString();
+                    break;
+                default:
+                    reader.skipValue();
+                    break;
+            }
+        }
+        reader.endObject();
+        return new WebhookImage(url);
     }
 
 
@@ -60,6 +135,11 @@ public WebhookImage(@Nullable String url) {
      */
     public static class Builder implements com.hakan.jdw.Builder<WebhookImage> {
 
+        /**
+         * Builders of the images of embed builders.
+         */
+        static final BuilderPool<WebhookImage, Builder> POOL = new BuilderPool<>(Builder::new, Builder::reset);
+
         private String url;
 
         /**
@@ -73,6 +153,17 @@ public static class Builder implements com.hakan.jdw.Builder<WebhookImage> {
             return this;
         }
 
+        /**
+         * Clears the builder, so it
+         * can build another image.
+         *
+         * @return The current instance in order to chain call methods.
+         */
+        public @NotNull Builder reset() {
+            this.url = null;
+            return this;
+        }
+
         /**
          * {@inheritDoc}
          */
@@ -0,0 +1,222 @@
+package com.hakan.jdw;
+
+import com.hakan.jdw.dispatch.WebhookDispatcher;
+import com.hakan.jdw.http.WebhookBody;
+import com.hakan.jdw.http.WebhookRequest;
+import com.hakan.jdw.http.WebhookResponse;
+import com.hakan.jdw.http.WebhookTransport;
+import com.hakan.jdw.json.JsonWriter;
+import com.hakan.jdw.utils.WebhookUtils;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A webhook compiled into JSON with named placeholders,
+ * for messages that are sent many times with a few
+ * values changed.
+ * <p>
+ * Placeholders are written as {@code {name}} in any text
+ * of the webhook, such as its content, an embed title or
+ * a field value. Names may contain letters, digits, '_',
+ * '.' and '-'. The webhook is serialized once, and every
+ * render only copies the bytes between placeholders and
+ * escapes the values. Numbers, such as the color of an
+ * embed, stay as they were when the template was compiled.
+ */
+public class WebhookTemplate {
+
+    private final byte[] json;
+    private final int[] starts;
+    private final int[] ends;
+    private final String[] names;
+    private final Set<String> placeholders;
+    private final List<WebhookAttachment> attachments;
+
+    /**
+     * Compiles a webhook into a template. Later
+     * changes to the webhook are not reflected.
+     *
+     * @param webhook The webhook with placeholders.
+     */
+    public WebhookTemplate(@NotNull Webhook webhook) {
+        this.json = webhook.toJsonBytes();
+        this.attachments = webhook.hasAttachments() ?
+                new ArrayList<>(webhook.getAttachments()) : Collections.emptyList();
+
+        int count = 0;
+        int[] starts = new int[8];
+        int[] ends = new int[8];
+        boolean string = false;
+        for (int i = 0; i < this.json.length; i++) {
+            byte b = this.json[i];
+            if (!string) {
+                string = b == '"';
+                continue;
+            }
+
+            if (b == '\\') {
+                i++;
+            } else if (b == '"') {
+                string = false;
+            } else if (b == '{') {
+                int end = i + 1;
+                while (end < this.json.length && isNameByte(this.json[end]))
+                    end++;
+                if (end == i + 1 || end == this.json.length || this.json[end] != '}')
+                    continue;
+
+                if (count == starts.length) {
+                    starts = Arrays.copyOf(starts, count * 2);
+                    ends = Arrays.copyOf(ends, count * 2);
+                }
+                starts[count] = i;
+                ends[count++] = end + 1;
+                i = end;
+            }
+        }
+
+        this.starts = Arrays.copyOf(starts, count);
+        this.ends = Arrays.copyOf(ends, count);
+        this.names = new String[count];
+        Set<String> placeholders = new LinkedHashSet<>();
+        for (int i = 0; i < count; i++) {
+            this.names[i] = new String(this.json, this.starts[i] + 1,
+                    this.ends[i] - this.starts[i] - 2, StandardCharsets.US_ASCII);
+            placeholders.add(this.names[i]);
+        }
+        this.placeholders = Collections.unmodifiableSet(placeholders);
+    }
+
+    /**
+     * Gets the names of the placeholders,
+     * in the order they first appear.
+     *
+     * @return The names of the placeholders.
+     */
+    public @NotNull Set<String> getPlaceholders() {
+        return this.placeholders;
+    }
+
+    /**
+     * Renders the template into UTF-8 encoded JSON.
+     * Values are converted with {@link String#valueOf(Object)}.
+     *
+     * @param values The values of the placeholders by name.
+     * @return The JSON bytes.
+     * @throws IllegalArgumentException If a placeholder has no value.
+     */
+    public @NotNull byte[] render(@NotNull Map<String, ?> values) {
+        return JsonWriter.toBytes((writer) -> this.writeJson(writer, values));
+    }
+
+    /**
+     * Renders the template into the given writer.
+     *
+     * @param writer The writer to write to.
+     * @param values The values of the placeholders by name.
+     * @throws IllegalArgumentException If a placeholder has no value.
+     */
+    public void writeJson(@NotNull JsonWriter writer,
+                          @NotNull Map<String, ?> values) {
+        int position = 0;
+        for (int i = 0; i < this.names.length; i++) {
+            Object value = values.get(this.names[i]);
+            if (value == null)
+                throw new IllegalArgumentException("Missing value of placeholder: " + this.names[i]);
+
+            writer.rawBytes(this.json, position, this.starts[i] - position);
+            writer.stringContent(String.valueOf(value));
+            position = this.ends[i];
+        }
+        writer.rawBytes(this.json, position, this.json.length - position);
+    }
+
+    /**
+     * Creates the request body of the rendered template:
+     * json, or multipart/form-data if the webhook had
+     * attachments.
+     *
+     * @param values The values of the placeholders by name.
+     * @return The request body.
+     */
+    public @NotNull WebhookBody toBody(@NotNull Map<String, ?> values) {
+        byte[] json = this.render(values);
+        if (!this.attachments.isEmpty())
+            return WebhookBody.multipart(json, this.attachments);
+        return WebhookBody.json(json);
+    }
+
+    /**
+     * Creates a request of the rendered template.
+     *
+     * @param url    The url of the webhook.
+     * @param values The values of the placeholders by name.
+     * @return The request.
+     */
+    public @NotNull WebhookRequest toRequest(@NotNull String url,
+                                             @NotNull Map<String, ?> values) {
+        return new WebhookRequest(url, this.toBody(values));
+    }
+
+    /**
+     * Renders and executes the template.
+     *
+     * @param url    The url of the webhook.
+     * @param values The values of the placeholders by name.
+     */
+    public void execute(@NotNull String url,
+                        @NotNull Map<String, ?> values) {
+        this.execute(WebhookUtils.getTransport(), url, values);
+    }
+
+    /**
+     * Renders and executes the template
+     * through the given transport.
+     *
+     * @param transport The transport to send the webhook with.
+     * @param url       The url of the webhook.
+     * @param values    The values of the placeholders by name.
+     * @return The response discord returned.
+     */
+    public @NotNull WebhookResponse execute(@NotNull WebhookTransport transport,
+                                            @NotNull String url,
+                                            @NotNull Map<String, ?> values) {
+        return WebhookUtils.execute(transport, url, this.toBody(values));
+    }
+
+    /**
+     * Renders the template and executes it
+     * asynchronously on the given dispatcher.
+     *
+     * @param dispatcher The dispatcher to send the webhook with.
+     * @param url        The url of the webhook.
+     * @param values     The values of the placeholders by name.
+     * @return The future of the response.
+     */
+    public @NotNull CompletableFuture<WebhookResponse> executeAsync(@NotNull WebhookDispatcher dispatcher,
+                                                                    @NotNull String url,
+                                                                    @NotNull Map<String, ?> values) {
+        return dispatcher.submit(this.toRequest(url, values));
+    }
+
+    /**
+     * Checks if a byte can be part of
+     * the name of a placeholder.
+     *
+     * @param b The byte.
+     * @return True if it can be part of a name.
+     */
+    private static boolean isNameByte(byte b) {
+        return (b >= 'a' && b <= 'z') || (b >= 'A' && b <= 'Z') || (b >= '0' && b <= '9')
+                || b == '_' || b == '.' || b == '-';
+    }
+}
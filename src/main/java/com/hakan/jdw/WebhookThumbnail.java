@@ -1,8 +1,10 @@
 package com.hakan.jdw;
 
+import com.hakan.jdw.json.JsonException;
+import com.hakan.jdw.json.JsonReader;
+import com.hakan.jdw.json.JsonWriter;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
-import org.json.JSONObject;
 
 /**
  * Represents a webhook thumbnail.
@@ -10,6 +12,7 @@
 public class WebhookThumbnail implements JsonObject {
 
     private String url;
+    final JsonCache cache = new JsonCache();
 
     /**
      * Creates a new webhook thumbnail.
@@ -36,21 +39,93 @@ public WebhookThumbnail(@Nullable String url) {
      * @return The current instance in order to chain call methods.
      */
     public @NotNull WebhookThumbnail setUrl(@Nullable String url) {
+        this.cache.checkMutable();
         this.url = url;
+        this.cache.invalidate();
         return this;
     }
 
+    /**
+     * Checks if the thumbnail is frozen.
+     * Frozen thumbnails can not be changed.
+     *
+     * @return True if the thumbnail is frozen.
+     */
+    public boolean isFrozen() {
+        return this.cache.isFrozen();
+    }
+
+    /**
+     * Gets a frozen copy of the thumbnail, or the
+     * thumbnail itself if it is already frozen.
+     *
+     * @return The frozen thumbnail.
+     */
+    public @NotNull WebhookThumbnail freeze() {
+        if (this.cache.isFrozen())
+            return this;
+
+        WebhookThumbnail thumbnail = new WebhookThumbnail(this.url);
+        thumbnail.cache.freeze(this.cache);
+        return thumbnail;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public @NotNull byte[] toJsonBytes() {
+        return this.cache.get(this::writeMembers).clone();
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
-    public @NotNull JSONObject toJson() {
-        JSONObject json = new JSONObject();
+    public void writeJson(@NotNull JsonWriter writer) {
+        this.cache.write(writer, this::writeMembers);
+    }
 
+    /**
+     * Serializes the thumbnail, bypassing the cache.
+     *
+     * @param writer The writer to write to.
+     */
+    private void writeMembers(@NotNull JsonWriter writer) {
+        writer.beginObject();
         if (this.url != null)
-            json.put("url", this.url);
+            writer.name("url").value(this.url);
+        writer.endObject();
+    }
+
+    /**
+     * Reads a thumbnail from the given reader.
+     * Unknown members are skipped.
+     *
+     * @param reader The reader to read from.
+     * @return The thumbnail.
+     * @throws JsonException If the JSON is malformed.
+     */
+    public static @NotNull WebhookThumbnail readJson(@NotNull JsonReader reader) {
+        String url = null;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (reader.nextIfNull())
+                continue;
 
-        return json;
+            switch (name) {
+                case "url":
+                    url = reader.nextString();
+                    break;
+                default:
+                    reader.skipValue();
+                    break;
+            }
+        }
+        reader.endObject();
+        return new WebhookThumbnail(url);
     }
 
 
@@ -60,6 +135,11 @@ public WebhookThumbnail(@Nullable String url) {
      */
     public static class Builder implements com.hakan.jdw.Builder<WebhookThumbnail> {
 
+        /**
+         * Builders of the thumbnails of embed builders.
+         */
+        static final BuilderPool<WebhookThumbnail, Builder> POOL = new BuilderPool<>(Builder::new, Builder::reset);
+
         private String url;
 
         /**
@@ -73,6 +153,17 @@ public static class Builder implements com.hakan.jdw.Builder<WebhookThumbnail> {
             return this;
         }
 
+        /**
+         * Clears the builder, so it
+         * can build another thumbnail.
+         *
+         * @return The current instance in order to chain call methods.
+         */
+        public @NotNull Builder reset() {
+            this.url = null;
+            return this;
+        }
+
         /**
          * {@inheritDoc}
          */
@@ -0,0 +1,43 @@
+package com.hakan.jdw.dispatch;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Creates the executors a {@link WebhookDispatcher}
+ * can run on. This is the Java 8 variant; the jar
+ * ships a Java 21 variant under META-INF/versions/21
+ * that supports virtual threads.
+ */
+final class DispatchExecutors {
+
+    /**
+     * Private constructor to prevent
+     * instantiation of this class.
+     */
+    private DispatchExecutors() {
+
+    }
+
+    /**
+     * Checks if the running JVM supports
+     * virtual thread executors.
+     *
+     * @return True if virtual threads are supported.
+     */
+    static boolean isVirtualThreadSupported() {
+        return false;
+    }
+
+    /**
+     * Creates an executor that starts a new
+     * virtual thread for every task.
+     *
+     * @return The executor.
+     * @throws UnsupportedOperationException If the JVM does not support virtual threads.
+     */
+    static @NotNull ExecutorService newVirtualThreadExecutor() {
+        throw new UnsupportedOperationException("Virtual threads require Java 21 or newer");
+    }
+}
@@ -0,0 +1,56 @@
+package com.hakan.jdw.dispatch;
+
+import com.hakan.jdw.Webhook;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Decides what a dispatcher does with webhooks
+ * that exceed the limits of discord, before they
+ * are sent. Checks are cheap for webhooks that did
+ * not change since they were last checked, see
+ * {@link Webhook#checkLimits()}.
+ */
+public enum LimitPolicy {
+
+    /**
+     * Sends webhooks as they are,
+     * leaving the checks to discord.
+     */
+    IGNORE {
+        @Override
+        public @NotNull Webhook apply(@NotNull Webhook webhook) {
+            return webhook;
+        }
+    },
+
+    /**
+     * Fails webhooks that exceed a limit
+     * with an {@link IllegalStateException}.
+     */
+    FAIL {
+        @Override
+        public @NotNull Webhook apply(@NotNull Webhook webhook) {
+            return webhook.validate();
+        }
+    },
+
+    /**
+     * Cuts webhooks that exceed a limit,
+     * see {@link Webhook#truncate()}.
+     */
+    TRUNCATE {
+        @Override
+        public @NotNull Webhook apply(@NotNull Webhook webhook) {
+            return webhook.truncate();
+        }
+    };
+
+    /**
+     * Applies the policy to a webhook.
+     *
+     * @param webhook The webhook to send.
+     * @return The webhook to send instead.
+     * @throws IllegalStateException If the webhook is rejected.
+     */
+    public abstract @NotNull Webhook apply(@NotNull Webhook webhook);
+}
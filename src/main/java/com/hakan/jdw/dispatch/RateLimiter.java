@@ -0,0 +1,304 @@
+package com.hakan.jdw.dispatch;
+
+import com.hakan.jdw.http.WebhookResponse;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tracks discord rate limits from the
+ * X-RateLimit-* headers of every response
+ * and tells the dispatcher how long to wait
+ * before the next webhook may be sent.
+ * <p>
+ * Each webhook url is a route. Routes are mapped
+ * to the bucket discord reports for them, and routes
+ * that report the same bucket share its state. Sends
+ * are reserved ahead of time, so concurrent sends
+ * never exceed the remaining requests of a bucket.
+ * Until discord reports the limits of a route, only
+ * one request of that route is in flight at a time,
+ * and the others are parked on its bucket until that
+ * request completes.
+ */
+public class RateLimiter {
+
+    private static final long PROBE_DELAY = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final Map<String, String> routes;
+    private final Map<String, Bucket> buckets;
+    private volatile long globalResetAt;
+
+    /**
+     * Creates a new rate limiter
+     * without any known buckets.
+     */
+    public RateLimiter() {
+        this.routes = new ConcurrentHashMap<>();
+        this.buckets = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Reserves a request for the given url.
+     * If the request may be sent now, a request of
+     * its bucket is consumed and zero is returned.
+     * Otherwise, nothing is consumed and the time to
+     * wait before reserving again is returned. While
+     * the limits of the url are probed, that time is
+     * a short guess; see {@link #reserve(String, Runnable)}.
+     *
+     * @param url The url of the webhook.
+     * @return The time to wait in nanoseconds, or zero.
+     */
+    public long reserve(@NotNull String url) {
+        return this.reserve(url, null);
+    }
+
+    /**
+     * Reserves a request for the given url like
+     * {@link #reserve(String)}, but while another
+     * request probes the limits of the url, the given
+     * waiter is parked on the bucket instead, and run
+     * once that request gets a response or is canceled,
+     * so it can reserve again.
+     *
+     * @param url    The url of the webhook.
+     * @param waiter Runs when the probe completes, or null to poll.
+     * @return The time to wait in nanoseconds, zero, or -1 if
+     * the waiter was parked.
+     */
+    public long reserve(@NotNull String url,
+                        @Nullable Runnable waiter) {
+        long now = System.nanoTime();
+
+        long global = this.globalResetAt - now;
+        if (global > 0)
+            return global;
+
+        Bucket bucket = this.bucketOf(route(url));
+        synchronized (bucket) {
+            if (bucket.limit < 0) {
+                if (bucket.probing) {
+                    if (waiter == null)
+                        return PROBE_DELAY;
+                    bucket.waiters.add(waiter);
+                    return -1;
+                }
+                bucket.probing = true;
+                return 0;
+            }
+            if (bucket.limit == 0)
+                return 0;
+
+            if (bucket.resetAt - now <= 0) {
+                bucket.remaining = bucket.limit;
+                bucket.resetAt = now + bucket.window;
+            }
+            if (bucket.remaining > 0) {
+                bucket.remaining--;
+                return 0;
+            }
+            return Math.max(1, bucket.resetAt - now);
+        }
+    }
+
+    /**
+     * Cancels a reservation of the given url
+     * that did not get a response, for example
+     * because the connection failed.
+     *
+     * @param url The url of the webhook.
+     */
+    public void cancel(@NotNull String url) {
+        release(this.bucketOf(route(url)));
+    }
+
+    /**
+     * Updates the state of the bucket of the
+     * given url from the response headers.
+     *
+     * @param url      The url of the webhook.
+     * @param response The response discord returned.
+     */
+    public void update(@NotNull String url,
+                       @NotNull WebhookResponse response) {
+        long now = System.nanoTime();
+        String route = route(url);
+
+        String retryAfter = response.getHeader("Retry-After");
+        if (response.getStatusCode() == 429 && "true".equalsIgnoreCase(response.getHeader("X-RateLimit-Global"))) {
+            this.globalResetAt = now + seconds(retryAfter, 1);
+            release(this.bucketOf(route));
+            return;
+        }
+
+        Bucket probed = this.bucketOf(route);
+        String bucketId = response.getHeader("X-RateLimit-Bucket");
+        if (bucketId != null && !bucketId.equals(this.routes.get(route))) {
+            Bucket previous = this.buckets.get(route);
+            this.routes.put(route, bucketId);
+            this.buckets.putIfAbsent(bucketId, previous != null ? previous : new Bucket());
+            this.buckets.remove(route);
+        }
+
+        String limit = response.getHeader("X-RateLimit-Limit");
+        String remaining = response.getHeader("X-RateLimit-Remaining");
+        String resetAfter = response.getHeader("X-RateLimit-Reset-After");
+
+        Bucket bucket = this.bucketOf(route);
+        synchronized (bucket) {
+            if (limit != null && remaining != null && resetAfter != null) {
+                long resetAt = now + seconds(resetAfter, 0);
+                int reportedRemaining = parseInt(remaining);
+                boolean newWindow = bucket.limit <= 0 || resetAt - bucket.resetAt > TimeUnit.MILLISECONDS.toNanos(50);
+
+                bucket.limit = Math.max(1, parseInt(limit));
+                bucket.window = Math.max(bucket.window, resetAt - now);
+                if (newWindow || bucket.remaining > reportedRemaining)
+                    bucket.remaining = reportedRemaining;
+                bucket.resetAt = resetAt;
+            } else if (bucket.limit < 0 && response.isSuccess()) {
+                bucket.limit = 0;
+            }
+
+            if (response.getStatusCode() == 429) {
+                bucket.limit = Math.max(bucket.limit, 1);
+                bucket.remaining = 0;
+                bucket.resetAt = Math.max(bucket.resetAt, now + seconds(retryAfter, 1));
+            }
+        }
+
+        if (probed != bucket)
+            release(probed);
+        release(bucket);
+    }
+
+    /**
+     * Gets the bucket id discord reported
+     * for the given url.
+     *
+     * @param url The url of the webhook.
+     * @return The bucket id, or null if not known yet.
+     */
+    public @Nullable String getBucketId(@NotNull String url) {
+        return this.routes.get(route(url));
+    }
+
+    /**
+     * Gets the remaining requests of the bucket
+     * of the given url, as last reported or reserved.
+     *
+     * @param url The url of the webhook.
+     * @return The remaining requests, or -1 if not known yet.
+     */
+    public int getRemaining(@NotNull String url) {
+        Bucket bucket = this.bucketOf(route(url));
+        synchronized (bucket) {
+            return bucket.limit <= 0 ? -1 : Math.max(0, bucket.remaining);
+        }
+    }
+
+    /**
+     * Gets the bucket of the given route,
+     * creating it if it is not known yet.
+     *
+     * @param route The route.
+     * @return The bucket.
+     */
+    private @NotNull Bucket bucketOf(@NotNull String route) {
+        String bucketId = this.routes.get(route);
+        return this.buckets.computeIfAbsent(bucketId != null ? bucketId : route, key -> new Bucket());
+    }
+
+    /**
+     * Ends the probe of a bucket and runs
+     * the waiters that were parked on it.
+     *
+     * @param bucket The bucket.
+     */
+    private static void release(@NotNull Bucket bucket) {
+        List<Runnable> waiters;
+        synchronized (bucket) {
+            bucket.probing = false;
+            if (bucket.waiters.isEmpty())
+                return;
+
+            waiters = new ArrayList<>(bucket.waiters);
+            bucket.waiters.clear();
+        }
+        for (Runnable waiter : waiters)
+            waiter.run();
+    }
+
+    /**
+     * Gets the route of the given url,
+     * which is the url without its query.
+     *
+     * @param url The url.
+     * @return The route.
+     */
+    private static @NotNull String route(@NotNull String url) {
+        int query = url.indexOf('?');
+        return query == -1 ? url : url.substring(0, query);
+    }
+
+    /**
+     * Parses a duration in seconds to nanoseconds.
+     *
+     * @param value    The value to parse, may be null.
+     * @param fallback The fallback in seconds.
+     * @return The duration in nanoseconds.
+     */
+    private static long seconds(@Nullable String value,
+                                double fallback) {
+        double seconds = fallback;
+        if (value != null) {
+            try {
+                seconds = Double.parseDouble(value.trim());
+            } catch (NumberFormatException ignored) {
+                // keep the fallback
+            }
+        }
+        return (long) (seconds * TimeUnit.SECONDS.toNanos(1));
+    }
+
+    /**
+     * Parses an integer header value.
+     *
+     * @param value The value to parse.
+     * @return The integer, or zero if malformed.
+     */
+    private static int parseInt(@NotNull String value) {
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+
+
+    /**
+     * State of a single rate limit bucket.
+     * A limit of -1 means not known yet, zero means
+     * discord reported no limit. The window is the
+     * longest reset-after seen, used to estimate the
+     * next reset before discord reports it. The waiters
+     * are parked until the probe of the bucket completes.
+     * Guarded by its own monitor.
+     */
+    private static final class Bucket {
+
+        private final List<Runnable> waiters = new ArrayList<>(0);
+        private int limit = -1;
+        private boolean probing;
+        private int remaining;
+        private long resetAt;
+        private long window;
+    }
+}
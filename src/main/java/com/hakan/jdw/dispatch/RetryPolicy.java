@@ -0,0 +1,288 @@
+package com.hakan.jdw.dispatch;
+
+import com.hakan.jdw.http.UnsentRequestException;
+import com.hakan.jdw.http.WebhookException;
+import com.hakan.jdw.http.WebhookResponse;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.net.ConnectException;
+import java.net.NoRouteToHostException;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decides whether and when a failed webhook
+ * is sent again.
+ * <p>
+ * 429 responses are retried after the time discord
+ * asks for, taken from the Retry-After header or the
+ * retry_after field of the body. 5xx responses and
+ * network errors that happened before the request was
+ * sent are retried with jittered exponential backoff.
+ * Network errors after that, such as read timeouts,
+ * are never retried since discord may already have
+ * posted the webhook. Every webhook has a budget of
+ * attempts and an overall deadline, after which it fails.
+ */
+public class RetryPolicy {
+
+    /**
+     * Creates a retry policy that never retries.
+     *
+     * @return The retry policy.
+     */
+    public static @NotNull RetryPolicy none() {
+        return new RetryPolicy(1, Duration.ZERO, Duration.ZERO, Duration.ZERO, false);
+    }
+
+
+
+    private final int maxAttempts;
+    private final long baseDelay;
+    private final long maxDelay;
+    private final long deadline;
+    private final boolean retryNetworkErrors;
+
+    /**
+     * Creates a new retry policy.
+     *
+     * @param maxAttempts        The max attempts per webhook, including the first one.
+     * @param baseDelay          The backoff delay of the first retry.
+     * @param maxDelay           The max backoff delay.
+     * @param deadline           The max time from the first attempt until the
+     *                           last retry starts, zero for no deadline.
+     * @param retryNetworkErrors True to retry requests that failed before
+     *                           any byte of them was sent.
+     */
+    public RetryPolicy(int maxAttempts,
+                       @NotNull Duration baseDelay,
+                       @NotNull Duration maxDelay,
+                       @NotNull Duration deadline,
+                       boolean retryNetworkErrors) {
+        this.maxAttempts = maxAttempts;
+        this.baseDelay = baseDelay.toNanos();
+        this.maxDelay = maxDelay.toNanos();
+        this.deadline = deadline.toNanos();
+        this.retryNetworkErrors = retryNetworkErrors;
+    }
+
+    /**
+     * Gets the max attempts per webhook,
+     * including the first one.
+     *
+     * @return The max attempts.
+     */
+    public int getMaxAttempts() {
+        return this.maxAttempts;
+    }
+
+    /**
+     * Gets the delay before the next attempt of a failed webhook.
+     *
+     * @param attempts The attempts made so far.
+     * @param elapsed  The nanoseconds since the first attempt.
+     * @param failure  The failure of the last attempt.
+     * @return The delay in nanoseconds, or -1 to give up.
+     */
+    public long getRetryDelay(int attempts,
+                              long elapsed,
+                              @NotNull Throwable failure) {
+        if (attempts >= this.maxAttempts)
+            return -1;
+
+        long delay;
+        if (failure instanceof WebhookException) {
+            WebhookResponse response = ((WebhookException) failure).getResponse();
+            int status = response.getStatusCode();
+
+            if (status == 429)
+                delay = retryAfter(response);
+            else if (status >= 500 && status != 501)
+                delay = this.backoff(attempts);
+            else
+                return -1;
+        } else if (this.retryNetworkErrors && isUnsent(failure)) {
+            delay = this.backoff(attempts);
+        } else {
+            return -1;
+        }
+
+        if (this.deadline > 0 && elapsed + delay > this.deadline)
+            return -1;
+        return delay;
+    }
+
+    /**
+     * Checks if the given network error happened
+     * before any byte of the request was sent, so
+     * sending it again can not post it twice.
+     *
+     * @param failure The failure.
+     * @return True if the request was not sent.
+     */
+    private static boolean isUnsent(@NotNull Throwable failure) {
+        return failure instanceof UnsentRequestException
+                || failure instanceof ConnectException
+                || failure instanceof NoRouteToHostException
+                || failure instanceof UnknownHostException;
+    }
+
+    /**
+     * Calculates the jittered exponential backoff of the
+     * given attempt. The delay is picked randomly between
+     * half and all of the exponential delay, so retries of
+     * many webhooks spread out instead of arriving together.
+     *
+     * @param attempts The attempts made so far.
+     * @return The delay in nanoseconds.
+     */
+    private long backoff(int attempts) {
+        long delay = this.baseDelay << Math.min(attempts - 1, 30);
+        if (delay <= 0 || delay > this.maxDelay)
+            delay = this.maxDelay;
+
+        long half = delay / 2;
+        return half + ThreadLocalRandom.current().nextLong(half + 1);
+    }
+
+    /**
+     * Gets the time discord asked to wait from
+     * a 429 response, preferring the more precise
+     * retry_after field of the body.
+     *
+     * @param response The 429 response.
+     * @return The delay in nanoseconds.
+     */
+    private static long retryAfter(@NotNull WebhookResponse response) {
+        Double seconds = parseRetryAfter(new String(response.getBody(), StandardCharsets.UTF_8));
+        if (seconds == null) {
+            String header = response.getHeader("Retry-After");
+            try {
+                seconds = header != null ? Double.parseDouble(header.trim()) : 1D;
+            } catch (NumberFormatException e) {
+                seconds = 1D;
+            }
+        }
+        return (long) (Math.max(0, seconds) * TimeUnit.SECONDS.toNanos(1));
+    }
+
+    /**
+     * Reads the retry_after number of a 429 body.
+     *
+     * @param body The body of the response.
+     * @return The seconds to wait, or null if absent.
+     */
+    private static @Nullable Double parseRetryAfter(@NotNull String body) {
+        int key = body.indexOf("\"retry_after\"");
+        if (key == -1)
+            return null;
+
+        int start = body.indexOf(':', key) + 1;
+        while (start > 0 && start < body.length() && Character.isWhitespace(body.charAt(start)))
+            start++;
+
+        int end = start;
+        while (end < body.length() && "0123456789.eE+-".indexOf(body.charAt(end)) != -1)
+            end++;
+
+        try {
+            return start > 0 && end > start ? Double.parseDouble(body.substring(start, end)) : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+
+
+    /**
+     * {@inheritDoc}
+     */
+    public static class Builder implements com.hakan.jdw.Builder<RetryPolicy> {
+
+        private int maxAttempts = 5;
+        private Duration baseDelay = Duration.ofMillis(500);
+        private Duration maxDelay = Duration.ofSeconds(30);
+        private Duration deadline = Duration.ofMinutes(2);
+        private boolean retryNetworkErrors = true;
+
+        /**
+         * Sets the max attempts per webhook,
+         * including the first one.
+         *
+         * @param maxAttempts The max attempts.
+         * @return The current instance in order to chain call methods.
+         */
+        public @NotNull Builder maxAttempts(int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+            return this;
+        }
+
+        /**
+         * Sets the backoff delay of the first retry.
+         * Each following retry doubles it.
+         *
+         * @param baseDelay The base delay.
+         * @return The current instance in order to chain call methods.
+         */
+        public @NotNull Builder baseDelay(@NotNull Duration baseDelay) {
+            this.baseDelay = baseDelay;
+            return this;
+        }
+
+        /**
+         * Sets the max backoff delay.
+         *
+         * @param maxDelay The max delay.
+         * @return The current instance in order to chain call methods.
+         */
+        public @NotNull Builder maxDelay(@NotNull Duration maxDelay) {
+            this.maxDelay = maxDelay;
+            return this;
+        }
+
+        /**
+         * Sets the max time from the first attempt
+         * until the last retry starts. Zero disables
+         * the deadline.
+         *
+         * @param deadline The deadline.
+         * @return The current instance in order to chain call methods.
+         */
+        public @NotNull Builder deadline(@NotNull Duration deadline) {
+            this.deadline = deadline;
+            return this;
+        }
+
+        /**
+         * Sets whether requests that failed before any
+         * byte of them was sent, such as when connecting,
+         * are retried. Failures after that are never
+         * retried since the webhook may have been posted.
+         *
+         * @param retryNetworkErrors True to retry unsent requests.
+         * @return The current instance in order to chain call methods.
+         */
+        public @NotNull Builder retryNetworkErrors(boolean retryNetworkErrors) {
+            this.retryNetworkErrors = retryNetworkErrors;
+            return this;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public @NotNull RetryPolicy build() {
+            return new RetryPolicy(
+                    this.maxAttempts,
+                    this.baseDelay,
+                    this.maxDelay,
+                    this.deadline,
+                    this.retryNetworkErrors
+            );
+        }
+    }
+}
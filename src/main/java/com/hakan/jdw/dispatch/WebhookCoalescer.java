@@ -0,0 +1,350 @@
+package com.hakan.jdw.dispatch;
+
+import com.hakan.jdw.Webhook;
+import com.hakan.jdw.WebhookEmbed;
+import com.hakan.jdw.http.WebhookResponse;
+import com.hakan.jdw.utils.LimitUtils;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Packs queued webhooks into fewer requests
+ * before handing them to a {@link WebhookDispatcher}.
+ * <p>
+ * Webhooks for the same url, username, avatar and
+ * thread that arrive within the window are merged
+ * in order, as long as the merged message stays
+ * within the discord limits of 10 embeds, 6000 embed
+ * characters and 2000 content characters. Content is
+ * only merged into a message that has no embeds yet,
+ * so merged messages look the same as the originals
+ * sent one after another.
+ * <p>
+ * Merging needs the texts of a webhook, so webhooks
+ * with texts given by suppliers that did not run yet
+ * are sent on their own, and the suppliers still run
+ * on the dispatcher when the webhook is sent.
+ */
+public class WebhookCoalescer implements Closeable {
+
+    private final WebhookDispatcher dispatcher;
+    private final long window;
+    private final ScheduledExecutorService scheduler;
+    private final Map<Key, Batch> batches;
+    private boolean closed;
+
+    /**
+     * Creates a new webhook coalescer.
+     *
+     * @param dispatcher The dispatcher to send merged webhooks with.
+     * @param window     How long a webhook waits for others to merge with.
+     */
+    public WebhookCoalescer(@NotNull WebhookDispatcher dispatcher,
+                            @NotNull Duration window) {
+        this.dispatcher = dispatcher;
+        this.window = window.toNanos();
+        this.batches = new LinkedHashMap<>();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "webhook-coalescer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Queues a webhook to be merged and sent.
+     * The future completes with the response of
+     * the merged request the webhook ended up in.
+     * Webhooks with attachments or unresolved texts
+     * are never merged; they are sent right after the
+     * queued webhooks of the same url. A frozen copy
+     * of the webhook is queued, so it can be changed
+     * afterwards.
+     *
+     * @param url     The url of the webhook.
+     * @param webhook The webhook to send.
+     * @return The future of the response.
+     */
+    public @NotNull CompletableFuture<WebhookResponse> submit(@NotNull String url,
+                                                              @NotNull Webhook webhook) {
+        webhook = webhook.freeze();
+        CompletableFuture<WebhookResponse> future = new CompletableFuture<>();
+        Key key = new Key(url, webhook);
+        Batch full = null;
+        RejectedExecutionException rejected = null;
+
+        if (webhook.hasAttachments() || !webhook.isResolved()) {
+            synchronized (this) {
+                if (this.closed) {
+                    future.completeExceptionally(new RejectedExecutionException("Coalescer is closed"));
+                    return future;
+                }
+
+                full = this.batches.remove(key);
+                if (full != null)
+                    full.flushTask.cancel(false);
+            }
+
+            if (full != null)
+                this.send(key, full);
+            return this.dispatcher.submit(url, webhook);
+        }
+
+        synchronized (this) {
+            if (this.closed) {
+                future.completeExceptionally(new RejectedExecutionException("Coalescer is closed"));
+                return future;
+            }
+
+            Batch batch = this.batches.get(key);
+            if (batch != null && !batch.accepts(webhook)) {
+                this.batches.remove(key);
+                batch.flushTask.cancel(false);
+                full = batch;
+                batch = null;
+            }
+
+            if (batch == null) {
+                batch = new Batch(webhook);
+                try {
+                    batch.flushTask = this.schedule(key, batch);
+                    this.batches.put(key, batch);
+                } catch (RejectedExecutionException e) {
+                    rejected = e;
+                }
+            }
+            if (rejected == null)
+                batch.add(webhook, future);
+        }
+
+        if (full != null)
+            this.send(key, full);
+        if (rejected != null)
+            future.completeExceptionally(rejected);
+        return future;
+    }
+
+    /**
+     * Sends every queued webhook now,
+     * without waiting for their windows.
+     */
+    public void flush() {
+        Map<Key, Batch> batches;
+        synchronized (this) {
+            batches = new LinkedHashMap<>(this.batches);
+            this.batches.clear();
+        }
+
+        batches.forEach((key, batch) -> {
+            batch.flushTask.cancel(false);
+            this.send(key, batch);
+        });
+    }
+
+    /**
+     * Sends every queued webhook and stops
+     * accepting new ones. The dispatcher is
+     * not closed.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            this.closed = true;
+        }
+        this.flush();
+        this.scheduler.shutdown();
+    }
+
+    /**
+     * Schedules the given batch to be sent
+     * once its window passes.
+     *
+     * @param key   The key of the batch.
+     * @param batch The batch.
+     * @return The scheduled task.
+     */
+    private @NotNull ScheduledFuture<?> schedule(@NotNull Key key,
+                                                 @NotNull Batch batch) {
+        return this.scheduler.schedule(() -> {
+            synchronized (this) {
+                if (this.batches.get(key) != batch)
+                    return;
+                this.batches.remove(key);
+            }
+            this.send(key, batch);
+        }, this.window, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Merges the batch into a single webhook,
+     * sends it and completes the futures of
+     * every webhook in it.
+     *
+     * @param key   The key of the batch.
+     * @param batch The batch to send.
+     */
+    private void send(@NotNull Key key,
+                      @NotNull Batch batch) {
+        Webhook first = batch.webhooks.get(0);
+        Webhook merged = batch.webhooks.size() == 1 ? first : new Webhook(
+                batch.content != null ? batch.content.toString() : null,
+                first.getUsername(),
+                first.getAvatarUrl(),
+                first.getThreadName(),
+                batch.embeds
+        );
+
+        this.dispatcher.submit(key.url, merged).whenComplete((response, failure) -> {
+            for (CompletableFuture<WebhookResponse> future : batch.futures) {
+                if (failure != null)
+                    future.completeExceptionally(failure);
+                else
+                    future.complete(response);
+            }
+        });
+    }
+
+
+
+    /**
+     * Identifies webhooks that can be merged.
+     */
+    private static final class Key {
+
+        private final String url;
+        private final String username;
+        private final String avatarUrl;
+        private final String threadName;
+
+        /**
+         * Creates the key of the given webhook.
+         *
+         * @param url     The url of the webhook.
+         * @param webhook The webhook.
+         */
+        private Key(@NotNull String url,
+                    @NotNull Webhook webhook) {
+            this.url = url;
+            this.username = webhook.getUsername();
+            this.avatarUrl = webhook.getAvatarUrl();
+            this.threadName = webhook.getThreadName();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean equals(Object object) {
+            if (this == object)
+                return true;
+            if (!(object instanceof Key))
+                return false;
+
+            Key key = (Key) object;
+            return this.url.equals(key.url) &&
+                    Objects.equals(this.username, key.username) &&
+                    Objects.equals(this.avatarUrl, key.avatarUrl) &&
+                    Objects.equals(this.threadName, key.threadName);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int hashCode() {
+            return Objects.hash(this.url, this.username, this.avatarUrl, this.threadName);
+        }
+    }
+
+
+
+    /**
+     * Webhooks waiting to be merged into one request.
+     * Guarded by the coalescer.
+     */
+    private static final class Batch {
+
+        private final List<Webhook> webhooks = new ArrayList<>();
+        private final List<CompletableFuture<WebhookResponse>> futures = new ArrayList<>();
+        private final List<WebhookEmbed> embeds = new ArrayList<>();
+        private StringBuilder content;
+        private int embedLength;
+        private ScheduledFuture<?> flushTask;
+
+        /**
+         * Creates a new batch starting with the given webhook.
+         *
+         * @param webhook The first webhook.
+         */
+        private Batch(@NotNull Webhook webhook) {
+            String content = webhook.getContent();
+            if (content != null && !content.isEmpty())
+                this.content = new StringBuilder(content);
+        }
+
+        /**
+         * Checks if the given webhook can be
+         * merged into this batch.
+         *
+         * @param webhook The webhook.
+         * @return True if the webhook fits.
+         */
+        private boolean accepts(@NotNull Webhook webhook) {
+            String content = webhook.getContent();
+            List<WebhookEmbed> embeds = webhook.getEmbeds();
+            int embedCount = embeds == null ? 0 : embeds.size();
+
+            if (content != null && !content.isEmpty()) {
+                if (!this.embeds.isEmpty())
+                    return false;
+                int length = this.content == null ? content.length() : this.content.length() + 1 + content.length();
+                if (length > LimitUtils.MAX_CONTENT)
+                    return false;
+            }
+
+            return this.embeds.size() + embedCount <= LimitUtils.MAX_EMBEDS &&
+                    this.embedLength + LimitUtils.embedsLength(embeds) <= LimitUtils.MAX_EMBED_TOTAL;
+        }
+
+        /**
+         * Adds the given webhook to this batch.
+         *
+         * @param webhook The webhook.
+         * @param future  The future of the webhook.
+         */
+        private void add(@NotNull Webhook webhook,
+                         @NotNull CompletableFuture<WebhookResponse> future) {
+            if (!this.webhooks.isEmpty()) {
+                String content = webhook.getContent();
+                if (content != null && !content.isEmpty()) {
+                    if (this.content == null)
+                        this.content = new StringBuilder(content);
+                    else
+                        this.content.append('\n').append(content);
+                }
+            }
+
+            List<WebhookEmbed> embeds = webhook.getEmbeds();
+            if (embeds != null) {
+                this.embeds.addAll(embeds);
+                this.embedLength += LimitUtils.embedsLength(embeds);
+            }
+
+            this.webhooks.add(webhook);
+            this.futures.add(future);
+        }
+    }
+}
@@ -0,0 +1,771 @@
+package com.hakan.jdw.dispatch;
+
+import com.hakan.jdw.Webhook;
+import com.hakan.jdw.WebhookCodec;
+import com.hakan.jdw.http.WebhookBody;
+import com.hakan.jdw.http.WebhookRequest;
+import com.hakan.jdw.http.WebhookResponse;
+import com.hakan.jdw.http.WebhookTransport;
+import com.hakan.jdw.utils.WebhookUtils;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends webhooks asynchronously on a bounded
+ * executor. At most {@code maxPending} webhooks
+ * can be queued or in flight at once; submitting
+ * more blocks the caller until one completes,
+ * instead of creating threads without limit.
+ * <p>
+ * Sends are delayed ahead of time according to
+ * the {@link RateLimiter} of the dispatcher. A
+ * delayed webhook does not occupy a thread while
+ * it waits. Failed webhooks are retried the same
+ * way, according to the {@link RetryPolicy}.
+ * Transports that send asynchronously, such as
+ * {@link com.hakan.jdw.http.HttpClientTransport},
+ * do not occupy a thread while a webhook is in
+ * flight either.
+ * <p>
+ * With a {@link WebhookOutbox}, every submitted webhook
+ * is logged before it is queued and acknowledged once it
+ * completes, and the webhooks a previous run left in the
+ * outbox are sent again when the dispatcher is built.
+ * Logging needs the full request, so the suppliers of
+ * lazy texts run on the submitting thread when the
+ * dispatcher has an outbox; without one, they run on
+ * the executor right before the webhook is first sent.
+ */
+public class WebhookDispatcher implements Closeable {
+
+    private static volatile WebhookDispatcher defaultDispatcher;
+
+    private final WebhookTransport transport;
+    private final ExecutorService executor;
+    private final RateLimiter rateLimiter;
+    private final RetryPolicy retryPolicy;
+    private final WebhookOutbox outbox;
+    private final LimitPolicy limitPolicy;
+    private final Semaphore permits;
+    private final AtomicBoolean replayed;
+    private final int maxPending;
+    private volatile boolean closed;
+
+    /**
+     * Creates a new webhook dispatcher.
+     *
+     * @param transport   The transport to send with, or null to
+     *                    use {@link WebhookUtils#getTransport()}.
+     * @param executor    The executor that sends the webhooks.
+     * @param rateLimiter The rate limiter, or null to send without delays.
+     * @param retryPolicy The retry policy of failed webhooks.
+     * @param maxPending  The max queued and in-flight webhooks.
+     */
+    public WebhookDispatcher(@Nullable WebhookTransport transport,
+                             @NotNull ExecutorService executor,
+                             @Nullable RateLimiter rateLimiter,
+                             @NotNull RetryPolicy retryPolicy,
+                             int maxPending) {
+        this(transport, executor, rateLimiter, retryPolicy, null, maxPending);
+    }
+
+    /**
+     * Creates a new webhook dispatcher that logs
+     * its webhooks to the given outbox.
+     *
+     * @param transport   The transport to send with, or null to
+     *                    use {@link WebhookUtils#getTransport()}.
+     * @param executor    The executor that sends the webhooks.
+     * @param rateLimiter The rate limiter, or null to send without delays.
+     * @param retryPolicy The retry policy of failed webhooks.
+     * @param outbox      The outbox, or null to keep webhooks in memory only.
+     * @param maxPending  The max queued and in-flight webhooks.
+     */
+    public WebhookDispatcher(@Nullable WebhookTransport transport,
+                             @NotNull ExecutorService executor,
+                             @Nullable RateLimiter rateLimiter,
+                             @NotNull RetryPolicy retryPolicy,
+                             @Nullable WebhookOutbox outbox,
+                             int maxPending) {
+        this(transport, executor, rateLimiter, retryPolicy, outbox, LimitPolicy.IGNORE, maxPending);
+    }
+
+    /**
+     * Creates a new webhook dispatcher that applies
+     * the given policy to webhooks that exceed the
+     * limits of discord.
+     *
+     * @param transport   The transport to send with, or null to
+     *                    use {@link WebhookUtils#getTransport()}.
+     * @param executor    The executor that sends the webhooks.
+     * @param rateLimiter The rate limiter, or null to send without delays.
+     * @param retryPolicy The retry policy of failed webhooks.
+     * @param outbox      The outbox, or null to keep webhooks in memory only.
+     * @param limitPolicy The policy of webhooks that exceed a limit.
+     * @param maxPending  The max queued and in-flight webhooks.
+     */
+    public WebhookDispatcher(@Nullable WebhookTransport transport,
+                             @NotNull ExecutorService executor,
+                             @Nullable RateLimiter rateLimiter,
+                             @NotNull RetryPolicy retryPolicy,
+                             @Nullable WebhookOutbox outbox,
+                             @NotNull LimitPolicy limitPolicy,
+                             int maxPending) {
+        this.transport = transport;
+        this.outbox = outbox;
+        this.limitPolicy = limitPolicy;
+        this.executor = executor;
+        this.rateLimiter = rateLimiter;
+        this.retryPolicy = retryPolicy;
+        this.maxPending = maxPending;
+        this.permits = new Semaphore(maxPending);
+        this.replayed = new AtomicBoolean();
+    }
+
+    /**
+     * Gets the shared dispatcher used by
+     * {@link Webhook#executeAsync(String)}.
+     * It is created on first use and runs
+     * on daemon threads.
+     *
+     * @return The default dispatcher.
+     */
+    public static @NotNull WebhookDispatcher getDefault() {
+        WebhookDispatcher dispatcher = defaultDispatcher;
+        if (dispatcher == null) {
+            synchronized (WebhookDispatcher.class) {
+                dispatcher = defaultDispatcher;
+                if (dispatcher == null)
+                    dispatcher = defaultDispatcher = new Builder().build();
+            }
+        }
+        return dispatcher;
+    }
+
+    /**
+     * Gets the rate limiter of the dispatcher.
+     *
+     * @return The rate limiter, or null if disabled.
+     */
+    public @Nullable RateLimiter getRateLimiter() {
+        return this.rateLimiter;
+    }
+
+    /**
+     * Gets the retry policy of the dispatcher.
+     *
+     * @return The retry policy.
+     */
+    public @NotNull RetryPolicy getRetryPolicy() {
+        return this.retryPolicy;
+    }
+
+    /**
+     * Gets the outbox of the dispatcher.
+     *
+     * @return The outbox, or null if disabled.
+     */
+    public @Nullable WebhookOutbox getOutbox() {
+        return this.outbox;
+    }
+
+    /**
+     * Gets the policy of webhooks that
+     * exceed the limits of discord.
+     *
+     * @return The limit policy.
+     */
+    public @NotNull LimitPolicy getLimitPolicy() {
+        return this.limitPolicy;
+    }
+
+    /**
+     * Gets the max number of queued
+     * and in-flight webhooks.
+     *
+     * @return The max pending webhooks.
+     */
+    public int getMaxPending() {
+        return this.maxPending;
+    }
+
+    /**
+     * Gets the number of webhooks that are
+     * currently queued or in flight.
+     *
+     * @return The pending webhooks.
+     */
+    public int getPendingCount() {
+        return this.maxPending - this.permits.availablePermits();
+    }
+
+    /**
+     * Submits a webhook to be sent.
+     * Blocks while the dispatcher is full.
+     *
+     * @param url     The url of the webhook.
+     * @param webhook The webhook to send.
+     * @return The future of the response.
+     */
+    public @NotNull CompletableFuture<WebhookResponse> submit(@NotNull String url,
+                                                              @NotNull Webhook webhook) {
+        return this.submit(this.transport, url, webhook);
+    }
+
+    /**
+     * Submits a webhook to be sent through the given
+     * transport. Blocks while the dispatcher is full.
+     * <p>
+     * Webhooks are frozen, so they can be changed
+     * afterwards, and serialized when they are sent.
+     * Frozen parts are shared rather than copied, and
+     * JSON the webhook already cached is kept. Webhooks
+     * that exceed the limits of discord are handled by
+     * the {@link LimitPolicy} right before they are
+     * serialized, so texts given by suppliers run on
+     * the executor, unless the dispatcher has an outbox,
+     * which logs the serialized webhook before queuing it.
+     *
+     * @param transport The transport to send with.
+     * @param url       The url of the webhook.
+     * @param webhook   The webhook to send.
+     * @return The future of the response.
+     */
+    public @NotNull CompletableFuture<WebhookResponse> submit(@Nullable WebhookTransport transport,
+                                                              @NotNull String url,
+                                                              @NotNull Webhook webhook) {
+        Webhook submitted = webhook.freeze();
+        return this.dispatch(transport, () -> new WebhookRequest(url, this.limitPolicy.apply(submitted).toBody()));
+    }
+
+    /**
+     * Submits a webhook encoded by {@link WebhookCodec}
+     * to be sent. Blocks while the dispatcher is full.
+     * The webhook is decoded only when it is sent, so
+     * queued webhooks stay in their compact form. The
+     * remaining bytes of the buffer must not change
+     * until then.
+     *
+     * @param url     The url of the webhook.
+     * @param encoded The encoded webhook, from its position.
+     * @return The future of the response.
+     */
+    public @NotNull CompletableFuture<WebhookResponse> submit(@NotNull String url,
+                                                              @NotNull ByteBuffer encoded) {
+        ByteBuffer buffer = encoded.duplicate();
+        return this.dispatch(this.transport, () -> new WebhookRequest(url, WebhookCodec.decode(buffer.duplicate()).toBody()));
+    }
+
+    /**
+     * Submits a request to be sent.
+     * Blocks while the dispatcher is full.
+     *
+     * @param request The request to send.
+     * @return The future of the response.
+     */
+    public @NotNull CompletableFuture<WebhookResponse> submit(@NotNull WebhookRequest request) {
+        return this.dispatch(this.transport, () -> request);
+    }
+
+    /**
+     * Sends the webhooks that were left in the outbox
+     * when it was opened. Blocks while the dispatcher
+     * is full. Called by {@link Builder#build()}; only
+     * the first call replays.
+     */
+    public void replay() {
+        if (this.outbox != null && this.replayed.compareAndSet(false, true))
+            this.outbox.replay((offset, request) -> this.dispatch(this.transport, () -> request, offset));
+    }
+
+    /**
+     * Stops accepting webhooks. Webhooks that are
+     * already submitted, including the ones waiting
+     * for a rate limit, are still sent. The outbox is
+     * not closed.
+     */
+    @Override
+    public void close() {
+        this.closed = true;
+        if (this.getPendingCount() == 0)
+            this.executor.shutdown();
+    }
+
+    /**
+     * Logs the request to the outbox, if any,
+     * and dispatches it.
+     *
+     * @param transport The transport, or null for the default one.
+     * @param request   Creates the request, on the executor thread
+     *                  unless it has to be logged first.
+     * @return The future of the response.
+     */
+    private @NotNull CompletableFuture<WebhookResponse> dispatch(@Nullable WebhookTransport transport,
+                                                                 @NotNull RequestSupplier request) {
+        if (this.outbox == null)
+            return this.dispatch(transport, request, -1);
+
+        WebhookRequest logged;
+        long offset;
+        try {
+            logged = this.loggable(request.get());
+            offset = this.outbox.append(logged);
+        } catch (Exception e) {
+            CompletableFuture<WebhookResponse> future = new CompletableFuture<>();
+            future.completeExceptionally(e);
+            return future;
+        }
+        return this.dispatch(transport, () -> logged, offset);
+    }
+
+    /**
+     * Waits for a permit and runs the request on the executor.
+     *
+     * @param transport The transport, or null for the default one.
+     * @param request   Creates the request on the executor thread.
+     * @param offset    The outbox offset of the request, or -1.
+     * @return The future of the response.
+     */
+    private @NotNull CompletableFuture<WebhookResponse> dispatch(@Nullable WebhookTransport transport,
+                                                                 @NotNull RequestSupplier request,
+                                                                 long offset) {
+        CompletableFuture<WebhookResponse> future = new CompletableFuture<>();
+        if (this.closed) {
+            future.completeExceptionally(new RejectedExecutionException("Dispatcher is closed"));
+            return future;
+        }
+
+        try {
+            this.permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.completeExceptionally(e);
+            return future;
+        }
+
+        this.execute(new Attempt(transport, request, offset, future));
+        return future;
+    }
+
+    /**
+     * Gets a copy of the request that can be logged.
+     * Bodies that can only be written once are read
+     * into memory first, so the logged copy and the
+     * sent one match.
+     *
+     * @param request The request.
+     * @return The request itself, or its copy.
+     */
+    private @NotNull WebhookRequest loggable(@NotNull WebhookRequest request) {
+        WebhookBody body = request.getBody();
+        if (body.isRepeatable())
+            return request;
+        return new WebhookRequest(request.getUrl(), WebhookBody.of(body.getContentType(), request.getBodyBytes()));
+    }
+
+    /**
+     * Runs the attempt on the executor, failing
+     * it if the executor rejects it.
+     *
+     * @param attempt The attempt to run.
+     */
+    private void execute(@NotNull Attempt attempt) {
+        try {
+            this.executor.execute(attempt);
+        } catch (RejectedExecutionException e) {
+            attempt.complete(null, e);
+        }
+    }
+
+    /**
+     * Runs the attempt on the executor
+     * after the given delay.
+     *
+     * @param attempt The attempt to run.
+     * @param delay   The delay in nanoseconds.
+     */
+    private void schedule(@NotNull Attempt attempt,
+                          long delay) {
+        try {
+            Scheduler.INSTANCE.schedule(() -> this.execute(attempt), delay, TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+            attempt.complete(null, e);
+        }
+    }
+
+
+
+    /**
+     * A submitted webhook on its way to discord.
+     * Holds its permit until it completes.
+     */
+    private final class Attempt implements Runnable {
+
+        private final WebhookTransport transport;
+        private final RequestSupplier supplier;
+        private final CompletableFuture<WebhookResponse> future;
+        private final long offset;
+        private WebhookRequest request;
+        private int attempts;
+        private long startedAt;
+
+        /**
+         * Creates a new attempt.
+         *
+         * @param transport The transport, or null for the default one.
+         * @param supplier  Creates the request on the executor thread.
+         * @param offset    The outbox offset of the request, or -1.
+         * @param future    The future to complete.
+         */
+        private Attempt(@Nullable WebhookTransport transport,
+                        @NotNull RequestSupplier supplier,
+                        long offset,
+                        @NotNull CompletableFuture<WebhookResponse> future) {
+            this.transport = transport;
+            this.supplier = supplier;
+            this.offset = offset;
+            this.future = future;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void run() {
+            String url;
+            RateLimiter rateLimiter = WebhookDispatcher.this.rateLimiter;
+            try {
+                if (this.request == null)
+                    this.request = this.supplier.get();
+
+                url = this.request.getUrl();
+                if (rateLimiter != null) {
+                    long delay = rateLimiter.reserve(url, () -> WebhookDispatcher.this.execute(this));
+                    if (delay < 0)
+                        return;
+                    if (delay > 0) {
+                        WebhookDispatcher.this.schedule(this, delay);
+                        return;
+                    }
+                }
+            } catch (Throwable e) {
+                this.retry(e);
+                return;
+            }
+
+            if (this.attempts++ == 0)
+                this.startedAt = System.nanoTime();
+
+            WebhookTransport sender = this.transport != null ? this.transport : WebhookUtils.getTransport();
+            CompletableFuture<WebhookResponse> response;
+            try {
+                response = sender.sendAsync(this.request);
+            } catch (Throwable e) {
+                response = new CompletableFuture<>();
+                response.completeExceptionally(e);
+            }
+            response.whenComplete((result, failure) -> this.handle(rateLimiter, url, result, failure));
+        }
+
+        /**
+         * Handles the outcome of a send, which may
+         * complete on a thread of the transport.
+         *
+         * @param rateLimiter The rate limiter, or null.
+         * @param url         The url of the webhook.
+         * @param response    The response, or null if the send failed.
+         * @param failure     The failure, or null if a response arrived.
+         */
+        private void handle(@Nullable RateLimiter rateLimiter,
+                            @NotNull String url,
+                            @Nullable WebhookResponse response,
+                            @Nullable Throwable failure) {
+            if (failure instanceof CompletionException && failure.getCause() != null)
+                failure = failure.getCause();
+
+            if (failure != null || response == null) {
+                if (rateLimiter != null)
+                    rateLimiter.cancel(url);
+                this.retry(failure != null ? failure : new IOException("Transport returned no response"));
+                return;
+            }
+
+            if (rateLimiter != null)
+                rateLimiter.update(url, response);
+
+            try {
+                this.complete(response.ensureSuccess(), null);
+            } catch (Throwable e) {
+                this.retry(e);
+            }
+        }
+
+        /**
+         * Schedules the next attempt if the retry
+         * policy allows it, or fails the attempt.
+         *
+         * @param failure The failure of the last attempt.
+         */
+        private void retry(@NotNull Throwable failure) {
+            long elapsed = System.nanoTime() - this.startedAt;
+            long delay = this.attempts == 0 || !this.request.getBody().isRepeatable() ? -1
+                    : WebhookDispatcher.this.retryPolicy.getRetryDelay(this.attempts, elapsed, failure);
+
+            if (delay < 0)
+                this.complete(null, failure);
+            else
+                WebhookDispatcher.this.schedule(this, delay);
+        }
+
+        /**
+         * Acknowledges the attempt in the outbox,
+         * releases its permit and completes its future.
+         * Attempts that fail because the executor shut
+         * down stay in the outbox.
+         *
+         * @param response The response, or null if it failed.
+         * @param failure  The failure, or null if it succeeded.
+         */
+        private void complete(@Nullable WebhookResponse response,
+                              @Nullable Throwable failure) {
+            if (this.offset >= 0 && !(failure instanceof RejectedExecutionException))
+                WebhookDispatcher.this.outbox.acknowledge(this.offset);
+
+            WebhookDispatcher.this.permits.release();
+            if (WebhookDispatcher.this.closed && WebhookDispatcher.this.getPendingCount() == 0)
+                WebhookDispatcher.this.executor.shutdown();
+
+            if (failure != null)
+                this.future.completeExceptionally(failure);
+            else
+                this.future.complete(response);
+        }
+    }
+
+
+
+    /**
+     * Lazily created daemon thread that hands
+     * delayed attempts back to their dispatcher.
+     */
+    private static final class Scheduler {
+
+        private static final ScheduledExecutorService INSTANCE = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "webhook-dispatcher-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+
+
+    /**
+     * Creates the request to send.
+     */
+    @FunctionalInterface
+    private interface RequestSupplier {
+
+        /**
+         * Creates the request to send.
+         *
+         * @return The request.
+         * @throws Exception If the request can not be created.
+         */
+        @NotNull
+        WebhookRequest get() throws Exception;
+    }
+
+
+
+    /**
+     * {@inheritDoc}
+     */
+    public static class Builder implements com.hakan.jdw.Builder<WebhookDispatcher> {
+
+        private WebhookTransport transport;
+        private ExecutorService executor;
+        private RateLimiter rateLimiter = new RateLimiter();
+        private RetryPolicy retryPolicy = new RetryPolicy.Builder().build();
+        private WebhookOutbox outbox;
+        private LimitPolicy limitPolicy = LimitPolicy.IGNORE;
+        private int threads = Math.max(2, Runtime.getRuntime().availableProcessors());
+        private int maxPending = 10_000;
+        private boolean virtualThreads;
+
+        /**
+         * Sets the transport of the dispatcher.
+         *
+         * @param transport The transport.
+         * @return The current instance in order to chain call methods.
+         */
+        public @NotNull Builder transport(@NotNull WebhookTransport transport) {
+            this.transport = transport;
+            return this;
+        }
+
+        /**
+         * Sets the rate limiter of the dispatcher.
+         * Null disables rate limiting, every dispatcher
+         * has its own rate limiter by default.
+         *
+         * @param rateLimiter The rate limiter.
+         * @return The current instance in order to chain call methods.
+         */
+        public @NotNull Builder rateLimiter(@Nullable RateLimiter rateLimiter) {
+            this.rateLimiter = rateLimiter;
+            return this;
+        }
+
+        /**
+         * Sets the retry policy of failed webhooks.
+         * Use {@link RetryPolicy#none()} to disable retries.
+         *
+         * @param retryPolicy The retry policy.
+         * @return The current instance in order to chain call methods.
+         */
+        public @NotNull Builder retryPolicy(@NotNull RetryPolicy retryPolicy) {
+            this.retryPolicy = retryPolicy;
+            return this;
+        }
+
+        /**
+         * Sets the outbox the dispatcher logs its webhooks
+         * to. The webhooks left in it by a previous run are
+         * sent again when the dispatcher is built.
+         *
+         * @param outbox The outbox.
+         * @return The current instance in order to chain call methods.
+         */
+        public @NotNull Builder outbox(@Nullable WebhookOutbox outbox) {
+            this.outbox = outbox;
+            return this;
+        }
+
+        /**
+         * Sets the policy of webhooks that exceed the
+         * limits of discord. Webhooks are sent as they
+         * are by default.
+         *
+         * @param limitPolicy The limit policy.
+         * @return The current instance in order to chain call methods.
+         */
+        public @NotNull Builder limitPolicy(@NotNull LimitPolicy limitPolicy) {
+            this.limitPolicy = limitPolicy;
+            return this;
+        }
+
+        /**
+         * Sets the number of sender threads.
+         * Ignored if an executor is given.
+         *
+         * @param threads The number of threads.
+         * @return The current instance in order to chain call methods.
+         */
+        public @NotNull Builder threads(int threads) {
+            this.threads = threads;
+            return this;
+        }
+
+        /**
+         * Sets whether every webhook is sent on its own
+         * virtual thread. Requires Java 21 or newer; on
+         * older JVMs the dispatcher falls back to a fixed
+         * pool of platform threads.
+         * <p>
+         * The max pending limit still applies, so use it
+         * to bound the number of in-flight webhooks.
+         *
+         * @param virtualThreads True to use virtual threads.
+         * @return The current instance in order to chain call methods.
+         */
+        public @NotNull Builder virtualThreads(boolean virtualThreads) {
+            this.virtualThreads = virtualThreads;
+            return this;
+        }
+
+        /**
+         * Sets the max number of queued and in-flight
+         * webhooks before submitting blocks.
+         *
+         * @param maxPending The max pending webhooks.
+         * @return The current instance in order to chain call methods.
+         */
+        public @NotNull Builder maxPending(int maxPending) {
+            this.maxPending = maxPending;
+            return this;
+        }
+
+        /**
+         * Sets the executor that sends the webhooks.
+         *
+         * @param executor The executor.
+         * @return The current instance in order to chain call methods.
+         */
+        public @NotNull Builder executor(@NotNull ExecutorService executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public @NotNull WebhookDispatcher build() {
+            ExecutorService executor = this.executor;
+            if (executor == null && this.virtualThreads && DispatchExecutors.isVirtualThreadSupported())
+                executor = DispatchExecutors.newVirtualThreadExecutor();
+            if (executor == null)
+                executor = createExecutor(this.threads);
+
+            WebhookDispatcher dispatcher = new WebhookDispatcher(
+                    this.transport,
+                    executor,
+                    this.rateLimiter,
+                    this.retryPolicy,
+                    this.outbox,
+                    this.limitPolicy,
+                    this.maxPending
+            );
+            dispatcher.replay();
+            return dispatcher;
+        }
+
+        /**
+         * Creates a fixed size executor with daemon
+         * threads that time out while idle.
+         *
+         * @param threads The number of threads.
+         * @return The executor.
+         */
+        private static @NotNull ExecutorService createExecutor(int threads) {
+            AtomicInteger counter = new AtomicInteger();
+            ThreadFactory factory = runnable -> {
+                Thread thread = new Thread(runnable, "webhook-dispatcher-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            };
+
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads,
+                    60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), factory);
+            executor.allowCoreThreadTimeOut(true);
+            return executor;
+        }
+    }
+}
@@ -0,0 +1,551 @@
+package com.hakan.jdw.dispatch;
+
+import com.hakan.jdw.http.WebhookBody;
+import com.hakan.jdw.http.WebhookRequest;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.TreeSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.zip.CRC32;
+
+/**
+ * Durable, append-only log of the webhooks a
+ * {@link WebhookDispatcher} has accepted but not
+ * completed yet, so they survive a restart.
+ * <p>
+ * Entries are written into memory-mapped segment files
+ * and get consecutive offsets. Appending only copies the
+ * request into the mapping; a background thread forces
+ * dirty segments to disk every flush interval, so many
+ * appends share one sync (group commit). A crash can lose
+ * at most the entries of the last interval.
+ * <p>
+ * Entries hold serialized requests, so the dispatcher logs
+ * a webhook when it accepts it, running the suppliers of
+ * its lazy texts on the submitting thread if needed.
+ * <p>
+ * Completed entries are acknowledged by offset, in any
+ * order. Everything up to the highest offset below which
+ * all entries are acknowledged is done; segments that only
+ * hold done entries are deleted. On restart, the remaining
+ * entries are replayed, so delivery is at least once.
+ * <p>
+ * Each entry is laid out as its payload length, a CRC32
+ * of the payload and the payload itself: the url, the
+ * content type and the body of the request. An entry with
+ * a bad checksum marks the end of a torn segment.
+ */
+public class WebhookOutbox implements Closeable {
+
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String ACK_FILE = "ack";
+    private static final int HEADER = 8;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final List<Segment> segments;
+    private final TreeSet<Long> acknowledged;
+    private final FileChannel ackChannel;
+    private final ScheduledExecutorService flusher;
+    private final long recoveredEnd;
+    private long nextOffset;
+    private long ackOffset;
+    private long flushedAckOffset;
+    private boolean closed;
+
+    /**
+     * Opens the outbox in the given directory with
+     * 16 MiB segments and a 100 ms flush interval.
+     *
+     * @param directory The directory of the outbox.
+     * @throws IOException If the outbox can not be opened.
+     */
+    public WebhookOutbox(@NotNull Path directory) throws IOException {
+        this(directory, 16 * 1024 * 1024, Duration.ofMillis(100));
+    }
+
+    /**
+     * Opens the outbox in the given directory,
+     * creating it if it does not exist.
+     *
+     * @param directory     The directory of the outbox.
+     * @param segmentSize   The size of a segment file in bytes.
+     * @param flushInterval The time between two group commits.
+     * @throws IOException If the outbox can not be opened.
+     */
+    public WebhookOutbox(@NotNull Path directory,
+                         int segmentSize,
+                         @NotNull Duration flushInterval) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.segmentSize = segmentSize;
+        this.segments = new ArrayList<>();
+        this.acknowledged = new TreeSet<>();
+
+        this.ackChannel = FileChannel.open(directory.resolve(ACK_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        ByteBuffer ack = ByteBuffer.allocate(8);
+        this.ackOffset = this.ackChannel.read(ack, 0) == 8 ? ack.getLong(0) : -1;
+        this.flushedAckOffset = this.ackOffset;
+
+        this.recover();
+        this.recoveredEnd = this.nextOffset;
+        this.compact();
+
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "webhook-outbox-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = Math.max(1, flushInterval.toNanos());
+        this.flusher.scheduleWithFixedDelay(this::groupCommit, interval, interval, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Gets the directory of the outbox.
+     *
+     * @return The directory.
+     */
+    public @NotNull Path getDirectory() {
+        return this.directory;
+    }
+
+    /**
+     * Gets the offset the next
+     * appended entry will get.
+     *
+     * @return The next offset.
+     */
+    public synchronized long getNextOffset() {
+        return this.nextOffset;
+    }
+
+    /**
+     * Gets the offset up to which every
+     * entry is acknowledged.
+     *
+     * @return The acknowledged offset, or -1 if none.
+     */
+    public synchronized long getAcknowledgedOffset() {
+        return this.ackOffset;
+    }
+
+    /**
+     * Gets the number of entries that are
+     * not acknowledged yet.
+     *
+     * @return The pending entries.
+     */
+    public synchronized long getPendingCount() {
+        return this.nextOffset - this.ackOffset - 1 - this.acknowledged.size();
+    }
+
+    /**
+     * Gets the number of segment files.
+     *
+     * @return The segment count.
+     */
+    public synchronized int getSegmentCount() {
+        return this.segments.size();
+    }
+
+    /**
+     * Appends a request to the outbox. The entry is
+     * durable after the next group commit or {@link #flush()}.
+     *
+     * @param request The request to append.
+     * @return The offset of the entry.
+     * @throws IOException If the entry can not be written.
+     */
+    public long append(@NotNull WebhookRequest request) throws IOException {
+        byte[] url = request.getUrl().getBytes(StandardCharsets.UTF_8);
+        byte[] contentType = request.getBody().getContentType().getBytes(StandardCharsets.UTF_8);
+        if (url.length > 0xFFFF || contentType.length > 0xFFFF)
+            throw new IOException("Url or content type is too long");
+
+        long contentLength = request.getBody().getContentLength();
+        byte[] body = contentLength < 0 ? request.getBodyBytes() : null;
+
+        long length = 4L + url.length + contentType.length + (body != null ? body.length : contentLength);
+        if (length > Integer.MAX_VALUE - HEADER)
+            throw new IOException("Entry of " + length + " bytes is too large");
+        int size = (int) length;
+
+        synchronized (this) {
+            if (this.closed)
+                throw new IOException("Outbox is closed");
+
+            Segment segment = this.segments.isEmpty() ? null : this.segments.get(this.segments.size() - 1);
+            if (segment == null || segment.position + HEADER + size > segment.buffer.capacity())
+                segment = this.roll(HEADER + size);
+
+            ByteBuffer buffer = segment.buffer;
+            int start = segment.position;
+            buffer.position(start + HEADER);
+            buffer.putShort((short) url.length).put(url);
+            buffer.putShort((short) contentType.length).put(contentType);
+            if (body != null)
+                buffer.put(body);
+            else
+                request.getBody().writeTo(new BufferOutputStream(buffer));
+
+            if (buffer.position() != start + HEADER + size)
+                throw new IOException("Body length does not match its content length");
+
+            CRC32 crc = new CRC32();
+            ByteBuffer payload = buffer.duplicate();
+            payload.position(start + HEADER).limit(start + HEADER + size);
+            crc.update(payload);
+
+            buffer.putInt(start + 4, (int) crc.getValue());
+            buffer.putInt(start, size);
+            segment.position = start + HEADER + size;
+            segment.count++;
+            segment.dirty = true;
+            return this.nextOffset++;
+        }
+    }
+
+    /**
+     * Acknowledges an entry, so it is
+     * not replayed after a restart.
+     *
+     * @param offset The offset of the entry.
+     */
+    public synchronized void acknowledge(long offset) {
+        if (offset <= this.ackOffset)
+            return;
+        if (offset != this.ackOffset + 1) {
+            this.acknowledged.add(offset);
+            return;
+        }
+
+        this.ackOffset = offset;
+        while (!this.acknowledged.isEmpty() && this.acknowledged.first() == this.ackOffset + 1)
+            this.ackOffset = this.acknowledged.pollFirst();
+    }
+
+    /**
+     * Passes every entry that was not acknowledged when
+     * the outbox was opened to the given consumer, in
+     * offset order. Entries appended since are skipped.
+     *
+     * @param consumer Receives the offset and the request of each entry.
+     */
+    public void replay(@NotNull BiConsumer<Long, WebhookRequest> consumer) {
+        List<Segment> segments;
+        synchronized (this) {
+            segments = new ArrayList<>(this.segments);
+        }
+
+        for (Segment segment : segments) {
+            ByteBuffer buffer = segment.buffer.duplicate();
+            long offset = segment.base;
+            int position = 0;
+
+            for (int i = 0; i < segment.count && offset < this.recoveredEnd; i++, offset++) {
+                int size = buffer.getInt(position);
+                buffer.position(position + HEADER);
+                position += HEADER + size;
+
+                synchronized (this) {
+                    if (offset <= this.ackOffset || this.acknowledged.contains(offset))
+                        continue;
+                }
+
+                byte[] url = new byte[buffer.getShort() & 0xFFFF];
+                buffer.get(url);
+                byte[] contentType = new byte[buffer.getShort() & 0xFFFF];
+                buffer.get(contentType);
+                byte[] body = new byte[position - buffer.position()];
+                buffer.get(body);
+
+                consumer.accept(offset, new WebhookRequest(
+                        new String(url, StandardCharsets.UTF_8),
+                        WebhookBody.of(new String(contentType, StandardCharsets.UTF_8), body)
+                ));
+            }
+        }
+    }
+
+    /**
+     * Forces appended entries and the acknowledged offset
+     * to disk now and deletes segments that are done,
+     * without waiting for the next group commit.
+     *
+     * @throws IOException If the outbox can not be synced.
+     */
+    public void flush() throws IOException {
+        List<Segment> dirty = new ArrayList<>();
+        long ackOffset;
+        synchronized (this) {
+            for (Segment segment : this.segments) {
+                if (segment.dirty) {
+                    segment.dirty = false;
+                    dirty.add(segment);
+                }
+            }
+            ackOffset = this.ackOffset;
+        }
+
+        for (Segment segment : dirty)
+            segment.buffer.force();
+
+        synchronized (this.ackChannel) {
+            if (ackOffset > this.flushedAckOffset && this.ackChannel.isOpen()) {
+                ByteBuffer ack = ByteBuffer.allocate(8).putLong(0, ackOffset);
+                this.ackChannel.write(ack, 0);
+                this.ackChannel.force(false);
+                this.flushedAckOffset = ackOffset;
+            }
+        }
+
+        synchronized (this) {
+            this.compact();
+        }
+    }
+
+    /**
+     * Flushes the outbox and stops its flusher.
+     * Entries that are not acknowledged stay in
+     * the outbox and are replayed when it is opened
+     * again.
+     *
+     * @throws IOException If the outbox can not be synced.
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (this.closed)
+                return;
+            this.closed = true;
+        }
+
+        this.flusher.shutdown();
+        try {
+            this.flush();
+        } finally {
+            synchronized (this.ackChannel) {
+                this.ackChannel.close();
+            }
+        }
+    }
+
+    /**
+     * Runs a scheduled group commit.
+     */
+    private void groupCommit() {
+        try {
+            this.flush();
+        } catch (IOException ignored) {
+            // retried on the next commit, entries stay in the mapping
+        }
+    }
+
+    /**
+     * Maps the existing segments and finds
+     * the end of the last one.
+     *
+     * @throws IOException If a segment can not be read.
+     */
+    private void recover() throws IOException {
+        List<Long> bases = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(this.directory, "*" + SEGMENT_SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                try {
+                    bases.add(Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length())));
+                } catch (NumberFormatException ignored) {
+                    // not a segment of this outbox
+                }
+            }
+        }
+        bases.sort(null);
+
+        this.nextOffset = this.ackOffset + 1;
+        for (Long base : bases) {
+            Path path = this.segmentPath(base);
+            Segment segment = new Segment(base, path, map(path, Files.size(path)));
+            segment.scan();
+
+            this.segments.add(segment);
+            this.nextOffset = base + segment.count;
+        }
+    }
+
+    /**
+     * Starts a new segment at the next offset.
+     *
+     * @param required The bytes the segment must hold at least.
+     * @return The new segment.
+     * @throws IOException If the segment can not be created.
+     */
+    private @NotNull Segment roll(int required) throws IOException {
+        Path path = this.segmentPath(this.nextOffset);
+        Segment segment = new Segment(this.nextOffset, path, map(path, Math.max(this.segmentSize, required)));
+        this.segments.add(segment);
+        return segment;
+    }
+
+    /**
+     * Deletes the segments whose entries are all
+     * acknowledged, except the active one.
+     */
+    private void compact() {
+        while (this.segments.size() > 1) {
+            Segment next = this.segments.get(1);
+            if (next.base - 1 > this.ackOffset)
+                break;
+
+            Segment segment = this.segments.remove(0);
+            try {
+                Files.deleteIfExists(segment.path);
+            } catch (IOException ignored) {
+                // deleted again on the next start, its entries are acknowledged
+            }
+        }
+    }
+
+    /**
+     * Gets the path of the segment
+     * starting at the given offset.
+     *
+     * @param base The first offset of the segment.
+     * @return The path of the segment.
+     */
+    private @NotNull Path segmentPath(long base) {
+        return this.directory.resolve(String.format(Locale.ROOT, "%020d", base) + SEGMENT_SUFFIX);
+    }
+
+    /**
+     * Maps the given file, growing it to
+     * the given size if it is smaller.
+     *
+     * @param path The file to map.
+     * @param size The size of the mapping.
+     * @return The mapping.
+     * @throws IOException If the file can not be mapped.
+     */
+    private static @NotNull MappedByteBuffer map(@NotNull Path path,
+                                                 long size) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+            if (file.length() < size)
+                file.setLength(size);
+            return file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, file.length());
+        }
+    }
+
+
+
+    /**
+     * A memory-mapped segment file holding consecutive
+     * entries from its base offset on. Guarded by the
+     * monitor of its outbox.
+     */
+    private static final class Segment {
+
+        private final long base;
+        private final Path path;
+        private final MappedByteBuffer buffer;
+        private int position;
+        private int count;
+        private boolean dirty;
+
+        /**
+         * Creates a new segment.
+         *
+         * @param base   The first offset of the segment.
+         * @param path   The file of the segment.
+         * @param buffer The mapping of the file.
+         */
+        private Segment(long base,
+                        @NotNull Path path,
+                        @NotNull MappedByteBuffer buffer) {
+            this.base = base;
+            this.path = path;
+            this.buffer = buffer;
+        }
+
+        /**
+         * Counts the valid entries of the segment and moves
+         * the write position behind the last one. A torn
+         * entry and everything after it is discarded.
+         */
+        private void scan() {
+            ByteBuffer buffer = this.buffer.duplicate();
+            CRC32 crc = new CRC32();
+
+            while (this.position + HEADER <= buffer.capacity()) {
+                int size = buffer.getInt(this.position);
+                if (size <= 0 || this.position + HEADER + size > buffer.capacity())
+                    break;
+
+                crc.reset();
+                buffer.limit(this.position + HEADER + size).position(this.position + HEADER);
+                crc.update(buffer);
+                buffer.limit(buffer.capacity());
+                if ((int) crc.getValue() != buffer.getInt(this.position + 4))
+                    break;
+
+                this.position += HEADER + size;
+                this.count++;
+            }
+
+            if (this.position + HEADER <= buffer.capacity())
+                this.buffer.putInt(this.position, 0);
+        }
+    }
+
+
+
+    /**
+     * Writes into a byte buffer.
+     */
+    private static final class BufferOutputStream extends OutputStream {
+
+        private final ByteBuffer buffer;
+
+        /**
+         * Creates a new buffer output stream.
+         *
+         * @param buffer The buffer to write into.
+         */
+        private BufferOutputStream(@NotNull ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void write(int b) {
+            this.buffer.put((byte) b);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void write(@NotNull byte[] bytes, int offset, int length) {
+            this.buffer.put(bytes, offset, length);
+        }
+    }
+}
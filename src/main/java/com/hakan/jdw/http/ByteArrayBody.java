@@ -0,0 +1,51 @@
+package com.hakan.jdw.http;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * A {@link WebhookBody} backed by a byte array.
+ */
+final class ByteArrayBody implements WebhookBody {
+
+    private final String contentType;
+    private final byte[] bytes;
+
+    /**
+     * Creates a new byte array body.
+     *
+     * @param contentType The content type of the body.
+     * @param bytes       The bytes of the body.
+     */
+    ByteArrayBody(@NotNull String contentType,
+                  @NotNull byte[] bytes) {
+        this.contentType = contentType;
+        this.bytes = bytes;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public @NotNull String getContentType() {
+        return this.contentType;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getContentLength() {
+        return this.bytes.length;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void writeTo(@NotNull OutputStream output) throws IOException {
+        output.write(this.bytes);
+    }
+}
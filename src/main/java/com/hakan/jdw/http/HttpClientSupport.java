@@ -0,0 +1,49 @@
+package com.hakan.jdw.http;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.concurrent.Executor;
+
+/**
+ * Creates the transport behind {@link HttpClientTransport}.
+ * This is the Java 8 variant; the Java 11 variant in
+ * META-INF/versions/11 of the multi-release jar replaces
+ * it on newer JVMs.
+ */
+final class HttpClientSupport {
+
+    /**
+     * Private constructor to prevent
+     * instantiation of this class.
+     */
+    private HttpClientSupport() {
+
+    }
+
+    /**
+     * Checks if the running JVM provides
+     * the java.net.http HttpClient.
+     *
+     * @return True if the HttpClient is available.
+     */
+    static boolean isSupported() {
+        return false;
+    }
+
+    /**
+     * Creates a transport on the java.net.http HttpClient.
+     *
+     * @param connectTimeout The connect timeout.
+     * @param requestTimeout The time to wait for a response.
+     * @param executor       The executor of the client, or null for its default.
+     * @return The transport.
+     * @throws UnsupportedOperationException If the HttpClient is not available.
+     */
+    static @NotNull WebhookTransport create(@NotNull Duration connectTimeout,
+                                            @NotNull Duration requestTimeout,
+                                            @Nullable Executor executor) {
+        throw new UnsupportedOperationException("HttpClientTransport requires Java 11 or newer");
+    }
+}
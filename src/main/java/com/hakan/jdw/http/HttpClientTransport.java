@@ -0,0 +1,127 @@
+package com.hakan.jdw.http;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * A {@link WebhookTransport} on the java.net.http
+ * HttpClient of Java 11 and newer. Requests are
+ * sent over HTTP/2 where the server supports it,
+ * so concurrent webhooks to discord share a single
+ * multiplexed connection instead of one each.
+ * <p>
+ * {@link #sendAsync(WebhookRequest)} does not block,
+ * which lets a {@code WebhookDispatcher} keep many
+ * webhooks in flight with few threads. On Java 8,
+ * {@link #isSupported()} returns false and building
+ * the transport fails.
+ */
+public class HttpClientTransport implements WebhookTransport {
+
+    /**
+     * Checks if the running JVM provides the
+     * java.net.http HttpClient.
+     *
+     * @return True if the transport can be built.
+     */
+    public static boolean isSupported() {
+        return HttpClientSupport.isSupported();
+    }
+
+
+
+    private final WebhookTransport delegate;
+
+    /**
+     * Creates a new http client transport.
+     *
+     * @param connectTimeout The connect timeout.
+     * @param requestTimeout The time to wait for a response.
+     * @param executor       The executor of the client, or null for its default.
+     * @throws UnsupportedOperationException If the JVM is older than Java 11.
+     */
+    public HttpClientTransport(@NotNull Duration connectTimeout,
+                               @NotNull Duration requestTimeout,
+                               @Nullable Executor executor) {
+        this.delegate = HttpClientSupport.create(connectTimeout, requestTimeout, executor);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public @NotNull WebhookResponse send(@NotNull WebhookRequest request) throws IOException {
+        return this.delegate.send(request);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public @NotNull CompletableFuture<WebhookResponse> sendAsync(@NotNull WebhookRequest request) {
+        return this.delegate.sendAsync(request);
+    }
+
+
+
+    /**
+     * {@inheritDoc}
+     */
+    public static class Builder implements com.hakan.jdw.Builder<HttpClientTransport> {
+
+        private Duration connectTimeout = Duration.ofSeconds(10);
+        private Duration requestTimeout = Duration.ofSeconds(30);
+        private Executor executor;
+
+        /**
+         * Sets the connect timeout.
+         *
+         * @param connectTimeout The connect timeout.
+         * @return The current instance in order to chain call methods.
+         */
+        public @NotNull Builder connectTimeout(@NotNull Duration connectTimeout) {
+            this.connectTimeout = connectTimeout;
+            return this;
+        }
+
+        /**
+         * Sets the time to wait for a response.
+         *
+         * @param requestTimeout The request timeout.
+         * @return The current instance in order to chain call methods.
+         */
+        public @NotNull Builder requestTimeout(@NotNull Duration requestTimeout) {
+            this.requestTimeout = requestTimeout;
+            return this;
+        }
+
+        /**
+         * Sets the executor the client completes
+         * responses and streams bodies on.
+         *
+         * @param executor The executor.
+         * @return The current instance in order to chain call methods.
+         */
+        public @NotNull Builder executor(@NotNull Executor executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public @NotNull HttpClientTransport build() {
+            return new HttpClientTransport(
+                    this.connectTimeout,
+                    this.requestTimeout,
+                    this.executor
+            );
+        }
+    }
+}
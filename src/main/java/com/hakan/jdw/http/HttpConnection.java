@@ -0,0 +1,402 @@
+package com.hakan.jdw.http;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * A single persistent HTTP/1.1 connection
+ * owned by a {@link WebhookClient}.
+ */
+final class HttpConnection implements Closeable {
+
+    private final String key;
+    private final Socket socket;
+    private final InputStream input;
+    private final OutputStream output;
+    private long lastUsed;
+    private boolean reusable;
+    private boolean written;
+    private boolean answered;
+
+    /**
+     * Creates a new connection over the given socket.
+     *
+     * @param key    The pool key of the connection.
+     * @param socket The connected socket.
+     * @throws IOException If the socket streams can not be opened.
+     */
+    HttpConnection(@NotNull String key,
+                   @NotNull Socket socket) throws IOException {
+        this.key = key;
+        this.socket = socket;
+        this.input = new BufferedInputStream(socket.getInputStream(), 8192);
+        this.output = new BufferedOutputStream(socket.getOutputStream(), 8192);
+        this.lastUsed = System.nanoTime();
+        this.reusable = true;
+    }
+
+    /**
+     * Gets the pool key of the connection.
+     *
+     * @return The pool key of the connection.
+     */
+    @NotNull String getKey() {
+        return this.key;
+    }
+
+    /**
+     * Gets the last time this connection was
+     * released to the pool, in nanoseconds.
+     *
+     * @return The last used time.
+     */
+    long getLastUsed() {
+        return this.lastUsed;
+    }
+
+    /**
+     * Checks if the server allows this
+     * connection to be used again.
+     *
+     * @return True if the connection can be pooled.
+     */
+    boolean isReusable() {
+        return this.reusable && !this.socket.isClosed();
+    }
+
+    /**
+     * Checks if the last request failed before the
+     * server could have acted on it. That is the case
+     * if the request was not fully written, or if the
+     * connection ended before any byte of a response.
+     *
+     * @return True if the request can be sent again.
+     */
+    boolean canRetry() {
+        return !this.written || !this.answered;
+    }
+
+    /**
+     * Marks the connection as idle.
+     */
+    void markIdle() {
+        this.lastUsed = System.nanoTime();
+    }
+
+    /**
+     * Writes a POST request and reads the response.
+     * The response body is always drained fully so
+     * the connection can be reused afterward.
+     *
+     * @param host   The host header value.
+     * @param target The request target (path and query).
+     * @param body   The request body.
+     * @return The response.
+     * @throws IOException If an I/O error occurs.
+     */
+    @NotNull WebhookResponse post(@NotNull String host,
+                                  @NotNull String target,
+                                  @NotNull WebhookBody body) throws IOException {
+        long length = body.getContentLength();
+        String head = "POST " + target + " HTTP/1.1\r\n" +
+                "Host: " + host + "\r\n" +
+                "User-Agent: Java-DiscordWebhook\r\n" +
+                "Content-Type: " + body.getContentType() + "\r\n" +
+                (length >= 0 ? "Content-Length: " + length : "Transfer-Encoding: chunked") + "\r\n" +
+                "Connection: keep-alive\r\n" +
+                "\r\n";
+
+        this.written = false;
+        this.answered = false;
+        this.output.write(head.getBytes(StandardCharsets.US_ASCII));
+        if (length >= 0) {
+            body.writeTo(this.output);
+        } else {
+            ChunkedOutputStream chunked = new ChunkedOutputStream(this.output);
+            body.writeTo(chunked);
+            chunked.finish();
+        }
+        this.output.flush();
+        this.written = true;
+
+        return this.readResponse();
+    }
+
+    /**
+     * Reads a response from the connection,
+     * skipping interim 1xx responses.
+     *
+     * @return The response.
+     * @throws IOException If an I/O error occurs.
+     */
+    private @NotNull WebhookResponse readResponse() throws IOException {
+        while (true) {
+            String statusLine = this.readLine();
+            if (statusLine == null)
+                throw new EOFException("Connection closed before response");
+
+            String[] parts = statusLine.split(" ", 3);
+            if (parts.length < 2 || !parts[0].startsWith("HTTP/"))
+                throw new IOException("Malformed status line: " + statusLine);
+
+            int status = parseLength(parts[1], 10, "status code");
+            Map<String, List<String>> headers = this.readHeaders();
+            if (status >= 100 && status < 200)
+                continue;
+
+            String connection = first(headers, "connection");
+            if (connection != null && connection.equalsIgnoreCase("close"))
+                this.reusable = false;
+            if (parts[0].equals("HTTP/1.0") && (connection == null || !connection.equalsIgnoreCase("keep-alive")))
+                this.reusable = false;
+
+            return new WebhookResponse(status, headers, this.readBody(status, headers));
+        }
+    }
+
+    /**
+     * Reads the header block of a response.
+     *
+     * @return The headers, keyed by lower case name.
+     * @throws IOException If an I/O error occurs.
+     */
+    private @NotNull Map<String, List<String>> readHeaders() throws IOException {
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+
+        String line;
+        while ((line = this.readLine()) != null && !line.isEmpty()) {
+            int colon = line.indexOf(':');
+            if (colon <= 0)
+                continue;
+
+            String name = line.substring(0, colon).trim().toLowerCase(Locale.ROOT);
+            String value = line.substring(colon + 1).trim();
+            headers.computeIfAbsent(name, k -> new ArrayList<>(1)).add(value);
+        }
+
+        if (line == null)
+            throw new EOFException("Connection closed while reading headers");
+        return headers;
+    }
+
+    /**
+     * Reads the body of a response according to
+     * its framing headers.
+     *
+     * @param status  The status code of the response.
+     * @param headers The headers of the response.
+     * @return The body.
+     * @throws IOException If an I/O error occurs.
+     */
+    private @NotNull byte[] readBody(int status,
+                                     @NotNull Map<String, List<String>> headers) throws IOException {
+        if (status == 204 || status == 304)
+            return new byte[0];
+
+        String transferEncoding = first(headers, "transfer-encoding");
+        if (transferEncoding != null && transferEncoding.toLowerCase(Locale.ROOT).contains("chunked"))
+            return this.readChunked();
+
+        String contentLength = first(headers, "content-length");
+        if (contentLength != null)
+            return this.readFully(parseLength(contentLength.trim(), 10, "content length"));
+
+        this.reusable = false;
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        int read;
+        while ((read = this.input.read(buffer)) != -1)
+            body.write(buffer, 0, read);
+        return body.toByteArray();
+    }
+
+    /**
+     * Reads a chunked transfer encoded body.
+     *
+     * @return The body.
+     * @throws IOException If an I/O error occurs.
+     */
+    private @NotNull byte[] readChunked() throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+        while (true) {
+            String sizeLine = this.readLine();
+            if (sizeLine == null)
+                throw new EOFException("Connection closed while reading chunk");
+
+            int extension = sizeLine.indexOf(';');
+            String size = (extension >= 0 ? sizeLine.substring(0, extension) : sizeLine).trim();
+            int length = parseLength(size, 16, "chunk size");
+            if (length == 0)
+                break;
+
+            body.write(this.readFully(length));
+            this.readLine();
+        }
+
+        String trailer;
+        while ((trailer = this.readLine()) != null && !trailer.isEmpty()) {
+            // trailers are not used by discord, discard them
+        }
+        return body.toByteArray();
+    }
+
+    /**
+     * Reads exactly the given number of bytes.
+     *
+     * @param length The number of bytes to read.
+     * @return The bytes.
+     * @throws IOException If the stream ends early.
+     */
+    private @NotNull byte[] readFully(int length) throws IOException {
+        byte[] bytes = new byte[length];
+
+        int offset = 0;
+        while (offset < length) {
+            int read = this.input.read(bytes, offset, length - offset);
+            if (read == -1)
+                throw new EOFException("Connection closed while reading body");
+            offset += read;
+        }
+        return bytes;
+    }
+
+    /**
+     * Reads a CRLF terminated line as ASCII.
+     *
+     * @return The line without its terminator, or null at end of stream.
+     * @throws IOException If an I/O error occurs.
+     */
+    private String readLine() throws IOException {
+        StringBuilder line = new StringBuilder(64);
+
+        int read;
+        while ((read = this.input.read()) != -1) {
+            this.answered = true;
+            if (read == '\n') {
+                int length = line.length();
+                if (length > 0 && line.charAt(length - 1) == '\r')
+                    line.setLength(length - 1);
+                return line.toString();
+            }
+            line.append((char) read);
+        }
+        return line.length() == 0 ? null : line.toString();
+    }
+
+    /**
+     * Parses a number the server sent, such as a
+     * status code or the length of a body.
+     *
+     * @param value The text of the number.
+     * @param radix The radix of the number.
+     * @param name  The name of the number, for errors.
+     * @return The number.
+     * @throws IOException If the number is malformed or negative.
+     */
+    private static int parseLength(@NotNull String value,
+                                   int radix,
+                                   @NotNull String name) throws IOException {
+        int number;
+        try {
+            number = Integer.parseInt(value, radix);
+        } catch (NumberFormatException e) {
+            throw new IOException("Malformed " + name + ": " + value, e);
+        }
+
+        if (number < 0)
+            throw new IOException("Negative " + name + ": " + value);
+        return number;
+    }
+
+    /**
+     * Gets the first value of a header.
+     *
+     * @param headers The header map.
+     * @param name    The lower case header name.
+     * @return The first value, or null if absent.
+     */
+    private static String first(@NotNull Map<String, List<String>> headers,
+                                @NotNull String name) {
+        List<String> values = headers.get(name);
+        return (values == null || values.isEmpty()) ? null : values.get(0);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() {
+        this.reusable = false;
+        try {
+            this.socket.close();
+        } catch (IOException ignored) {
+            // nothing to do, the connection is discarded anyway
+        }
+    }
+
+
+
+    /**
+     * Writes everything as chunked transfer encoding
+     * to the underlying stream, without closing it.
+     */
+    private static final class ChunkedOutputStream extends FilterOutputStream {
+
+        /**
+         * Creates a new chunked output stream.
+         *
+         * @param output The underlying stream.
+         */
+        private ChunkedOutputStream(@NotNull OutputStream output) {
+            super(output);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void write(int b) throws IOException {
+            this.write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void write(@NotNull byte[] bytes, int offset, int length) throws IOException {
+            if (length == 0)
+                return;
+
+            this.out.write((Integer.toHexString(length) + "\r\n").getBytes(StandardCharsets.US_ASCII));
+            this.out.write(bytes, offset, length);
+            this.out.write('\r');
+            this.out.write('\n');
+        }
+
+        /**
+         * Writes the terminating chunk.
+         *
+         * @throws IOException If an I/O error occurs.
+         */
+        private void finish() throws IOException {
+            this.out.write("0\r\n\r\n".getBytes(StandardCharsets.US_ASCII));
+        }
+    }
+}
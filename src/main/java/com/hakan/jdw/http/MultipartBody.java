@@ -0,0 +1,148 @@
+package com.hakan.jdw.http;
+
+import com.hakan.jdw.WebhookAttachment;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A multipart/form-data {@link WebhookBody} made of
+ * the payload_json part and one files[n] part per
+ * attachment. Attachments are streamed straight into
+ * the output, part by part.
+ */
+final class MultipartBody implements WebhookBody {
+
+    private final String boundary;
+    private final byte[] json;
+    private final List<WebhookAttachment> attachments;
+    private final List<byte[]> headers;
+    private final byte[] end;
+
+    /**
+     * Creates a new multipart body.
+     *
+     * @param json        The UTF-8 payload json of the webhook.
+     * @param attachments The attachments of the webhook.
+     */
+    MultipartBody(@NotNull byte[] json,
+                  @NotNull List<WebhookAttachment> attachments) {
+        this.boundary = "jdw" + Long.toHexString(ThreadLocalRandom.current().nextLong())
+                + Long.toHexString(ThreadLocalRandom.current().nextLong());
+        this.json = json;
+        this.attachments = attachments;
+        this.headers = new ArrayList<>(attachments.size() + 1);
+        this.end = ("--" + this.boundary + "--\r\n").getBytes(StandardCharsets.US_ASCII);
+
+        this.headers.add(this.header("payload_json", null, "application/json"));
+        for (int i = 0; i < attachments.size(); i++) {
+            WebhookAttachment attachment = attachments.get(i);
+            this.headers.add(this.header("files[" + i + "]", attachment.getFilename(), attachment.getContentType()));
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public @NotNull String getContentType() {
+        return "multipart/form-data; boundary=" + this.boundary;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getContentLength() {
+        long length = this.end.length + this.json.length + 2;
+        for (byte[] header : this.headers)
+            length += header.length;
+
+        for (WebhookAttachment attachment : this.attachments) {
+            if (attachment.getLength() < 0)
+                return -1;
+            length += attachment.getLength() + 2;
+        }
+        return length;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isRepeatable() {
+        for (WebhookAttachment attachment : this.attachments) {
+            if (!attachment.isRepeatable())
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void writeTo(@NotNull OutputStream output) throws IOException {
+        output.write(this.headers.get(0));
+        output.write(this.json);
+        output.write('\r');
+        output.write('\n');
+
+        for (int i = 0; i < this.attachments.size(); i++) {
+            output.write(this.headers.get(i + 1));
+            this.attachments.get(i).writeTo(output);
+            output.write('\r');
+            output.write('\n');
+        }
+        output.write(this.end);
+    }
+
+    /**
+     * Creates the boundary and headers of a part.
+     *
+     * @param name        The form name of the part.
+     * @param filename    The file name of the part, or null.
+     * @param contentType The content type of the part.
+     * @return The bytes of the part header.
+     */
+    private @NotNull byte[] header(@NotNull String name,
+                                   String filename,
+                                   @NotNull String contentType) {
+        String disposition = "form-data; name=\"" + name + "\"";
+        if (filename != null)
+            disposition += "; filename=\"" + quote(filename) + "\"";
+
+        return ("--" + this.boundary + "\r\n" +
+                "Content-Disposition: " + disposition + "\r\n" +
+                "Content-Type: " + contentType + "\r\n" +
+                "\r\n").getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Escapes a file name for a quoted header value.
+     * Backslashes and quotes are escaped, and control
+     * characters such as CR and LF are percent-encoded,
+     * so the name can not end the header early.
+     *
+     * @param filename The file name.
+     * @return The escaped file name.
+     */
+    private static @NotNull String quote(@NotNull String filename) {
+        StringBuilder quoted = new StringBuilder(filename.length());
+        for (int i = 0; i < filename.length(); i++) {
+            char c = filename.charAt(i);
+            if (c == '\\' || c == '"')
+                quoted.append('\\').append(c);
+            else if (c < 0x20 || c == 0x7F)
+                quoted.append(String.format("%%%02X", (int) c));
+            else
+                quoted.append(c);
+        }
+        return quoted.toString();
+    }
+}
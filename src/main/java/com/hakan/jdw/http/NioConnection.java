@@ -0,0 +1,389 @@
+package com.hakan.jdw.http;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLEngineResult;
+import javax.net.ssl.SSLException;
+import javax.net.ssl.SSLSession;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+
+/**
+ * A single non-blocking connection owned by a
+ * {@link NioTransport}, optionally wrapped in TLS
+ * by an {@link SSLEngine}. Every method returns
+ * instead of waiting when the socket is not ready;
+ * {@link #wantsWrite()} then tells which readiness
+ * the caller should select for.
+ */
+final class NioConnection implements Closeable {
+
+    private static final ByteBuffer[] EMPTY = {ByteBuffer.allocate(0)};
+
+    private final String key;
+    private final SocketChannel channel;
+    private final SSLEngine engine;
+    private ByteBuffer netIn;
+    private ByteBuffer netOut;
+    private ByteBuffer appIn;
+    private boolean handshakeStarted;
+    private boolean wantsWrite;
+
+    /**
+     * Creates a new connection over the given channel.
+     *
+     * @param key     The pool key of the connection.
+     * @param channel The non-blocking channel.
+     * @param engine  The TLS engine in client mode, or null for plain http.
+     */
+    NioConnection(@NotNull String key,
+                  @NotNull SocketChannel channel,
+                  @Nullable SSLEngine engine) {
+        this.key = key;
+        this.channel = channel;
+        this.engine = engine;
+
+        if (engine != null) {
+            SSLSession session = engine.getSession();
+            this.netIn = ByteBuffer.allocate(session.getPacketBufferSize());
+            this.netOut = ByteBuffer.allocate(session.getPacketBufferSize());
+            this.netOut.flip();
+            this.appIn = ByteBuffer.allocate(session.getApplicationBufferSize());
+        }
+    }
+
+    /**
+     * Gets the pool key of the connection.
+     *
+     * @return The pool key of the connection.
+     */
+    @NotNull String getKey() {
+        return this.key;
+    }
+
+    /**
+     * Gets the channel of the connection.
+     *
+     * @return The channel of the connection.
+     */
+    @NotNull SocketChannel getChannel() {
+        return this.channel;
+    }
+
+    /**
+     * Checks if the last call that returned early
+     * is waiting for the socket to become writable
+     * rather than readable.
+     *
+     * @return True to select for writing.
+     */
+    boolean wantsWrite() {
+        return this.wantsWrite;
+    }
+
+    /**
+     * Finishes connecting the channel.
+     *
+     * @return True if the channel is connected.
+     * @throws IOException If the connection fails.
+     */
+    boolean finishConnect() throws IOException {
+        return this.channel.finishConnect();
+    }
+
+    /**
+     * Advances the TLS handshake as far as
+     * the socket allows.
+     *
+     * @return True if the handshake is complete.
+     * @throws IOException If the handshake fails.
+     */
+    boolean handshake() throws IOException {
+        if (this.engine == null)
+            return true;
+
+        if (!this.handshakeStarted) {
+            this.engine.beginHandshake();
+            this.handshakeStarted = true;
+        }
+
+        while (true) {
+            if (!this.flush())
+                return false;
+
+            switch (this.engine.getHandshakeStatus()) {
+                case NOT_HANDSHAKING:
+                case FINISHED:
+                    return true;
+                case NEED_TASK:
+                    this.runTasks();
+                    break;
+                case NEED_WRAP:
+                    this.wrap(EMPTY);
+                    break;
+                default:
+                    if (!this.unwrap())
+                        return false;
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Writes the remaining bytes of the given
+     * buffers as far as the socket allows.
+     *
+     * @param buffers The buffers to write.
+     * @return True if everything has been written.
+     * @throws IOException If the write fails.
+     */
+    boolean write(@NotNull ByteBuffer[] buffers) throws IOException {
+        if (this.engine == null) {
+            this.channel.write(buffers);
+            this.wantsWrite = hasRemaining(buffers);
+            return !this.wantsWrite;
+        }
+
+        while (true) {
+            if (!this.flush())
+                return false;
+            if (!hasRemaining(buffers))
+                return true;
+
+            this.wrap(buffers);
+        }
+    }
+
+    /**
+     * Reads as many response bytes as are
+     * available into the given buffer.
+     *
+     * @param buffer The buffer, in write mode.
+     * @return The number of bytes read, or -1 at end of stream.
+     * @throws IOException If the read fails.
+     */
+    int read(@NotNull ByteBuffer buffer) throws IOException {
+        this.wantsWrite = false;
+        if (this.engine == null)
+            return this.channel.read(buffer);
+
+        while (true) {
+            if (this.appIn.position() > 0) {
+                this.appIn.flip();
+                int length = Math.min(this.appIn.remaining(), buffer.remaining());
+                ByteBuffer slice = this.appIn.duplicate();
+                slice.limit(slice.position() + length);
+                buffer.put(slice);
+                this.appIn.position(this.appIn.position() + length);
+                this.appIn.compact();
+                return length;
+            }
+
+            this.netIn.flip();
+            SSLEngineResult result;
+            try {
+                result = this.engine.unwrap(this.netIn, this.appIn);
+            } finally {
+                this.netIn.compact();
+            }
+            this.afterUnwrap(result);
+
+            switch (result.getStatus()) {
+                case CLOSED:
+                    return -1;
+                case BUFFER_OVERFLOW:
+                    this.appIn = grow(this.appIn, this.engine.getSession().getApplicationBufferSize());
+                    continue;
+                case OK:
+                    if (result.bytesConsumed() > 0 || this.appIn.position() > 0)
+                        continue;
+                    break;
+                default:
+                    break;
+            }
+
+            // nothing consumed, more records are needed
+            if (!this.netIn.hasRemaining())
+                this.netIn = grow(this.netIn, this.engine.getSession().getPacketBufferSize());
+
+            int read = this.channel.read(this.netIn);
+            if (read <= 0)
+                return read;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() {
+        try {
+            if (this.engine != null && this.handshakeStarted) {
+                this.engine.closeOutbound();
+                this.wrap(EMPTY);
+                this.flush();
+            }
+        } catch (IOException ignored) {
+            // the close notify is a courtesy, the socket is closed anyway
+        }
+
+        try {
+            this.channel.close();
+        } catch (IOException ignored) {
+            // nothing to do, the connection is discarded anyway
+        }
+    }
+
+    /**
+     * Writes the pending TLS records to the socket.
+     *
+     * @return True if nothing is left pending.
+     * @throws IOException If the write fails.
+     */
+    private boolean flush() throws IOException {
+        if (this.netOut.hasRemaining())
+            this.channel.write(this.netOut);
+
+        this.wantsWrite = this.netOut.hasRemaining();
+        return !this.wantsWrite;
+    }
+
+    /**
+     * Encrypts application bytes into the
+     * pending TLS records.
+     *
+     * @param buffers The application bytes.
+     * @throws IOException If the engine fails.
+     */
+    private void wrap(@NotNull ByteBuffer[] buffers) throws IOException {
+        this.netOut.compact();
+        SSLEngineResult result;
+        try {
+            result = this.engine.wrap(buffers, this.netOut);
+        } finally {
+            this.netOut.flip();
+        }
+
+        switch (result.getStatus()) {
+            case BUFFER_OVERFLOW:
+                this.netOut.compact();
+                this.netOut = grow(this.netOut, this.engine.getSession().getPacketBufferSize());
+                this.netOut.flip();
+                break;
+            case CLOSED:
+                if (result.bytesProduced() == 0)
+                    throw new SSLException("TLS connection is closed");
+                break;
+            default:
+                break;
+        }
+
+        if (result.getHandshakeStatus() == SSLEngineResult.HandshakeStatus.NEED_TASK)
+            this.runTasks();
+    }
+
+    /**
+     * Decrypts received TLS records during the
+     * handshake, reading more of them if needed.
+     *
+     * @return False if the socket has nothing to read yet.
+     * @throws IOException If the handshake fails.
+     */
+    private boolean unwrap() throws IOException {
+        this.netIn.flip();
+        SSLEngineResult result;
+        try {
+            result = this.engine.unwrap(this.netIn, this.appIn);
+        } finally {
+            this.netIn.compact();
+        }
+
+        switch (result.getStatus()) {
+            case CLOSED:
+                throw new EOFException("TLS connection closed during handshake");
+            case BUFFER_OVERFLOW:
+                this.appIn = grow(this.appIn, this.engine.getSession().getApplicationBufferSize());
+                return true;
+            case BUFFER_UNDERFLOW:
+                if (!this.netIn.hasRemaining())
+                    this.netIn = grow(this.netIn, this.engine.getSession().getPacketBufferSize());
+
+                int read = this.channel.read(this.netIn);
+                if (read < 0)
+                    throw new EOFException("Connection closed during handshake");
+                this.wantsWrite = false;
+                return read > 0;
+            default:
+                if (result.getHandshakeStatus() == SSLEngineResult.HandshakeStatus.NEED_TASK)
+                    this.runTasks();
+                return true;
+        }
+    }
+
+    /**
+     * Handles the post-handshake messages of TLS 1.3,
+     * such as session tickets and key updates, that
+     * arrive between application records.
+     *
+     * @param result The result of the last unwrap.
+     * @throws IOException If the engine fails.
+     */
+    private void afterUnwrap(@NotNull SSLEngineResult result) throws IOException {
+        switch (result.getHandshakeStatus()) {
+            case NEED_TASK:
+                this.runTasks();
+                break;
+            case NEED_WRAP:
+                this.wrap(EMPTY);
+                this.flush();
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Runs the delegated tasks of the engine
+     * on the calling thread.
+     */
+    private void runTasks() {
+        Runnable task;
+        while ((task = this.engine.getDelegatedTask()) != null)
+            task.run();
+    }
+
+    /**
+     * Checks if any of the buffers has remaining bytes.
+     *
+     * @param buffers The buffers to check.
+     * @return True if any bytes are left.
+     */
+    private static boolean hasRemaining(@NotNull ByteBuffer[] buffers) {
+        for (ByteBuffer buffer : buffers) {
+            if (buffer.hasRemaining())
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Copies a buffer in write mode into
+     * a larger one.
+     *
+     * @param buffer  The buffer to grow.
+     * @param minimum The minimum capacity to add.
+     * @return The grown buffer, in write mode.
+     */
+    private static @NotNull ByteBuffer grow(@NotNull ByteBuffer buffer,
+                                            int minimum) {
+        ByteBuffer grown = ByteBuffer.allocate(buffer.capacity() + Math.max(minimum, buffer.capacity()));
+        buffer.flip();
+        grown.put(buffer);
+        return grown;
+    }
+}
@@ -0,0 +1,858 @@
+package com.hakan.jdw.http;
+
+import org.jetbrains.annotations.NotNull;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLParameters;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.net.StandardSocketOptions;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A non-blocking {@link WebhookTransport} on a small,
+ * fixed set of selector threads. Each thread runs an
+ * event loop over its own non-blocking sockets and
+ * keep-alive pool, so thousands of webhooks can be in
+ * flight without a thread each.
+ * <p>
+ * Requests are serialized on the calling thread and
+ * written straight from byte buffers; responses are
+ * parsed incrementally as bytes arrive. TLS is done
+ * with an {@link SSLEngine}, so https and plain http
+ * urls are both supported.
+ * <p>
+ * Responses are completed on the executor, never
+ * on an event loop, so dependent stages may block.
+ */
+public class NioTransport implements WebhookTransport, Closeable {
+
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+    private final long connectTimeoutNanos;
+    private final long requestTimeoutNanos;
+    private final long keepAliveNanos;
+    private final int maxIdleConnections;
+    private final SSLContext sslContext;
+    private final Executor executor;
+    private final EventLoop[] loops;
+    private final AtomicInteger next;
+    private final AtomicInteger openConnections;
+    private volatile boolean closed;
+
+    /**
+     * Creates a new nio transport and starts its event loops.
+     *
+     * @param threads            The number of event loop threads.
+     * @param connectTimeout     The connect timeout.
+     * @param requestTimeout     The time to wait for a response.
+     * @param keepAlive          How long an idle connection is kept.
+     * @param maxIdleConnections The max idle connections per host and loop.
+     * @param sslContext         The context for TLS connections.
+     * @param executor           The executor responses are completed on.
+     * @throws UncheckedIOException If a selector can not be opened.
+     */
+    public NioTransport(int threads,
+                        @NotNull Duration connectTimeout,
+                        @NotNull Duration requestTimeout,
+                        @NotNull Duration keepAlive,
+                        int maxIdleConnections,
+                        @NotNull SSLContext sslContext,
+                        @NotNull Executor executor) {
+        if (threads < 1)
+            throw new IllegalArgumentException("threads must be positive");
+
+        this.connectTimeoutNanos = connectTimeout.toNanos();
+        this.requestTimeoutNanos = requestTimeout.toNanos();
+        this.keepAliveNanos = keepAlive.toNanos();
+        this.maxIdleConnections = maxIdleConnections;
+        this.sslContext = sslContext;
+        this.executor = executor;
+        this.loops = new EventLoop[threads];
+        this.next = new AtomicInteger();
+        this.openConnections = new AtomicInteger();
+
+        try {
+            for (int i = 0; i < threads; i++)
+                this.loops[i] = new EventLoop();
+        } catch (IOException e) {
+            for (EventLoop loop : this.loops) {
+                if (loop != null)
+                    loop.shutdown();
+            }
+            throw new UncheckedIOException(e);
+        }
+
+        for (EventLoop loop : this.loops)
+            loop.thread.start();
+    }
+
+    /**
+     * Creates a new nio transport
+     * with the default settings.
+     */
+    public NioTransport() {
+        this(2,
+                Duration.ofSeconds(10),
+                Duration.ofSeconds(30),
+                Duration.ofSeconds(60),
+                64,
+                defaultSslContext(),
+                ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Gets the number of event loop threads.
+     *
+     * @return The number of event loop threads.
+     */
+    public int getThreadCount() {
+        return this.loops.length;
+    }
+
+    /**
+     * Gets the number of open connections,
+     * both in flight and idle.
+     *
+     * @return The number of open connections.
+     */
+    public int getOpenConnectionCount() {
+        return this.openConnections.get();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public @NotNull WebhookResponse send(@NotNull WebhookRequest request) throws IOException {
+        try {
+            return this.sendAsync(request).join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException)
+                throw (IOException) cause;
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+            throw new IOException(cause);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The request is serialized on the calling thread,
+     * then handed to an event loop. If a pooled connection
+     * turns out to be closed by the server before any
+     * response arrives, the request is sent once more
+     * over a fresh connection.
+     */
+    @Override
+    public @NotNull CompletableFuture<WebhookResponse> sendAsync(@NotNull WebhookRequest request) {
+        CompletableFuture<WebhookResponse> future = new CompletableFuture<>();
+        if (this.closed) {
+            future.completeExceptionally(new IOException("Transport is closed"));
+            return future;
+        }
+
+        Exchange exchange;
+        try {
+            exchange = this.exchange(request, future);
+        } catch (IOException | RuntimeException e) {
+            future.completeExceptionally(e instanceof UncheckedIOException ? e.getCause() : e);
+            return future;
+        }
+
+        EventLoop loop = this.loops[Math.floorMod(this.next.getAndIncrement(), this.loops.length)];
+        loop.execute(() -> loop.start(exchange));
+        if (this.closed)
+            future.completeExceptionally(new IOException("Transport is closed"));
+        return future;
+    }
+
+    /**
+     * Closes the transport, fails all requests
+     * in flight and closes all connections.
+     */
+    @Override
+    public void close() {
+        this.closed = true;
+
+        for (EventLoop loop : this.loops)
+            loop.selector.wakeup();
+    }
+
+    /**
+     * Resolves the target of a request and
+     * serializes its head and body.
+     *
+     * @param request The request.
+     * @param future  The future of the response.
+     * @return The exchange.
+     * @throws IOException If the url is not supported.
+     */
+    private @NotNull Exchange exchange(@NotNull WebhookRequest request,
+                                       @NotNull CompletableFuture<WebhookResponse> future) throws IOException {
+        URI uri = URI.create(request.getUrl());
+        String scheme = uri.getScheme() == null ? "" : uri.getScheme().toLowerCase(Locale.ROOT);
+        if (!scheme.equals("https") && !scheme.equals("http"))
+            throw new IOException("Unsupported scheme: " + uri.getScheme());
+
+        boolean secure = scheme.equals("https");
+        int port = uri.getPort() != -1 ? uri.getPort() : (secure ? 443 : 80);
+        String host = uri.getHost();
+        String hostHeader = uri.getPort() == -1 ? host : host + ":" + port;
+        String target = (uri.getRawPath() == null || uri.getRawPath().isEmpty() ? "/" : uri.getRawPath())
+                + (uri.getRawQuery() != null ? "?" + uri.getRawQuery() : "");
+
+        byte[] body = request.getBodyBytes();
+        String head = "POST " + target + " HTTP/1.1\r\n" +
+                "Host: " + hostHeader + "\r\n" +
+                "User-Agent: Java-DiscordWebhook\r\n" +
+                "Content-Type: " + request.getBody().getContentType() + "\r\n" +
+                "Content-Length: " + body.length + "\r\n" +
+                "Connection: keep-alive\r\n" +
+                "\r\n";
+
+        return new Exchange(
+                scheme + "://" + host + ":" + port,
+                new InetSocketAddress(host, port),
+                secure,
+                new ByteBuffer[]{ByteBuffer.wrap(head.getBytes(StandardCharsets.US_ASCII)), ByteBuffer.wrap(body)},
+                future
+        );
+    }
+
+    /**
+     * Gets the default TLS context of the JVM.
+     *
+     * @return The default TLS context.
+     */
+    private static @NotNull SSLContext defaultSslContext() {
+        try {
+            return SSLContext.getDefault();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("No default TLS context", e);
+        }
+    }
+
+
+
+    /**
+     * A request waiting for or bound to a connection.
+     */
+    private static final class Exchange {
+
+        private final String key;
+        private final InetSocketAddress address;
+        private final boolean secure;
+        private final ByteBuffer[] payload;
+        private final CompletableFuture<WebhookResponse> future;
+        private boolean retried;
+
+        /**
+         * Creates a new exchange.
+         *
+         * @param key     The pool key of the target.
+         * @param address The address of the target.
+         * @param secure  True to use TLS.
+         * @param payload The serialized head and body.
+         * @param future  The future of the response.
+         */
+        private Exchange(@NotNull String key,
+                         @NotNull InetSocketAddress address,
+                         boolean secure,
+                         @NotNull ByteBuffer[] payload,
+                         @NotNull CompletableFuture<WebhookResponse> future) {
+            this.key = key;
+            this.address = address;
+            this.secure = secure;
+            this.payload = payload;
+            this.future = future;
+        }
+
+        /**
+         * Creates fresh views of the payload,
+         * so it can be written again on retry.
+         *
+         * @return The payload buffers.
+         */
+        private @NotNull ByteBuffer[] output() {
+            ByteBuffer[] output = new ByteBuffer[this.payload.length];
+            for (int i = 0; i < output.length; i++)
+                output[i] = this.payload[i].duplicate();
+            return output;
+        }
+    }
+
+
+
+    /**
+     * The state of a connection registered
+     * with an event loop.
+     */
+    private static final class Session {
+
+        private final NioConnection connection;
+        private final ResponseParser parser;
+        private SelectionKey selectionKey;
+        private Exchange exchange;
+        private ByteBuffer[] output;
+        private long deadline;
+        private long idleSince;
+        private boolean connected;
+        private boolean handshaken;
+        private boolean reused;
+
+        /**
+         * Creates a new session.
+         *
+         * @param connection The connection.
+         */
+        private Session(@NotNull NioConnection connection) {
+            this.connection = connection;
+            this.parser = new ResponseParser();
+        }
+    }
+
+
+
+    /**
+     * A selector thread with its own connections
+     * and pool. All state of a loop is touched only
+     * by its own thread; other threads hand over
+     * work through {@link #execute(Runnable)}.
+     */
+    private final class EventLoop implements Runnable {
+
+        private static final long TIMEOUT_CHECK_MILLIS = 100;
+
+        private final Selector selector;
+        private final Thread thread;
+        private final Queue<Runnable> tasks;
+        private final Set<Session> active;
+        private final Map<String, Deque<Session>> idle;
+        private final ByteBuffer readBuffer;
+
+        /**
+         * Creates a new event loop.
+         *
+         * @throws IOException If the selector can not be opened.
+         */
+        private EventLoop() throws IOException {
+            this.selector = Selector.open();
+            this.thread = new Thread(this, "webhook-nio-" + THREAD_COUNTER.incrementAndGet());
+            this.thread.setDaemon(true);
+            this.tasks = new ConcurrentLinkedQueue<>();
+            this.active = new HashSet<>();
+            this.idle = new HashMap<>();
+            this.readBuffer = ByteBuffer.allocate(64 * 1024);
+        }
+
+        /**
+         * Runs a task on this loop.
+         *
+         * @param task The task.
+         */
+        private void execute(@NotNull Runnable task) {
+            this.tasks.add(task);
+            this.selector.wakeup();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void run() {
+            long nextCheck = System.nanoTime();
+            while (!NioTransport.this.closed) {
+                try {
+                    this.selector.select(TIMEOUT_CHECK_MILLIS);
+                } catch (IOException e) {
+                    break;
+                }
+
+                Iterator<SelectionKey> keys = this.selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (key.isValid())
+                        this.process((Session) key.attachment());
+                }
+
+                Runnable task;
+                while ((task = this.tasks.poll()) != null)
+                    task.run();
+
+                long now = System.nanoTime();
+                if (now - nextCheck >= 0) {
+                    this.expire(now);
+                    nextCheck = now + TIMEOUT_CHECK_MILLIS * 1_000_000;
+                }
+            }
+            this.shutdown();
+        }
+
+        /**
+         * Starts an exchange on an idle connection
+         * of its target, or on a new one.
+         *
+         * @param exchange The exchange.
+         */
+        private void start(@NotNull Exchange exchange) {
+            if (NioTransport.this.closed) {
+                exchange.future.completeExceptionally(new IOException("Transport is closed"));
+                return;
+            }
+
+            Session session = this.acquire(exchange.key);
+            if (session != null) {
+                session.reused = true;
+                this.bind(session, exchange, NioTransport.this.requestTimeoutNanos);
+                this.process(session);
+                return;
+            }
+
+            SocketChannel channel = null;
+            try {
+                channel = SocketChannel.open();
+                channel.configureBlocking(false);
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                channel.setOption(StandardSocketOptions.SO_KEEPALIVE, true);
+
+                SSLEngine engine = null;
+                if (exchange.secure) {
+                    engine = NioTransport.this.sslContext.createSSLEngine(exchange.address.getHostString(), exchange.address.getPort());
+                    engine.setUseClientMode(true);
+                    SSLParameters parameters = engine.getSSLParameters();
+                    parameters.setEndpointIdentificationAlgorithm("HTTPS");
+                    engine.setSSLParameters(parameters);
+                }
+
+                session = new Session(new NioConnection(exchange.key, channel, engine));
+                session.connected = channel.connect(exchange.address);
+                session.selectionKey = channel.register(this.selector, session.connected ? SelectionKey.OP_WRITE : SelectionKey.OP_CONNECT, session);
+                NioTransport.this.openConnections.incrementAndGet();
+            } catch (IOException | RuntimeException e) {
+                if (channel != null) {
+                    try {
+                        channel.close();
+                    } catch (IOException ignored) {
+                        // the exchange fails with the original error
+                    }
+                }
+                this.fail(exchange, e instanceof IOException ? new UnsentRequestException(e) : e);
+                return;
+            }
+
+            this.bind(session, exchange, session.connected ? NioTransport.this.requestTimeoutNanos : NioTransport.this.connectTimeoutNanos);
+            if (session.connected)
+                this.process(session);
+        }
+
+        /**
+         * Binds an exchange to a session.
+         *
+         * @param session  The session.
+         * @param exchange The exchange.
+         * @param timeout  The time until the session times out.
+         */
+        private void bind(@NotNull Session session,
+                          @NotNull Exchange exchange,
+                          long timeout) {
+            session.exchange = exchange;
+            session.output = exchange.output();
+            session.parser.reset();
+            session.deadline = System.nanoTime() + timeout;
+            this.active.add(session);
+        }
+
+        /**
+         * Advances a session as far as its socket
+         * allows: connect, handshake, write the request,
+         * then read the response.
+         *
+         * @param session The session.
+         */
+        private void process(@NotNull Session session) {
+            NioConnection connection = session.connection;
+            try {
+                if (!session.connected) {
+                    if (!connection.finishConnect())
+                        return;
+                    session.connected = true;
+                    session.deadline = System.nanoTime() + NioTransport.this.requestTimeoutNanos;
+                }
+
+                if (!session.handshaken) {
+                    if (!connection.handshake()) {
+                        this.interest(session, connection.wantsWrite() ? SelectionKey.OP_WRITE : SelectionKey.OP_READ);
+                        return;
+                    }
+                    session.handshaken = true;
+                }
+
+                if (session.exchange == null) {
+                    this.readBuffer.clear();
+                    if (connection.read(this.readBuffer) != 0)
+                        this.close(session);
+                    return;
+                }
+
+                if (session.output != null) {
+                    if (!connection.write(session.output)) {
+                        this.interest(session, SelectionKey.OP_WRITE);
+                        return;
+                    }
+                    session.output = null;
+                }
+
+                while (true) {
+                    this.readBuffer.clear();
+                    int read = connection.read(this.readBuffer);
+                    if (read < 0) {
+                        if (!session.parser.finishAtEof())
+                            throw new EOFException("Connection closed before response");
+                        this.complete(session);
+                        return;
+                    }
+                    if (read == 0)
+                        break;
+
+                    this.readBuffer.flip();
+                    if (session.parser.feed(this.readBuffer)) {
+                        this.complete(session);
+                        return;
+                    }
+                }
+                this.interest(session, connection.wantsWrite() ? SelectionKey.OP_WRITE : SelectionKey.OP_READ);
+            } catch (IOException e) {
+                this.fail(session, session.handshaken ? e : new UnsentRequestException(e));
+            } catch (RuntimeException e) {
+                this.fail(session, e);
+            }
+        }
+
+        /**
+         * Completes the exchange of a session with
+         * its parsed response and pools the session.
+         *
+         * @param session The session.
+         */
+        private void complete(@NotNull Session session) {
+            Exchange exchange = session.exchange;
+            WebhookResponse response = session.parser.toResponse();
+            session.exchange = null;
+            this.active.remove(session);
+
+            if (session.parser.isKeepAlive())
+                this.release(session);
+            else
+                this.close(session);
+
+            NioTransport.this.executor.execute(() -> exchange.future.complete(response));
+        }
+
+        /**
+         * Fails the exchange of a session and closes it.
+         * A reused connection that fails before any
+         * response arrives is retried once.
+         *
+         * @param session The session.
+         * @param failure The failure.
+         */
+        private void fail(@NotNull Session session,
+                          @NotNull Throwable failure) {
+            Exchange exchange = session.exchange;
+            boolean stale = session.reused && !session.parser.isStarted() && !(failure instanceof SocketTimeoutException);
+            this.close(session);
+            if (exchange == null)
+                return;
+
+            if (stale && !exchange.retried) {
+                exchange.retried = true;
+                this.start(exchange);
+                return;
+            }
+            this.fail(exchange, failure);
+        }
+
+        /**
+         * Fails an exchange.
+         *
+         * @param exchange The exchange.
+         * @param failure  The failure.
+         */
+        private void fail(@NotNull Exchange exchange,
+                          @NotNull Throwable failure) {
+            NioTransport.this.executor.execute(() -> exchange.future.completeExceptionally(failure));
+        }
+
+        /**
+         * Takes an idle session for the given key,
+         * closing expired ones first.
+         *
+         * @param key The pool key.
+         * @return The session, or null if none is idle.
+         */
+        private Session acquire(@NotNull String key) {
+            Deque<Session> sessions = this.idle.get(key);
+            if (sessions == null)
+                return null;
+
+            this.evict(sessions, System.nanoTime());
+            return sessions.pollLast();
+        }
+
+        /**
+         * Returns a session to the pool,
+         * or closes it if the pool is full.
+         *
+         * @param session The session.
+         */
+        private void release(@NotNull Session session) {
+            Deque<Session> sessions = this.idle.computeIfAbsent(session.connection.getKey(), k -> new ArrayDeque<>());
+            if (sessions.size() >= NioTransport.this.maxIdleConnections) {
+                this.close(session);
+                return;
+            }
+
+            session.idleSince = System.nanoTime();
+            sessions.addLast(session);
+            this.interest(session, SelectionKey.OP_READ);
+        }
+
+        /**
+         * Closes the expired sessions in the given deque.
+         * The oldest sessions are at the head of the deque.
+         *
+         * @param sessions The sessions to check.
+         * @param now      The current time in nanoseconds.
+         */
+        private void evict(@NotNull Deque<Session> sessions,
+                           long now) {
+            while (!sessions.isEmpty() && now - sessions.peekFirst().idleSince >= NioTransport.this.keepAliveNanos)
+                this.close(sessions.pollFirst());
+        }
+
+        /**
+         * Fails the sessions past their deadline
+         * and evicts expired idle sessions.
+         *
+         * @param now The current time in nanoseconds.
+         */
+        private void expire(long now) {
+            List<Session> expired = new ArrayList<>();
+            for (Session session : this.active) {
+                if (now - session.deadline >= 0)
+                    expired.add(session);
+            }
+
+            for (Session session : expired) {
+                if (session.handshaken)
+                    this.fail(session, new SocketTimeoutException("Read timed out"));
+                else
+                    this.fail(session, new UnsentRequestException(new SocketTimeoutException(session.connected ? "Handshake timed out" : "Connect timed out")));
+            }
+            for (Deque<Session> sessions : this.idle.values())
+                this.evict(sessions, now);
+        }
+
+        /**
+         * Sets the readiness a session waits for.
+         *
+         * @param session The session.
+         * @param ops     The interest operations.
+         */
+        private void interest(@NotNull Session session,
+                              int ops) {
+            if (session.selectionKey.isValid())
+                session.selectionKey.interestOps(ops);
+        }
+
+        /**
+         * Closes a session and removes it
+         * from this loop.
+         *
+         * @param session The session.
+         */
+        private void close(@NotNull Session session) {
+            this.active.remove(session);
+            if (session.exchange == null) {
+                Deque<Session> sessions = this.idle.get(session.connection.getKey());
+                if (sessions != null)
+                    sessions.remove(session);
+            }
+
+            if (session.selectionKey.isValid()) {
+                session.selectionKey.cancel();
+                NioTransport.this.openConnections.decrementAndGet();
+            }
+            session.connection.close();
+        }
+
+        /**
+         * Closes all sessions of this loop and fails
+         * the exchanges that are still pending.
+         */
+        private void shutdown() {
+            IOException failure = new IOException("Transport is closed");
+
+            for (SelectionKey key : this.selector.keys()) {
+                Session session = (Session) key.attachment();
+                if (session.exchange != null)
+                    this.fail(session.exchange, failure);
+                this.close(session);
+            }
+
+            Runnable task;
+            while ((task = this.tasks.poll()) != null)
+                task.run();
+
+            try {
+                this.selector.close();
+            } catch (IOException ignored) {
+                // nothing to do, the loop is stopped anyway
+            }
+        }
+    }
+
+
+
+    /**
+     * {@inheritDoc}
+     */
+    public static class Builder implements com.hakan.jdw.Builder<NioTransport> {
+
+        private int threads = 2;
+        private Duration connectTimeout = Duration.ofSeconds(10);
+        private Duration requestTimeout = Duration.ofSeconds(30);
+        private Duration keepAlive = Duration.ofSeconds(60);
+        private int maxIdleConnections = 64;
+        private SSLContext sslContext;
+        private Executor executor = ForkJoinPool.commonPool();
+
+        /**
+         * Sets the number of event loop threads.
+         *
+         * @param threads The number of threads.
+         * @return The current instance in order to chain call methods.
+         */
+        public @NotNull Builder threads(int threads) {
+            this.threads = threads;
+            return this;
+        }
+
+        /**
+         * Sets the connect timeout.
+         *
+         * @param connectTimeout The connect timeout.
+         * @return The current instance in order to chain call methods.
+         */
+        public @NotNull Builder connectTimeout(@NotNull Duration connectTimeout) {
+            this.connectTimeout = connectTimeout;
+            return this;
+        }
+
+        /**
+         * Sets the time to wait for a response.
+         *
+         * @param requestTimeout The request timeout.
+         * @return The current instance in order to chain call methods.
+         */
+        public @NotNull Builder requestTimeout(@NotNull Duration requestTimeout) {
+            this.requestTimeout = requestTimeout;
+            return this;
+        }
+
+        /**
+         * Sets how long an idle connection
+         * is kept in the pool.
+         *
+         * @param keepAlive The keep-alive time.
+         * @return The current instance in order to chain call methods.
+         */
+        public @NotNull Builder keepAlive(@NotNull Duration keepAlive) {
+            this.keepAlive = keepAlive;
+            return this;
+        }
+
+        /**
+         * Sets the max idle connections
+         * per host and event loop.
+         *
+         * @param maxIdleConnections The max idle connections.
+         * @return The current instance in order to chain call methods.
+         */
+        public @NotNull Builder maxIdleConnections(int maxIdleConnections) {
+            this.maxIdleConnections = maxIdleConnections;
+            return this;
+        }
+
+        /**
+         * Sets the context for TLS connections.
+         *
+         * @param sslContext The ssl context.
+         * @return The current instance in order to chain call methods.
+         */
+        public @NotNull Builder sslContext(@NotNull SSLContext sslContext) {
+            this.sslContext = sslContext;
+            return this;
+        }
+
+        /**
+         * Sets the executor responses are completed on.
+         *
+         * @param executor The executor.
+         * @return The current instance in order to chain call methods.
+         */
+        public @NotNull Builder executor(@NotNull Executor executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public @NotNull NioTransport build() {
+            return new NioTransport(
+                    this.threads,
+                    this.connectTimeout,
+                    this.requestTimeout,
+                    this.keepAlive,
+                    this.maxIdleConnections,
+                    this.sslContext != null ? this.sslContext : defaultSslContext(),
+                    this.executor
+            );
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.hakan.jdw.http;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * In-memory {@link WebhookTransport} that never
+ * touches the network. Every request body is copied
+ * into memory, recorded and answered by the configured
+ * responder, which makes it useful for tests
+ * and benchmarks.
+ */
+public class RecordingTransport implements WebhookTransport {
+
+    private final List<WebhookRequest> requests;
+    private volatile Function<WebhookRequest, WebhookResponse> responder;
+
+    /**
+     * Creates a new recording transport that
+     * answers every request with 204 No Content.
+     */
+    public RecordingTransport() {
+        this.requests = Collections.synchronizedList(new ArrayList<>());
+        this.responder = request -> new WebhookResponse(204, Collections.emptyMap(), new byte[0]);
+    }
+
+    /**
+     * Gets a copy of the recorded requests.
+     *
+     * @return The recorded requests.
+     */
+    public @NotNull List<WebhookRequest> getRequests() {
+        synchronized (this.requests) {
+            return new ArrayList<>(this.requests);
+        }
+    }
+
+    /**
+     * Gets the bodies of the recorded requests as text.
+     *
+     * @return The recorded bodies.
+     */
+    public @NotNull List<String> getBodies() {
+        List<String> bodies = new ArrayList<>();
+        for (WebhookRequest request : this.getRequests())
+            bodies.add(new String(request.getBodyBytes(), StandardCharsets.UTF_8));
+        return bodies;
+    }
+
+    /**
+     * Gets the number of recorded requests.
+     *
+     * @return The number of recorded requests.
+     */
+    public int getRequestCount() {
+        return this.requests.size();
+    }
+
+    /**
+     * Sets the function that answers requests.
+     *
+     * @param responder The responder.
+     * @return The current instance in order to chain call methods.
+     */
+    public @NotNull RecordingTransport setResponder(@NotNull Function<WebhookRequest, WebhookResponse> responder) {
+        this.responder = responder;
+        return this;
+    }
+
+    /**
+     * Clears the recorded requests.
+     *
+     * @return The current instance in order to chain call methods.
+     */
+    public @NotNull RecordingTransport clear() {
+        this.requests.clear();
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public @NotNull WebhookResponse send(@NotNull WebhookRequest request) {
+        WebhookBody body = request.getBody();
+        WebhookRequest recorded = new WebhookRequest(request.getUrl(),
+                WebhookBody.of(body.getContentType(), request.getBodyBytes()));
+
+        this.requests.add(recorded);
+        return this.responder.apply(recorded);
+    }
+}
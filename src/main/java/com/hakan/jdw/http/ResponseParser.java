@@ -0,0 +1,310 @@
+package com.hakan.jdw.http;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Parses an HTTP/1.1 response incrementally, from
+ * whatever bytes have arrived so far. Used by the
+ * non-blocking {@link NioTransport}, which can not
+ * wait for a whole line or body to arrive.
+ */
+final class ResponseParser {
+
+    private static final int STATUS_LINE = 0;
+    private static final int HEADERS = 1;
+    private static final int BODY = 2;
+    private static final int CHUNK_SIZE = 3;
+    private static final int CHUNK_DATA = 4;
+    private static final int CHUNK_END = 5;
+    private static final int TRAILERS = 6;
+    private static final int UNTIL_CLOSE = 7;
+    private static final int DONE = 8;
+
+    private final StringBuilder line;
+    private final ByteArrayOutputStream body;
+    private Map<String, List<String>> headers;
+    private int state;
+    private int status;
+    private long remaining;
+    private boolean started;
+    private boolean keepAlive;
+
+    /**
+     * Creates a new response parser.
+     */
+    ResponseParser() {
+        this.line = new StringBuilder(64);
+        this.body = new ByteArrayOutputStream();
+        this.reset();
+    }
+
+    /**
+     * Resets the parser for the next response
+     * on the same connection.
+     */
+    void reset() {
+        this.line.setLength(0);
+        this.body.reset();
+        this.headers = new LinkedHashMap<>();
+        this.state = STATUS_LINE;
+        this.status = 0;
+        this.remaining = 0;
+        this.started = false;
+        this.keepAlive = true;
+    }
+
+    /**
+     * Checks if any byte of the response has arrived.
+     *
+     * @return True if the response has started.
+     */
+    boolean isStarted() {
+        return this.started;
+    }
+
+    /**
+     * Checks if the response is complete.
+     *
+     * @return True if the response is complete.
+     */
+    boolean isDone() {
+        return this.state == DONE;
+    }
+
+    /**
+     * Checks if the server allows the connection
+     * to be used for another request.
+     *
+     * @return True if the connection can be reused.
+     */
+    boolean isKeepAlive() {
+        return this.keepAlive;
+    }
+
+    /**
+     * Consumes the readable bytes of the given buffer
+     * until the response is complete.
+     *
+     * @param buffer The buffer, in read mode.
+     * @return True if the response is complete.
+     * @throws IOException If the response is malformed.
+     */
+    boolean feed(@NotNull ByteBuffer buffer) throws IOException {
+        if (buffer.hasRemaining())
+            this.started = true;
+
+        while (buffer.hasRemaining() && this.state != DONE) {
+            switch (this.state) {
+                case BODY:
+                case CHUNK_DATA: {
+                    int length = (int) Math.min(this.remaining, buffer.remaining());
+                    this.write(buffer, length);
+                    this.remaining -= length;
+                    if (this.remaining == 0)
+                        this.state = this.state == BODY ? DONE : CHUNK_END;
+                    break;
+                }
+                case UNTIL_CLOSE:
+                    this.write(buffer, buffer.remaining());
+                    break;
+                default: {
+                    String line = this.readLine(buffer);
+                    if (line != null)
+                        this.onLine(line);
+                    break;
+                }
+            }
+        }
+        return this.state == DONE;
+    }
+
+    /**
+     * Completes a response whose body lasts until
+     * the server closes the connection.
+     *
+     * @return True if the response is complete now.
+     */
+    boolean finishAtEof() {
+        if (this.state != UNTIL_CLOSE)
+            return this.state == DONE;
+
+        this.state = DONE;
+        return true;
+    }
+
+    /**
+     * Creates the parsed response.
+     *
+     * @return The response.
+     */
+    @NotNull WebhookResponse toResponse() {
+        return new WebhookResponse(this.status, this.headers, this.body.toByteArray());
+    }
+
+    /**
+     * Handles a complete line of the head
+     * or the chunk framing.
+     *
+     * @param line The line without its terminator.
+     * @throws IOException If the line is malformed.
+     */
+    private void onLine(@NotNull String line) throws IOException {
+        switch (this.state) {
+            case STATUS_LINE: {
+                String[] parts = line.split(" ", 3);
+                if (parts.length < 2 || !parts[0].startsWith("HTTP/"))
+                    throw new IOException("Malformed status line: " + line);
+
+                try {
+                    this.status = Integer.parseInt(parts[1]);
+                } catch (NumberFormatException e) {
+                    throw new IOException("Malformed status line: " + line);
+                }
+                this.keepAlive = !parts[0].equals("HTTP/1.0");
+                this.state = HEADERS;
+                break;
+            }
+            case HEADERS:
+                if (line.isEmpty())
+                    this.onHeadersEnd();
+                else
+                    this.onHeader(line);
+                break;
+            case CHUNK_SIZE: {
+                int extension = line.indexOf(';');
+                String size = (extension >= 0 ? line.substring(0, extension) : line).trim();
+                try {
+                    this.remaining = Long.parseLong(size, 16);
+                } catch (NumberFormatException e) {
+                    throw new IOException("Malformed chunk size: " + line);
+                }
+                this.state = this.remaining == 0 ? TRAILERS : CHUNK_DATA;
+                break;
+            }
+            case CHUNK_END:
+                this.state = CHUNK_SIZE;
+                break;
+            case TRAILERS:
+                if (line.isEmpty())
+                    this.state = DONE;
+                break;
+            default:
+                throw new IllegalStateException("Unexpected line in state " + this.state);
+        }
+    }
+
+    /**
+     * Adds a header line to the headers.
+     *
+     * @param line The header line.
+     */
+    private void onHeader(@NotNull String line) {
+        int colon = line.indexOf(':');
+        if (colon <= 0)
+            return;
+
+        String name = line.substring(0, colon).trim().toLowerCase(Locale.ROOT);
+        String value = line.substring(colon + 1).trim();
+        this.headers.computeIfAbsent(name, k -> new ArrayList<>(1)).add(value);
+    }
+
+    /**
+     * Decides how the body is framed once
+     * the headers are complete.
+     *
+     * @throws IOException If the framing is malformed.
+     */
+    private void onHeadersEnd() throws IOException {
+        if (this.status >= 100 && this.status < 200) {
+            this.headers = new LinkedHashMap<>();
+            this.state = STATUS_LINE;
+            return;
+        }
+
+        String connection = first(this.headers, "connection");
+        if (connection != null)
+            this.keepAlive = connection.equalsIgnoreCase("keep-alive") || (this.keepAlive && !connection.equalsIgnoreCase("close"));
+
+        String transferEncoding = first(this.headers, "transfer-encoding");
+        String contentLength = first(this.headers, "content-length");
+        if (this.status == 204 || this.status == 304) {
+            this.state = DONE;
+        } else if (transferEncoding != null && transferEncoding.toLowerCase(Locale.ROOT).contains("chunked")) {
+            this.state = CHUNK_SIZE;
+        } else if (contentLength != null) {
+            try {
+                this.remaining = Long.parseLong(contentLength.trim());
+            } catch (NumberFormatException e) {
+                throw new IOException("Malformed content length: " + contentLength);
+            }
+            this.state = this.remaining == 0 ? DONE : BODY;
+        } else {
+            this.keepAlive = false;
+            this.state = UNTIL_CLOSE;
+        }
+    }
+
+    /**
+     * Reads up to the end of the current line.
+     *
+     * @param buffer The buffer, in read mode.
+     * @return The line without its terminator, or null if incomplete.
+     */
+    private @Nullable String readLine(@NotNull ByteBuffer buffer) {
+        while (buffer.hasRemaining()) {
+            char c = (char) (buffer.get() & 0xFF);
+            if (c == '\n') {
+                int length = this.line.length();
+                if (length > 0 && this.line.charAt(length - 1) == '\r')
+                    this.line.setLength(length - 1);
+
+                String line = this.line.toString();
+                this.line.setLength(0);
+                return line;
+            }
+            this.line.append(c);
+        }
+        return null;
+    }
+
+    /**
+     * Copies bytes of the buffer into the body.
+     *
+     * @param buffer The buffer, in read mode.
+     * @param length The number of bytes to copy.
+     */
+    private void write(@NotNull ByteBuffer buffer,
+                       int length) {
+        if (buffer.hasArray()) {
+            this.body.write(buffer.array(), buffer.arrayOffset() + buffer.position(), length);
+            buffer.position(buffer.position() + length);
+        } else {
+            byte[] bytes = new byte[length];
+            buffer.get(bytes);
+            this.body.write(bytes, 0, length);
+        }
+    }
+
+    /**
+     * Gets the first value of a header.
+     *
+     * @param headers The header map.
+     * @param name    The lower case header name.
+     * @return The first value, or null if absent.
+     */
+    private static @Nullable String first(@NotNull Map<String, List<String>> headers,
+                                          @NotNull String name) {
+        List<String> values = headers.get(name);
+        return (values == null || values.isEmpty()) ? null : values.get(0);
+    }
+}
@@ -0,0 +1,25 @@
+package com.hakan.jdw.http;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+
+/**
+ * Thrown by transports when a request failed before
+ * any byte of it was sent, such as when connecting
+ * or the TLS handshake failed. Sending it again can
+ * not post the webhook twice.
+ */
+public class UnsentRequestException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Creates a new unsent request exception.
+     *
+     * @param cause The failure that kept the request from being sent.
+     */
+    public UnsentRequestException(@NotNull Throwable cause) {
+        super(cause.getMessage(), cause);
+    }
+}
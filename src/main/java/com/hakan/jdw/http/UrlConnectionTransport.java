@@ -0,0 +1,102 @@
+package com.hakan.jdw.http;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.time.Duration;
+
+/**
+ * Default {@link WebhookTransport} built on
+ * {@link HttpURLConnection}. Works with both
+ * https and plain http urls, and leaves the
+ * connection open after draining the response
+ * so the jdk keep-alive cache can reuse it.
+ */
+public class UrlConnectionTransport implements WebhookTransport {
+
+    private final int connectTimeout;
+    private final int readTimeout;
+
+    /**
+     * Creates a new url connection transport.
+     *
+     * @param connectTimeout The connect timeout.
+     * @param readTimeout    The read timeout.
+     */
+    public UrlConnectionTransport(@NotNull Duration connectTimeout,
+                                  @NotNull Duration readTimeout) {
+        this.connectTimeout = (int) connectTimeout.toMillis();
+        this.readTimeout = (int) readTimeout.toMillis();
+    }
+
+    /**
+     * Creates a new url connection
+     * transport with the default timeouts.
+     */
+    public UrlConnectionTransport() {
+        this(Duration.ofSeconds(10), Duration.ofSeconds(30));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public @NotNull WebhookResponse send(@NotNull WebhookRequest request) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection)
+                new URL(request.getUrl()).openConnection();
+        WebhookBody body = request.getBody();
+
+        connection.setConnectTimeout(this.connectTimeout);
+        connection.setReadTimeout(this.readTimeout);
+        connection.addRequestProperty("Content-Type", body.getContentType());
+        connection.addRequestProperty("User-Agent", "Java-DiscordWebhook");
+        connection.setRequestMethod("POST");
+        connection.setDoOutput(true);
+
+        long length = body.getContentLength();
+        if (length >= 0)
+            connection.setFixedLengthStreamingMode(length);
+        else
+            connection.setChunkedStreamingMode(0);
+
+        try {
+            connection.connect();
+        } catch (IOException e) {
+            throw new UnsentRequestException(e);
+        }
+
+        try (OutputStream outputStream = connection.getOutputStream()) {
+            body.writeTo(outputStream);
+        }
+
+        int status = connection.getResponseCode();
+        InputStream inputStream = status >= 400 ? connection.getErrorStream() : connection.getInputStream();
+        return new WebhookResponse(status, connection.getHeaderFields(), drain(inputStream));
+    }
+
+    /**
+     * Reads the given stream fully and closes it.
+     *
+     * @param inputStream The stream to drain, may be null.
+     * @return The bytes read.
+     * @throws IOException If an I/O error occurs.
+     */
+    private static @NotNull byte[] drain(InputStream inputStream) throws IOException {
+        if (inputStream == null)
+            return new byte[0];
+
+        try (InputStream input = inputStream) {
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int read;
+            while ((read = input.read(buffer)) != -1)
+                output.write(buffer, 0, read);
+            return output.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.hakan.jdw.http;
+
+import com.hakan.jdw.WebhookAttachment;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Represents the body of a webhook request.
+ * Bodies are written straight to the output
+ * of the transport that sends them.
+ */
+public interface WebhookBody {
+
+    /**
+     * Creates a json body from the given text.
+     *
+     * @param json The json text.
+     * @return The body.
+     */
+    static @NotNull WebhookBody json(@NotNull String json) {
+        return json(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Creates a json body from UTF-8 encoded json.
+     *
+     * @param json The json bytes.
+     * @return The body.
+     */
+    static @NotNull WebhookBody json(@NotNull byte[] json) {
+        return of("application/json", json);
+    }
+
+    /**
+     * Creates a body from the given bytes.
+     *
+     * @param contentType The content type of the body.
+     * @param bytes       The bytes of the body.
+     * @return The body.
+     */
+    static @NotNull WebhookBody of(@NotNull String contentType,
+                                   @NotNull byte[] bytes) {
+        return new ByteArrayBody(contentType, bytes);
+    }
+
+    /**
+     * Creates a multipart/form-data body from the given
+     * payload json and attachments, the way discord
+     * expects uploads.
+     *
+     * @param json        The payload json.
+     * @param attachments The attachments.
+     * @return The body.
+     */
+    static @NotNull WebhookBody multipart(@NotNull String json,
+                                          @NotNull List<WebhookAttachment> attachments) {
+        return multipart(json.getBytes(StandardCharsets.UTF_8), attachments);
+    }
+
+    /**
+     * Creates a multipart/form-data body from UTF-8
+     * encoded payload json and attachments.
+     *
+     * @param json        The payload json bytes.
+     * @param attachments The attachments.
+     * @return The body.
+     */
+    static @NotNull WebhookBody multipart(@NotNull byte[] json,
+                                          @NotNull List<WebhookAttachment> attachments) {
+        return new MultipartBody(json, attachments);
+    }
+
+    /**
+     * Gets the content type of the body.
+     *
+     * @return The content type of the body.
+     */
+    @NotNull
+    String getContentType();
+
+    /**
+     * Gets the length of the body in bytes.
+     *
+     * @return The length of the body.
+     */
+    long getContentLength();
+
+    /**
+     * Checks if the body can be written more than
+     * once. Requests with a body that can not are
+     * never retried.
+     *
+     * @return True if the body is repeatable.
+     */
+    default boolean isRepeatable() {
+        return true;
+    }
+
+    /**
+     * Writes the body to the given output.
+     *
+     * @param output The output to write to.
+     * @throws IOException If an I/O error occurs.
+     */
+    void writeTo(@NotNull OutputStream output) throws IOException;
+}
@@ -0,0 +1,397 @@
+package com.hakan.jdw.http;
+
+import com.hakan.jdw.Webhook;
+import org.jetbrains.annotations.NotNull;
+
+import javax.net.ssl.SSLParameters;
+import javax.net.ssl.SSLSocket;
+import javax.net.ssl.SSLSocketFactory;
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reusable HTTP client for sending webhooks.
+ * Keeps a pool of keep-alive connections per
+ * host, so consecutive webhooks to the same
+ * host skip the TCP and TLS handshakes.
+ * <p>
+ * Idle connections are evicted lazily whenever
+ * the pool of a host is touched, or explicitly
+ * with {@link #evictIdleConnections()}.
+ */
+public class WebhookClient implements WebhookTransport, Closeable {
+
+    private final int connectTimeout;
+    private final int readTimeout;
+    private final long keepAliveNanos;
+    private final int maxIdleConnections;
+    private final SSLSocketFactory sslSocketFactory;
+    private final Map<String, Deque<HttpConnection>> pool;
+    private volatile boolean closed;
+
+    /**
+     * Creates a new webhook client.
+     *
+     * @param connectTimeout     The connect timeout.
+     * @param readTimeout        The read timeout.
+     * @param keepAlive          How long an idle connection is kept.
+     * @param maxIdleConnections The max idle connections per host.
+     * @param sslSocketFactory   The factory for TLS connections.
+     */
+    public WebhookClient(@NotNull Duration connectTimeout,
+                         @NotNull Duration readTimeout,
+                         @NotNull Duration keepAlive,
+                         int maxIdleConnections,
+                         @NotNull SSLSocketFactory sslSocketFactory) {
+        this.connectTimeout = (int) connectTimeout.toMillis();
+        this.readTimeout = (int) readTimeout.toMillis();
+        this.keepAliveNanos = keepAlive.toNanos();
+        this.maxIdleConnections = maxIdleConnections;
+        this.sslSocketFactory = sslSocketFactory;
+        this.pool = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Creates a new webhook client
+     * with the default settings.
+     */
+    public WebhookClient() {
+        this(Duration.ofSeconds(10),
+                Duration.ofSeconds(30),
+                Duration.ofSeconds(60),
+                16,
+                (SSLSocketFactory) SSLSocketFactory.getDefault());
+    }
+
+    /**
+     * Gets the connect timeout in milliseconds.
+     *
+     * @return The connect timeout.
+     */
+    public int getConnectTimeout() {
+        return this.connectTimeout;
+    }
+
+    /**
+     * Gets the read timeout in milliseconds.
+     *
+     * @return The read timeout.
+     */
+    public int getReadTimeout() {
+        return this.readTimeout;
+    }
+
+    /**
+     * Gets the number of idle connections
+     * currently kept in the pool.
+     *
+     * @return The number of idle connections.
+     */
+    public int getIdleConnectionCount() {
+        int count = 0;
+        for (Deque<HttpConnection> connections : this.pool.values()) {
+            synchronized (connections) {
+                count += connections.size();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Executes a webhook.
+     *
+     * @param url     The url of the webhook.
+     * @param webhook The webhook to execute.
+     * @return The response discord returned.
+     * @throws IOException If the request fails or discord
+     *                     responds with a non-2xx status code.
+     */
+    public @NotNull WebhookResponse execute(@NotNull String url,
+                                            @NotNull Webhook webhook) throws IOException {
+        return this.send(new WebhookRequest(url, webhook.toBody())).ensureSuccess();
+    }
+
+    /**
+     * Executes a webhook.
+     *
+     * @param url  The url of the webhook.
+     * @param json The json to execute.
+     * @return The response discord returned.
+     * @throws IOException If the request fails or discord
+     *                     responds with a non-2xx status code.
+     */
+    public @NotNull WebhookResponse execute(@NotNull String url,
+                                            @NotNull String json) throws IOException {
+        return this.send(new WebhookRequest(url, WebhookBody.json(json))).ensureSuccess();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * If a pooled connection turns out to be closed by
+     * the server before the request was fully written, or
+     * before any byte of a response arrived, the request
+     * is sent once more over a fresh connection. Requests
+     * that got a partial response are never sent again,
+     * since discord may already have accepted them.
+     */
+    @Override
+    public @NotNull WebhookResponse send(@NotNull WebhookRequest request) throws IOException {
+        if (this.closed)
+            throw new IOException("Client is closed");
+
+        URI uri = URI.create(request.getUrl());
+        String scheme = uri.getScheme() == null ? "" : uri.getScheme().toLowerCase();
+        if (!scheme.equals("https") && !scheme.equals("http"))
+            throw new IOException("Unsupported scheme: " + uri.getScheme());
+
+        boolean secure = scheme.equals("https");
+        int port = uri.getPort() != -1 ? uri.getPort() : (secure ? 443 : 80);
+        String host = uri.getHost();
+        String hostHeader = uri.getPort() == -1 ? host : host + ":" + port;
+        String target = (uri.getRawPath() == null || uri.getRawPath().isEmpty() ? "/" : uri.getRawPath())
+                + (uri.getRawQuery() != null ? "?" + uri.getRawQuery() : "");
+        String key = scheme + "://" + host + ":" + port;
+
+        while (true) {
+            HttpConnection connection = this.acquire(key);
+            boolean reused = connection != null;
+            if (connection == null)
+                connection = this.connect(key, host, port, secure);
+
+            WebhookResponse response;
+            try {
+                response = connection.post(hostHeader, target, request.getBody());
+            } catch (SocketTimeoutException e) {
+                connection.close();
+                throw e;
+            } catch (IOException e) {
+                connection.close();
+                if (reused && connection.canRetry() && request.getBody().isRepeatable())
+                    continue;
+                throw e;
+            }
+
+            this.release(connection);
+            return response;
+        }
+    }
+
+    /**
+     * Closes all idle connections that have been
+     * unused for longer than the keep-alive time.
+     */
+    public void evictIdleConnections() {
+        for (Deque<HttpConnection> connections : this.pool.values())
+            this.evict(connections);
+    }
+
+    /**
+     * Closes the client and all pooled connections.
+     */
+    @Override
+    public void close() {
+        this.closed = true;
+
+        for (Deque<HttpConnection> connections : this.pool.values()) {
+            synchronized (connections) {
+                connections.forEach(HttpConnection::close);
+                connections.clear();
+            }
+        }
+    }
+
+    /**
+     * Takes an idle connection for the given key
+     * from the pool, evicting expired ones first.
+     *
+     * @param key The pool key.
+     * @return The connection, or null if none is idle.
+     */
+    private HttpConnection acquire(@NotNull String key) {
+        Deque<HttpConnection> connections = this.pool.get(key);
+        if (connections == null)
+            return null;
+
+        this.evict(connections);
+        synchronized (connections) {
+            return connections.pollLast();
+        }
+    }
+
+    /**
+     * Returns the connection to the pool,
+     * or closes it if it can not be reused.
+     *
+     * @param connection The connection.
+     */
+    private void release(@NotNull HttpConnection connection) {
+        if (this.closed || !connection.isReusable()) {
+            connection.close();
+            return;
+        }
+
+        connection.markIdle();
+        Deque<HttpConnection> connections = this.pool.computeIfAbsent(connection.getKey(), k -> new ArrayDeque<>());
+        synchronized (connections) {
+            if (connections.size() < this.maxIdleConnections) {
+                connections.addLast(connection);
+                return;
+            }
+        }
+        connection.close();
+    }
+
+    /**
+     * Closes the expired connections in the given deque.
+     * The oldest connections are at the head of the deque.
+     *
+     * @param connections The connections to check.
+     */
+    private void evict(@NotNull Deque<HttpConnection> connections) {
+        long now = System.nanoTime();
+
+        synchronized (connections) {
+            Iterator<HttpConnection> iterator = connections.iterator();
+            while (iterator.hasNext()) {
+                HttpConnection connection = iterator.next();
+                if (now - connection.getLastUsed() < this.keepAliveNanos)
+                    break;
+
+                iterator.remove();
+                connection.close();
+            }
+        }
+    }
+
+    /**
+     * Opens a new connection.
+     *
+     * @param key    The pool key.
+     * @param host   The host to connect.
+     * @param port   The port to connect.
+     * @param secure True to use TLS.
+     * @return The connection.
+     * @throws IOException If the connection can not be opened.
+     */
+    private @NotNull HttpConnection connect(@NotNull String key,
+                                            @NotNull String host,
+                                            int port,
+                                            boolean secure) throws IOException {
+        Socket socket = new Socket();
+        try {
+            socket.setTcpNoDelay(true);
+            socket.setKeepAlive(true);
+            socket.connect(new InetSocketAddress(host, port), this.connectTimeout);
+            socket.setSoTimeout(this.readTimeout);
+
+            if (secure) {
+                SSLSocket sslSocket = (SSLSocket) this.sslSocketFactory.createSocket(socket, host, port, true);
+                SSLParameters parameters = sslSocket.getSSLParameters();
+                parameters.setEndpointIdentificationAlgorithm("HTTPS");
+                sslSocket.setSSLParameters(parameters);
+                sslSocket.startHandshake();
+                socket = sslSocket;
+            }
+
+            return new HttpConnection(key, socket);
+        } catch (IOException e) {
+            socket.close();
+            throw new UnsentRequestException(e);
+        }
+    }
+
+
+
+    /**
+     * {@inheritDoc}
+     */
+    public static class Builder implements com.hakan.jdw.Builder<WebhookClient> {
+
+        private Duration connectTimeout = Duration.ofSeconds(10);
+        private Duration readTimeout = Duration.ofSeconds(30);
+        private Duration keepAlive = Duration.ofSeconds(60);
+        private int maxIdleConnections = 16;
+        private SSLSocketFactory sslSocketFactory = (SSLSocketFactory) SSLSocketFactory.getDefault();
+
+        /**
+         * Sets the connect timeout of the client.
+         *
+         * @param connectTimeout The connect timeout.
+         * @return The current instance in order to chain call methods.
+         */
+        public @NotNull Builder connectTimeout(@NotNull Duration connectTimeout) {
+            this.connectTimeout = connectTimeout;
+            return this;
+        }
+
+        /**
+         * Sets the read timeout of the client.
+         *
+         * @param readTimeout The read timeout.
+         * @return The current instance in order to chain call methods.
+         */
+        public @NotNull Builder readTimeout(@NotNull Duration readTimeout) {
+            this.readTimeout = readTimeout;
+            return this;
+        }
+
+        /**
+         * Sets how long an idle connection
+         * is kept in the pool.
+         *
+         * @param keepAlive The keep-alive time.
+         * @return The current instance in order to chain call methods.
+         */
+        public @NotNull Builder keepAlive(@NotNull Duration keepAlive) {
+            this.keepAlive = keepAlive;
+            return this;
+        }
+
+        /**
+         * Sets the max idle connections per host.
+         *
+         * @param maxIdleConnections The max idle connections.
+         * @return The current instance in order to chain call methods.
+         */
+        public @NotNull Builder maxIdleConnections(int maxIdleConnections) {
+            this.maxIdleConnections = maxIdleConnections;
+            return this;
+        }
+
+        /**
+         * Sets the factory for TLS connections.
+         *
+         * @param sslSocketFactory The ssl socket factory.
+         * @return The current instance in order to chain call methods.
+         */
+        public @NotNull Builder sslSocketFactory(@NotNull SSLSocketFactory sslSocketFactory) {
+            this.sslSocketFactory = sslSocketFactory;
+            return this;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public @NotNull WebhookClient build() {
+            return new WebhookClient(
+                    this.connectTimeout,
+                    this.readTimeout,
+                    this.keepAlive,
+                    this.maxIdleConnections,
+                    this.sslSocketFactory
+            );
+        }
+    }
+}
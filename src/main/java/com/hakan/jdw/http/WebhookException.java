@@ -0,0 +1,45 @@
+package com.hakan.jdw.http;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+
+/**
+ * Thrown when discord responds to a webhook
+ * request with a non-2xx status code.
+ */
+public class WebhookException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final WebhookResponse response;
+
+    /**
+     * Creates a new webhook exception.
+     *
+     * @param response The response discord returned.
+     */
+    public WebhookException(@NotNull WebhookResponse response) {
+        super("Server returned HTTP response code: " + response.getStatusCode()
+                + (response.getBody().length > 0 ? " " + response.getBodyAsString() : ""));
+        this.response = response;
+    }
+
+    /**
+     * Gets the response discord returned.
+     *
+     * @return The response discord returned.
+     */
+    public @NotNull WebhookResponse getResponse() {
+        return this.response;
+    }
+
+    /**
+     * Gets the status code of the response.
+     *
+     * @return The status code of the response.
+     */
+    public int getStatusCode() {
+        return this.response.getStatusCode();
+    }
+}
@@ -0,0 +1,63 @@
+package com.hakan.jdw.http;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Represents a request to a webhook url.
+ */
+public class WebhookRequest {
+
+    private final String url;
+    private final WebhookBody body;
+
+    /**
+     * Creates a new webhook request.
+     *
+     * @param url  The url of the webhook.
+     * @param body The body of the request.
+     */
+    public WebhookRequest(@NotNull String url,
+                          @NotNull WebhookBody body) {
+        this.url = url;
+        this.body = body;
+    }
+
+    /**
+     * Gets the url of the webhook.
+     *
+     * @return The url of the webhook.
+     */
+    public @NotNull String getUrl() {
+        return this.url;
+    }
+
+    /**
+     * Gets the body of the request.
+     *
+     * @return The body of the request.
+     */
+    public @NotNull WebhookBody getBody() {
+        return this.body;
+    }
+
+    /**
+     * Writes the body of the request into a byte array.
+     *
+     * @return The bytes of the body.
+     */
+    public @NotNull byte[] getBodyBytes() {
+        long length = this.body.getContentLength();
+        ByteArrayOutputStream output = new ByteArrayOutputStream(length > 0 ? (int) length : 256);
+
+        try {
+            this.body.writeTo(output);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return output.toByteArray();
+    }
+}
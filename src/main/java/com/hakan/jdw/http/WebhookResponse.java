@@ -0,0 +1,129 @@
+package com.hakan.jdw.http;
+
+import com.hakan.jdw.json.JsonException;
+import com.hakan.jdw.json.JsonReader;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Represents the response discord
+ * returned for a webhook request.
+ */
+public class WebhookResponse {
+
+    private final int statusCode;
+    private final Map<String, List<String>> headers;
+    private final byte[] body;
+
+    /**
+     * Creates a new webhook response.
+     *
+     * @param statusCode The status code of the response.
+     * @param headers    The headers of the response.
+     * @param body       The body of the response.
+     */
+    public WebhookResponse(int statusCode,
+                           @NotNull Map<String, List<String>> headers,
+                           @NotNull byte[] body) {
+        Map<String, List<String>> headerMap = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        headers.forEach((name, values) -> {
+            if (name != null)
+                headerMap.put(name, Collections.unmodifiableList(values));
+        });
+
+        this.statusCode = statusCode;
+        this.headers = Collections.unmodifiableMap(headerMap);
+        this.body = body;
+    }
+
+    /**
+     * Gets the status code of the response.
+     *
+     * @return The status code of the response.
+     */
+    public int getStatusCode() {
+        return this.statusCode;
+    }
+
+    /**
+     * Gets the headers of the response.
+     * Header names are case-insensitive.
+     *
+     * @return The headers of the response.
+     */
+    public @NotNull Map<String, List<String>> getHeaders() {
+        return this.headers;
+    }
+
+    /**
+     * Gets the first value of the given header.
+     *
+     * @param name The name of the header.
+     * @return The first value of the header.
+     */
+    public @Nullable String getHeader(@NotNull String name) {
+        List<String> values = this.headers.get(name);
+        return (values == null || values.isEmpty()) ? null : values.get(0);
+    }
+
+    /**
+     * Gets the body of the response.
+     *
+     * @return The body of the response.
+     */
+    public @NotNull byte[] getBody() {
+        return this.body;
+    }
+
+    /**
+     * Gets the body of the response as text.
+     *
+     * @return The body of the response as text.
+     */
+    public @NotNull String getBodyAsString() {
+        return new String(this.body, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Gets the body of the response as a json object,
+     * such as the message discord returns for
+     * {@code ?wait=true} or the details of an error.
+     *
+     * @return The members of the body, empty if there is no body.
+     * @throws JsonException If the body is not a json object.
+     */
+    public @NotNull Map<String, Object> getBodyAsJson() {
+        if (this.body.length == 0)
+            return new LinkedHashMap<>();
+        return JsonReader.parseObject(this.getBodyAsString());
+    }
+
+    /**
+     * Checks if the response has a 2xx status code.
+     *
+     * @return True if the request was successful.
+     */
+    public boolean isSuccess() {
+        return this.statusCode >= 200 && this.statusCode < 300;
+    }
+
+    /**
+     * Throws a {@link WebhookException} if the
+     * response does not have a 2xx status code.
+     *
+     * @return The current instance in order to chain call methods.
+     * @throws WebhookException If the request was not successful.
+     */
+    public @NotNull WebhookResponse ensureSuccess() throws WebhookException {
+        if (!this.isSuccess())
+            throw new WebhookException(this);
+        return this;
+    }
+}
@@ -0,0 +1,369 @@
+package com.hakan.jdw.http;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.hakan.jdw.json.JsonException;
+import com.hakan.jdw.json.JsonReader;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Small discord compatible webhook server
+ * bound to the loopback interface. Accepts
+ * the same payloads discord accepts, rejects
+ * the common invalid ones with a 400 and
+ * records every valid payload it receives.
+ * <p>
+ * Useful to run tests and benchmarks without
+ * touching the real discord api.
+ */
+public class WebhookStubServer implements Closeable {
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final List<String> payloads;
+    private final List<String> attachments;
+    private final AtomicLong messageIds;
+    private volatile boolean forumChannel;
+    private int rateLimit;
+    private long rateLimitWindow;
+    private long windowStart;
+    private int windowCount;
+
+    /**
+     * Creates and starts a new stub server
+     * on a random loopback port.
+     *
+     * @throws IOException If the server can not be bound.
+     */
+    public WebhookStubServer() throws IOException {
+        this.payloads = Collections.synchronizedList(new ArrayList<>());
+        this.attachments = Collections.synchronizedList(new ArrayList<>());
+        this.messageIds = new AtomicLong();
+        this.executor = Executors.newFixedThreadPool(4, runnable -> {
+            Thread thread = new Thread(runnable, "webhook-stub-server");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        this.server.createContext("/api/webhooks/", this::handle);
+        this.server.setExecutor(this.executor);
+        this.server.start();
+    }
+
+    /**
+     * Gets the port the server is bound to.
+     *
+     * @return The port of the server.
+     */
+    public int getPort() {
+        return this.server.getAddress().getPort();
+    }
+
+    /**
+     * Gets a webhook url that points to this server.
+     *
+     * @return The webhook url.
+     */
+    public @NotNull String getUrl() {
+        return "http://" + this.server.getAddress().getHostString() + ":" + this.getPort() + "/api/webhooks/0/stub";
+    }
+
+    /**
+     * Gets a copy of the payloads the
+     * server accepted, in arrival order.
+     *
+     * @return The accepted payloads.
+     */
+    public @NotNull List<String> getPayloads() {
+        synchronized (this.payloads) {
+            return new ArrayList<>(this.payloads);
+        }
+    }
+
+    /**
+     * Gets the file names and sizes of the attachments
+     * the server accepted, as "name:size", in arrival order.
+     *
+     * @return The accepted attachments.
+     */
+    public @NotNull List<String> getAttachments() {
+        synchronized (this.attachments) {
+            return new ArrayList<>(this.attachments);
+        }
+    }
+
+    /**
+     * Sets whether the webhook behaves like a
+     * forum channel webhook. Only forum channel
+     * webhooks accept a thread name.
+     *
+     * @param forumChannel True to accept thread names.
+     * @return The current instance in order to chain call methods.
+     */
+    public @NotNull WebhookStubServer setForumChannel(boolean forumChannel) {
+        this.forumChannel = forumChannel;
+        return this;
+    }
+
+    /**
+     * Limits the webhook to the given number of requests
+     * per window, like discord does. Every response then
+     * carries X-RateLimit-* headers, and requests over the
+     * limit are answered with 429 Too Many Requests.
+     *
+     * @param limit  The requests per window, or zero to disable.
+     * @param window The length of the window.
+     * @return The current instance in order to chain call methods.
+     */
+    public synchronized @NotNull WebhookStubServer setRateLimit(int limit,
+                                                                @NotNull Duration window) {
+        this.rateLimit = limit;
+        this.rateLimitWindow = window.toNanos();
+        this.windowStart = System.nanoTime();
+        this.windowCount = 0;
+        return this;
+    }
+
+    /**
+     * Clears the accepted payloads.
+     *
+     * @return The current instance in order to chain call methods.
+     */
+    public @NotNull WebhookStubServer clear() {
+        this.payloads.clear();
+        this.attachments.clear();
+        return this;
+    }
+
+    /**
+     * Stops the server.
+     */
+    @Override
+    public void close() {
+        this.server.stop(0);
+        this.executor.shutdownNow();
+    }
+
+    /**
+     * Handles a single webhook request.
+     *
+     * @param exchange The http exchange.
+     * @throws IOException If an I/O error occurs.
+     */
+    private void handle(@NotNull HttpExchange exchange) throws IOException {
+        try {
+            byte[] bytes = readAll(exchange.getRequestBody());
+            String contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+            List<String> files = new ArrayList<>();
+            String body = contentType != null && contentType.startsWith("multipart/form-data")
+                    ? readMultipart(bytes, contentType, files)
+                    : new String(bytes, StandardCharsets.UTF_8);
+
+            if (!exchange.getRequestMethod().equals("POST")) {
+                respond(exchange, 405, "{\"message\": \"405: Method Not Allowed\", \"code\": 0}");
+                return;
+            }
+
+            if (!this.rateLimit(exchange)) {
+                respond(exchange, 429, "{\"message\": \"You are being rate limited.\", " +
+                        "\"retry_after\": " + exchange.getResponseHeaders().getFirst("Retry-After") + ", \"global\": false}");
+                return;
+            }
+
+            String error = body == null ? "The request body contains invalid JSON." : this.validate(body, !files.isEmpty());
+            if (error != null) {
+                respond(exchange, 400, "{\"message\": \"" + error + "\", \"code\": 50006}");
+                return;
+            }
+
+            this.payloads.add(body);
+            this.attachments.addAll(files);
+
+            String query = exchange.getRequestURI().getQuery();
+            if (query != null && query.contains("wait=true"))
+                respond(exchange, 200, "{\"id\": \"" + this.messageIds.incrementAndGet() + "\"}");
+            else
+                respond(exchange, 204, null);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Counts the request against the rate limit
+     * and adds the rate limit headers.
+     *
+     * @param exchange The http exchange.
+     * @return False if the request is over the limit.
+     */
+    private synchronized boolean rateLimit(@NotNull HttpExchange exchange) {
+        if (this.rateLimit <= 0)
+            return true;
+
+        long now = System.nanoTime();
+        if (now - this.windowStart >= this.rateLimitWindow) {
+            this.windowStart = now;
+            this.windowCount = 0;
+        }
+
+        double resetAfter = Math.max(0, this.rateLimitWindow - (now - this.windowStart)) / 1e9;
+        String resetAfterText = String.format(Locale.ROOT, "%.3f", resetAfter);
+        boolean allowed = this.windowCount < this.rateLimit;
+        if (allowed)
+            this.windowCount++;
+
+        Headers headers = exchange.getResponseHeaders();
+        headers.set("X-RateLimit-Bucket", "stub");
+        headers.set("X-RateLimit-Limit", String.valueOf(this.rateLimit));
+        headers.set("X-RateLimit-Remaining", String.valueOf(this.rateLimit - this.windowCount));
+        headers.set("X-RateLimit-Reset-After", resetAfterText);
+        if (!allowed) {
+            headers.set("Retry-After", resetAfterText);
+            headers.set("X-RateLimit-Scope", "user");
+        }
+        return allowed;
+    }
+
+    /**
+     * Validates a payload the same way discord does
+     * for the most common mistakes.
+     *
+     * @param body  The payload.
+     * @param files True if the payload came with files.
+     * @return The error message, or null if the payload is valid.
+     */
+    private String validate(@NotNull String body,
+                            boolean files) {
+        Map<String, Object> json;
+        try {
+            json = JsonReader.parseObject(body);
+        } catch (JsonException e) {
+            return "The request body contains invalid JSON.";
+        }
+
+        Object content = json.get("content");
+        Object embeds = json.get("embeds");
+        List<?> embedList = embeds instanceof List ? (List<?>) embeds : null;
+
+        if ((content == null || content.toString().isEmpty()) && (embedList == null || embedList.isEmpty()) && !files)
+            return "Cannot send an empty message";
+        if (content != null && content.toString().length() > 2000)
+            return "Invalid Form Body";
+        if (embedList != null && embedList.size() > 10)
+            return "Invalid Form Body";
+        if (json.containsKey("thread_name") && !this.forumChannel)
+            return "Webhooks can only create threads in forum channels";
+
+        if (embedList != null) {
+            for (Object embed : embedList) {
+                if (!(embed instanceof Map) || ((Map<?, ?>) embed).isEmpty())
+                    return "Invalid Form Body";
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Reads a multipart/form-data body, collecting
+     * the name and size of every file part.
+     *
+     * @param bytes       The body.
+     * @param contentType The content type with the boundary.
+     * @param files       Receives "name:size" of each file.
+     * @return The payload json, or null if there is none.
+     */
+    private static String readMultipart(@NotNull byte[] bytes,
+                                        @NotNull String contentType,
+                                        @NotNull List<String> files) {
+        int index = contentType.indexOf("boundary=");
+        if (index == -1)
+            return null;
+
+        String body = new String(bytes, StandardCharsets.ISO_8859_1);
+        String delimiter = "--" + contentType.substring(index + 9).replace("\"", "").trim();
+        String json = null;
+
+        int start = body.indexOf(delimiter);
+        while (start != -1) {
+            int headersStart = start + delimiter.length() + 2;
+            int next = body.indexOf("\r\n" + delimiter, headersStart);
+            int headersEnd = body.indexOf("\r\n\r\n", headersStart);
+            if (next == -1 || headersEnd == -1 || headersEnd > next)
+                break;
+
+            String headers = body.substring(headersStart, headersEnd);
+            String content = body.substring(headersEnd + 4, next);
+            if (headers.contains("name=\"payload_json\""))
+                json = new String(content.getBytes(StandardCharsets.ISO_8859_1), StandardCharsets.UTF_8);
+
+            int filename = headers.indexOf("filename=\"");
+            if (filename != -1) {
+                String name = headers.substring(filename + 10, headers.indexOf('"', filename + 10));
+                files.add(new String(name.getBytes(StandardCharsets.ISO_8859_1), StandardCharsets.UTF_8) + ":" + content.length());
+            }
+            start = next + 2;
+        }
+        return json;
+    }
+
+    /**
+     * Sends a json response.
+     *
+     * @param exchange The http exchange.
+     * @param status   The status code.
+     * @param json     The json body, or null for no body.
+     * @throws IOException If an I/O error occurs.
+     */
+    private static void respond(@NotNull HttpExchange exchange,
+                                int status,
+                                String json) throws IOException {
+        if (json == null) {
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(bytes);
+        }
+    }
+
+    /**
+     * Reads the given stream fully.
+     *
+     * @param input The stream to read.
+     * @return The bytes read.
+     * @throws IOException If an I/O error occurs.
+     */
+    private static @NotNull byte[] readAll(@NotNull InputStream input) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        int read;
+        while ((read = input.read(buffer)) != -1)
+            output.write(buffer, 0, read);
+        return output.toByteArray();
+    }
+}
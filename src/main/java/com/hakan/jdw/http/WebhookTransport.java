@@ -0,0 +1,51 @@
+package com.hakan.jdw.http;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Sends webhook requests over the wire.
+ * Implementations decide how the request is
+ * delivered, pooled or recorded.
+ *
+ * @see UrlConnectionTransport
+ * @see WebhookClient
+ * @see HttpClientTransport
+ * @see NioTransport
+ * @see RecordingTransport
+ */
+public interface WebhookTransport {
+
+    /**
+     * Sends the given request.
+     * The response is returned regardless of its
+     * status code, see {@link WebhookResponse#ensureSuccess()}.
+     *
+     * @param request The request to send.
+     * @return The response.
+     * @throws IOException If the request could not be sent.
+     */
+    @NotNull
+    WebhookResponse send(@NotNull WebhookRequest request) throws IOException;
+
+    /**
+     * Sends the given request without waiting for the
+     * response, if the transport supports it. Blocking
+     * transports send the request on the calling thread
+     * and return a completed future.
+     *
+     * @param request The request to send.
+     * @return The future of the response.
+     */
+    default @NotNull CompletableFuture<WebhookResponse> sendAsync(@NotNull WebhookRequest request) {
+        CompletableFuture<WebhookResponse> future = new CompletableFuture<>();
+        try {
+            future.complete(this.send(request));
+        } catch (Throwable e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+}
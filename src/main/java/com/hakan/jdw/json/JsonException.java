@@ -0,0 +1,32 @@
+package com.hakan.jdw.json;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Thrown when a JSON text can not be read
+ * or does not have the expected structure.
+ */
+public class JsonException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Creates a new json exception.
+     *
+     * @param message The message of the exception.
+     */
+    public JsonException(@NotNull String message) {
+        super(message);
+    }
+
+    /**
+     * Creates a new json exception.
+     *
+     * @param message The message of the exception.
+     * @param cause   The cause of the exception.
+     */
+    public JsonException(@NotNull String message,
+                         @NotNull Throwable cause) {
+        super(message, cause);
+    }
+}
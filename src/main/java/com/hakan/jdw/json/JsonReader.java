@@ -0,0 +1,685 @@
+package com.hakan.jdw.json;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads a JSON text token by token, without
+ * building a tree unless asked to. Callers pull
+ * the next token with {@link #peek()} and consume
+ * it with the matching method, and can skip whole
+ * values they are not interested in.
+ * <p>
+ * {@link #parse(String)} and {@link #parseObject(String)}
+ * read a whole text into maps, lists, strings, numbers,
+ * booleans and nulls.
+ * <p>
+ * A reader created from UTF-8 bytes reads them in place:
+ * the structure of JSON is plain ASCII, and no byte of a
+ * multi-byte UTF-8 sequence is ASCII, so only the strings
+ * and numbers that are consumed get decoded.
+ */
+public final class JsonReader {
+
+    /**
+     * Reads a whole JSON text into plain java objects:
+     * {@link Map}, {@link List}, {@link String},
+     * {@link Long}, {@link Double}, {@link Boolean} or null.
+     *
+     * @param json The JSON text.
+     * @return The value of the text.
+     * @throws JsonException If the text is malformed.
+     */
+    public static @Nullable Object parse(@NotNull String json) {
+        JsonReader reader = new JsonReader(json);
+        Object value = reader.readValue();
+        if (reader.peek() != Token.END_DOCUMENT)
+            throw reader.error("Unexpected content after the value");
+        return value;
+    }
+
+    /**
+     * Reads a whole JSON text that must be an object.
+     *
+     * @param json The JSON text.
+     * @return The members of the object, in order.
+     * @throws JsonException If the text is malformed or not an object.
+     */
+    @SuppressWarnings("unchecked")
+    public static @NotNull Map<String, Object> parseObject(@NotNull String json) {
+        Object value = parse(json);
+        if (!(value instanceof Map))
+            throw new JsonException("Expected a JSON object");
+        return (Map<String, Object>) value;
+    }
+
+
+
+    private static final int EMPTY_DOCUMENT = 0;
+    private static final int NONEMPTY_DOCUMENT = 1;
+    private static final int EMPTY_OBJECT = 2;
+    private static final int NONEMPTY_OBJECT = 3;
+    private static final int DANGLING_NAME = 4;
+    private static final int EMPTY_ARRAY = 5;
+    private static final int NONEMPTY_ARRAY = 6;
+
+    private final String json;
+    private final byte[] bytes;
+    private final int length;
+    private int position;
+    private int[] stack;
+    private int depth;
+    private Token peeked;
+
+    /**
+     * Creates a new json reader.
+     *
+     * @param json The JSON text to read.
+     */
+    public JsonReader(@NotNull String json) {
+        this.json = json;
+        this.bytes = null;
+        this.length = json.length();
+        this.stack = new int[16];
+        this.stack[0] = EMPTY_DOCUMENT;
+    }
+
+    /**
+     * Creates a new json reader that reads
+     * UTF-8 encoded JSON without decoding
+     * it to a string first.
+     *
+     * @param json The UTF-8 encoded JSON.
+     */
+    public JsonReader(@NotNull byte[] json) {
+        this.json = null;
+        this.bytes = json;
+        this.length = json.length;
+        this.stack = new int[16];
+        this.stack[0] = EMPTY_DOCUMENT;
+    }
+
+    /**
+     * Gets the type of the next token
+     * without consuming it.
+     *
+     * @return The type of the next token.
+     * @throws JsonException If the text is malformed.
+     */
+    public @NotNull Token peek() {
+        if (this.peeked != null)
+            return this.peeked;
+
+        int scope = this.stack[this.depth];
+        switch (scope) {
+            case EMPTY_ARRAY:
+            case NONEMPTY_ARRAY: {
+                this.stack[this.depth] = NONEMPTY_ARRAY;
+                int c = this.nextNonWhitespace();
+                if (c == ']')
+                    return this.peeked = Token.END_ARRAY;
+                if (scope == NONEMPTY_ARRAY) {
+                    if (c != ',')
+                        throw this.error("Expected ',' or ']'");
+                } else {
+                    this.position--;
+                }
+                return this.peeked = this.peekValue();
+            }
+            case EMPTY_OBJECT:
+            case NONEMPTY_OBJECT: {
+                this.stack[this.depth] = DANGLING_NAME;
+                int c = this.nextNonWhitespace();
+                if (c == '}')
+                    return this.peeked = Token.END_OBJECT;
+                if (scope == NONEMPTY_OBJECT) {
+                    if (c != ',')
+                        throw this.error("Expected ',' or '}'");
+                    c = this.nextNonWhitespace();
+                }
+                if (c != '"')
+                    throw this.error("Expected a member name");
+                return this.peeked = Token.NAME;
+            }
+            case DANGLING_NAME:
+                this.stack[this.depth] = NONEMPTY_OBJECT;
+                if (this.nextNonWhitespace() != ':')
+                    throw this.error("Expected ':'");
+                return this.peeked = this.peekValue();
+            case EMPTY_DOCUMENT:
+                this.stack[this.depth] = NONEMPTY_DOCUMENT;
+                return this.peeked = this.peekValue();
+            default:
+                if (this.nextNonWhitespace() != -1)
+                    throw this.error("Expected the end of the document");
+                this.position--;
+                return this.peeked = Token.END_DOCUMENT;
+        }
+    }
+
+    /**
+     * Checks if the current object or array
+     * has another member or element.
+     *
+     * @return True if there is another one.
+     */
+    public boolean hasNext() {
+        Token token = this.peek();
+        return token != Token.END_OBJECT && token != Token.END_ARRAY && token != Token.END_DOCUMENT;
+    }
+
+    /**
+     * Consumes the start of an object.
+     */
+    public void beginObject() {
+        this.expect(Token.BEGIN_OBJECT);
+        this.push(EMPTY_OBJECT);
+    }
+
+    /**
+     * Consumes the end of an object.
+     */
+    public void endObject() {
+        this.expect(Token.END_OBJECT);
+        this.depth--;
+    }
+
+    /**
+     * Consumes the start of an array.
+     */
+    public void beginArray() {
+        this.expect(Token.BEGIN_ARRAY);
+        this.push(EMPTY_ARRAY);
+    }
+
+    /**
+     * Consumes the end of an array.
+     */
+    public void endArray() {
+        this.expect(Token.END_ARRAY);
+        this.depth--;
+    }
+
+    /**
+     * Consumes the name of the next member.
+     *
+     * @return The member name.
+     */
+    public @NotNull String nextName() {
+        this.expect(Token.NAME);
+        return this.readString();
+    }
+
+    /**
+     * Consumes a string value. Numbers are
+     * returned as their text.
+     *
+     * @return The string.
+     */
+    public @NotNull String nextString() {
+        Token token = this.peek();
+        if (token == Token.NUMBER) {
+            this.peeked = null;
+            return this.readNumberText();
+        }
+
+        this.expect(Token.STRING);
+        return this.readString();
+    }
+
+    /**
+     * Consumes a number value.
+     *
+     * @return The number, a {@link Long} if it is integral and fits.
+     */
+    public @NotNull Number nextNumber() {
+        this.expect(Token.NUMBER);
+        String text = this.readNumberText();
+        try {
+            if (text.indexOf('.') == -1 && text.indexOf('e') == -1 && text.indexOf('E') == -1) {
+                try {
+                    return Long.parseLong(text);
+                } catch (NumberFormatException ignored) {
+                    // too large for a long, fall back to a double
+                }
+            }
+            return Double.parseDouble(text);
+        } catch (NumberFormatException e) {
+            throw this.error("Malformed number " + text);
+        }
+    }
+
+    /**
+     * Consumes an integral number value.
+     *
+     * @return The number.
+     */
+    public long nextLong() {
+        Number number = this.nextNumber();
+        if (number instanceof Long)
+            return number.longValue();
+
+        double value = number.doubleValue();
+        if (value != Math.rint(value) || value < Long.MIN_VALUE || value > Long.MAX_VALUE)
+            throw this.error("Expected an integer but was " + value);
+        return (long) value;
+    }
+
+    /**
+     * Consumes an integral number value.
+     *
+     * @return The number.
+     */
+    public int nextInt() {
+        long value = this.nextLong();
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE)
+            throw this.error("Expected an int but was " + value);
+        return (int) value;
+    }
+
+    /**
+     * Consumes a number value.
+     *
+     * @return The number.
+     */
+    public double nextDouble() {
+        return this.nextNumber().doubleValue();
+    }
+
+    /**
+     * Consumes a boolean value.
+     *
+     * @return The boolean.
+     */
+    public boolean nextBoolean() {
+        this.expect(Token.BOOLEAN);
+        boolean value = this.charAt(this.position) == 't';
+        this.position += value ? 4 : 5;
+        return value;
+    }
+
+    /**
+     * Consumes a null value.
+     */
+    public void nextNull() {
+        this.expect(Token.NULL);
+        this.position += 4;
+    }
+
+    /**
+     * Consumes a null value if it is next.
+     *
+     * @return True if a null value was consumed.
+     */
+    public boolean nextIfNull() {
+        if (this.peek() != Token.NULL)
+            return false;
+
+        this.nextNull();
+        return true;
+    }
+
+    /**
+     * Consumes the end of the document, making
+     * sure nothing follows the value.
+     */
+    public void endDocument() {
+        this.expect(Token.END_DOCUMENT);
+    }
+
+    /**
+     * Consumes the next value, including all
+     * members or elements it contains.
+     */
+    public void skipValue() {
+        if (!this.hasNext())
+            throw this.error("Expected a value");
+
+        int level = 0;
+        do {
+            switch (this.peek()) {
+                case BEGIN_OBJECT:
+                    this.beginObject();
+                    level++;
+                    break;
+                case BEGIN_ARRAY:
+                    this.beginArray();
+                    level++;
+                    break;
+                case END_OBJECT:
+                    this.endObject();
+                    level--;
+                    break;
+                case END_ARRAY:
+                    this.endArray();
+                    level--;
+                    break;
+                case NAME:
+                    this.nextName();
+                    break;
+                case STRING:
+                    this.skipString();
+                    break;
+                case NUMBER:
+                    this.peeked = null;
+                    this.readNumberText();
+                    break;
+                case BOOLEAN:
+                    this.nextBoolean();
+                    break;
+                case NULL:
+                    this.nextNull();
+                    break;
+                default:
+                    throw this.error("Unexpected end of the document");
+            }
+        } while (level > 0);
+    }
+
+    /**
+     * Consumes the next value into plain java objects,
+     * the same way as {@link #parse(String)}.
+     *
+     * @return The value.
+     */
+    public @Nullable Object readValue() {
+        switch (this.peek()) {
+            case BEGIN_OBJECT: {
+                Map<String, Object> map = new LinkedHashMap<>();
+                this.beginObject();
+                while (this.hasNext())
+                    map.put(this.nextName(), this.readValue());
+                this.endObject();
+                return map;
+            }
+            case BEGIN_ARRAY: {
+                List<Object> list = new ArrayList<>();
+                this.beginArray();
+                while (this.hasNext())
+                    list.add(this.readValue());
+                this.endArray();
+                return list;
+            }
+            case STRING:
+                return this.nextString();
+            case NUMBER:
+                return this.nextNumber();
+            case BOOLEAN:
+                return this.nextBoolean();
+            case NULL:
+                this.nextNull();
+                return null;
+            default:
+                throw this.error("Expected a value");
+        }
+    }
+
+    /**
+     * Decides the type of the value that
+     * starts at the current position.
+     *
+     * @return The type of the value.
+     */
+    private @NotNull Token peekValue() {
+        int c = this.nextNonWhitespace();
+        switch (c) {
+            case '{':
+                return Token.BEGIN_OBJECT;
+            case '[':
+                return Token.BEGIN_ARRAY;
+            case '"':
+                return Token.STRING;
+            case 't':
+                this.position--;
+                this.literal("true");
+                return Token.BOOLEAN;
+            case 'f':
+                this.position--;
+                this.literal("false");
+                return Token.BOOLEAN;
+            case 'n':
+                this.position--;
+                this.literal("null");
+                return Token.NULL;
+            default:
+                if (c == '-' || (c >= '0' && c <= '9')) {
+                    this.position--;
+                    return Token.NUMBER;
+                }
+                throw this.error(c == -1 ? "Unexpected end of the document" : "Unexpected character '" + (char) c + "'");
+        }
+    }
+
+    /**
+     * Checks that a literal starts at the
+     * current position, without consuming it.
+     *
+     * @param literal The literal.
+     */
+    private void literal(@NotNull String literal) {
+        if (this.position + literal.length() > this.length)
+            throw this.error("Expected " + literal);
+        for (int i = 0; i < literal.length(); i++) {
+            if (this.charAt(this.position + i) != literal.charAt(i))
+                throw this.error("Expected " + literal);
+        }
+    }
+
+    /**
+     * Reads the rest of a string whose opening
+     * quote has been consumed.
+     *
+     * @return The string.
+     */
+    private @NotNull String readString() {
+        int start = this.position;
+        StringBuilder builder = null;
+
+        while (this.position < this.length) {
+            int c = this.charAt(this.position++);
+            if (c == '"') {
+                if (builder == null)
+                    return this.text(start, this.position - 1);
+                return this.appendText(builder, start, this.position - 1).toString();
+            }
+            if (c == '\\') {
+                if (builder == null)
+                    builder = new StringBuilder(Math.max(16, (this.position - start) * 2));
+                this.appendText(builder, start, this.position - 1);
+                builder.append(this.readEscape());
+                start = this.position;
+            } else if (c < 0x20) {
+                throw this.error("Unescaped control character in string");
+            }
+        }
+        throw this.error("Unterminated string");
+    }
+
+    /**
+     * Skips the rest of a string whose opening
+     * quote has been consumed.
+     */
+    private void skipString() {
+        this.expect(Token.STRING);
+        while (this.position < this.length) {
+            int c = this.charAt(this.position++);
+            if (c == '"')
+                return;
+            if (c == '\\')
+                this.position++;
+        }
+        throw this.error("Unterminated string");
+    }
+
+    /**
+     * Reads an escape sequence whose
+     * backslash has been consumed.
+     *
+     * @return The escaped character.
+     */
+    private char readEscape() {
+        if (this.position >= this.length)
+            throw this.error("Unterminated escape sequence");
+
+        char c = (char) this.charAt(this.position++);
+        switch (c) {
+            case 'b':
+                return '\b';
+            case 'f':
+                return '\f';
+            case 'n':
+                return '\n';
+            case 'r':
+                return '\r';
+            case 't':
+                return '\t';
+            case 'u':
+                if (this.position + 4 > this.length)
+                    throw this.error("Unterminated escape sequence");
+                try {
+                    char value = (char) Integer.parseInt(this.text(this.position, this.position + 4), 16);
+                    this.position += 4;
+                    return value;
+                } catch (NumberFormatException e) {
+                    throw this.error("Malformed unicode escape");
+                }
+            case '"':
+            case '\\':
+            case '/':
+                return c;
+            default:
+                throw this.error("Invalid escape sequence \\" + c);
+        }
+    }
+
+    /**
+     * Reads the text of a number.
+     *
+     * @return The number text.
+     */
+    private @NotNull String readNumberText() {
+        int start = this.position;
+        while (this.position < this.length) {
+            int c = this.charAt(this.position);
+            if ((c < '0' || c > '9') && c != '-' && c != '+' && c != '.' && c != 'e' && c != 'E')
+                break;
+            this.position++;
+        }
+        return this.text(start, this.position);
+    }
+
+    /**
+     * Consumes the next character that
+     * is not whitespace.
+     *
+     * @return The character, or -1 at the end.
+     */
+    private int nextNonWhitespace() {
+        while (this.position < this.length) {
+            int c = this.charAt(this.position++);
+            if (c != ' ' && c != '\n' && c != '\r' && c != '\t')
+                return c;
+        }
+        this.position++;
+        return -1;
+    }
+
+    /**
+     * Consumes the peeked token if it has the
+     * expected type.
+     *
+     * @param token The expected type.
+     */
+    private void expect(@NotNull Token token) {
+        Token actual = this.peek();
+        if (actual != token)
+            throw this.error("Expected " + token + " but was " + actual);
+        this.peeked = null;
+    }
+
+    /**
+     * Enters an object or array.
+     *
+     * @param scope The scope to enter.
+     */
+    private void push(int scope) {
+        if (++this.depth == this.stack.length)
+            this.stack = Arrays.copyOf(this.stack, this.depth * 2);
+        this.stack[this.depth] = scope;
+    }
+
+    /**
+     * Creates an exception at the current position.
+     *
+     * @param message The message.
+     * @return The exception.
+     */
+    private @NotNull JsonException error(@NotNull String message) {
+        return new JsonException(message + " at position " + Math.min(this.position, this.length));
+    }
+
+    /**
+     * Gets the character at the given position. Bytes
+     * are returned unsigned, so those of multi-byte
+     * sequences never match an ASCII character.
+     *
+     * @param index The position.
+     * @return The character or byte.
+     */
+    private int charAt(int index) {
+        return this.bytes != null ? this.bytes[index] & 0xFF : this.json.charAt(index);
+    }
+
+    /**
+     * Gets the text between the given positions,
+     * decoding it if the reader reads bytes.
+     *
+     * @param start The start position, inclusive.
+     * @param end   The end position, exclusive.
+     * @return The text.
+     */
+    private @NotNull String text(int start, int end) {
+        if (this.bytes != null)
+            return new String(this.bytes, start, end - start, StandardCharsets.UTF_8);
+        return this.json.substring(start, end);
+    }
+
+    /**
+     * Appends the text between the given positions.
+     *
+     * @param builder The builder to append to.
+     * @param start   The start position, inclusive.
+     * @param end     The end position, exclusive.
+     * @return The builder.
+     */
+    private @NotNull StringBuilder appendText(@NotNull StringBuilder builder, int start, int end) {
+        if (this.bytes != null)
+            return builder.append(this.text(start, end));
+        return builder.append(this.json, start, end);
+    }
+
+
+
+    /**
+     * The types of tokens of a JSON text.
+     */
+    public enum Token {
+        BEGIN_OBJECT,
+        END_OBJECT,
+        BEGIN_ARRAY,
+        END_ARRAY,
+        NAME,
+        STRING,
+        NUMBER,
+        BOOLEAN,
+        NULL,
+        END_DOCUMENT
+    }
+}
@@ -0,0 +1,526 @@
+package com.hakan.jdw.json;
+
+import com.hakan.jdw.JsonObject;
+import com.hakan.jdw.utils.DateUtils;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Writes JSON as UTF-8 bytes, token by token, without
+ * building a tree or an intermediate string. Bytes are
+ * collected in a growable buffer, or drained into an
+ * output stream whenever the buffer is full.
+ * <p>
+ * Strings take a fast path for ASCII, which is copied
+ * byte by byte with a table lookup for the few characters
+ * that need escaping.
+ */
+public final class JsonWriter {
+
+    /**
+     * Escape of each ASCII character: 0 if it is
+     * written as is, 'u' for a unicode escape, or
+     * the character after the backslash.
+     */
+    private static final byte[] ESCAPES = new byte[128];
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] TRUE = "true".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] FALSE = "false".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] NULL = "null".getBytes(StandardCharsets.US_ASCII);
+    private static final int MAX_RETAINED = 64 * 1024;
+    private static final ThreadLocal<JsonWriter> CACHE = ThreadLocal.withInitial(JsonWriter::new);
+
+    static {
+        for (int c = 0; c < 0x20; c++)
+            ESCAPES[c] = 'u';
+        ESCAPES['"'] = '"';
+        ESCAPES['\\'] = '\\';
+        ESCAPES['\b'] = 'b';
+        ESCAPES['\f'] = 'f';
+        ESCAPES['\n'] = 'n';
+        ESCAPES['\r'] = 'r';
+        ESCAPES['\t'] = 't';
+    }
+
+    /**
+     * Serializes the given object into UTF-8 bytes,
+     * reusing a buffer cached per thread. It may be
+     * called again while the object is written, which
+     * then writes into a buffer of its own.
+     *
+     * @param object The object to serialize.
+     * @return The bytes of the JSON text.
+     */
+    public static @NotNull byte[] toBytes(@NotNull JsonObject object) {
+        JsonWriter cached = CACHE.get();
+        JsonWriter writer = cached.inUse ? new JsonWriter() : cached;
+        writer.inUse = true;
+        try {
+            object.writeJson(writer);
+            return writer.toByteArray();
+        } finally {
+            writer.reset();
+            writer.inUse = false;
+        }
+    }
+
+
+
+    private final OutputStream output;
+    private byte[] buffer;
+    private int count;
+    private boolean[] commas;
+    private int depth;
+    private boolean afterName;
+    private boolean inUse;
+
+    /**
+     * Creates a new json writer that collects
+     * the bytes in its buffer.
+     */
+    public JsonWriter() {
+        this(null, 1024);
+    }
+
+    /**
+     * Creates a new json writer that drains its
+     * buffer into the given output whenever it
+     * is full, and on {@link #flush()}.
+     *
+     * @param output The output to write to.
+     */
+    public JsonWriter(@NotNull OutputStream output) {
+        this(output, 8192);
+    }
+
+    /**
+     * Creates a new json writer.
+     *
+     * @param output   The output to write to, or null to collect.
+     * @param capacity The initial capacity of the buffer.
+     */
+    private JsonWriter(@Nullable OutputStream output,
+                       int capacity) {
+        this.output = output;
+        this.buffer = new byte[capacity];
+        this.commas = new boolean[16];
+    }
+
+    /**
+     * Gets the number of bytes in the buffer.
+     *
+     * @return The number of buffered bytes.
+     */
+    public int size() {
+        return this.count;
+    }
+
+    /**
+     * Begins an object.
+     *
+     * @return The current instance in order to chain call methods.
+     */
+    public @NotNull JsonWriter beginObject() {
+        return this.open('{');
+    }
+
+    /**
+     * Ends the current object.
+     *
+     * @return The current instance in order to chain call methods.
+     */
+    public @NotNull JsonWriter endObject() {
+        return this.close('}');
+    }
+
+    /**
+     * Begins an array.
+     *
+     * @return The current instance in order to chain call methods.
+     */
+    public @NotNull JsonWriter beginArray() {
+        return this.open('[');
+    }
+
+    /**
+     * Ends the current array.
+     *
+     * @return The current instance in order to chain call methods.
+     */
+    public @NotNull JsonWriter endArray() {
+        return this.close(']');
+    }
+
+    /**
+     * Writes the name of the next member
+     * of the current object.
+     *
+     * @param name The member name.
+     * @return The current instance in order to chain call methods.
+     */
+    public @NotNull JsonWriter name(@NotNull String name) {
+        this.separate();
+        this.string(name);
+        this.ensure(1);
+        this.buffer[this.count++] = ':';
+        this.afterName = true;
+        return this;
+    }
+
+    /**
+     * Writes a string value, or null.
+     *
+     * @param value The value.
+     * @return The current instance in order to chain call methods.
+     */
+    public @NotNull JsonWriter value(@Nullable String value) {
+        this.separate();
+        if (value == null)
+            this.raw(NULL);
+        else
+            this.string(value);
+        return this;
+    }
+
+    /**
+     * Writes a number value.
+     *
+     * @param value The value.
+     * @return The current instance in order to chain call methods.
+     */
+    public @NotNull JsonWriter value(long value) {
+        this.separate();
+        String text = Long.toString(value);
+        this.ensure(text.length());
+        for (int i = 0; i < text.length(); i++)
+            this.buffer[this.count++] = (byte) text.charAt(i);
+        return this;
+    }
+
+    /**
+     * Writes a boolean value.
+     *
+     * @param value The value.
+     * @return The current instance in order to chain call methods.
+     */
+    public @NotNull JsonWriter value(boolean value) {
+        this.separate();
+        this.raw(value ? TRUE : FALSE);
+        return this;
+    }
+
+    /**
+     * Writes a date as an ISO-8601 string, with the
+     * digits written straight into the buffer. See
+     * {@link DateUtils#writeIso(long, byte[], int)}.
+     *
+     * @param millis The date, in milliseconds since the epoch.
+     * @return The current instance in order to chain call methods.
+     */
+    public @NotNull JsonWriter dateValue(long millis) {
+        if (!DateUtils.isFixedLength(millis))
+            return this.value(DateUtils.toIsoString(millis));
+
+        this.separate();
+        this.ensure(DateUtils.ISO_LENGTH + 2);
+        this.buffer[this.count++] = '"';
+        DateUtils.writeIso(millis, this.buffer, this.count);
+        this.count += DateUtils.ISO_LENGTH;
+        this.buffer[this.count++] = '"';
+        return this;
+    }
+
+    /**
+     * Writes an object value, or null.
+     *
+     * @param value The value.
+     * @return The current instance in order to chain call methods.
+     */
+    public @NotNull JsonWriter value(@Nullable JsonObject value) {
+        if (value == null) {
+            this.separate();
+            this.raw(NULL);
+        } else {
+            value.writeJson(this);
+        }
+        return this;
+    }
+
+    /**
+     * Writes an already serialized JSON value as is.
+     *
+     * @param json The JSON text of the value.
+     * @return The current instance in order to chain call methods.
+     */
+    public @NotNull JsonWriter rawValue(@NotNull String json) {
+        this.separate();
+        this.raw(json.getBytes(StandardCharsets.UTF_8));
+        return this;
+    }
+
+    /**
+     * Writes an already serialized JSON value as is.
+     *
+     * @param json The UTF-8 bytes of the value.
+     * @return The current instance in order to chain call methods.
+     */
+    public @NotNull JsonWriter rawValue(@NotNull byte[] json) {
+        this.separate();
+        this.raw(json);
+        return this;
+    }
+
+    /**
+     * Writes bytes as they are, without a separator.
+     * Used to splice precompiled JSON, where the bytes
+     * may end or start in the middle of a token.
+     *
+     * @param bytes  The bytes.
+     * @param offset The offset of the first byte.
+     * @param length The number of bytes.
+     * @return The current instance in order to chain call methods.
+     */
+    public @NotNull JsonWriter rawBytes(@NotNull byte[] bytes,
+                                        int offset,
+                                        int length) {
+        this.ensure(length);
+        System.arraycopy(bytes, offset, this.buffer, this.count, length);
+        this.count += length;
+        return this;
+    }
+
+    /**
+     * Writes the escaped characters of a string,
+     * without quotes or a separator. Used to splice
+     * a value into a string of precompiled JSON.
+     *
+     * @param value The string.
+     * @return The current instance in order to chain call methods.
+     */
+    public @NotNull JsonWriter stringContent(@NotNull String value) {
+        this.escape(value);
+        return this;
+    }
+
+    /**
+     * Copies the buffered bytes into a new array.
+     *
+     * @return The bytes of the JSON text.
+     */
+    public @NotNull byte[] toByteArray() {
+        return Arrays.copyOf(this.buffer, this.count);
+    }
+
+    /**
+     * Decodes the buffered bytes.
+     *
+     * @return The JSON text.
+     */
+    @Override
+    public @NotNull String toString() {
+        return new String(this.buffer, 0, this.count, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Drains the buffer into the output,
+     * if the writer has one.
+     *
+     * @throws UncheckedIOException If the output fails.
+     */
+    public void flush() {
+        if (this.output == null || this.count == 0)
+            return;
+
+        try {
+            this.output.write(this.buffer, 0, this.count);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        this.count = 0;
+    }
+
+    /**
+     * Clears the writer so it can write
+     * another document.
+     */
+    public void reset() {
+        this.count = 0;
+        this.depth = 0;
+        this.commas[0] = false;
+        this.afterName = false;
+        if (this.buffer.length > MAX_RETAINED)
+            this.buffer = new byte[1024];
+    }
+
+    /**
+     * Opens an object or array.
+     *
+     * @param bracket The opening bracket.
+     * @return The current instance in order to chain call methods.
+     */
+    private @NotNull JsonWriter open(char bracket) {
+        this.separate();
+        this.ensure(1);
+        this.buffer[this.count++] = (byte) bracket;
+
+        if (++this.depth == this.commas.length)
+            this.commas = Arrays.copyOf(this.commas, this.depth * 2);
+        this.commas[this.depth] = false;
+        return this;
+    }
+
+    /**
+     * Closes an object or array.
+     *
+     * @param bracket The closing bracket.
+     * @return The current instance in order to chain call methods.
+     */
+    private @NotNull JsonWriter close(char bracket) {
+        if (this.depth == 0)
+            throw new IllegalStateException("Nothing to close");
+
+        this.depth--;
+        this.ensure(1);
+        this.buffer[this.count++] = (byte) bracket;
+        return this;
+    }
+
+    /**
+     * Writes the comma before a value or member
+     * name, unless it is the first of its parent
+     * or follows a member name.
+     */
+    private void separate() {
+        if (this.afterName) {
+            this.afterName = false;
+            return;
+        }
+
+        if (this.commas[this.depth]) {
+            this.ensure(1);
+            this.buffer[this.count++] = ',';
+        }
+        this.commas[this.depth] = true;
+    }
+
+    /**
+     * Writes a quoted and escaped string.
+     *
+     * @param value The string.
+     */
+    private void string(@NotNull String value) {
+        this.ensure(1);
+        this.buffer[this.count++] = '"';
+        this.escape(value);
+        this.ensure(1);
+        this.buffer[this.count++] = '"';
+    }
+
+    /**
+     * Writes the escaped characters of a string.
+     *
+     * @param value The string.
+     */
+    private void escape(@NotNull String value) {
+        int length = value.length();
+        int i = 0;
+        while (i < length) {
+            int chunk = Math.min(length - i, (this.buffer.length - this.count) / 6);
+            if (chunk == 0) {
+                this.ensure(6);
+                continue;
+            }
+
+            byte[] buffer = this.buffer;
+            int count = this.count;
+            int end = i + chunk;
+            for (; i < end; i++) {
+                char c = value.charAt(i);
+                if (c < 0x80) {
+                    byte escape = ESCAPES[c];
+                    if (escape == 0) {
+                        buffer[count++] = (byte) c;
+                    } else if (escape == 'u') {
+                        count = unicode(buffer, count, c);
+                    } else {
+                        buffer[count++] = '\\';
+                        buffer[count++] = escape;
+                    }
+                } else if (c < 0x800) {
+                    buffer[count++] = (byte) (0xC0 | (c >> 6));
+                    buffer[count++] = (byte) (0x80 | (c & 0x3F));
+                } else if (c == 0x2028 || c == 0x2029) {
+                    count = unicode(buffer, count, c);
+                } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                    buffer[count++] = (byte) (0xF0 | (codePoint >> 18));
+                    buffer[count++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                    buffer[count++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                    buffer[count++] = (byte) (0x80 | (codePoint & 0x3F));
+                } else if (Character.isSurrogate(c)) {
+                    buffer[count++] = '?';
+                } else {
+                    buffer[count++] = (byte) (0xE0 | (c >> 12));
+                    buffer[count++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                    buffer[count++] = (byte) (0x80 | (c & 0x3F));
+                }
+            }
+            this.count = count;
+        }
+    }
+
+    /**
+     * Writes bytes as they are.
+     *
+     * @param bytes The bytes.
+     */
+    private void raw(@NotNull byte[] bytes) {
+        this.ensure(bytes.length);
+        System.arraycopy(bytes, 0, this.buffer, this.count, bytes.length);
+        this.count += bytes.length;
+    }
+
+    /**
+     * Makes room for the given number of bytes,
+     * draining or growing the buffer.
+     *
+     * @param length The number of bytes to fit.
+     */
+    private void ensure(int length) {
+        if (this.buffer.length - this.count >= length)
+            return;
+
+        if (this.output != null) {
+            this.flush();
+            if (this.buffer.length >= length)
+                return;
+        }
+        this.buffer = Arrays.copyOf(this.buffer, Math.max(this.buffer.length * 2, this.count + length));
+    }
+
+    /**
+     * Writes a unicode escape of a character.
+     *
+     * @param buffer The buffer to write to.
+     * @param count  The position to write at.
+     * @param c      The character.
+     * @return The position after the escape.
+     */
+    private static int unicode(@NotNull byte[] buffer,
+                               int count,
+                               char c) {
+        buffer[count++] = '\\';
+        buffer[count++] = 'u';
+        buffer[count++] = HEX[(c >> 12) & 0xF];
+        buffer[count++] = HEX[(c >> 8) & 0xF];
+        buffer[count++] = HEX[(c >> 4) & 0xF];
+        buffer[count++] = HEX[c & 0xF];
+        return count;
+    }
+}
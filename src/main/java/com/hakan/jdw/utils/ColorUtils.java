@@ -0,0 +1,45 @@
+package com.hakan.jdw.utils;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.awt.Color;
+
+/**
+ * Utility class adapting {@link Color} to the
+ * RGB integers embeds store. The methods taking
+ * or returning a Color delegate here, so java.awt
+ * is only loaded by code that uses them.
+ */
+public final class ColorUtils {
+
+    /**
+     * Private constructor to prevent
+     * instantiation of this class.
+     */
+    private ColorUtils() {
+
+    }
+
+    /**
+     * Converts a {@link Color} to an {@link Integer}.
+     *
+     * @param color the color to convert
+     * @return the converted integer
+     */
+    public static int colorToInt(@NotNull Color color) {
+        int rgb = color.getRed();
+        rgb = (rgb << 8) + color.getGreen();
+        rgb = (rgb << 8) + color.getBlue();
+        return rgb;
+    }
+
+    /**
+     * Converts an RGB {@link Integer} to a {@link Color}.
+     *
+     * @param rgb the integer to convert
+     * @return the converted color
+     */
+    public static @NotNull Color intToColor(int rgb) {
+        return new Color(rgb);
+    }
+}
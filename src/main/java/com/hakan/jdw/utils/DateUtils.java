@@ -0,0 +1,271 @@
+package com.hakan.jdw.utils;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Date;
+import java.util.TimeZone;
+
+/**
+ * Utility class for formatting and parsing dates
+ * as ISO-8601 text, like 2024-01-31T12:30:00.000Z.
+ * <p>
+ * Digits are written straight into a byte array.
+ * The text up to the seconds is kept in a small
+ * cache, so dates within the same second, which
+ * is the common case when many embeds are sent,
+ * only format their milliseconds.
+ */
+public final class DateUtils {
+
+    /**
+     * Length of a formatted date.
+     */
+    public static final int ISO_LENGTH = 24;
+
+    /**
+     * First date that is {@link #ISO_LENGTH} long,
+     * 0000-01-01T00:00:00.000Z.
+     */
+    private static final long MIN_FIXED = -62_167_219_200_000L;
+
+    /**
+     * Last date that is {@link #ISO_LENGTH} long,
+     * 9999-12-31T23:59:59.999Z.
+     */
+    private static final long MAX_FIXED = 253_402_300_799_999L;
+
+    /**
+     * Recently formatted seconds, indexed by the low bits
+     * of the second. Entries are immutable, so threads
+     * racing on a slot at worst format a second again.
+     */
+    private static final Prefix[] PREFIXES = new Prefix[16];
+
+    /**
+     * Private constructor to prevent
+     * instantiation of this class.
+     */
+    private DateUtils() {
+
+    }
+
+    /**
+     * Formats a date as ISO-8601 text. Dates with
+     * a year outside of 0 to 9999 are formatted
+     * by {@link SimpleDateFormat}, as they were
+     * before this class existed.
+     *
+     * @param millis the date, in milliseconds since the epoch
+     * @return the formatted date
+     */
+    public static @NotNull String toIsoString(long millis) {
+        if (!isFixedLength(millis)) {
+            SimpleDateFormat formatter = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'");
+            formatter.setTimeZone(TimeZone.getTimeZone("UTC"));
+            return formatter.format(new Date(millis));
+        }
+
+        byte[] bytes = new byte[ISO_LENGTH];
+        writeIso(millis, bytes, 0);
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Checks if a date has a year from 0 to 9999, so
+     * it can be written by {@link #writeIso(long, byte[], int)}.
+     *
+     * @param millis the date, in milliseconds since the epoch
+     * @return true if the date is {@link #ISO_LENGTH} long
+     */
+    public static boolean isFixedLength(long millis) {
+        return millis >= MIN_FIXED && millis <= MAX_FIXED;
+    }
+
+    /**
+     * Writes a date as ISO-8601 text into a buffer,
+     * {@link #ISO_LENGTH} ASCII bytes long.
+     *
+     * @param millis the date, in milliseconds since the epoch
+     * @param buffer the buffer to write to
+     * @param offset the position to write at
+     * @throws IllegalArgumentException if the year is not between 0 and 9999
+     */
+    public static void writeIso(long millis,
+                                @NotNull byte[] buffer,
+                                int offset) {
+        long second = Math.floorDiv(millis, 1000);
+        int slot = (int) second & (PREFIXES.length - 1);
+        Prefix prefix = PREFIXES[slot];
+        if (prefix == null || prefix.second != second)
+            PREFIXES[slot] = prefix = new Prefix(second);
+
+        System.arraycopy(prefix.bytes, 0, buffer, offset, prefix.bytes.length);
+        int milli = (int) Math.floorMod(millis, 1000);
+        buffer[offset + 20] = (byte) ('0' + milli / 100);
+        buffer[offset + 21] = (byte) ('0' + milli / 10 % 10);
+        buffer[offset + 22] = (byte) ('0' + milli % 10);
+        buffer[offset + 23] = 'Z';
+    }
+
+    /**
+     * Parses ISO-8601 text with an offset, like
+     * 2024-01-31T12:30:00.000Z or 2024-01-31T15:30:00+03:00.
+     * Text in the format of {@link #writeIso(long, byte[], int)}
+     * is parsed without allocating.
+     *
+     * @param text the text to parse
+     * @return the date, in milliseconds since the epoch
+     * @throws IllegalArgumentException if the text is not a date
+     */
+    public static long parseIso(@NotNull String text) {
+        if (text.length() == ISO_LENGTH && text.charAt(4) == '-' && text.charAt(7) == '-'
+                && text.charAt(10) == 'T' && text.charAt(13) == ':' && text.charAt(16) == ':'
+                && text.charAt(19) == '.' && text.charAt(23) == 'Z') {
+            int year = number(text, 0, 4);
+            int month = number(text, 5, 2);
+            int day = number(text, 8, 2);
+            int hour = number(text, 11, 2);
+            int minute = number(text, 14, 2);
+            int second = number(text, 17, 2);
+            int milli = number(text, 20, 3);
+            if (year >= 0 && month >= 1 && month <= 12 && day >= 1 && day <= monthLength(year, month)
+                    && hour >= 0 && hour < 24 && minute >= 0 && minute < 60 && second >= 0 && second < 60 && milli >= 0)
+                return epochDay(year, month, day) * 86_400_000L + hour * 3_600_000L + minute * 60_000L + second * 1000L + milli;
+        }
+
+        try {
+            return DateTimeFormatter.ISO_OFFSET_DATE_TIME.parse(text, Instant::from).toEpochMilli();
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid date: " + text, e);
+        }
+    }
+
+    /**
+     * Parses a fixed count of digits.
+     *
+     * @param text   the text to parse
+     * @param offset the position of the first digit
+     * @param digits the count of digits
+     * @return the number, or -1 if a character is not a digit
+     */
+    private static int number(@NotNull String text,
+                              int offset,
+                              int digits) {
+        int value = 0;
+        for (int i = offset; i < offset + digits; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9')
+                return -1;
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    /**
+     * Gets the number of days of a month.
+     *
+     * @param year  the year
+     * @param month the month, from 1 to 12
+     * @return the number of days
+     */
+    private static int monthLength(int year,
+                                   int month) {
+        if (month == 2)
+            return year % 4 == 0 && (year % 100 != 0 || year % 400 == 0) ? 29 : 28;
+        return month == 4 || month == 6 || month == 9 || month == 11 ? 30 : 31;
+    }
+
+    /**
+     * Gets the days since the epoch of a date in
+     * the proleptic gregorian calendar.
+     *
+     * @param year  the year, not negative
+     * @param month the month, from 1 to 12
+     * @param day   the day of the month
+     * @return the days since the epoch
+     */
+    private static long epochDay(int year,
+                                 int month,
+                                 int day) {
+        if (month <= 2)
+            year--;
+        long era = Math.floorDiv(year, 400);
+        long yearOfEra = year - era * 400;
+        long dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+
+    /**
+     * Writes a number as a fixed count of digits.
+     *
+     * @param buffer the buffer to write to
+     * @param offset the position of the last digit
+     * @param value  the number
+     * @param digits the count of digits
+     */
+    private static void digits(@NotNull byte[] buffer,
+                               int offset,
+                               int value,
+                               int digits) {
+        for (int i = 0; i < digits; i++) {
+            buffer[offset - i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+
+
+
+    /**
+     * The formatted text of a second, up to
+     * and including the dot before the millis.
+     */
+    private static final class Prefix {
+
+        private final long second;
+        private final byte[] bytes;
+
+        /**
+         * Formats a second, with the civil date
+         * algorithm of the proleptic gregorian calendar.
+         *
+         * @param second the seconds since the epoch
+         */
+        private Prefix(long second) {
+            long days = Math.floorDiv(second, 86400);
+            int time = (int) Math.floorMod(second, 86400);
+
+            long shifted = days + 719468;
+            long era = Math.floorDiv(shifted, 146097);
+            long dayOfEra = shifted - era * 146097;
+            long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+            long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+            long monthIndex = (5 * dayOfYear + 2) / 153;
+            int day = (int) (dayOfYear - (153 * monthIndex + 2) / 5 + 1);
+            int month = (int) (monthIndex < 10 ? monthIndex + 3 : monthIndex - 9);
+            long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+            if (year < 0 || year > 9999)
+                throw new IllegalArgumentException("Year out of range: " + year);
+
+            this.second = second;
+            this.bytes = new byte[20];
+            digits(this.bytes, 3, (int) year, 4);
+            this.bytes[4] = '-';
+            digits(this.bytes, 6, month, 2);
+            this.bytes[7] = '-';
+            digits(this.bytes, 9, day, 2);
+            this.bytes[10] = 'T';
+            digits(this.bytes, 12, time / 3600, 2);
+            this.bytes[13] = ':';
+            digits(this.bytes, 15, time / 60 % 60, 2);
+            this.bytes[16] = ':';
+            digits(this.bytes, 18, time % 60, 2);
+            this.bytes[19] = '.';
+        }
+    }
+}
@@ -2,6 +2,10 @@
 
 import org.jetbrains.annotations.NotNull;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+
 /**
  * Utility class for JSON operations.
  */
@@ -16,54 +20,164 @@ private JsonUtils() {
     }
 
     /**
-     * Beautifies the given json string.
+     * Beautifies the given json string,
+     * indenting with two spaces.
      *
      * @param input Input json string.
      * @return Beautified json string.
-     * @see <a href="https://stackoverflow.com/questions/5457524/json-beautifier-library-for-java">Json beautifier method</a>
      */
     public static @NotNull String beautify(@NotNull String input) {
-        StringBuilder inputBuilder = new StringBuilder();
-        char[] inputChar = input.toCharArray();
-
-        int tabCount = 0;
-        for (int i = 0; i < inputChar.length; i++) {
-            String charI = String.valueOf(inputChar[i]);
-            if (charI.equals("}") || charI.equals("]")) {
-                tabCount--;
-                if (!String.valueOf(inputChar[i - 1]).equals("[") && !String.valueOf(inputChar[i - 1]).equals("{"))
-                    inputBuilder.append(newLine(tabCount));
-            }
-            inputBuilder.append(charI);
-
-            if (charI.equals("{") || charI.equals("[")) {
-                tabCount++;
-                if (String.valueOf(inputChar[i + 1]).equals("]") || String.valueOf(inputChar[i + 1]).equals("}"))
-                    continue;
-
-                inputBuilder.append(newLine(tabCount));
-            }
+        return beautify(input, "  ");
+    }
 
-            if (charI.equals(","))
-                inputBuilder.append(newLine(tabCount));
+    /**
+     * Beautifies the given json string.
+     *
+     * @param input  Input json string.
+     * @param indent Indent of each level.
+     * @return Beautified json string.
+     */
+    public static @NotNull String beautify(@NotNull String input,
+                                           @NotNull String indent) {
+        StringBuilder output = new StringBuilder(input.length() * 2);
+        try {
+            beautify(input, output, indent);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
+        return output.toString();
+    }
 
-        return inputBuilder.toString();
+    /**
+     * Beautifies the given json text into the given
+     * output, character by character. Strings are
+     * copied as they are, whitespace between tokens
+     * is replaced, and empty objects and arrays stay
+     * on one line.
+     *
+     * @param input  Input json text.
+     * @param output Output to write to.
+     * @param indent Indent of each level.
+     * @throws IOException If the output fails.
+     */
+    public static void beautify(@NotNull CharSequence input,
+                                @NotNull Appendable output,
+                                @NotNull String indent) throws IOException {
+        Printer printer = new Printer(output, indent);
+        for (int i = 0; i < input.length(); i++)
+            printer.accept(input.charAt(i));
     }
 
     /**
-     * Creates a new line with the given tab count
-     * for the beautify method.
+     * Beautifies the json text of the given reader
+     * into the given output, with a fixed size buffer,
+     * so dumps of any size can be streamed.
      *
-     * @param tabCount Tab count.
-     * @return New line.
+     * @param input  Input to read the json text from.
+     * @param output Output to write to.
+     * @param indent Indent of each level.
+     * @throws IOException If the input or output fails.
+     * @see #beautify(CharSequence, Appendable, String)
+     */
+    public static void beautify(@NotNull Reader input,
+                                @NotNull Appendable output,
+                                @NotNull String indent) throws IOException {
+        Printer printer = new Printer(output, indent);
+        char[] buffer = new char[8192];
+        int read;
+        while ((read = input.read(buffer)) != -1) {
+            for (int i = 0; i < read; i++)
+                printer.accept(buffer[i]);
+        }
+    }
+
+
+
+    /**
+     * Pretty-printer state of the beautify methods.
      */
-    private static @NotNull String newLine(int tabCount) {
-        StringBuilder builder = new StringBuilder();
+    private static final class Printer {
+
+        private final Appendable output;
+        private final String indent;
+        private int depth;
+        private boolean string;
+        private boolean escaped;
+        private boolean open;
+
+        /**
+         * Creates a new printer.
+         *
+         * @param output Output to write to.
+         * @param indent Indent of each level.
+         */
+        private Printer(@NotNull Appendable output,
+                        @NotNull String indent) {
+            this.output = output;
+            this.indent = indent;
+        }
+
+        /**
+         * Prints the next character of the input.
+         *
+         * @param c The character.
+         * @throws IOException If the output fails.
+         */
+        private void accept(char c) throws IOException {
+            if (this.string) {
+                this.output.append(c);
+                if (this.escaped)
+                    this.escaped = false;
+                else if (c == '\\')
+                    this.escaped = true;
+                else if (c == '"')
+                    this.string = false;
+                return;
+            }
+
+            switch (c) {
+                case ' ':
+                case '\t':
+                case '\n':
+                case '\r':
+                    return;
+                case '}':
+                case ']':
+                    this.depth--;
+                    if (!this.open)
+                        this.newLine();
+                    this.open = false;
+                    this.output.append(c);
+                    return;
+                default:
+                    break;
+            }
+
+            if (this.open) {
+                this.open = false;
+                this.newLine();
+            }
+            this.output.append(c);
 
-        builder.append("\n");
-        for (int j = 0; j < tabCount; j++)
-            builder.append("  ");
-        return builder.toString();
+            if (c == '{' || c == '[') {
+                this.depth++;
+                this.open = true;
+            } else if (c == ',') {
+                this.newLine();
+            } else if (c == '"') {
+                this.string = true;
+            }
+        }
+
+        /**
+         * Starts a new line at the current depth.
+         *
+         * @throws IOException If the output fails.
+         */
+        private void newLine() throws IOException {
+            this.output.append('\n');
+            for (int i = 0; i < this.depth; i++)
+                this.output.append(this.indent);
+        }
     }
 }
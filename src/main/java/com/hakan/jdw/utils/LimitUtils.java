@@ -0,0 +1,252 @@
+package com.hakan.jdw.utils;
+
+import com.hakan.jdw.Webhook;
+import com.hakan.jdw.WebhookAttachment;
+import com.hakan.jdw.WebhookAuthor;
+import com.hakan.jdw.WebhookEmbed;
+import com.hakan.jdw.WebhookField;
+import com.hakan.jdw.WebhookFooter;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Utility class for the message
+ * limits discord enforces.
+ */
+public final class LimitUtils {
+
+    /**
+     * Max characters of the content of a message.
+     */
+    public static final int MAX_CONTENT = 2000;
+
+    /**
+     * Max embeds of a message.
+     */
+    public static final int MAX_EMBEDS = 10;
+
+    /**
+     * Max attachments of a message.
+     */
+    public static final int MAX_ATTACHMENTS = 10;
+
+    /**
+     * Max characters of all embeds of a message combined.
+     */
+    public static final int MAX_EMBED_TOTAL = 6000;
+
+    /**
+     * Max characters of the title of an embed.
+     */
+    public static final int MAX_TITLE = 256;
+
+    /**
+     * Max characters of the description of an embed.
+     */
+    public static final int MAX_DESCRIPTION = 4096;
+
+    /**
+     * Max fields of an embed.
+     */
+    public static final int MAX_FIELDS = 25;
+
+    /**
+     * Max characters of the name of a field.
+     */
+    public static final int MAX_FIELD_NAME = 256;
+
+    /**
+     * Max characters of the value of a field.
+     */
+    public static final int MAX_FIELD_VALUE = 1024;
+
+    /**
+     * Max characters of the text of a footer.
+     */
+    public static final int MAX_FOOTER = 2048;
+
+    /**
+     * Max characters of the name of an author.
+     */
+    public static final int MAX_AUTHOR = 256;
+
+    /**
+     * Private constructor to prevent
+     * instantiation of this class.
+     */
+    private LimitUtils() {
+
+    }
+
+    /**
+     * Counts the characters of the given embed the
+     * way discord does for the 6000 character limit:
+     * title, description, field names and values,
+     * footer text and author name. The count is kept
+     * by the embed, see {@link WebhookEmbed#getLength()}.
+     *
+     * @param embed the embed to count
+     * @return the characters of the embed
+     */
+    public static int embedLength(@Nullable WebhookEmbed embed) {
+        return embed == null ? 0 : embed.getLength();
+    }
+
+    /**
+     * Counts the characters of the given embeds
+     * combined, see {@link #embedLength(WebhookEmbed)}.
+     *
+     * @param embeds the embeds to count
+     * @return the characters of the embeds
+     */
+    public static int embedsLength(@Nullable List<WebhookEmbed> embeds) {
+        if (embeds == null)
+            return 0;
+
+        int length = 0;
+        for (WebhookEmbed embed : embeds)
+            length += embedLength(embed);
+        return length;
+    }
+
+    /**
+     * Cuts the given webhook to fit the limits of
+     * discord, where {@link SplitUtils#split(Webhook)}
+     * would send more messages instead. Every text is
+     * cut to its own limit, fields after the 25th and
+     * embeds and attachments after the 10th are dropped,
+     * and the texts of the embeds share the 6000
+     * characters in order: title, author, footer,
+     * description, then fields.
+     * Fields that get no characters are dropped.
+     *
+     * @param webhook the webhook to cut
+     * @return the webhook itself if it fits, otherwise a frozen copy that fits
+     */
+    public static @NotNull Webhook truncate(@NotNull Webhook webhook) {
+        if (webhook.checkLimits() == null)
+            return webhook;
+
+        Webhook frozen = webhook.freeze();
+        List<WebhookEmbed> embeds = null;
+        if (frozen.getEmbeds() != null) {
+            embeds = new ArrayList<>();
+            int budget = MAX_EMBED_TOTAL;
+            for (WebhookEmbed embed : frozen.getEmbeds()) {
+                if (embed == null)
+                    continue;
+                if (embeds.size() == MAX_EMBEDS)
+                    break;
+
+                WebhookEmbed truncated = truncate(embed, budget);
+                budget -= truncated.getLength();
+                embeds.add(truncated);
+            }
+        }
+
+        List<WebhookAttachment> attachments = frozen.getAttachments();
+        if (attachments != null && attachments.size() > MAX_ATTACHMENTS)
+            attachments = attachments.subList(0, MAX_ATTACHMENTS);
+
+        return new Webhook(cut(frozen.getContent(), MAX_CONTENT), frozen.getUsername(), frozen.getAvatarUrl(),
+                frozen.getThreadName(), embeds, attachments).freeze();
+    }
+
+    /**
+     * Gets the length of the given text.
+     *
+     * @param text the text, may be null
+     * @return the length, zero for null
+     */
+    public static int length(@Nullable String text) {
+        return text == null ? 0 : text.length();
+    }
+
+    /**
+     * Cuts text to the given length,
+     * never inside a surrogate pair.
+     *
+     * @param text the text to cut, may be null
+     * @param max  the max length
+     * @return the cut text
+     */
+    public static @Nullable String cut(@Nullable String text, int max) {
+        if (text == null || text.length() <= max)
+            return text;
+        if (max <= 0)
+            return "";
+        return text.substring(0, Character.isHighSurrogate(text.charAt(max - 1)) ? max - 1 : max);
+    }
+
+    /**
+     * Cuts a frozen embed to fit its limits
+     * and the given number of characters.
+     *
+     * @param embed  the embed to cut
+     * @param budget the characters left for the embed
+     * @return the embed itself if it fits, otherwise a cut copy
+     */
+    private static @NotNull WebhookEmbed truncate(@NotNull WebhookEmbed embed, int budget) {
+        if (embed.checkLimits() == null && embed.getLength() <= budget)
+            return embed;
+
+        String title = fit(embed.getTitle(), Math.min(MAX_TITLE, budget));
+        budget -= length(title);
+
+        WebhookAuthor author = embed.getAuthor();
+        if (author != null && author.getName() != null) {
+            String name = fit(author.getName(), Math.min(MAX_AUTHOR, budget));
+            budget -= length(name);
+            author = new WebhookAuthor(author.getUrl(), name, author.getIconUrl());
+        }
+
+        WebhookFooter footer = embed.getFooter();
+        if (footer != null && footer.getText() != null) {
+            String text = fit(footer.getText(), Math.min(MAX_FOOTER, budget));
+            budget -= length(text);
+            footer = new WebhookFooter(text, footer.getIconUrl());
+        }
+
+        String description = fit(embed.getDescription(), Math.min(MAX_DESCRIPTION, budget));
+        budget -= length(description);
+
+        List<WebhookField> fields = null;
+        if (embed.getFields() != null) {
+            fields = new ArrayList<>();
+            for (WebhookField field : embed.getFields()) {
+                if (field == null)
+                    continue;
+                if (fields.size() == MAX_FIELDS)
+                    break;
+
+                String name = fit(field.getName(), Math.min(MAX_FIELD_NAME, budget));
+                String value = fit(field.getValue(), Math.min(MAX_FIELD_VALUE, budget - length(name)));
+                if (name == null || value == null)
+                    continue;
+
+                budget -= name.length() + value.length();
+                fields.add(new WebhookField(name, value, field.isInline()));
+            }
+        }
+
+        return WebhookEmbed.ofRgb(embed.getUrl(), title, description, embed.getColorRgb(), embed.getTimestamp(),
+                embed.getImage(), author, footer, embed.getThumbnail(), fields)
+                .freeze();
+    }
+
+    /**
+     * Cuts text to the given length,
+     * dropping it if nothing is left.
+     *
+     * @param text the text to cut, may be null
+     * @param max  the max length
+     * @return the cut text, or null if it is empty
+     */
+    private static @Nullable String fit(@Nullable String text, int max) {
+        String cut = cut(text, max);
+        return cut == null || cut.isEmpty() ? null : cut;
+    }
+}
@@ -0,0 +1,259 @@
+package com.hakan.jdw.utils;
+
+import com.hakan.jdw.Webhook;
+import com.hakan.jdw.WebhookAttachment;
+import com.hakan.jdw.WebhookAuthor;
+import com.hakan.jdw.WebhookEmbed;
+import com.hakan.jdw.WebhookField;
+import com.hakan.jdw.WebhookFooter;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static com.hakan.jdw.utils.LimitUtils.MAX_ATTACHMENTS;
+import static com.hakan.jdw.utils.LimitUtils.MAX_AUTHOR;
+import static com.hakan.jdw.utils.LimitUtils.MAX_CONTENT;
+import static com.hakan.jdw.utils.LimitUtils.MAX_DESCRIPTION;
+import static com.hakan.jdw.utils.LimitUtils.MAX_EMBEDS;
+import static com.hakan.jdw.utils.LimitUtils.MAX_EMBED_TOTAL;
+import static com.hakan.jdw.utils.LimitUtils.MAX_FIELDS;
+import static com.hakan.jdw.utils.LimitUtils.MAX_FIELD_NAME;
+import static com.hakan.jdw.utils.LimitUtils.MAX_FIELD_VALUE;
+import static com.hakan.jdw.utils.LimitUtils.MAX_FOOTER;
+import static com.hakan.jdw.utils.LimitUtils.MAX_TITLE;
+import static com.hakan.jdw.utils.LimitUtils.cut;
+import static com.hakan.jdw.utils.LimitUtils.embedLength;
+import static com.hakan.jdw.utils.LimitUtils.length;
+
+/**
+ * Utility class for splitting webhooks that
+ * exceed the message limits of discord into
+ * an ordered sequence of valid messages.
+ */
+public final class SplitUtils {
+
+    /**
+     * Name of the fields that continue the
+     * value of a split field, a zero width space.
+     */
+    private static final String CONTINUATION = "\u200B";
+
+    /**
+     * Private constructor to prevent
+     * instantiation of this class.
+     */
+    private SplitUtils() {
+
+    }
+
+    /**
+     * Splits the given webhook into the fewest messages
+     * discord accepts, in reading order. Content is split
+     * on line boundaries and sent first, embeds follow in
+     * the last content message and the messages after it.
+     * Embeds with a long description or too many fields are
+     * continued in further embeds, long field values in
+     * further fields. Titles, names and footers that no
+     * split can fix are cut to their limit. Every message
+     * keeps the username, avatar and thread of the webhook,
+     * the attachments go with the first messages, 10 each.
+     *
+     * @param webhook the webhook to split
+     * @return the messages, only the webhook itself if it is valid
+     */
+    public static @NotNull List<Webhook> split(@NotNull Webhook webhook) {
+        if (webhook.checkLimits() == null)
+            return Collections.singletonList(webhook);
+
+        List<String> contents = splitText(webhook.getContent(), MAX_CONTENT);
+        List<WebhookEmbed> embeds = new ArrayList<>();
+        if (webhook.getEmbeds() != null) {
+            for (WebhookEmbed embed : webhook.getEmbeds()) {
+                if (embed != null)
+                    embeds.addAll(splitEmbed(embed));
+            }
+        }
+
+        List<Webhook> messages = new ArrayList<>();
+        for (String content : contents)
+            messages.add(copy(webhook, content));
+
+        Webhook current = null;
+        int currentLength = 0;
+        for (WebhookEmbed embed : embeds) {
+            int embedLength = embedLength(embed);
+            if (current == null || current.getEmbeds().size() >= MAX_EMBEDS || currentLength + embedLength > MAX_EMBED_TOTAL) {
+                if (current != null || messages.isEmpty())
+                    messages.add(copy(webhook, null));
+
+                current = messages.get(messages.size() - 1);
+                current.setEmbeds(new ArrayList<>());
+                currentLength = 0;
+            }
+            current.addEmbed(embed);
+            currentLength += embedLength;
+        }
+
+        if (webhook.hasAttachments()) {
+            List<WebhookAttachment> attachments = webhook.getAttachments();
+            for (int i = 0; i < attachments.size(); i += MAX_ATTACHMENTS) {
+                int index = i / MAX_ATTACHMENTS;
+                if (index == messages.size())
+                    messages.add(copy(webhook, null));
+                messages.get(index).setAttachments(new ArrayList<>(attachments.subList(i, Math.min(i + MAX_ATTACHMENTS, attachments.size()))));
+            }
+        }
+        return messages;
+    }
+
+    /**
+     * Splits an embed into embeds that fit the limits
+     * of a single embed. The first embed keeps the head of
+     * the original (url, title, author and thumbnail), the
+     * last one its tail (footer, image and timestamp), and
+     * every embed keeps its color.
+     *
+     * @param embed the embed to split
+     * @return the embeds, only the embed itself if it is valid
+     */
+    public static @NotNull List<WebhookEmbed> splitEmbed(@NotNull WebhookEmbed embed) {
+        if (embed.checkLimits() == null)
+            return Collections.singletonList(embed);
+
+        List<WebhookEmbed> embeds = new ArrayList<>();
+        WebhookAuthor author = embed.getAuthor();
+        if (author != null && length(author.getName()) > MAX_AUTHOR)
+            author = new WebhookAuthor(author.getUrl(), cut(author.getName(), MAX_AUTHOR), author.getIconUrl());
+
+        WebhookEmbed current = WebhookEmbed.ofRgb(embed.getUrl(), cut(embed.getTitle(), MAX_TITLE), null,
+                embed.getColorRgb(), null, null, author, null, embed.getThumbnail(), new ArrayList<>());
+        embeds.add(current);
+
+        List<String> descriptions = splitText(embed.getDescription(), MAX_DESCRIPTION);
+        for (int i = 0; i < descriptions.size(); i++) {
+            if (i > 0) {
+                current = continuation(embed);
+                embeds.add(current);
+            }
+            current.setDescription(descriptions.get(i));
+        }
+
+        int currentLength = embedLength(current);
+        if (embed.getFields() != null) {
+            for (WebhookField field : embed.getFields()) {
+                if (field == null)
+                    continue;
+
+                for (WebhookField part : splitField(field)) {
+                    int partLength = length(part.getName()) + length(part.getValue());
+                    if (current.getFields().size() >= MAX_FIELDS || currentLength + partLength > MAX_EMBED_TOTAL) {
+                        current = continuation(embed);
+                        currentLength = 0;
+                        embeds.add(current);
+                    }
+                    current.addField(part);
+                    currentLength += partLength;
+                }
+            }
+        }
+
+        WebhookFooter footer = embed.getFooter();
+        if (footer != null && length(footer.getText()) > MAX_FOOTER)
+            footer = new WebhookFooter(cut(footer.getText(), MAX_FOOTER), footer.getIconUrl());
+        if (footer != null && currentLength + length(footer.getText()) > MAX_EMBED_TOTAL) {
+            current = continuation(embed);
+            embeds.add(current);
+        }
+
+        current.setFooter(footer);
+        current.setImage(embed.getImage());
+        current.setTimestamp(embed.getTimestamp());
+        return embeds;
+    }
+
+    /**
+     * Splits text into parts of at most the given
+     * length. Parts end at line breaks where possible,
+     * otherwise at the last space, and never inside a
+     * surrogate pair. The line breaks parts end at are
+     * dropped.
+     *
+     * @param text the text to split, may be null
+     * @param max  the max length of a part
+     * @return the parts, empty for null or empty text
+     */
+    public static @NotNull List<String> splitText(@Nullable String text, int max) {
+        if (text == null || text.isEmpty())
+            return Collections.emptyList();
+        if (text.length() <= max)
+            return Collections.singletonList(text);
+
+        List<String> parts = new ArrayList<>();
+        int start = 0;
+        while (text.length() - start > max) {
+            int end = text.lastIndexOf('\n', start + max);
+            int next = end + 1;
+            if (end <= start) {
+                end = text.lastIndexOf(' ', start + max);
+                next = end + 1;
+            }
+            if (end <= start) {
+                end = start + max;
+                if (Character.isHighSurrogate(text.charAt(end - 1)))
+                    end--;
+                next = end;
+            }
+
+            parts.add(text.substring(start, end));
+            start = next;
+        }
+        if (start < text.length())
+            parts.add(text.substring(start));
+        return parts;
+    }
+
+    /**
+     * Splits a field whose value is too long into
+     * fields that continue its value. Only the first
+     * one keeps the name.
+     *
+     * @param field the field to split
+     * @return the fields
+     */
+    private static @NotNull List<WebhookField> splitField(@NotNull WebhookField field) {
+        String name = cut(field.getName(), MAX_FIELD_NAME);
+        if (length(field.getValue()) <= MAX_FIELD_VALUE)
+            return Collections.singletonList(name.equals(field.getName()) ? field : new WebhookField(name, field.getValue(), field.isInline()));
+
+        List<WebhookField> fields = new ArrayList<>();
+        for (String value : splitText(field.getValue(), MAX_FIELD_VALUE))
+            fields.add(new WebhookField(fields.isEmpty() ? name : CONTINUATION, value, false));
+        return fields;
+    }
+
+    /**
+     * Creates an empty embed that continues
+     * the given one, keeping only its color.
+     *
+     * @param embed the embed to continue
+     * @return the continuation embed
+     */
+    private static @NotNull WebhookEmbed continuation(@NotNull WebhookEmbed embed) {
+        return WebhookEmbed.ofRgb(null, null, null, embed.getColorRgb(), null, null, null, null, null, new ArrayList<>());
+    }
+
+    /**
+     * Copies the identity of a webhook into
+     * a new message with the given content.
+     *
+     * @param webhook the webhook to copy
+     * @param content the content of the message
+     * @return the message
+     */
+    private static @NotNull Webhook copy(@NotNull Webhook webhook, @Nullable String content) {
+        return new Webhook(content, webhook.getUsername(), webhook.getAvatarUrl(), webhook.getThreadName(), null);
+    }
+}
@@ -1,17 +1,16 @@
 package com.hakan.jdw.utils;
 
 import com.hakan.jdw.Webhook;
+import com.hakan.jdw.http.UrlConnectionTransport;
+import com.hakan.jdw.http.WebhookBody;
+import com.hakan.jdw.http.WebhookRequest;
+import com.hakan.jdw.http.WebhookResponse;
+import com.hakan.jdw.http.WebhookTransport;
 import lombok.SneakyThrows;
 import org.jetbrains.annotations.NotNull;
 
-import javax.net.ssl.HttpsURLConnection;
 import java.awt.Color;
-import java.io.OutputStream;
-import java.net.URL;
-import java.nio.charset.StandardCharsets;
-import java.text.SimpleDateFormat;
 import java.util.Calendar;
-import java.util.TimeZone;
 
 /**
  * Utility class for sending webhooks,
@@ -19,6 +18,8 @@
  */
 public final class WebhookUtils {
 
+    private static volatile WebhookTransport transport = new UrlConnectionTransport();
+
     /**
      * Private constructor to prevent
      * instantiation of this class.
@@ -28,16 +29,16 @@ private WebhookUtils() {
     }
 
     /**
-     * Converts a {@link Calendar} to a {@link String}.
+     * Converts a {@link Calendar} to a {@link String},
+     * with the time of day in the time zone of the
+     * calendar. See {@link DateUtils#toIsoString(long)}.
      *
      * @param calendar the calendar to convert
      * @return the converted string
      */
     public static @NotNull String dateToText(@NotNull Calendar calendar) {
-        SimpleDateFormat formatter = new SimpleDateFormat(
-                "yyyy-MM-dd'T'HH:mm:ss.SSS'Z'");
-        formatter.setTimeZone(TimeZone.getTimeZone(calendar.getTimeZone().getID()));
-        return formatter.format(calendar.getTime());
+        long millis = calendar.getTimeInMillis();
+        return DateUtils.toIsoString(millis + calendar.getTimeZone().getOffset(millis));
     }
 
     /**
@@ -45,14 +46,69 @@ private WebhookUtils() {
      *
      * @param color the color to convert
      * @return the converted integer
+     * @deprecated use {@link ColorUtils#colorToInt(Color)}
      */
+    @Deprecated
     public static int colorToInt(@NotNull Color color) {
-        int rgb = color.getRed();
-        rgb = (rgb << 8) + color.getGreen();
-        rgb = (rgb << 8) + color.getBlue();
+        return ColorUtils.colorToInt(color);
+    }
+
+    /**
+     * Converts a hex string, like "#FF0000"
+     * or "FF0000", to an {@link Integer}.
+     *
+     * @param hex the hex string to convert
+     * @return the converted integer
+     * @throws IllegalArgumentException if the string is not a hex color
+     */
+    public static int hexToInt(@NotNull String hex) {
+        int start = hex.startsWith("#") ? 1 : 0;
+        if (hex.length() - start != 6)
+            throw new IllegalArgumentException("Invalid hex color: " + hex);
+
+        int rgb = 0;
+        for (int i = start; i < hex.length(); i++) {
+            int digit = Character.digit(hex.charAt(i), 16);
+            if (digit < 0)
+                throw new IllegalArgumentException("Invalid hex color: " + hex);
+            rgb = (rgb << 4) | digit;
+        }
+        return rgb;
+    }
+
+    /**
+     * Checks that an integer is an RGB color.
+     *
+     * @param rgb the integer to check
+     * @return the integer
+     * @throws IllegalArgumentException if it is not between 0 and 0xFFFFFF
+     */
+    public static int checkRgb(int rgb) {
+        if (rgb < 0 || rgb > 0xFFFFFF)
+            throw new IllegalArgumentException("Invalid rgb color: " + rgb);
         return rgb;
     }
 
+    /**
+     * Gets the transport that is used when
+     * no transport is given explicitly.
+     *
+     * @return the default transport
+     */
+    public static @NotNull WebhookTransport getTransport() {
+        return transport;
+    }
+
+    /**
+     * Sets the transport that is used when
+     * no transport is given explicitly.
+     *
+     * @param transport the default transport
+     */
+    public static void setTransport(@NotNull WebhookTransport transport) {
+        WebhookUtils.transport = transport;
+    }
+
     /**
      * Executes a webhook.
      *
@@ -62,7 +118,7 @@ public static int colorToInt(@NotNull Color color) {
     @SneakyThrows
     public static void execute(@NotNull String link,
                                @NotNull Webhook webhook) {
-        execute(link, webhook.toJsonString());
+        execute(transport, link, webhook);
     }
 
     /**
@@ -74,19 +130,52 @@ public static void execute(@NotNull String link,
     @SneakyThrows
     public static void execute(@NotNull String link,
                                @NotNull String json) {
-        HttpsURLConnection connection = (HttpsURLConnection)
-                new URL(link).openConnection();
+        execute(transport, link, json);
+    }
 
-        connection.addRequestProperty("Content-Type", "application/json");
-        connection.addRequestProperty("User-Agent", "Java-DiscordWebhook");
-        connection.setRequestMethod("POST");
-        connection.setDoOutput(true);
+    /**
+     * Executes a webhook through the given transport,
+     * as multipart/form-data if it has attachments.
+     *
+     * @param transport the transport to send with
+     * @param link      the webhook link
+     * @param webhook   the webhook to execute
+     * @return the response of the webhook
+     */
+    @SneakyThrows
+    public static @NotNull WebhookResponse execute(@NotNull WebhookTransport transport,
+                                                   @NotNull String link,
+                                                   @NotNull Webhook webhook) {
+        return transport.send(new WebhookRequest(link, webhook.toBody())).ensureSuccess();
+    }
 
-        OutputStream outputStream = connection.getOutputStream();
-        outputStream.write(json.getBytes(StandardCharsets.UTF_8));
-        outputStream.flush();
+    /**
+     * Executes a webhook through the given transport.
+     *
+     * @param transport the transport to send with
+     * @param link      the webhook link
+     * @param json      the json to execute
+     * @return the response of the webhook
+     */
+    @SneakyThrows
+    public static @NotNull WebhookResponse execute(@NotNull WebhookTransport transport,
+                                                   @NotNull String link,
+                                                   @NotNull String json) {
+        return transport.send(new WebhookRequest(link, WebhookBody.json(json))).ensureSuccess();
+    }
 
-        connection.getInputStream().close();
-        connection.disconnect();
+    /**
+     * Executes a request body through the given transport.
+     *
+     * @param transport the transport to send with
+     * @param link      the webhook link
+     * @param body      the body to execute
+     * @return the response of the webhook
+     */
+    @SneakyThrows
+    public static @NotNull WebhookResponse execute(@NotNull WebhookTransport transport,
+                                                   @NotNull String link,
+                                                   @NotNull WebhookBody body) {
+        return transport.send(new WebhookRequest(link, body)).ensureSuccess();
     }
 }
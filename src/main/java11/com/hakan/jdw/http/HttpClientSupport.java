@@ -0,0 +1,220 @@
+package com.hakan.jdw.http;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpConnectTimeoutException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Creates the transport behind {@link HttpClientTransport}.
+ * This is the Java 11 variant, loaded from META-INF/versions/11
+ * of the multi-release jar.
+ */
+final class HttpClientSupport {
+
+    /**
+     * Bodies up to this length are copied into memory,
+     * longer ones are streamed through a pipe.
+     */
+    private static final long IN_MEMORY_LIMIT = 1024 * 1024;
+
+    /**
+     * Private constructor to prevent
+     * instantiation of this class.
+     */
+    private HttpClientSupport() {
+
+    }
+
+    /**
+     * Checks if the running JVM provides
+     * the java.net.http HttpClient.
+     *
+     * @return True if the HttpClient is available.
+     */
+    static boolean isSupported() {
+        return true;
+    }
+
+    /**
+     * Creates a transport on the java.net.http HttpClient.
+     *
+     * @param connectTimeout The connect timeout.
+     * @param requestTimeout The time to wait for a response.
+     * @param executor       The executor of the client, or null for its default.
+     * @return The transport.
+     */
+    static @NotNull WebhookTransport create(@NotNull Duration connectTimeout,
+                                            @NotNull Duration requestTimeout,
+                                            @Nullable Executor executor) {
+        HttpClient.Builder builder = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(connectTimeout);
+        if (executor != null)
+            builder.executor(executor);
+
+        return new Transport(builder.build(), requestTimeout, executor != null ? executor : ForkJoinPool.commonPool());
+    }
+
+
+
+    /**
+     * Sends webhook requests with a shared HttpClient.
+     */
+    private static final class Transport implements WebhookTransport {
+
+        private final HttpClient client;
+        private final Duration requestTimeout;
+        private final Executor executor;
+
+        /**
+         * Creates a new transport.
+         *
+         * @param client         The client to send with.
+         * @param requestTimeout The time to wait for a response.
+         * @param executor       The executor that streams large bodies.
+         */
+        private Transport(@NotNull HttpClient client,
+                          @NotNull Duration requestTimeout,
+                          @NotNull Executor executor) {
+            this.client = client;
+            this.requestTimeout = requestTimeout;
+            this.executor = executor;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public @NotNull WebhookResponse send(@NotNull WebhookRequest request) throws IOException {
+            try {
+                return toResponse(this.client.send(this.toHttpRequest(request), HttpResponse.BodyHandlers.ofByteArray()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException(e.getMessage());
+            } catch (HttpConnectTimeoutException e) {
+                throw new UnsentRequestException(e);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public @NotNull CompletableFuture<WebhookResponse> sendAsync(@NotNull WebhookRequest request) {
+            HttpRequest httpRequest;
+            try {
+                httpRequest = this.toHttpRequest(request);
+            } catch (RuntimeException e) {
+                return CompletableFuture.failedFuture(e instanceof UncheckedIOException ? e.getCause() : e);
+            }
+
+            CompletableFuture<WebhookResponse> future = new CompletableFuture<>();
+            this.client.sendAsync(httpRequest, HttpResponse.BodyHandlers.ofByteArray())
+                    .whenComplete((response, failure) -> {
+                        if (failure == null)
+                            future.complete(toResponse(response));
+                        else
+                            future.completeExceptionally(unsent(failure));
+                    });
+            return future;
+        }
+
+        /**
+         * Marks connect timeouts of HttpClient as
+         * failures before the request was sent.
+         *
+         * @param failure The failure of a send.
+         * @return The failure to complete the future with.
+         */
+        private static @NotNull Throwable unsent(@NotNull Throwable failure) {
+            Throwable cause = failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+            return cause instanceof HttpConnectTimeoutException ? new UnsentRequestException(cause) : cause;
+        }
+
+        /**
+         * Creates the HttpClient request of a webhook request.
+         *
+         * @param request The webhook request.
+         * @return The HttpClient request.
+         */
+        private @NotNull HttpRequest toHttpRequest(@NotNull WebhookRequest request) {
+            WebhookBody body = request.getBody();
+            return HttpRequest.newBuilder(URI.create(request.getUrl()))
+                    .timeout(this.requestTimeout)
+                    .header("Content-Type", body.getContentType())
+                    .header("User-Agent", "Java-DiscordWebhook")
+                    .POST(this.publisher(request))
+                    .build();
+        }
+
+        /**
+         * Creates the body publisher of a request. Small
+         * bodies are published from memory, large ones are
+         * written into a pipe on the executor while the
+         * client reads from it.
+         *
+         * @param request The request.
+         * @return The body publisher.
+         */
+        private @NotNull HttpRequest.BodyPublisher publisher(@NotNull WebhookRequest request) {
+            WebhookBody body = request.getBody();
+            long length = body.getContentLength();
+            if (length >= 0 && length <= IN_MEMORY_LIMIT)
+                return HttpRequest.BodyPublishers.ofByteArray(request.getBodyBytes());
+
+            HttpRequest.BodyPublisher stream = HttpRequest.BodyPublishers.ofInputStream(() -> this.pipe(body));
+            return length >= 0 ? HttpRequest.BodyPublishers.fromPublisher(stream, length) : stream;
+        }
+
+        /**
+         * Starts writing the body into a pipe.
+         *
+         * @param body The body to write.
+         * @return The reading end of the pipe.
+         */
+        private @NotNull InputStream pipe(@NotNull WebhookBody body) {
+            try {
+                PipedInputStream input = new PipedInputStream(64 * 1024);
+                PipedOutputStream output = new PipedOutputStream(input);
+                this.executor.execute(() -> {
+                    try (PipedOutputStream pipe = output) {
+                        body.writeTo(pipe);
+                    } catch (IOException ignored) {
+                        // the reader sees the pipe end early and fails the request
+                    }
+                });
+                return input;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        /**
+         * Converts an HttpClient response.
+         *
+         * @param response The HttpClient response.
+         * @return The webhook response.
+         */
+        private static @NotNull WebhookResponse toResponse(@NotNull HttpResponse<byte[]> response) {
+            return new WebhookResponse(response.statusCode(), response.headers().map(), response.body());
+        }
+    }
+}
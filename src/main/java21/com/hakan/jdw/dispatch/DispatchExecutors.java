@@ -0,0 +1,44 @@
+package com.hakan.jdw.dispatch;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Creates the executors a {@code WebhookDispatcher}
+ * can run on. This is the Java 21 variant, loaded
+ * from META-INF/versions/21 of the multi-release jar.
+ */
+final class DispatchExecutors {
+
+    /**
+     * Private constructor to prevent
+     * instantiation of this class.
+     */
+    private DispatchExecutors() {
+
+    }
+
+    /**
+     * Checks if the running JVM supports
+     * virtual thread executors.
+     *
+     * @return True if virtual threads are supported.
+     */
+    static boolean isVirtualThreadSupported() {
+        return true;
+    }
+
+    /**
+     * Creates an executor that starts a new
+     * virtual thread for every task.
+     *
+     * @return The executor.
+     */
+    static @NotNull ExecutorService newVirtualThreadExecutor() {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual()
+                .name("webhook-dispatcher-virtual-", 0)
+                .factory());
+    }
+}
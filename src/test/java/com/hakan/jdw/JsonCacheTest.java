@@ -0,0 +1,158 @@
+package com.hakan.jdw;
+
+import com.hakan.jdw.json.JsonWriter;
+import org.junit.jupiter.api.Test;
+
+import java.awt.Color;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JsonCacheTest {
+
+    private static final JsonObject FAIL = (writer) -> {
+        throw new AssertionError("Serialized again");
+    };
+
+    private static Webhook webhook() {
+        return new Webhook.Builder()
+                .content("Hello World!")
+                .embed((builder) -> builder
+                        .title("Hello World!")
+                        .footer((footerBuilder) -> footerBuilder
+                                .text("Hello World!"))
+                        .field((fieldBuilder) -> fieldBuilder
+                                .name("Hello World!")
+                                .value("first")))
+                .build();
+    }
+
+    @Test
+    public void unchanged_webhook_is_cached() {
+        Webhook webhook = webhook();
+        byte[] json = webhook.toJsonBytes();
+
+        assertSame(webhook.cache.get(FAIL), webhook.cache.get(FAIL));
+        assertArrayEquals(json, webhook.cache.get(FAIL));
+        assertNotSame(webhook.toJsonBytes(), webhook.toJsonBytes());
+    }
+
+    @Test
+    public void components_are_written_into_parent() {
+        Webhook webhook = webhook();
+        WebhookEmbed embed = webhook.getEmbeds().get(0);
+        webhook.toJsonBytes();
+        assertThrows(AssertionError.class, () -> embed.cache.write(new JsonWriter(), FAIL));
+
+        byte[] json = embed.toJsonBytes();
+        JsonWriter writer = new JsonWriter();
+        embed.cache.write(writer, FAIL);
+        assertArrayEquals(json, writer.toByteArray());
+    }
+
+    @Test
+    public void freeze_shares_frozen_parts() {
+        Webhook webhook = webhook();
+        byte[] json = webhook.toJsonBytes();
+        Webhook frozen = webhook.freeze();
+        assertArrayEquals(json, frozen.cache.get(FAIL));
+
+        Webhook rebuilt = new Webhook.Builder()
+                .embed(frozen.getEmbeds().get(0))
+                .build();
+        assertSame(rebuilt.getEmbeds(), rebuilt.freeze().getEmbeds());
+        assertSame(frozen.getEmbeds(), frozen.withContent("Copy").freeze().getEmbeds());
+    }
+
+    @Test
+    public void setters_invalidate_ancestors() {
+        Webhook webhook = webhook();
+        WebhookEmbed embed = webhook.getEmbeds().get(0);
+        webhook.toJsonBytes();
+
+        embed.getFields().get(0).setValue("second");
+        assertTrue(webhook.toJsonString().contains("\"second\""));
+
+        embed.getFooter().setText("Goodbye!");
+        assertTrue(webhook.toJsonString().contains("\"Goodbye!\""));
+
+        embed.setColor(new Color(87, 0, 97));
+        assertTrue(webhook.toJsonString().contains("\"color\":5701729"));
+
+        webhook.setContent("Changed");
+        assertTrue(webhook.toJsonString().contains("\"Changed\""));
+    }
+
+    @Test
+    public void removed_children_are_detached() {
+        Webhook webhook = webhook();
+        WebhookEmbed embed = webhook.getEmbeds().get(0);
+        WebhookFooter footer = embed.getFooter();
+
+        embed.setFooter(new WebhookFooter("New", null));
+        webhook.clearEmbeds();
+        webhook.toJsonBytes();
+        embed.toJsonBytes();
+
+        footer.setText("Old");
+        assertArrayEquals(embed.toJsonBytes(), embed.cache.get(FAIL));
+
+        embed.setTitle("Removed");
+        assertFalse(webhook.toJsonString().contains("Removed"));
+        webhook.cache.get(FAIL);
+    }
+
+    @Test
+    public void constructor_copies_lists() {
+        List<WebhookEmbed> embeds = new ArrayList<>();
+        Webhook webhook = new Webhook("hi", null, null, null, embeds);
+        assertEquals("{\"content\":\"hi\"}", webhook.toJsonString());
+
+        embeds.add(new WebhookEmbed.Builder().title("Title").build());
+        assertEquals("{\"content\":\"hi\"}", webhook.toJsonString());
+        assertThrows(UnsupportedOperationException.class, () -> webhook.getEmbeds().add(null));
+
+        webhook.addEmbed(new WebhookEmbed.Builder().title("Title").build());
+        assertThrows(UnsupportedOperationException.class, () -> webhook.getEmbeds().add(null));
+        assertEquals("{\"content\":\"hi\",\"embeds\":[{\"title\":\"Title\"}]}", webhook.toJsonString());
+
+        List<WebhookField> fields = new ArrayList<>(Collections.singletonList(new WebhookField("a", "b", true)));
+        WebhookEmbed embed = new WebhookEmbed.Builder().build().setFields(fields);
+        String json = embed.toJsonString();
+        fields.clear();
+        assertEquals(json, embed.toJsonString());
+    }
+
+    @Test
+    public void shared_child_does_not_keep_parents() throws InterruptedException {
+        WebhookEmbed embed = new WebhookEmbed.Builder()
+                .title("Shared")
+                .build();
+        WeakReference<Webhook> parent = new WeakReference<>(new Webhook.Builder()
+                .embed(embed)
+                .build());
+
+        for (int i = 0; i < 100 && parent.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertNull(parent.get());
+
+        Webhook webhook = new Webhook.Builder()
+                .embed(embed)
+                .build();
+        webhook.toJsonBytes();
+        embed.setTitle("Changed");
+        assertTrue(webhook.toJsonString().contains("\"Changed\""));
+    }
+}
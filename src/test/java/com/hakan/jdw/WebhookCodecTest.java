@@ -0,0 +1,105 @@
+package com.hakan.jdw;
+
+import com.hakan.jdw.dispatch.WebhookDispatcher;
+import com.hakan.jdw.http.RecordingTransport;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.TimeZone;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WebhookCodecTest {
+
+    private static final String URL = "https://discord.com/api/webhooks/0/test";
+    private static final String AVATAR = "https://avatars.githubusercontent.com/u/42969966?v=4";
+
+    private static Webhook webhook() {
+        return new Webhook.Builder()
+                .content("Hello World! ç")
+                .username("Hakan")
+                .avatarUrl(AVATAR)
+                .embed((builder) -> builder
+                        .title("Hello World!")
+                        .description("Hello World!")
+                        .color(0x570061)
+                        .url("https://github.com/hakan-krgn")
+                        .timestamp(1709208000001L, TimeZone.getTimeZone("Europe/Istanbul"))
+                        .author((authorBuilder) -> authorBuilder
+                                .name("Hakan")
+                                .iconUrl(AVATAR))
+                        .footer((footerBuilder) -> footerBuilder
+                                .text("Hello World!"))
+                        .thumbnail((thumbnailBuilder) -> thumbnailBuilder
+                                .url(AVATAR))
+                        .field((fieldBuilder) -> fieldBuilder
+                                .name("Hello World!")
+                                .value("Hello World!")
+                                .inline(true))
+                        .field((fieldBuilder) -> fieldBuilder
+                                .name("Hello World!")
+                                .value("Hello World!")
+                                .inline(false)))
+                .embed((builder) -> builder
+                        .timestamp(-1L)
+                        .image((imageBuilder) -> imageBuilder
+                                .url(AVATAR)))
+                .build();
+    }
+
+    @Test
+    public void codec_round_trip() {
+        Webhook webhook = webhook();
+        ByteBuffer encoded = WebhookCodec.encode(webhook);
+
+        assertEquals(0, encoded.position());
+        assertTrue(encoded.remaining() < webhook.toJsonBytes().length / 2);
+        assertEquals(webhook.toJsonString(), WebhookCodec.decode(encoded).toJsonString());
+        assertFalse(encoded.hasRemaining());
+    }
+
+    @Test
+    public void codec_sequential_direct_buffer() {
+        Webhook first = webhook();
+        Webhook second = new Webhook.Builder()
+                .content("Second")
+                .build();
+
+        ByteBuffer buffer = ByteBuffer.allocateDirect(4096);
+        WebhookCodec.encode(first, buffer);
+        WebhookCodec.encode(second, buffer);
+        buffer.flip();
+
+        assertEquals(first.toJsonString(), WebhookCodec.decode(buffer).toJsonString());
+        assertEquals(second.toJsonString(), WebhookCodec.decode(buffer).toJsonString());
+        assertFalse(buffer.hasRemaining());
+    }
+
+    @Test
+    public void codec_rejects_malformed() {
+        ByteBuffer encoded = WebhookCodec.encode(webhook());
+        encoded.limit(encoded.limit() - 3);
+
+        assertThrows(IllegalArgumentException.class, () -> WebhookCodec.decode(ByteBuffer.wrap(new byte[]{9})));
+        assertThrows(IllegalArgumentException.class, () -> WebhookCodec.decode(encoded));
+    }
+
+    @Test
+    public void codec_dispatch_decodes_on_send() {
+        RecordingTransport transport = new RecordingTransport();
+        Webhook webhook = webhook();
+        ByteBuffer encoded = WebhookCodec.encode(webhook);
+
+        try (WebhookDispatcher dispatcher = new WebhookDispatcher.Builder()
+                .transport(transport)
+                .build()) {
+            dispatcher.submit(URL, encoded).join();
+        }
+
+        assertEquals(0, encoded.position());
+        assertEquals(webhook.toJsonString(), transport.getBodies().get(0));
+    }
+}
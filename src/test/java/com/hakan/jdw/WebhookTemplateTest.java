@@ -0,0 +1,67 @@
+package com.hakan.jdw;
+
+import com.hakan.jdw.http.WebhookStubServer;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class WebhookTemplateTest {
+
+    private static Webhook alert(String service, String count, String trace) {
+        return new Webhook.Builder()
+                .content("Alert of " + service)
+                .embed((builder) -> builder
+                        .title(service + " is failing")
+                        .description("{not a placeholder} {}")
+                        .field((fieldBuilder) -> fieldBuilder
+                                .name("Errors")
+                                .value(count))
+                        .field((fieldBuilder) -> fieldBuilder
+                                .name("Trace")
+                                .value(trace)))
+                .build();
+    }
+
+    private static Map<String, Object> values() {
+        Map<String, Object> values = new HashMap<>();
+        values.put("service", "payments \"eu\"");
+        values.put("count", 42);
+        values.put("trace", "line 1\nline 2 ç");
+        return values;
+    }
+
+    @Test
+    public void render_matches_webhook() {
+        WebhookTemplate template = new WebhookTemplate(alert("{service}", "{count}", "{trace}"));
+
+        assertEquals(Arrays.asList("service", "count", "trace"), Arrays.asList(template.getPlaceholders().toArray()));
+        assertEquals(alert("payments \"eu\"", "42", "line 1\nline 2 ç").toJsonString(),
+                new String(template.render(values()), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void render_requires_values() {
+        WebhookTemplate template = new WebhookTemplate(alert("{service}", "{count}", "{trace}"));
+        Map<String, Object> values = values();
+        values.remove("trace");
+
+        assertThrows(IllegalArgumentException.class, () -> template.render(values));
+    }
+
+    @Test
+    public void template_execute() throws IOException {
+        WebhookTemplate template = new WebhookTemplate(alert("{service}", "{count}", "{trace}"));
+
+        try (WebhookStubServer server = new WebhookStubServer()) {
+            template.execute(server.getUrl(), values());
+            assertEquals(alert("payments \"eu\"", "42", "line 1\nline 2 ç").toJsonString(), server.getPayloads().get(0));
+        }
+    }
+}
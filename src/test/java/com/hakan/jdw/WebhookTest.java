@@ -1,19 +1,42 @@
 package com.hakan.jdw;
 
+import com.hakan.jdw.http.WebhookStubServer;
+import com.hakan.jdw.json.JsonException;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
 import java.awt.Color;
 import java.io.IOException;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 class WebhookTest {
 
+    private static WebhookStubServer stubServer;
+    private static String webhookUrl;
+
+    @BeforeAll
+    public static void setup() throws IOException {
+        webhookUrl = System.getProperty("webhook.url");
+
+        if (webhookUrl == null || webhookUrl.isEmpty()) {
+            stubServer = new WebhookStubServer();
+            webhookUrl = stubServer.getUrl();
+        }
+    }
+
+    @AfterAll
+    public static void teardown() {
+        if (stubServer != null)
+            stubServer.close();
+    }
+
     @Test
     public void webhook_to_json_1() {
-        String webhookUrl = System.getProperty("webhook.url");
-
         Webhook webhook = new Webhook.Builder()
                 .embed((builder) -> builder
                         .footer((footerBuilder) -> footerBuilder
@@ -25,8 +48,6 @@ public void webhook_to_json_1() {
 
     @Test
     public void webhook_to_json_2() {
-        String webhookUrl = System.getProperty("webhook.url");
-
         Webhook webhook = new Webhook.Builder()
                 .embed((builder) -> builder
                         .color(new Color(87, 0, 97))
@@ -47,8 +68,6 @@ public void webhook_to_json_2() {
 
     @Test
     public void webhook_to_json_3() {
-        String webhookUrl = System.getProperty("webhook.url");
-
         Webhook webhook = new Webhook.Builder()
                 .embed((builder) -> builder
                         .color(new Color(87, 0, 97))
@@ -71,8 +90,6 @@ public void webhook_to_json_3() {
 
     @Test
     public void webhook_to_json_4() {
-        String webhookUrl = System.getProperty("webhook.url");
-
         Webhook webhook = new Webhook.Builder()
                 .username("Hakan")
                 .content("Hello World!")
@@ -114,8 +131,6 @@ public void webhook_to_json_4() {
 
     @Test
     public void webhook_to_json_5() {
-        String webhookUrl = System.getProperty("webhook.url");
-
         Webhook webhook = new Webhook.Builder()
                 .embed((builder) -> builder)
                 .build();
@@ -125,8 +140,6 @@ public void webhook_to_json_5() {
 
     @Test
     public void webhook_to_json_6() {
-        String webhookUrl = System.getProperty("webhook.url");
-
         Webhook webhook = new Webhook.Builder()
                 .threadName("Hello World!")
                 .embed((builder) -> builder
@@ -139,4 +152,128 @@ public void webhook_to_json_6() {
 
         assertThrows(IOException.class, () -> webhook.execute(webhookUrl));
     }
+
+    @Test
+    public void embed_color() {
+        WebhookEmbed embed = new WebhookEmbed.Builder()
+                .color("#570061")
+                .build();
+
+        assertEquals(0x570061, embed.getColorRgb());
+        assertEquals(new Color(87, 0, 97), embed.getColor());
+        assertEquals(0x570061, new WebhookEmbed.Builder().color(new Color(87, 0, 97)).build().getColorRgb());
+        assertEquals(0xFF, embed.setColorHex("0000ff").getColorRgb());
+        assertThrows(IllegalArgumentException.class, () -> embed.setColorHex("#57006"));
+        assertThrows(IllegalArgumentException.class, () -> embed.setColorRgb(0x1000000));
+        assertEquals(0x570061, WebhookEmbed.ofRgb(null, null, null, 0x570061, null, null, null, null, null, null).getColorRgb());
+        assertEquals(0x570061, new WebhookEmbed(null, null, null, new Color(87, 0, 97), null, null, null, null, null, null).getColorRgb());
+        assertThrows(IllegalArgumentException.class, () -> WebhookEmbed.ofRgb(null, null, null, -1, null, null, null, null, null, null));
+        assertEquals(null, new WebhookEmbed(null, null, null, null, null, null, null, null, null, null).getColorRgb());
+    }
+
+    @Test
+    public void webhook_from_json() {
+        Webhook webhook = new Webhook.Builder()
+                .content("Hello \"World\"!")
+                .username("Hakan")
+                .threadName("Thread")
+                .embed((builder) -> builder
+                        .title("Hello World!")
+                        .color(0x570061)
+                        .timestamp(1709208000001L)
+                        .author((authorBuilder) -> authorBuilder
+                                .name("Hakan")
+                                .iconUrl("https://avatars.githubusercontent.com/u/42969966?v=4"))
+                        .footer((footerBuilder) -> footerBuilder
+                                .text("Hello World!"))
+                        .image((imageBuilder) -> imageBuilder
+                                .url("https://avatars.githubusercontent.com/u/42969966?v=4"))
+                        .field((fieldBuilder) -> fieldBuilder
+                                .name("Hello World!")
+                                .value("Hello World!")
+                                .inline(true)))
+                .build();
+
+        assertEquals(webhook.toJsonString(), Webhook.fromJson(webhook.toJsonBytes()).toJsonString());
+    }
+
+    @Test
+    public void webhook_from_json_skips_unknown() {
+        Webhook webhook = Webhook.fromJson("{\"id\": \"1\", \"type\": 0, \"content\": \"Hello\", \"tts\": false," +
+                " \"embeds\": [{\"type\": \"rich\", \"title\": null, \"color\": 255," +
+                " \"timestamp\": \"2024-02-29T15:00:00+03:00\", \"provider\": {\"name\": \"x\"}," +
+                " \"fields\": [{\"name\": \"a\", \"value\": \"b\"}]}], \"attachments\": []}");
+        WebhookEmbed embed = webhook.getEmbeds().get(0);
+
+        assertEquals("Hello", webhook.getContent());
+        assertEquals(null, embed.getTitle());
+        assertEquals(0xFF, embed.getColorRgb());
+        assertEquals(1709208000000L, embed.getInstant().toEpochMilli());
+        assertEquals("b", embed.getFields().get(0).getValue());
+        assertThrows(JsonException.class, () -> Webhook.fromJson("{\"embeds\": [{\"timestamp\": \"yesterday\"}]}"));
+    }
+
+    @Test
+    public void builder_reset_and_pool() {
+        Webhook.Builder builder = new Webhook.Builder()
+                .content("First")
+                .embed((embedBuilder) -> embedBuilder
+                        .title("First")
+                        .field((fieldBuilder) -> fieldBuilder
+                                .name("a")
+                                .value("b")));
+        Webhook first = builder.build();
+        Webhook second = builder.reset()
+                .content("Second")
+                .build();
+
+        assertEquals("{\"content\":\"First\",\"embeds\":[{\"title\":\"First\",\"fields\":[{\"name\":\"a\",\"value\":\"b\",\"inline\":false}]}]}",
+                first.toJsonString());
+        assertEquals("{\"content\":\"Second\"}", second.toJsonString());
+
+        Webhook pooled = Webhook.Builder.pooled((webhookBuilder) -> webhookBuilder
+                .content("Pooled")
+                .embed((embedBuilder) -> embedBuilder
+                        .description(WebhookEmbed.Builder.pooled((nested) -> nested.title("Nested")).getTitle())));
+        Webhook empty = Webhook.Builder.pooled((webhookBuilder) -> webhookBuilder);
+
+        assertEquals("{\"content\":\"Pooled\",\"embeds\":[{\"description\":\"Nested\"}]}", pooled.toJsonString());
+        assertEquals("{}", empty.toJsonString());
+
+        assertThrows(UnsupportedOperationException.class, () -> first.getEmbeds().add(null));
+        first.getEmbeds().get(0).addField(new WebhookField("c", "d", true));
+        first.addEmbed(new WebhookEmbed.Builder().title("Second").build()).removeEmbed(0);
+        assertEquals("{\"content\":\"First\",\"embeds\":[{\"title\":\"Second\"}]}", first.toJsonString());
+    }
+
+    @Test
+    public void webhook_freeze() {
+        Webhook webhook = new Webhook.Builder()
+                .content("Hello")
+                .embed((builder) -> builder
+                        .title("Title")
+                        .field((fieldBuilder) -> fieldBuilder
+                                .name("a")
+                                .value("b")))
+                .build();
+        Webhook frozen = webhook.freeze();
+        String json = frozen.toJsonString();
+
+        webhook.setContent("Changed");
+        webhook.getEmbeds().get(0).addField(new WebhookField("c", "d", null));
+
+        assertEquals(json, frozen.toJsonString());
+        assertSame(frozen, frozen.freeze());
+        assertThrows(UnsupportedOperationException.class, () -> frozen.setContent("Changed"));
+        assertThrows(UnsupportedOperationException.class, () -> frozen.getEmbeds().add(null));
+        assertThrows(UnsupportedOperationException.class, () -> frozen.getEmbeds().get(0).getFields().get(0).setName("c"));
+
+        Webhook copy = frozen.withContent("Copy")
+                .withEmbed(frozen.getEmbeds().get(0).withTitle("Second"));
+
+        assertSame(frozen.getEmbeds().get(0), copy.getEmbeds().get(0));
+        assertEquals("Second", copy.getEmbeds().get(1).getTitle());
+        assertEquals("Copy", copy.getContent());
+        assertEquals(json, frozen.toJsonString());
+    }
 }
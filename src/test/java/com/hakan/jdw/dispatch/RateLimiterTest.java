@@ -0,0 +1,120 @@
+package com.hakan.jdw.dispatch;
+
+import com.hakan.jdw.Webhook;
+import com.hakan.jdw.http.WebhookClient;
+import com.hakan.jdw.http.WebhookResponse;
+import com.hakan.jdw.http.WebhookStubServer;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RateLimiterTest {
+
+    private static final String URL = "https://discord.com/api/webhooks/0/test";
+
+    @Test
+    public void reserve_until_exhausted() {
+        RateLimiter rateLimiter = new RateLimiter();
+
+        assertEquals(0, rateLimiter.reserve(URL));
+        rateLimiter.update(URL, response(204, "abc", 5, 3, "2.5"));
+
+        assertEquals("abc", rateLimiter.getBucketId(URL + "?wait=true"));
+        assertEquals(3, rateLimiter.getRemaining(URL));
+        assertEquals(0, rateLimiter.reserve(URL));
+        assertEquals(0, rateLimiter.reserve(URL));
+        assertEquals(0, rateLimiter.reserve(URL));
+
+        long delay = rateLimiter.reserve(URL);
+        assertTrue(delay > TimeUnit.SECONDS.toNanos(2));
+        assertTrue(delay <= TimeUnit.MILLISECONDS.toNanos(2500));
+    }
+
+    @Test
+    public void global_rate_limit() {
+        RateLimiter rateLimiter = new RateLimiter();
+
+        Map<String, List<String>> headers = new HashMap<>();
+        headers.put("Retry-After", Collections.singletonList("1"));
+        headers.put("X-RateLimit-Global", Collections.singletonList("true"));
+        rateLimiter.update(URL, new WebhookResponse(429, headers, new byte[0]));
+
+        assertTrue(rateLimiter.reserve("https://discord.com/api/webhooks/1/other") > 0);
+    }
+
+    @Test
+    public void park_while_probing() {
+        RateLimiter rateLimiter = new RateLimiter();
+        AtomicInteger released = new AtomicInteger();
+        Runnable waiter = released::incrementAndGet;
+
+        assertEquals(0, rateLimiter.reserve(URL, waiter));
+        assertEquals(-1, rateLimiter.reserve(URL, waiter));
+        assertEquals(-1, rateLimiter.reserve(URL + "?wait=true", waiter));
+
+        rateLimiter.cancel(URL);
+        assertEquals(2, released.get());
+
+        assertEquals(0, rateLimiter.reserve(URL, waiter));
+        assertEquals(-1, rateLimiter.reserve(URL, waiter));
+        rateLimiter.update(URL, response(204, "abc", 5, 4, "1"));
+        assertEquals(3, released.get());
+        assertEquals(0, rateLimiter.reserve(URL, waiter));
+
+        String other = "https://discord.com/api/webhooks/1/other";
+        assertEquals(0, rateLimiter.reserve(other, waiter));
+        assertEquals(-1, rateLimiter.reserve(other, waiter));
+        rateLimiter.update(other, response(204, "abc", 5, 3, "1"));
+        assertEquals(4, released.get());
+    }
+
+    @Test
+    public void dispatch_without_429() throws IOException {
+        Webhook webhook = new Webhook.Builder()
+                .content("Hello World!")
+                .build();
+
+        try (WebhookStubServer stubServer = new WebhookStubServer().setRateLimit(5, Duration.ofMillis(300));
+             WebhookClient client = new WebhookClient.Builder().build();
+             WebhookDispatcher dispatcher = new WebhookDispatcher.Builder()
+                     .transport(client)
+                     .threads(4)
+                     .build()) {
+            long start = System.nanoTime();
+
+            List<CompletableFuture<WebhookResponse>> futures = new ArrayList<>();
+            for (int i = 0; i < 20; i++)
+                futures.add(webhook.executeAsync(dispatcher, stubServer.getUrl()));
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+
+            assertEquals(20, stubServer.getPayloads().size());
+            assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(900));
+        }
+    }
+
+    private static WebhookResponse response(int status,
+                                            String bucket,
+                                            int limit,
+                                            int remaining,
+                                            String resetAfter) {
+        Map<String, List<String>> headers = new HashMap<>();
+        headers.put("X-RateLimit-Bucket", Collections.singletonList(bucket));
+        headers.put("X-RateLimit-Limit", Collections.singletonList(String.valueOf(limit)));
+        headers.put("X-RateLimit-Remaining", Collections.singletonList(String.valueOf(remaining)));
+        headers.put("X-RateLimit-Reset-After", Arrays.asList(resetAfter));
+        return new WebhookResponse(status, headers, new byte[0]);
+    }
+}
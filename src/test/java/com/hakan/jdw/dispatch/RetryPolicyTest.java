@@ -0,0 +1,185 @@
+package com.hakan.jdw.dispatch;
+
+import com.hakan.jdw.Webhook;
+import com.hakan.jdw.http.RecordingTransport;
+import com.hakan.jdw.http.UnsentRequestException;
+import com.hakan.jdw.http.UrlConnectionTransport;
+import com.hakan.jdw.http.WebhookException;
+import com.hakan.jdw.http.WebhookResponse;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.ConnectException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RetryPolicyTest {
+
+    private static final String URL = "https://discord.com/api/webhooks/0/test";
+
+    @Test
+    public void retry_server_errors() {
+        AtomicInteger calls = new AtomicInteger();
+        RecordingTransport transport = new RecordingTransport()
+                .setResponder(request -> new WebhookResponse(calls.incrementAndGet() < 3 ? 502 : 204,
+                        Collections.emptyMap(), new byte[0]));
+
+        try (WebhookDispatcher dispatcher = dispatcher(transport)) {
+            WebhookResponse response = webhook().executeAsync(dispatcher, URL).join();
+
+            assertEquals(204, response.getStatusCode());
+            assertEquals(3, transport.getRequestCount());
+        }
+    }
+
+    @Test
+    public void retry_after_rate_limit() {
+        AtomicInteger calls = new AtomicInteger();
+        byte[] body = "{\"message\": \"You are being rate limited.\", \"retry_after\": 0.2, \"global\": false}"
+                .getBytes(StandardCharsets.UTF_8);
+        RecordingTransport transport = new RecordingTransport()
+                .setResponder(request -> calls.incrementAndGet() == 1
+                        ? new WebhookResponse(429, Collections.emptyMap(), body)
+                        : new WebhookResponse(204, Collections.emptyMap(), new byte[0]));
+
+        try (WebhookDispatcher dispatcher = dispatcher(transport)) {
+            long start = System.nanoTime();
+            webhook().executeAsync(dispatcher, URL).join();
+
+            assertEquals(2, transport.getRequestCount());
+            assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(200));
+        }
+    }
+
+    @Test
+    public void no_retry_client_errors() {
+        RecordingTransport transport = new RecordingTransport()
+                .setResponder(request -> new WebhookResponse(400, Collections.emptyMap(), new byte[0]));
+
+        try (WebhookDispatcher dispatcher = dispatcher(transport)) {
+            CompletableFuture<WebhookResponse> future = webhook().executeAsync(dispatcher, URL);
+
+            ExecutionException exception = assertThrows(ExecutionException.class, future::get);
+            assertInstanceOf(WebhookException.class, exception.getCause());
+            assertEquals(1, transport.getRequestCount());
+        }
+    }
+
+    @Test
+    public void attempt_budget() {
+        RecordingTransport transport = new RecordingTransport()
+                .setResponder(request -> new WebhookResponse(503, Collections.emptyMap(), new byte[0]));
+
+        try (WebhookDispatcher dispatcher = dispatcher(transport)) {
+            CompletableFuture<WebhookResponse> future = webhook().executeAsync(dispatcher, URL);
+
+            assertThrows(ExecutionException.class, future::get);
+            assertEquals(4, transport.getRequestCount());
+        }
+    }
+
+    @Test
+    public void backoff_delay() {
+        RetryPolicy retryPolicy = new RetryPolicy.Builder()
+                .baseDelay(Duration.ofSeconds(1))
+                .maxDelay(Duration.ofSeconds(3))
+                .deadline(Duration.ofSeconds(5))
+                .build();
+        WebhookException failure = new WebhookException(new WebhookResponse(500, Collections.emptyMap(), new byte[0]));
+
+        long first = retryPolicy.getRetryDelay(1, 0, failure);
+        long third = retryPolicy.getRetryDelay(3, 0, failure);
+
+        assertTrue(first >= TimeUnit.MILLISECONDS.toNanos(500) && first <= TimeUnit.SECONDS.toNanos(1));
+        assertTrue(third >= TimeUnit.MILLISECONDS.toNanos(1500) && third <= TimeUnit.SECONDS.toNanos(3));
+        assertEquals(-1, retryPolicy.getRetryDelay(2, TimeUnit.SECONDS.toNanos(5), failure));
+    }
+
+    @Test
+    public void retry_only_unsent_requests() {
+        RetryPolicy retryPolicy = new RetryPolicy.Builder().build();
+
+        assertTrue(retryPolicy.getRetryDelay(1, 0, new ConnectException("Connection refused")) >= 0);
+        assertTrue(retryPolicy.getRetryDelay(1, 0, new UnsentRequestException(new SocketTimeoutException("Connect timed out"))) >= 0);
+        assertEquals(-1, retryPolicy.getRetryDelay(1, 0, new SocketTimeoutException("Read timed out")));
+        assertEquals(-1, retryPolicy.getRetryDelay(1, 0, new IOException("Connection reset")));
+        assertEquals(-1, new RetryPolicy.Builder().retryNetworkErrors(false).build()
+                .getRetryDelay(1, 0, new ConnectException("Connection refused")));
+    }
+
+    @Test
+    public void no_retry_read_timeout() throws IOException, InterruptedException {
+        List<Socket> sockets = Collections.synchronizedList(new ArrayList<>());
+        try (ServerSocket server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress())) {
+            Thread acceptor = new Thread(() -> {
+                try {
+                    while (true) {
+                        Socket socket = server.accept();
+                        sockets.add(socket);
+                        InputStream inputStream = socket.getInputStream();
+                        inputStream.read(new byte[8192]);
+                    }
+                } catch (IOException ignored) {
+                    // the server was closed
+                }
+            });
+            acceptor.setDaemon(true);
+            acceptor.start();
+
+            try (WebhookDispatcher dispatcher = new WebhookDispatcher.Builder()
+                    .transport(new UrlConnectionTransport(Duration.ofSeconds(5), Duration.ofMillis(200)))
+                    .retryPolicy(new RetryPolicy.Builder()
+                            .maxAttempts(4)
+                            .baseDelay(Duration.ofMillis(10))
+                            .maxDelay(Duration.ofMillis(50))
+                            .build())
+                    .build()) {
+                String url = "http://127.0.0.1:" + server.getLocalPort() + "/api/webhooks/0/test";
+                CompletableFuture<WebhookResponse> future = webhook().executeAsync(dispatcher, url);
+
+                ExecutionException exception = assertThrows(ExecutionException.class, future::get);
+                assertInstanceOf(SocketTimeoutException.class, exception.getCause());
+            }
+
+            Thread.sleep(200);
+            assertEquals(1, sockets.size());
+        } finally {
+            for (Socket socket : sockets)
+                socket.close();
+        }
+    }
+
+    private static WebhookDispatcher dispatcher(RecordingTransport transport) {
+        return new WebhookDispatcher.Builder()
+                .transport(transport)
+                .retryPolicy(new RetryPolicy.Builder()
+                        .maxAttempts(4)
+                        .baseDelay(Duration.ofMillis(10))
+                        .maxDelay(Duration.ofMillis(50))
+                        .build())
+                .build();
+    }
+
+    private static Webhook webhook() {
+        return new Webhook.Builder()
+                .content("Hello World!")
+                .build();
+    }
+}
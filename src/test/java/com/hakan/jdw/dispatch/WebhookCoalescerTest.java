@@ -0,0 +1,160 @@
+package com.hakan.jdw.dispatch;
+
+import com.hakan.jdw.Webhook;
+import com.hakan.jdw.http.RecordingTransport;
+import com.hakan.jdw.http.WebhookResponse;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.fail;
+
+class WebhookCoalescerTest {
+
+    private static final String URL = "https://discord.com/api/webhooks/0/test";
+
+    @Test
+    public void pack_embeds() {
+        RecordingTransport transport = new RecordingTransport();
+
+        try (WebhookDispatcher dispatcher = new WebhookDispatcher.Builder().transport(transport).build();
+             WebhookCoalescer coalescer = new WebhookCoalescer(dispatcher, Duration.ofSeconds(10))) {
+            List<CompletableFuture<WebhookResponse>> futures = new ArrayList<>();
+            for (int i = 0; i < 25; i++) {
+                int index = i;
+                futures.add(coalescer.submit(URL, new Webhook.Builder()
+                        .username("Hakan")
+                        .embed((builder) -> builder.title("Embed " + index))
+                        .build()));
+            }
+            coalescer.flush();
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+
+            List<String> bodies = transport.getBodies();
+            assertEquals(3, bodies.size());
+            assertEquals(25, bodies.stream()
+                    .mapToInt(body -> new JSONObject(body).getJSONArray("embeds").length())
+                    .sum());
+        }
+    }
+
+    @Test
+    public void pack_content_before_embeds() {
+        RecordingTransport transport = new RecordingTransport();
+
+        try (WebhookDispatcher dispatcher = new WebhookDispatcher.Builder().transport(transport).build();
+             WebhookCoalescer coalescer = new WebhookCoalescer(dispatcher, Duration.ofSeconds(10))) {
+            List<CompletableFuture<WebhookResponse>> futures = new ArrayList<>();
+            futures.add(coalescer.submit(URL, new Webhook.Builder().content("first").build()));
+            futures.add(coalescer.submit(URL, new Webhook.Builder().content("second").build()));
+            futures.add(coalescer.submit(URL, new Webhook.Builder().embed((builder) -> builder.title("embed")).build()));
+            futures.add(coalescer.submit(URL, new Webhook.Builder().content("third").build()));
+            futures.add(coalescer.submit(URL, new Webhook.Builder().username("Other").content("fourth").build()));
+            coalescer.flush();
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+
+            List<String> bodies = transport.getBodies();
+            assertEquals(3, bodies.size());
+
+            JSONObject first = bodies.stream()
+                    .map(JSONObject::new)
+                    .filter(json -> json.optString("content").startsWith("first"))
+                    .findFirst()
+                    .orElseThrow(AssertionError::new);
+            assertEquals("first\nsecond", first.getString("content"));
+            assertEquals(1, first.getJSONArray("embeds").length());
+        }
+    }
+
+    @Test
+    public void lazy_text_is_not_merged() {
+        RecordingTransport transport = new RecordingTransport();
+        AtomicInteger calls = new AtomicInteger();
+        Thread caller = Thread.currentThread();
+
+        try (WebhookDispatcher dispatcher = new WebhookDispatcher.Builder().transport(transport).build();
+             WebhookCoalescer coalescer = new WebhookCoalescer(dispatcher, Duration.ofSeconds(10))) {
+            List<CompletableFuture<WebhookResponse>> futures = new ArrayList<>();
+            futures.add(coalescer.submit(URL, new Webhook.Builder().content("first").build()));
+            futures.add(coalescer.submit(URL, new Webhook.Builder()
+                    .embed((builder) -> builder.description(() -> {
+                        calls.incrementAndGet();
+                        assertNotSame(caller, Thread.currentThread());
+                        return "lazy";
+                    }))
+                    .build()));
+            futures.add(coalescer.submit(URL, new Webhook.Builder().content("second").build()));
+            coalescer.flush();
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+
+            assertEquals(1, calls.get());
+            assertEquals(3, transport.getRequestCount());
+        }
+    }
+
+    @Test
+    public void flush_after_window() {
+        RecordingTransport transport = new RecordingTransport();
+
+        try (WebhookDispatcher dispatcher = new WebhookDispatcher.Builder().transport(transport).build();
+             WebhookCoalescer coalescer = new WebhookCoalescer(dispatcher, Duration.ofMillis(50))) {
+            CompletableFuture<WebhookResponse> first = coalescer.submit(URL, new Webhook.Builder().content("a").build());
+            CompletableFuture<WebhookResponse> second = coalescer.submit(URL, new Webhook.Builder().content("b").build());
+
+            assertEquals(204, first.join().getStatusCode());
+            assertEquals(204, second.join().getStatusCode());
+            assertEquals(1, transport.getRequestCount());
+        }
+    }
+
+    @Test
+    public void close_while_submitting() throws InterruptedException {
+        RecordingTransport transport = new RecordingTransport();
+        List<CompletableFuture<WebhookResponse>> futures = Collections.synchronizedList(new ArrayList<>());
+
+        try (WebhookDispatcher dispatcher = new WebhookDispatcher.Builder().transport(transport).build()) {
+            WebhookCoalescer coalescer = new WebhookCoalescer(dispatcher, Duration.ofSeconds(10));
+            List<Thread> producers = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                int index = i;
+                Thread producer = new Thread(() -> {
+                    for (int j = 0; j < 500; j++)
+                        futures.add(coalescer.submit(URL, new Webhook.Builder()
+                                .username("Producer " + index)
+                                .content("Message " + j)
+                                .build()));
+                });
+                producers.add(producer);
+                producer.start();
+            }
+
+            Thread.sleep(5);
+            coalescer.close();
+            for (Thread producer : producers)
+                producer.join();
+
+            for (CompletableFuture<WebhookResponse> future : futures) {
+                try {
+                    future.get(5, TimeUnit.SECONDS);
+                } catch (ExecutionException e) {
+                    assertInstanceOf(RejectedExecutionException.class, e.getCause());
+                } catch (TimeoutException e) {
+                    fail("A webhook submitted during close never completed");
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package com.hakan.jdw.dispatch;
+
+import com.hakan.jdw.Webhook;
+import com.hakan.jdw.http.RecordingTransport;
+import com.hakan.jdw.http.WebhookException;
+import com.hakan.jdw.http.WebhookResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WebhookDispatcherTest {
+
+    private static final String URL = "https://discord.com/api/webhooks/0/test";
+
+    @Test
+    public void dispatch_all() {
+        RecordingTransport transport = new RecordingTransport();
+        Webhook webhook = new Webhook.Builder()
+                .content("Hello World!")
+                .build();
+
+        try (WebhookDispatcher dispatcher = new WebhookDispatcher.Builder()
+                .transport(transport)
+                .threads(4)
+                .maxPending(16)
+                .build()) {
+            List<CompletableFuture<WebhookResponse>> futures = new ArrayList<>();
+            for (int i = 0; i < 1000; i++)
+                futures.add(webhook.executeAsync(dispatcher, URL));
+
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+            assertEquals(1000, transport.getRequestCount());
+            assertEquals(0, dispatcher.getPendingCount());
+        }
+    }
+
+    @Test
+    public void dispatch_snapshot() {
+        RecordingTransport transport = new RecordingTransport();
+        Webhook webhook = new Webhook.Builder()
+                .content("Hello World!")
+                .build();
+
+        try (WebhookDispatcher dispatcher = new WebhookDispatcher.Builder()
+                .transport(transport)
+                .build()) {
+            CompletableFuture<WebhookResponse> mutable = webhook.executeAsync(dispatcher, URL);
+            webhook.setContent("Changed");
+            CompletableFuture<WebhookResponse> frozen = webhook.freeze().executeAsync(dispatcher, URL);
+            webhook.setContent("Changed again");
+
+            CompletableFuture.allOf(mutable, frozen).join();
+        }
+
+        assertTrue(transport.getBodies().contains("{\"content\":\"Hello World!\"}"));
+        assertTrue(transport.getBodies().contains("{\"content\":\"Changed\"}"));
+    }
+
+    @Test
+    public void dispatch_lazy_text() {
+        RecordingTransport transport = new RecordingTransport();
+        AtomicInteger calls = new AtomicInteger();
+        List<Thread> threads = Collections.synchronizedList(new ArrayList<>());
+        Supplier<String> supplier = () -> {
+            calls.incrementAndGet();
+            threads.add(Thread.currentThread());
+            return "Lazy";
+        };
+
+        Webhook webhook = new Webhook.Builder()
+                .content(supplier)
+                .embed((builder) -> builder
+                        .title(supplier)
+                        .description(supplier)
+                        .field((fieldBuilder) -> fieldBuilder
+                                .name("Name")
+                                .value(supplier)))
+                .build();
+        assertEquals(0, calls.get());
+        assertFalse(webhook.isResolved());
+
+        try (WebhookDispatcher dispatcher = new WebhookDispatcher.Builder()
+                .transport(transport)
+                .build()) {
+            webhook.executeAsync(dispatcher, URL).join();
+        }
+
+        assertEquals(4, calls.get());
+        assertFalse(threads.contains(Thread.currentThread()));
+        assertTrue(webhook.isResolved());
+        assertEquals(transport.getBodies().get(0), webhook.toJsonString());
+        assertEquals(4, calls.get());
+    }
+
+    @Test
+    public void dispatch_lazy_text_limit_policy() {
+        RecordingTransport transport = new RecordingTransport();
+        Thread caller = Thread.currentThread();
+        AtomicInteger callerCalls = new AtomicInteger();
+        Supplier<String> supplier = () -> {
+            if (Thread.currentThread() == caller)
+                callerCalls.incrementAndGet();
+            return "Lazy";
+        };
+        Supplier<String> oversized = () -> {
+            if (Thread.currentThread() == caller)
+                callerCalls.incrementAndGet();
+            return String.join("", Collections.nCopies(2500, "c"));
+        };
+
+        for (LimitPolicy policy : LimitPolicy.values()) {
+            try (WebhookDispatcher dispatcher = new WebhookDispatcher.Builder()
+                    .transport(transport)
+                    .limitPolicy(policy)
+                    .build()) {
+                CompletableFuture<WebhookResponse> fits = new Webhook.Builder()
+                        .embed((builder) -> builder.description(supplier))
+                        .build()
+                        .executeAsync(dispatcher, URL);
+                CompletableFuture<WebhookResponse> exceeds = new Webhook.Builder()
+                        .content(oversized)
+                        .build()
+                        .executeAsync(dispatcher, URL);
+
+                assertEquals(204, fits.join().getStatusCode());
+                if (policy == LimitPolicy.FAIL)
+                    assertInstanceOf(IllegalStateException.class, assertThrows(ExecutionException.class, exceeds::get).getCause());
+                else
+                    exceeds.join();
+            }
+        }
+
+        assertEquals(0, callerCalls.get());
+        assertEquals(5, transport.getRequestCount());
+    }
+
+    @Test
+    public void dispatch_failure() {
+        RecordingTransport transport = new RecordingTransport()
+                .setResponder(request -> new WebhookResponse(400, Collections.emptyMap(), new byte[0]));
+
+        try (WebhookDispatcher dispatcher = new WebhookDispatcher.Builder()
+                .transport(transport)
+                .build()) {
+            CompletableFuture<WebhookResponse> future = new Webhook.Builder()
+                    .build()
+                    .executeAsync(dispatcher, URL);
+
+            ExecutionException exception = assertThrows(ExecutionException.class, future::get);
+            assertInstanceOf(WebhookException.class, exception.getCause());
+        }
+    }
+
+    @Test
+    public void dispatch_backpressure() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingTransport transport = new RecordingTransport()
+                .setResponder(request -> {
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return new WebhookResponse(204, Collections.emptyMap(), new byte[0]);
+                });
+        Webhook webhook = new Webhook.Builder()
+                .content("Hello World!")
+                .build();
+
+        try (WebhookDispatcher dispatcher = new WebhookDispatcher.Builder()
+                .transport(transport)
+                .threads(1)
+                .maxPending(2)
+                .build()) {
+            webhook.executeAsync(dispatcher, URL);
+            webhook.executeAsync(dispatcher, URL);
+
+            CountDownLatch submitted = new CountDownLatch(1);
+            Thread producer = new Thread(() -> {
+                webhook.executeAsync(dispatcher, URL).join();
+                submitted.countDown();
+            });
+            producer.start();
+
+            assertFalse(submitted.await(200, TimeUnit.MILLISECONDS));
+            assertEquals(2, dispatcher.getPendingCount());
+
+            release.countDown();
+            assertTrue(submitted.await(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    public void dispatch_virtual_threads() {
+        List<String> threads = Collections.synchronizedList(new ArrayList<>());
+        RecordingTransport transport = new RecordingTransport()
+                .setResponder(request -> {
+                    threads.add(Thread.currentThread().getName());
+                    return new WebhookResponse(204, Collections.emptyMap(), new byte[0]);
+                });
+        Webhook webhook = new Webhook.Builder()
+                .content("Hello World!")
+                .build();
+
+        try (WebhookDispatcher dispatcher = new WebhookDispatcher.Builder()
+                .transport(transport)
+                .virtualThreads(true)
+                .build()) {
+            List<CompletableFuture<WebhookResponse>> futures = new ArrayList<>();
+            for (int i = 0; i < 100; i++)
+                futures.add(webhook.executeAsync(dispatcher, URL));
+
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+        }
+
+        assertEquals(100, threads.size());
+        for (String thread : threads)
+            assertEquals(DispatchExecutors.isVirtualThreadSupported(), thread.startsWith("webhook-dispatcher-virtual-"));
+    }
+}
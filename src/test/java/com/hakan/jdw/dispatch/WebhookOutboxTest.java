@@ -0,0 +1,125 @@
+package com.hakan.jdw.dispatch;
+
+import com.hakan.jdw.Webhook;
+import com.hakan.jdw.http.RecordingTransport;
+import com.hakan.jdw.http.WebhookBody;
+import com.hakan.jdw.http.WebhookRequest;
+import com.hakan.jdw.http.WebhookResponse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WebhookOutboxTest {
+
+    private static final String URL = "https://discord.com/api/webhooks/0/test";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void replay_unacknowledged() throws IOException {
+        try (WebhookOutbox outbox = new WebhookOutbox(this.directory)) {
+            for (int i = 0; i < 5; i++)
+                outbox.append(new WebhookRequest(URL, WebhookBody.json("{\"content\":\"" + i + "\"}")));
+
+            outbox.acknowledge(0);
+            outbox.acknowledge(3);
+            outbox.acknowledge(1);
+            assertEquals(1, outbox.getAcknowledgedOffset());
+            assertEquals(2, outbox.getPendingCount());
+        }
+
+        try (WebhookOutbox outbox = new WebhookOutbox(this.directory)) {
+            List<String> bodies = new ArrayList<>();
+            outbox.replay((offset, request) -> bodies.add(new String(request.getBodyBytes(), StandardCharsets.UTF_8)));
+
+            assertEquals(3, bodies.size());
+            assertEquals("{\"content\":\"2\"}", bodies.get(0));
+            assertEquals(5, outbox.getNextOffset());
+        }
+    }
+
+    @Test
+    public void roll_and_compact() throws IOException {
+        try (WebhookOutbox outbox = new WebhookOutbox(this.directory, 1024, Duration.ofSeconds(10))) {
+            for (int i = 0; i < 100; i++)
+                outbox.append(new WebhookRequest(URL, WebhookBody.json("{\"content\":\"Hello World!\"}")));
+            assertTrue(outbox.getSegmentCount() > 1);
+
+            for (int i = 0; i < 100; i++)
+                outbox.acknowledge(i);
+            outbox.flush();
+            assertEquals(1, outbox.getSegmentCount());
+            assertEquals(0, outbox.getPendingCount());
+        }
+    }
+
+    @Test
+    public void dispatcher_replays_outbox() throws IOException {
+        try (WebhookOutbox outbox = new WebhookOutbox(this.directory)) {
+            for (int i = 0; i < 3; i++)
+                outbox.append(new WebhookRequest(URL, WebhookBody.json("{\"content\":\"pending\"}")));
+        }
+
+        RecordingTransport transport = new RecordingTransport();
+        try (WebhookOutbox outbox = new WebhookOutbox(this.directory);
+             WebhookDispatcher dispatcher = new WebhookDispatcher.Builder()
+                     .transport(transport)
+                     .outbox(outbox)
+                     .build()) {
+            CompletableFuture<WebhookResponse> future = new Webhook.Builder()
+                    .content("Hello World!")
+                    .build()
+                    .executeAsync(dispatcher, URL);
+
+            assertEquals(204, future.join().getStatusCode());
+            while (dispatcher.getPendingCount() > 0)
+                Thread.yield();
+
+            assertEquals(4, transport.getRequestCount());
+            assertEquals(0, outbox.getPendingCount());
+        }
+    }
+
+    @Test
+    public void dispatcher_logs_lazy_text_at_submit() throws IOException {
+        RecordingTransport transport = new RecordingTransport();
+        AtomicInteger calls = new AtomicInteger();
+
+        try (WebhookOutbox outbox = new WebhookOutbox(this.directory);
+             WebhookDispatcher dispatcher = new WebhookDispatcher.Builder()
+                     .transport(transport)
+                     .outbox(outbox)
+                     .build()) {
+            CompletableFuture<WebhookResponse> future = new Webhook.Builder()
+                    .content(() -> {
+                        calls.incrementAndGet();
+                        return "Lazy";
+                    })
+                    .build()
+                    .executeAsync(dispatcher, URL);
+
+            assertEquals(1, calls.get());
+            assertEquals(1, outbox.getNextOffset());
+
+            assertEquals(204, future.join().getStatusCode());
+            while (dispatcher.getPendingCount() > 0)
+                Thread.yield();
+
+            assertEquals(1, calls.get());
+            assertEquals(0, outbox.getPendingCount());
+            assertEquals("{\"content\":\"Lazy\"}", transport.getBodies().get(0));
+        }
+    }
+}
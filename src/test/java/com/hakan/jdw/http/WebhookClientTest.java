@@ -0,0 +1,142 @@
+package com.hakan.jdw.http;
+
+import com.hakan.jdw.Webhook;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class WebhookClientTest {
+
+    private static final String NO_CONTENT = "HTTP/1.1 204 No Content\r\nContent-Length: 0\r\n\r\n";
+
+    private static final Webhook WEBHOOK = new Webhook.Builder()
+            .content("Hello World!")
+            .build();
+
+    @Test
+    public void retry_stale_connection() throws IOException {
+        try (ScriptedServer server = new ScriptedServer(NO_CONTENT, "", NO_CONTENT);
+             WebhookClient client = new WebhookClient.Builder().build()) {
+            client.execute(server.getUrl(), WEBHOOK);
+            assertEquals(204, client.execute(server.getUrl(), WEBHOOK).getStatusCode());
+            assertEquals(3, server.getRequestCount());
+        }
+    }
+
+    @Test
+    public void no_retry_after_partial_response() throws IOException {
+        try (ScriptedServer server = new ScriptedServer(NO_CONTENT, "HTTP/1.1 200 OK\r\nContent-Length: 10\r\n\r\nab", NO_CONTENT);
+             WebhookClient client = new WebhookClient.Builder().build()) {
+            client.execute(server.getUrl(), WEBHOOK);
+            assertThrows(IOException.class, () -> client.execute(server.getUrl(), WEBHOOK));
+            assertEquals(2, server.getRequestCount());
+            assertEquals(0, client.getIdleConnectionCount());
+        }
+    }
+
+    @Test
+    public void malformed_response() throws IOException {
+        try (ScriptedServer server = new ScriptedServer(
+                "HTTP/1.1 2x4 No Content\r\nContent-Length: 0\r\n\r\n",
+                "HTTP/1.1 200 OK\r\nContent-Length: -5\r\n\r\n",
+                "HTTP/1.1 200 OK\r\nTransfer-Encoding: chunked\r\n\r\nzz\r\n");
+             WebhookClient client = new WebhookClient.Builder().build()) {
+            for (int i = 0; i < 3; i++)
+                assertThrows(IOException.class, () -> client.execute(server.getUrl(), WEBHOOK));
+            assertEquals(0, client.getIdleConnectionCount());
+        }
+    }
+
+
+
+    /**
+     * A loopback server that answers each request with the
+     * next scripted response. The connection is closed after
+     * a response that does not end with an empty line, so
+     * an empty response closes it without answering.
+     */
+    private static final class ScriptedServer implements Closeable {
+
+        private final ServerSocket socket;
+        private final Iterator<String> responses;
+        private final AtomicInteger requests = new AtomicInteger();
+
+        private ScriptedServer(String... responses) throws IOException {
+            this.socket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+            this.responses = Arrays.asList(responses).iterator();
+
+            Thread thread = new Thread(this::run, "scripted-server");
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        private String getUrl() {
+            return "http://127.0.0.1:" + this.socket.getLocalPort() + "/api/webhooks/0/test";
+        }
+
+        private int getRequestCount() {
+            return this.requests.get();
+        }
+
+        private void run() {
+            while (!this.socket.isClosed()) {
+                try (Socket connection = this.socket.accept()) {
+                    InputStream input = connection.getInputStream();
+                    OutputStream output = connection.getOutputStream();
+
+                    while (this.readRequest(input)) {
+                        this.requests.incrementAndGet();
+                        String response = this.responses.hasNext() ? this.responses.next() : "";
+                        output.write(response.getBytes(StandardCharsets.US_ASCII));
+                        output.flush();
+                        if (!response.endsWith("\r\n\r\n"))
+                            break;
+                    }
+                } catch (IOException ignored) {
+                    // the server is closed or the client went away
+                }
+            }
+        }
+
+        private boolean readRequest(InputStream input) throws IOException {
+            ByteArrayOutputStream head = new ByteArrayOutputStream();
+            int read;
+            while ((read = input.read()) != -1) {
+                head.write(read);
+                if (head.toString("US-ASCII").endsWith("\r\n\r\n"))
+                    break;
+            }
+            if (read == -1)
+                return false;
+
+            int length = 0;
+            for (String line : head.toString("US-ASCII").split("\r\n")) {
+                if (line.toLowerCase(Locale.ROOT).startsWith("content-length:"))
+                    length = Integer.parseInt(line.substring(15).trim());
+            }
+            for (int i = 0; i < length; i++)
+                input.read();
+            return true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            this.socket.close();
+        }
+    }
+}
@@ -0,0 +1,246 @@
+package com.hakan.jdw.http;
+
+import com.hakan.jdw.Webhook;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class WebhookTransportTest {
+
+    private static WebhookStubServer stubServer;
+
+    @BeforeAll
+    public static void setup() throws IOException {
+        stubServer = new WebhookStubServer();
+    }
+
+    @AfterAll
+    public static void teardown() {
+        stubServer.close();
+    }
+
+    @BeforeEach
+    public void clear() {
+        stubServer.clear();
+    }
+
+    @Test
+    public void url_connection_transport() {
+        Webhook webhook = new Webhook.Builder()
+                .content("Hello World!")
+                .build();
+
+        WebhookResponse response = webhook.execute(new UrlConnectionTransport(), stubServer.getUrl());
+
+        assertEquals(204, response.getStatusCode());
+        assertEquals(webhook.toJsonString(), stubServer.getPayloads().get(0));
+    }
+
+    @Test
+    public void webhook_client_reuses_connection() throws IOException {
+        Webhook webhook = new Webhook.Builder()
+                .content("Hello World!")
+                .build();
+
+        try (WebhookClient client = new WebhookClient.Builder().build()) {
+            for (int i = 0; i < 5; i++)
+                client.execute(stubServer.getUrl(), webhook);
+
+            assertEquals(1, client.getIdleConnectionCount());
+            assertEquals(5, stubServer.getPayloads().size());
+        }
+    }
+
+    @Test
+    public void webhook_client_wait_response() throws IOException {
+        Webhook webhook = new Webhook.Builder()
+                .content("Hello World!")
+                .build();
+
+        try (WebhookClient client = new WebhookClient.Builder().build()) {
+            WebhookResponse response = client.execute(stubServer.getUrl() + "?wait=true", webhook);
+
+            assertEquals(200, response.getStatusCode());
+            assertTrue(response.getBodyAsJson().containsKey("id"));
+        }
+    }
+
+    @Test
+    public void webhook_client_rejected() throws IOException {
+        Webhook webhook = new Webhook.Builder()
+                .build();
+
+        try (WebhookClient client = new WebhookClient.Builder().build()) {
+            WebhookException exception = assertThrows(WebhookException.class,
+                    () -> client.execute(stubServer.getUrl(), webhook));
+
+            assertEquals(400, exception.getStatusCode());
+            assertEquals(1, client.getIdleConnectionCount());
+        }
+    }
+
+    @Test
+    public void recording_transport() {
+        RecordingTransport transport = new RecordingTransport();
+        Webhook webhook = new Webhook.Builder()
+                .content("Hello World!")
+                .build();
+
+        webhook.execute(transport, "https://discord.com/api/webhooks/0/test");
+
+        assertEquals(1, transport.getRequestCount());
+        assertEquals(webhook.toJsonString(), transport.getBodies().get(0));
+    }
+
+    @Test
+    public void multipart_attachments() throws IOException {
+        Path file = Files.createTempFile("webhook", ".bin");
+        try {
+            byte[] chunk = new byte[64 * 1024];
+            try (OutputStream output = Files.newOutputStream(file)) {
+                for (int i = 0; i < 64; i++)
+                    output.write(chunk);
+            }
+
+            Webhook webhook = new Webhook.Builder()
+                    .attachment((builder) -> builder
+                            .filename("dump.bin")
+                            .description("Heap dump")
+                            .path(file))
+                    .attachment((builder) -> builder
+                            .filename("log.txt")
+                            .stream(new ByteArrayInputStream("Hello World!".getBytes(StandardCharsets.UTF_8)), -1))
+                    .embed((builder) -> builder
+                            .image((imageBuilder) -> imageBuilder.url("attachment://dump.bin")))
+                    .build();
+
+            try (WebhookClient client = new WebhookClient.Builder().build()) {
+                assertEquals(204, client.execute(stubServer.getUrl(), webhook).getStatusCode());
+            }
+
+            assertEquals(Arrays.asList("dump.bin:" + 64 * 64 * 1024, "log.txt:12"), stubServer.getAttachments());
+            assertEquals(webhook.toJsonString(), stubServer.getPayloads().get(0));
+            assertTrue(stubServer.getPayloads().get(0).contains("\"filename\":\"dump.bin\""));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void multipart_url_connection_transport() {
+        Webhook webhook = new Webhook.Builder()
+                .content("Hello World!")
+                .attachment((builder) -> builder
+                        .filename("hello.txt")
+                        .bytes("Hello World!".getBytes(StandardCharsets.UTF_8)))
+                .build();
+
+        WebhookResponse response = webhook.execute(new UrlConnectionTransport(), stubServer.getUrl());
+
+        assertEquals(204, response.getStatusCode());
+        assertEquals(Collections.singletonList("hello.txt:12"), stubServer.getAttachments());
+    }
+
+    @Test
+    public void multipart_filename_control_characters() throws IOException {
+        Webhook webhook = new Webhook.Builder()
+                .attachment((builder) -> builder
+                        .filename("a\"b\r\nX-Injected: 1.txt")
+                        .bytes("Hello World!".getBytes(StandardCharsets.UTF_8)))
+                .build();
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        webhook.toBody().writeTo(output);
+        String body = output.toString("UTF-8");
+
+        assertFalse(body.contains("\r\nX-Injected"));
+        assertTrue(body.contains("filename=\"a\\\"b%0D%0AX-Injected: 1.txt\""));
+    }
+
+    @Test
+    public void multipart_stream_length_mismatch() {
+        byte[] bytes = "Hello World!".getBytes(StandardCharsets.UTF_8);
+
+        for (long length : new long[]{5, 20}) {
+            Webhook webhook = new Webhook.Builder()
+                    .attachment((builder) -> builder
+                            .filename("log.txt")
+                            .stream(new ByteArrayInputStream(bytes), length))
+                    .build();
+
+            assertThrows(IOException.class, () -> webhook.toBody().writeTo(new ByteArrayOutputStream()));
+        }
+    }
+
+    @Test
+    public void http_client_transport() {
+        assumeTrue(HttpClientTransport.isSupported());
+
+        HttpClientTransport transport = new HttpClientTransport.Builder().build();
+        List<CompletableFuture<WebhookResponse>> futures = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            Webhook webhook = new Webhook.Builder()
+                    .content("Hello World! " + i)
+                    .build();
+            futures.add(transport.sendAsync(new WebhookRequest(stubServer.getUrl(), webhook.toBody())));
+        }
+
+        for (CompletableFuture<WebhookResponse> future : futures)
+            assertEquals(204, future.join().getStatusCode());
+        assertEquals(50, stubServer.getPayloads().size());
+    }
+
+    @Test
+    public void nio_transport() {
+        try (NioTransport transport = new NioTransport.Builder().threads(2).build()) {
+            List<CompletableFuture<WebhookResponse>> futures = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                Webhook webhook = new Webhook.Builder()
+                        .content("Hello World! " + i)
+                        .build();
+                futures.add(transport.sendAsync(new WebhookRequest(stubServer.getUrl(), webhook.toBody())));
+            }
+
+            for (CompletableFuture<WebhookResponse> future : futures)
+                assertEquals(204, future.join().getStatusCode());
+            assertEquals(200, stubServer.getPayloads().size());
+        }
+    }
+
+    @Test
+    public void nio_transport_reuses_connection() throws IOException {
+        Webhook webhook = new Webhook.Builder()
+                .content("Hello World!")
+                .build();
+
+        try (NioTransport transport = new NioTransport.Builder().threads(1).build()) {
+            for (int i = 0; i < 5; i++) {
+                WebhookResponse response = transport.send(new WebhookRequest(stubServer.getUrl() + "?wait=true", webhook.toBody()));
+                assertEquals(200, response.getStatusCode());
+            }
+
+            assertEquals(1, transport.getOpenConnectionCount());
+            assertEquals(5, stubServer.getPayloads().size());
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.hakan.jdw.json;
+
+import com.hakan.jdw.Webhook;
+import org.junit.jupiter.api.Test;
+
+import java.awt.Color;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JsonReaderTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void read_written_webhook() {
+        Webhook webhook = new Webhook.Builder()
+                .content("Hello \"World\"! \u00fc \ud83d\ude00")
+                .embed((builder) -> builder
+                        .color(new Color(87, 0, 97))
+                        .field((fieldBuilder) -> fieldBuilder
+                                .name("Hello World!")
+                                .value("Hello World!")
+                                .inline(true)))
+                .build();
+
+        Map<String, Object> json = JsonReader.parseObject(webhook.toJsonString());
+        Map<String, Object> embed = (Map<String, Object>) ((List<Object>) json.get("embeds")).get(0);
+        Map<String, Object> field = (Map<String, Object>) ((List<Object>) embed.get("fields")).get(0);
+
+        assertEquals(webhook.getContent(), json.get("content"));
+        assertEquals(5701729L, embed.get("color"));
+        assertEquals(true, field.get("inline"));
+    }
+
+    @Test
+    public void skip_unknown_values() {
+        JsonReader reader = new JsonReader("{\"a\": [1, {\"b\": null}, \"x\"], \"id\": \"42\", \"c\": {\"d\": [true, 1.5e3]}}");
+
+        String id = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (reader.nextName().equals("id"))
+                id = reader.nextString();
+            else
+                reader.skipValue();
+        }
+        reader.endObject();
+
+        assertEquals("42", id);
+        assertEquals(JsonReader.Token.END_DOCUMENT, reader.peek());
+        assertEquals(Arrays.asList(1L, 1.5e3, "\u00e9"), JsonReader.parse("[1, 1.5e3, \"\\u00e9\"]"));
+    }
+
+    @Test
+    public void read_utf8_bytes() {
+        String json = "{\"a\": [\"\u00fc \ud83d\ude00\", \"x\\n\u00e9\\u00e9\"], \"b\": -1.5, \"c\": true, \"d\": null}";
+        JsonReader reader = new JsonReader(json.getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(JsonReader.parse(json), reader.readValue());
+        reader.endDocument();
+
+        Webhook webhook = new Webhook.Builder()
+                .content("Hello \"World\"! \u00fc \ud83d\ude00")
+                .build();
+        assertEquals(webhook.getContent(), Webhook.fromJson(webhook.toJsonBytes()).getContent());
+        assertThrows(JsonException.class, () -> new JsonReader("[tru".getBytes(StandardCharsets.UTF_8)).readValue());
+    }
+
+    @Test
+    public void reject_malformed() {
+        for (String json : Arrays.asList("", "{", "{\"a\" 1}", "[1,]", "{\"a\": tru}", "\"open", "{} {}"))
+            assertThrows(JsonException.class, () -> JsonReader.parse(json), json);
+        assertTrue(JsonReader.parseObject("{}").isEmpty());
+    }
+}
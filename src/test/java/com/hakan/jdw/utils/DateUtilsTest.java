@@ -0,0 +1,74 @@
+package com.hakan.jdw.utils;
+
+import com.hakan.jdw.WebhookEmbed;
+import org.junit.jupiter.api.Test;
+
+import java.text.SimpleDateFormat;
+import java.time.Instant;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.Random;
+import java.util.TimeZone;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DateUtilsTest {
+
+    private static String format(long millis, TimeZone timezone) {
+        SimpleDateFormat formatter = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'");
+        formatter.setTimeZone(timezone);
+        return formatter.format(new Date(millis));
+    }
+
+    @Test
+    public void iso_matches_date_format() {
+        TimeZone utc = TimeZone.getTimeZone("UTC");
+        Random random = new Random(17);
+
+        for (int i = 0; i < 10000; i++) {
+            long millis = (long) (random.nextDouble() * 8_000_000_000_000L) - 1_000_000_000_000L;
+            assertEquals(format(millis, utc), DateUtils.toIsoString(millis));
+            assertEquals(millis, DateUtils.parseIso(DateUtils.toIsoString(millis)));
+        }
+        assertEquals("1970-01-01T00:00:00.000Z", DateUtils.toIsoString(0));
+        assertEquals("1969-12-31T23:59:59.999Z", DateUtils.toIsoString(-1));
+        assertEquals("2024-02-29T12:00:00.001Z", DateUtils.toIsoString(1709208000001L));
+    }
+
+    @Test
+    public void iso_out_of_range_years() {
+        TimeZone utc = TimeZone.getTimeZone("UTC");
+        long[] dates = {-62_167_219_200_001L, -100_000_000_000_000L, 253_402_300_800_000L, 400_000_000_000_000L};
+
+        for (long millis : dates) {
+            assertEquals(format(millis, utc), DateUtils.toIsoString(millis));
+
+            WebhookEmbed embed = new WebhookEmbed.Builder()
+                    .timestamp(millis)
+                    .build();
+            assertTrue(embed.toJsonString().contains("\"timestamp\":\"" + format(millis, utc) + "\""));
+        }
+        assertEquals("0000-01-01T00:00:00.000Z", DateUtils.toIsoString(-62_167_219_200_000L));
+        assertEquals("9999-12-31T23:59:59.999Z", DateUtils.toIsoString(253_402_300_799_999L));
+    }
+
+    @Test
+    public void date_to_text_keeps_time_zone() {
+        TimeZone timezone = TimeZone.getTimeZone("Europe/Istanbul");
+        Calendar calendar = Calendar.getInstance(timezone);
+        calendar.setTimeInMillis(1709208000001L);
+
+        assertEquals(format(1709208000001L, timezone), WebhookUtils.dateToText(calendar));
+    }
+
+    @Test
+    public void embed_instant_timestamp() {
+        WebhookEmbed embed = new WebhookEmbed.Builder()
+                .timestamp(Instant.ofEpochMilli(1709208000001L))
+                .build();
+
+        assertEquals(Instant.ofEpochMilli(1709208000001L), embed.getInstant());
+        assertTrue(embed.toJsonString().contains("\"timestamp\":\"2024-02-29T12:00:00.001Z\""));
+    }
+}
@@ -5,8 +5,12 @@
 import org.junit.jupiter.api.Test;
 
 import java.awt.Color;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class JsonUtilsTest {
 
@@ -21,10 +25,8 @@ public void webhook_to_json_1() {
         String jsonText = webhook.toJsonString();
         JSONObject json = new JSONObject(jsonText);
 
-        assertEquals(
-                JsonUtils.beautify(jsonText),
-                JsonUtils.beautify(json.toString())
-        );
+        assertTrue(json.similar(webhook.toJson()));
+        assertTrue(json.similar(new JSONObject(JsonUtils.beautify(jsonText))));
     }
 
     @Test
@@ -44,10 +46,8 @@ public void webhook_to_json_2() {
         String jsonText = webhook.toJsonString();
         JSONObject json = new JSONObject(jsonText);
 
-        assertEquals(
-                JsonUtils.beautify(jsonText),
-                JsonUtils.beautify(json.toString())
-        );
+        assertTrue(json.similar(webhook.toJson()));
+        assertTrue(json.similar(new JSONObject(JsonUtils.beautify(jsonText))));
     }
 
     @Test
@@ -72,10 +72,8 @@ public void webhook_to_json_3() {
         String jsonText = webhook.toJsonString();
         JSONObject json = new JSONObject(jsonText);
 
-        assertEquals(
-                JsonUtils.beautify(jsonText),
-                JsonUtils.beautify(json.toString())
-        );
+        assertTrue(json.similar(webhook.toJson()));
+        assertTrue(json.similar(new JSONObject(JsonUtils.beautify(jsonText))));
     }
 
     @Test
@@ -118,9 +116,41 @@ public void webhook_to_json_4() {
         String jsonText = webhook.toJsonString();
         JSONObject json = new JSONObject(jsonText);
 
-        assertEquals(
-                JsonUtils.beautify(jsonText),
-                JsonUtils.beautify(json.toString())
-        );
+        assertTrue(json.similar(webhook.toJson()));
+        assertTrue(json.similar(new JSONObject(JsonUtils.beautify(jsonText))));
+    }
+
+    @Test
+    public void json_writer_escapes() {
+        Webhook webhook = new Webhook.Builder()
+                .content("quote \" backslash \\ tab \t bell \u0007 umlaut \u00fc emoji \ud83d\ude00 separator \u2028")
+                .build();
+
+        String jsonText = webhook.toJsonString();
+
+        assertEquals("{\"content\":\"quote \\\" backslash \\\\ tab \\t bell \\u0007 umlaut \u00fc emoji \ud83d\ude00 separator \\u2028\"}", jsonText);
+        assertEquals(webhook.getContent(), new JSONObject(jsonText).getString("content"));
+    }
+
+    @Test
+    public void beautify_is_string_aware() throws IOException {
+        String jsonText = "{\"content\":\"a, {b} [c] \\\" d\",\"embeds\":[{\"fields\":[]},{}], \"tts\" : true}";
+        String expected = "{\n" +
+                "\t\"content\":\"a, {b} [c] \\\" d\",\n" +
+                "\t\"embeds\":[\n" +
+                "\t\t{\n" +
+                "\t\t\t\"fields\":[]\n" +
+                "\t\t},\n" +
+                "\t\t{}\n" +
+                "\t],\n" +
+                "\t\"tts\":true\n" +
+                "}";
+
+        assertEquals(expected, JsonUtils.beautify(jsonText, "\t"));
+
+        StringWriter output = new StringWriter();
+        JsonUtils.beautify(new StringReader(expected), output, "\t");
+        assertEquals(expected, output.toString());
+        assertTrue(new JSONObject(jsonText).similar(new JSONObject(JsonUtils.beautify(jsonText))));
     }
 }
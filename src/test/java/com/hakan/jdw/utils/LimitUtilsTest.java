@@ -0,0 +1,138 @@
+package com.hakan.jdw.utils;
+
+import com.hakan.jdw.Webhook;
+import com.hakan.jdw.WebhookEmbed;
+import com.hakan.jdw.WebhookField;
+import com.hakan.jdw.WebhookFooter;
+import com.hakan.jdw.dispatch.LimitPolicy;
+import com.hakan.jdw.dispatch.WebhookDispatcher;
+import com.hakan.jdw.http.RecordingTransport;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LimitUtilsTest {
+
+    private static String repeat(char c, int count) {
+        char[] chars = new char[count];
+        Arrays.fill(chars, c);
+        return new String(chars);
+    }
+
+    @Test
+    public void limits_follow_changes() {
+        WebhookFooter footer = new WebhookFooter("Footer", null);
+        WebhookField field = new WebhookField("Name", "Value", null);
+        Webhook webhook = new Webhook.Builder()
+                .content("Hello")
+                .embed((builder) -> builder
+                        .title("Title")
+                        .footer(footer)
+                        .field(field))
+                .build();
+        WebhookEmbed embed = webhook.getEmbeds().get(0);
+
+        assertNull(webhook.checkLimits());
+        assertEquals(5 + 6 + 4 + 5, embed.getLength());
+
+        field.setValue(repeat('a', LimitUtils.MAX_FIELD_VALUE + 1));
+        assertEquals("Field value exceeds 1024 characters", webhook.checkLimits());
+        assertThrows(IllegalStateException.class, webhook::validate);
+
+        field.setValue("Value");
+        footer.setText(repeat('a', LimitUtils.MAX_FOOTER));
+        assertNull(webhook.checkLimits());
+        assertEquals(5 + LimitUtils.MAX_FOOTER + 4 + 5, embed.getLength());
+
+        webhook.addEmbed(new WebhookEmbed.Builder()
+                .description(repeat('b', LimitUtils.MAX_DESCRIPTION))
+                .build());
+        assertEquals("Embeds exceed 6000 characters combined", webhook.checkLimits());
+    }
+
+    @Test
+    public void truncate_fits_limits() {
+        Webhook webhook = new Webhook.Builder()
+                .content(repeat('c', 2500))
+                .embed((builder) -> builder
+                        .title(repeat('t', 300))
+                        .description(repeat('d', 5000))
+                        .color(0x570061))
+                .embed((builder) -> builder
+                        .description(repeat('d', 3000))
+                        .field((fieldBuilder) -> fieldBuilder
+                                .name("Name")
+                                .value(repeat('v', 2000))))
+                .build();
+
+        Webhook truncated = webhook.truncate();
+        assertNull(truncated.checkLimits());
+        assertTrue(truncated.isFrozen());
+        assertEquals(LimitUtils.MAX_CONTENT, truncated.getContent().length());
+        assertEquals(LimitUtils.MAX_EMBED_TOTAL, LimitUtils.embedsLength(truncated.getEmbeds()));
+        assertEquals(0x570061, truncated.getEmbeds().get(0).getColorRgb());
+        assertEquals(LimitUtils.MAX_TITLE, truncated.getEmbeds().get(0).getTitle().length());
+        assertTrue(truncated.getEmbeds().get(1).getFields().isEmpty());
+
+        assertSame(truncated, truncated.truncate());
+    }
+
+    @Test
+    public void attachment_limit() {
+        Webhook.Builder builder = new Webhook.Builder();
+        for (int i = 0; i < 25; i++) {
+            int index = i;
+            builder.attachment((attachmentBuilder) -> attachmentBuilder
+                    .filename("file" + index + ".txt")
+                    .bytes(new byte[]{(byte) index}));
+        }
+        Webhook webhook = builder.build();
+
+        assertEquals("Webhook has more than 10 attachments", webhook.checkLimits());
+        assertEquals(10, webhook.truncate().getAttachments().size());
+        assertNull(webhook.truncate().checkLimits());
+
+        List<Webhook> messages = webhook.split();
+        assertEquals(3, messages.size());
+        assertEquals(Arrays.asList(10, 10, 5), messages.stream()
+                .map(message -> message.getAttachments().size())
+                .collect(Collectors.toList()));
+    }
+
+    @Test
+    public void dispatcher_limit_policy() {
+        RecordingTransport transport = new RecordingTransport();
+        Webhook webhook = new Webhook.Builder()
+                .content(repeat('c', 2500))
+                .build();
+
+        try (WebhookDispatcher dispatcher = new WebhookDispatcher.Builder()
+                .transport(transport)
+                .limitPolicy(LimitPolicy.FAIL)
+                .build()) {
+            CompletionException exception = assertThrows(CompletionException.class,
+                    () -> webhook.executeAsync(dispatcher, "https://discord.com/api/webhooks/0/test").join());
+            assertInstanceOf(IllegalStateException.class, exception.getCause());
+        }
+        assertEquals(0, transport.getRequestCount());
+
+        try (WebhookDispatcher dispatcher = new WebhookDispatcher.Builder()
+                .transport(transport)
+                .limitPolicy(LimitPolicy.TRUNCATE)
+                .build()) {
+            webhook.executeAsync(dispatcher, "https://discord.com/api/webhooks/0/test").join();
+        }
+        assertEquals(1, transport.getRequestCount());
+        assertTrue(transport.getBodies().get(0).length() < 2100);
+    }
+}
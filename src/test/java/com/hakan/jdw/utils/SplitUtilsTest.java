@@ -0,0 +1,102 @@
+package com.hakan.jdw.utils;
+
+import com.hakan.jdw.Webhook;
+import com.hakan.jdw.WebhookEmbed;
+import com.hakan.jdw.WebhookField;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SplitUtilsTest {
+
+    @Test
+    public void split_valid() {
+        Webhook webhook = new Webhook.Builder()
+                .content("Hello World!")
+                .embed((builder) -> builder.title("Hello"))
+                .build();
+
+        List<Webhook> messages = webhook.split();
+        assertEquals(1, messages.size());
+        assertSame(webhook, messages.get(0));
+    }
+
+    @Test
+    public void split_content() {
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < 300; i++)
+            lines.add("line " + i + " of the report");
+
+        Webhook webhook = new Webhook.Builder()
+                .username("Hakan")
+                .content(lines)
+                .build();
+
+        List<Webhook> messages = webhook.split();
+        assertEquals(4, messages.size());
+
+        List<String> joined = new ArrayList<>();
+        for (Webhook message : messages) {
+            assertTrue(message.getContent().length() <= LimitUtils.MAX_CONTENT);
+            assertEquals("Hakan", message.getUsername());
+            Collections.addAll(joined, message.getContent().split("\n"));
+        }
+        assertEquals(lines, joined);
+    }
+
+    @Test
+    public void split_embeds() {
+        Webhook.Builder builder = new Webhook.Builder()
+                .content("Report")
+                .avatarUrl("https://avatars.githubusercontent.com/u/42969966?v=4");
+        for (int i = 0; i < 12; i++) {
+            List<WebhookField> fields = new ArrayList<>();
+            for (int j = 0; j < 30; j++)
+                fields.add(new WebhookField("field " + j, repeat('x', 100), true));
+
+            int index = i;
+            builder.embed((embedBuilder) -> embedBuilder
+                    .title("Embed " + index)
+                    .fields(fields));
+        }
+
+        List<Webhook> messages = builder.build().split();
+
+        int fields = 0;
+        for (Webhook message : messages) {
+            List<WebhookEmbed> embeds = message.getEmbeds();
+            assertTrue(embeds.size() <= LimitUtils.MAX_EMBEDS);
+            assertTrue(LimitUtils.embedsLength(embeds) <= LimitUtils.MAX_EMBED_TOTAL);
+            assertEquals("https://avatars.githubusercontent.com/u/42969966?v=4", message.getAvatarUrl());
+
+            for (WebhookEmbed embed : embeds) {
+                assertTrue(embed.getFields().size() <= LimitUtils.MAX_FIELDS);
+                fields += embed.getFields().size();
+            }
+        }
+        assertEquals("Report", messages.get(0).getContent());
+        assertEquals(12 * 30, fields);
+    }
+
+    @Test
+    public void split_text() {
+        String text = repeat('a', 10) + " " + repeat('b', 25);
+
+        assertEquals(Collections.singletonList(text), SplitUtils.splitText(text, 40));
+        assertEquals(4, SplitUtils.splitText(text, 12).size());
+        assertEquals(repeat('a', 10), SplitUtils.splitText(text, 12).get(0));
+    }
+
+    private static String repeat(char c, int count) {
+        char[] chars = new char[count];
+        Arrays.fill(chars, c);
+        return new String(chars);
+    }
+}